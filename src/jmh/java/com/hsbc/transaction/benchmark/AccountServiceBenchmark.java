@@ -0,0 +1,76 @@
+package com.hsbc.transaction.benchmark;
+
+import com.hsbc.transaction.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code AccountService} postings through raw and proxied {@link Services}: random accounts from one thread, and
+ * one hot account credited from four.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountServiceBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("1.25");
+    private static final String HOT_ACCOUNT = "HOT";
+
+    @Param({"raw", "proxied"})
+    public String wiring;
+
+    @Param({"10000"})
+    public int accounts;
+
+    private Services services;
+    private AccountService accountService;
+    private String[] accountNos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        services = Services.create(wiring);
+        accountService = services.accountService;
+        accountNos = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            accountNos[i] = "ACC" + i;
+            accountService.createAccount(accountNos[i], new BigDecimal("1000000.00"));
+        }
+        accountService.createAccount(HOT_ACCOUNT, new BigDecimal("1000000.00"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        services.close();
+    }
+
+    @Benchmark
+    public void creditThenDebit() {
+        String accountNo = accountNos[ThreadLocalRandom.current().nextInt(accountNos.length)];
+        accountService.credit(accountNo, AMOUNT);
+        accountService.debit(accountNo, AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void creditHotAccount() {
+        accountService.credit(HOT_ACCOUNT, AMOUNT);
+    }
+}
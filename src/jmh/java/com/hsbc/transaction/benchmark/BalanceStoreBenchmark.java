@@ -0,0 +1,88 @@
+package com.hsbc.transaction.benchmark;
+
+import com.hsbc.transaction.store.BalanceStore;
+import com.hsbc.transaction.store.DecimalBalanceStore;
+import com.hsbc.transaction.store.FixedPointBalanceStore;
+import com.hsbc.transaction.store.StripedBalanceStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the default {@link DecimalBalanceStore} with the {@link FixedPointBalanceStore} on the posting path.
+ * The {@code striped} variant puts the fixed-point store behind {@link StripedBalanceStore} with the hot account
+ * striped, which mainly changes {@link #creditHotAccount()}.
+ * Run with {@code -prof gc} to see the per-posting allocation difference.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BalanceStoreBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("1.25");
+    private static final String HOT_ACCOUNT = "HOT";
+
+    @Param({"decimal", "fixed-point", "striped"})
+    public String store;
+
+    @Param({"10000"})
+    public int accounts;
+
+    private BalanceStore balanceStore;
+    private String[] accountNos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        balanceStore = switch (store) {
+            case "fixed-point" -> new FixedPointBalanceStore(2);
+            case "striped" -> new StripedBalanceStore(new FixedPointBalanceStore(2), List.of(HOT_ACCOUNT),
+                    Runtime.getRuntime().availableProcessors(), 2);
+            default -> new DecimalBalanceStore();
+        };
+        accountNos = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            accountNos[i] = "ACC" + i;
+            balanceStore.create(accountNos[i], new BigDecimal("1000000.00"));
+        }
+        balanceStore.create(HOT_ACCOUNT, new BigDecimal("1000000.00"));
+    }
+
+    private String randomAccount() {
+        return accountNos[ThreadLocalRandom.current().nextInt(accountNos.length)];
+    }
+
+    @Benchmark
+    public void creditThenDebit() {
+        String accountNo = randomAccount();
+        balanceStore.credit(accountNo, AMOUNT);
+        balanceStore.debit(accountNo, AMOUNT);
+    }
+
+    @Benchmark
+    public BigDecimal getBalance() {
+        return balanceStore.getBalance(randomAccount());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void creditHotAccount() {
+        balanceStore.credit(HOT_ACCOUNT, AMOUNT);
+    }
+}
@@ -0,0 +1,81 @@
+package com.hsbc.transaction.benchmark;
+
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code BusinessService.combine} through raw and proxied {@link Services}, for batches of {@code legs} legs made of
+ * transfers between random accounts. Scores are batches per millisecond. Every leg stores a transaction, so each
+ * iteration starts from fresh services.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BusinessServiceBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("1.25");
+
+    @Param({"raw", "proxied"})
+    public String wiring;
+
+    @Param({"2", "10", "100"})
+    public int legs;
+
+    @Param({"10000"})
+    public int accounts;
+
+    private Services services;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        services = Services.create(wiring);
+        for (int i = 0; i < accounts; i++) {
+            services.accountService.createAccount("ACC" + i, new BigDecimal("1000000000.00"));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        services.close();
+    }
+
+    @Benchmark
+    public void combine() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Transaction> batch = new ArrayList<>(legs);
+        for (int i = 0; i < legs; i += 2) {
+            batch.add(Transaction.builder()
+                    .accountNo("ACC" + random.nextInt(accounts))
+                    .amount(AMOUNT)
+                    .direction(TransactionDirection.DEBIT)
+                    .build());
+            batch.add(Transaction.builder()
+                    .accountNo("ACC" + random.nextInt(accounts))
+                    .amount(AMOUNT)
+                    .direction(TransactionDirection.CREDIT)
+                    .build());
+        }
+        services.businessService.combine(batch);
+    }
+}
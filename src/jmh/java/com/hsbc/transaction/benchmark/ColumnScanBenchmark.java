@@ -0,0 +1,96 @@
+package com.hsbc.transaction.benchmark;
+
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionFilter;
+import com.hsbc.transaction.model.TransactionStatus;
+import com.hsbc.transaction.store.QueryPlan;
+import com.hsbc.transaction.store.TransactionStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full sweeps over sealed history that no index narrows: counting every match of {@code filter} over {@code rows}
+ * sealed transactions, the walk an offset query does to find its total. {@code amount} is a 1% amount range,
+ * {@code amount-wide} a 40% one, {@code status} failed credits, and {@code time-amount} an amount range within a
+ * 30 day window. Rows are loaded a million at a time and sealed as they go, so the heap never holds them all.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-XX:MaxDirectMemorySize=2g"})
+@State(Scope.Benchmark)
+public class ColumnScanBenchmark {
+    private static final int ACCOUNTS = 1000;
+    private static final int LOAD_BATCH = 1_000_000;
+
+    @Param({"10000000"})
+    public int rows;
+
+    @Param({"amount", "amount-wide", "status", "time-amount"})
+    public String filter;
+
+    private TransactionStore store;
+    private TransactionFilter transactionFilter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new TransactionStore();
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        TransactionStatus[] settled = {TransactionStatus.FAILED, TransactionStatus.SUCCESS, TransactionStatus.REFUNDED};
+        LocalDateTime timestamp = start;
+        for (int i = 0; i < rows; i++) {
+            timestamp = start.plusSeconds(i);
+            store.insert(Transaction.builder()
+                    .transactionId("TX" + i)
+                    .accountNo("ACC" + random.nextInt(ACCOUNTS))
+                    .amount(BigDecimal.valueOf(random.nextInt(1, 100_000), 2))
+                    .description("Card payment")
+                    .direction(random.nextBoolean() ? TransactionDirection.DEBIT : TransactionDirection.CREDIT)
+                    .status(settled[random.nextInt(settled.length)])
+                    .timestamp(timestamp)
+                    .build());
+            if ((i + 1) % LOAD_BATCH == 0) {
+                store.sealBefore(timestamp);
+            }
+        }
+        store.sealBefore(timestamp.plusDays(2));
+        transactionFilter = switch (filter) {
+            case "amount" -> TransactionFilter.builder().minAmount(new BigDecimal("100.00"))
+                    .maxAmount(new BigDecimal("110.00")).build();
+            case "amount-wide" -> TransactionFilter.builder().maxAmount(new BigDecimal("400.00")).build();
+            case "status" -> TransactionFilter.builder().status(TransactionStatus.FAILED)
+                    .direction(TransactionDirection.CREDIT).build();
+            case "time-amount" -> TransactionFilter.builder().fromDate(start.plusDays(30)).toDate(start.plusDays(60))
+                    .minAmount(new BigDecimal("100.00")).maxAmount(new BigDecimal("110.00")).build();
+            default -> throw new IllegalArgumentException("Unknown filter " + filter);
+        };
+    }
+
+    @Benchmark
+    public long count() {
+        QueryPlan.Cursor cursor = store.plan(transactionFilter).cursor();
+        long matched = 0;
+        while (cursor.advance()) {
+            matched++;
+        }
+        return matched;
+    }
+}
@@ -0,0 +1,147 @@
+package com.hsbc.transaction.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The posting path with its audit and application logging written to a file directly on the calling thread
+ * ({@code sync}, as before {@code logback-spring.xml}) or handed to an {@link AsyncAppender} ({@code async}, as
+ * now). The async appender is set never to drop or skip an event, so both variants write every line and the
+ * difference is only where the writing happens. {@code off} disables logging altogether, for the cost of the
+ * posting alone. Raw services, so the score is the posting plus its logging. The async writer needs a core of its
+ * own to take the writing off the posting path; on a single core it only reorders the work.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("1.25");
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n";
+
+    @Param({"off", "sync", "async"})
+    public String appender;
+
+    @Param({"10000"})
+    public int accounts;
+
+    private Services services;
+    private String[] accountNos;
+    private Path directory;
+    private LoggerContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        services = Services.create("raw");
+        accountNos = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            accountNos[i] = "ACC" + i;
+            services.accountService.createAccount(accountNos[i], new BigDecimal("1000000000.00"));
+        }
+
+        directory = Files.createTempDirectory("logging-benchmark");
+        context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        if (appender.equals("off")) {
+            root.setLevel(ch.qos.logback.classic.Level.OFF);
+            return;
+        }
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(appender("application", directory.resolve("application.log")));
+        Logger audit = context.getLogger("audit");
+        audit.setAdditive(false);
+        audit.addAppender(appender("audit", directory.resolve("audit.log")));
+    }
+
+    private Appender<ILoggingEvent> appender(String name, Path file) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setName(name);
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+        if (appender.equals("sync")) {
+            return fileAppender;
+        }
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setName("async-" + name);
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(0);
+        async.addAppender(fileAppender);
+        async.start();
+        return async;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.stop();
+        services.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public void postCredit() {
+        services.accountService.updateAccountBalance(posting(TransactionDirection.CREDIT));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void postCreditContended() {
+        services.accountService.updateAccountBalance(posting(TransactionDirection.CREDIT));
+    }
+
+    @Benchmark
+    public Transaction createTransaction() {
+        return services.transactionService.createTransaction(posting(TransactionDirection.DEBIT));
+    }
+
+    private Transaction posting(TransactionDirection direction) {
+        return Transaction.builder()
+                .accountNo(accountNos[ThreadLocalRandom.current().nextInt(accountNos.length)])
+                .amount(AMOUNT)
+                .direction(direction)
+                .build();
+    }
+}
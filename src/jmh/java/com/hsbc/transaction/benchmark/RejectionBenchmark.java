@@ -0,0 +1,114 @@
+package com.hsbc.transaction.benchmark;
+
+import com.hsbc.transaction.exception.GlobalExceptionHandler;
+import com.hsbc.transaction.exception.InsufficientBalanceException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.ErrorResponseException;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Declined debits, the most frequent business rejection. {@code decline} refuses a debit inside a
+ * {@code ConcurrentHashMap.compute} the way the balance store does and maps it to a response, either as before
+ * ({@code rejection=stackTrace}: an exception capturing its stack, wrapped in an {@link ErrorResponseException}
+ * capturing another) or as now ({@code stackless}: {@link InsufficientBalanceException} through
+ * {@link GlobalExceptionHandler}). {@code declinedDebit} is the same refusal through the raw {@code AccountService}
+ * and the handler. The stack here is a few frames deep; under a servlet request it is well over a hundred, so the
+ * saving in service is larger than measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RejectionBenchmark {
+    private static final BigDecimal BALANCE = new BigDecimal("1.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.25");
+    private static final int ACCOUNTS = 10_000;
+
+    /**
+     * A rejection as all of them were before: a plain runtime exception, stack trace included.
+     */
+    private static final class TracedRejection extends RuntimeException {
+        private TracedRejection(String message) {
+            super(message);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Rejection {
+        @Param({"stackTrace", "stackless"})
+        public String rejection;
+    }
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final ConcurrentHashMap<String, BigDecimal> balances = new ConcurrentHashMap<>();
+    private Services services;
+    private String[] accountNos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        services = Services.create("raw");
+        accountNos = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountNos[i] = "ACC" + i;
+            balances.put(accountNos[i], BALANCE);
+            services.accountService.createAccount(accountNos[i], BALANCE);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        services.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> decline(Rejection state) {
+        String accountNo = accountNos[ThreadLocalRandom.current().nextInt(accountNos.length)];
+        boolean traced = state.rejection.equals("stackTrace");
+        try {
+            balances.compute(accountNo, (key, balance) -> {
+                if (balance.compareTo(AMOUNT) < 0) {
+                    String message = "Insufficient balance in account " + accountNo
+                            + ". Required: " + AMOUNT + ", Available: " + balance;
+                    throw traced ? new TracedRejection(message) : new InsufficientBalanceException(message);
+                }
+                return balance.subtract(AMOUNT);
+            });
+            return ResponseEntity.ok().build();
+        } catch (TracedRejection e) {
+            return ResponseEntity.badRequest().body(new ErrorResponseException(HttpStatus.BAD_REQUEST, e));
+        } catch (InsufficientBalanceException e) {
+            return handler.handleInsufficientBalance(e);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<?> declinedDebit() {
+        String accountNo = accountNos[ThreadLocalRandom.current().nextInt(accountNos.length)];
+        try {
+            services.accountService.debit(accountNo, AMOUNT);
+            return ResponseEntity.ok().build();
+        } catch (InsufficientBalanceException e) {
+            return handler.handleInsufficientBalance(e);
+        }
+    }
+}
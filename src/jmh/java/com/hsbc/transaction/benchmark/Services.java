@@ -0,0 +1,94 @@
+package com.hsbc.transaction.benchmark;
+
+import com.hsbc.transaction.TransactionApplication;
+import com.hsbc.transaction.journal.Journal;
+import com.hsbc.transaction.service.AccountService;
+import com.hsbc.transaction.service.BusinessService;
+import com.hsbc.transaction.service.TransactionService;
+import com.hsbc.transaction.service.impl.AccountServiceImpl;
+import com.hsbc.transaction.service.impl.BusinessServiceImpl;
+import com.hsbc.transaction.service.impl.TransactionServiceImpl;
+import com.hsbc.transaction.store.AccountLocks;
+import com.hsbc.transaction.store.DecimalBalanceStore;
+import com.hsbc.transaction.store.IdempotencyStore;
+import com.hsbc.transaction.store.ParallelQueryExecutor;
+import com.hsbc.transaction.store.TransactionStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * The services wired one of three ways for the service benchmarks: {@code raw} constructs them directly with
+ * nothing in between, {@code proxied} takes the beans from an application context, behind their transaction and
+ * cache proxies. The journal is off in both, so the difference between the two is what the proxies cost.
+ * {@code parallel} is {@code raw} with large offset queries counted on a {@link ParallelQueryExecutor} of one
+ * thread per processor.
+ */
+final class Services implements AutoCloseable {
+    final AccountService accountService;
+    final TransactionService transactionService;
+    final BusinessService businessService;
+    final TransactionStore transactionStore;
+    private final ConfigurableApplicationContext context;
+    private final ParallelQueryExecutor queryExecutor;
+
+    private Services(AccountService accountService, TransactionService transactionService,
+                     BusinessService businessService, TransactionStore transactionStore,
+                     ConfigurableApplicationContext context, ParallelQueryExecutor queryExecutor) {
+        this.accountService = accountService;
+        this.transactionService = transactionService;
+        this.businessService = businessService;
+        this.transactionStore = transactionStore;
+        this.context = context;
+        this.queryExecutor = queryExecutor;
+    }
+
+    static Services create(String wiring) {
+        return switch (wiring) {
+            case "raw" -> raw(new ParallelQueryExecutor());
+            case "parallel" -> raw(new ParallelQueryExecutor(Runtime.getRuntime().availableProcessors(),
+                    ParallelQueryExecutor.DEFAULT_THRESHOLD));
+            case "proxied" -> proxied();
+            default -> throw new IllegalArgumentException("Unknown wiring " + wiring);
+        };
+    }
+
+    private static Services raw(ParallelQueryExecutor queryExecutor) {
+        // the services log every posting at INFO; without a context nothing else would turn that down
+        LoggingSystem.get(Services.class.getClassLoader()).setLogLevel(LoggingSystem.ROOT_LOGGER_NAME, LogLevel.WARN);
+        TransactionStore transactionStore = new TransactionStore();
+        AccountService accountService = new AccountServiceImpl(new DecimalBalanceStore(), Journal.DISABLED);
+        TransactionService transactionService = new TransactionServiceImpl(transactionStore, Journal.DISABLED,
+                new SimpleMeterRegistry(), new IdempotencyStore(), queryExecutor);
+        BusinessServiceImpl businessService = new BusinessServiceImpl();
+        ReflectionTestUtils.setField(businessService, "accountService", accountService);
+        ReflectionTestUtils.setField(businessService, "transactionService", transactionService);
+        ReflectionTestUtils.setField(businessService, "accountLocks", new AccountLocks(1024));
+        return new Services(accountService, transactionService, businessService, transactionStore, null,
+                queryExecutor);
+    }
+
+    private static Services proxied() {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TransactionApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.main.banner-mode=off", "logging.level.root=WARN", "logging.level.com.hsbc=WARN",
+                        "journal.enabled=false")
+                .run();
+        return new Services(context.getBean(AccountService.class), context.getBean(TransactionService.class),
+                context.getBean(BusinessService.class), context.getBean(TransactionStore.class), context, null);
+    }
+
+    @Override
+    public void close() {
+        if (context != null) {
+            context.close();
+        }
+        if (queryExecutor != null) {
+            queryExecutor.close();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.hsbc.transaction.benchmark;
+
+import com.hsbc.transaction.id.SnowflakeTransactionIdGenerator;
+import com.hsbc.transaction.id.TransactionIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one transaction ID from {@code UUID.randomUUID()}, which draws from the shared {@code SecureRandom}, and
+ * from the snowflake generator, alone and with four threads sharing one generator. Run with {@code -prof gc} for
+ * the allocation per ID.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionIdBenchmark {
+
+    @Param({"uuid", "snowflake"})
+    public String generator;
+
+    private TransactionIdGenerator ids;
+
+    @Setup
+    public void setUp() {
+        ids = "uuid".equals(generator) ? TransactionIdGenerator.UUID : new SnowflakeTransactionIdGenerator(1);
+    }
+
+    @Benchmark
+    public String nextId() {
+        return ids.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String nextIdContended() {
+        return ids.nextId();
+    }
+}
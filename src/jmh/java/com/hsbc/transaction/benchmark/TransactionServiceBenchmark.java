@@ -0,0 +1,136 @@
+package com.hsbc.transaction.benchmark;
+
+import com.hsbc.transaction.model.PageResponse;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionFilter;
+import com.hsbc.transaction.model.TransactionStatus;
+import com.hsbc.transaction.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TransactionService} through raw and proxied {@link Services}.
+ * <p>
+ * {@link #queryTransactions} runs against {@code rows} stored transactions spread over 1000 accounts, loaded straight
+ * into the store. The {@code filter} picks the access path: none walks the timestamp index, {@code account} and
+ * {@code account-status} are covered by an index, {@code amount} must check every row. Queries ask for a random
+ * one of the first 100 pages, so the proxied variant measures the query cache after its first pass over them.
+ * With {@code storage=sealed} every settled row is sealed into the off-heap columns before measuring. The
+ * {@code parallel} wiring counts the {@code amount} filter's matches segment by segment on its own pool.
+ * The largest sizes need a bigger heap, e.g. {@code -p rows=10000000 -jvmArgsAppend -Xmx8g}.
+ * <p>
+ * {@link #createTransaction} keeps adding to the store, so each iteration starts from fresh services.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TransactionServiceBenchmark {
+    private static final int ACCOUNTS = 1000;
+    private static final int PAGES = 100;
+
+    @State(Scope.Benchmark)
+    public static class Query {
+        @Param({"raw", "proxied", "parallel"})
+        public String wiring;
+
+        @Param({"10000", "100000", "1000000"})
+        public int rows;
+
+        @Param({"none", "account", "account-status", "amount"})
+        public String filter;
+
+        @Param({"live", "sealed"})
+        public String storage;
+
+        private Services services;
+        private TransactionFilter transactionFilter;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            services = Services.create(wiring);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            LocalDateTime start = LocalDateTime.now().minusDays(365);
+            for (int i = 0; i < rows; i++) {
+                services.transactionStore.insert(Transaction.builder()
+                        .transactionId(UUID.randomUUID().toString())
+                        .accountNo("ACC" + random.nextInt(ACCOUNTS))
+                        .amount(BigDecimal.valueOf(random.nextInt(1, 100_000), 2))
+                        .direction(random.nextBoolean() ? TransactionDirection.DEBIT : TransactionDirection.CREDIT)
+                        .status(TransactionStatus.values()[random.nextInt(TransactionStatus.values().length)])
+                        .timestamp(start.plusSeconds(i))
+                        .build());
+            }
+            if (storage.equals("sealed")) {
+                services.transactionStore.sealBefore(LocalDateTime.now());
+            }
+            transactionFilter = switch (filter) {
+                case "none" -> null;
+                case "account" -> TransactionFilter.builder().accountNo("ACC7").build();
+                case "account-status" -> TransactionFilter.builder().accountNo("ACC7")
+                        .status(TransactionStatus.SUCCESS).build();
+                case "amount" -> TransactionFilter.builder().minAmount(new BigDecimal("100.00"))
+                        .maxAmount(new BigDecimal("110.00")).build();
+                default -> throw new IllegalArgumentException("Unknown filter " + filter);
+            };
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            services.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Create {
+        @Param({"raw", "proxied"})
+        public String wiring;
+
+        private Services services;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            services = Services.create(wiring);
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            services.close();
+        }
+    }
+
+    @Benchmark
+    public PageResponse<Transaction> queryTransactions(Query query) {
+        return query.services.transactionService.queryTransactions(query.transactionFilter,
+                ThreadLocalRandom.current().nextInt(PAGES), 10);
+    }
+
+    @Benchmark
+    public Transaction createTransaction(Create create) {
+        TransactionService transactionService = create.services.transactionService;
+        return transactionService.createTransaction(Transaction.builder()
+                .accountNo("ACC" + ThreadLocalRandom.current().nextInt(ACCOUNTS))
+                .amount(new BigDecimal("10.00"))
+                .direction(TransactionDirection.CREDIT)
+                .build());
+    }
+}
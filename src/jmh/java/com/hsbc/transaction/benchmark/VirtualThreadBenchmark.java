@@ -0,0 +1,96 @@
+package com.hsbc.transaction.benchmark;
+
+import com.hsbc.transaction.TransactionApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code POST /api/transactions} from 256 concurrent clients against the application served by Tomcat's platform
+ * thread pool ({@code threads=platform}, 200 threads by default) or on a virtual thread per request
+ * ({@code threads=virtual}, the {@code virtual} profile). The journal is on and every request waits for its fsync,
+ * which is where a request thread blocks. Throughput gives the request rate, sample time the latency percentiles.
+ * The clients share the JVM with the server, so on a machine with few cores they compete with it for CPU.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(256)
+@State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"1000"})
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private Path directory;
+    private HttpClient client;
+    private URI uri;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("virtual-thread-benchmark");
+        context = new SpringApplicationBuilder(TransactionApplication.class)
+                .properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=WARN",
+                        "logging.level.com.hsbc=WARN",
+                        "spring.threads.virtual.enabled=" + threads.equals("virtual"),
+                        "journal.enabled=true", "journal.directory=" + directory.resolve("journal"),
+                        "journal.snapshot.interval=0s", "audit.file=" + directory.resolve("audit.log"))
+                .run();
+        uri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + "/api/transactions");
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public int createTransaction() throws IOException, InterruptedException {
+        String body = "{\"accountNo\":\"ACC" + ThreadLocalRandom.current().nextInt(accounts)
+                + "\",\"amount\":1.25,\"direction\":\"CREDIT\"}";
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("POST returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
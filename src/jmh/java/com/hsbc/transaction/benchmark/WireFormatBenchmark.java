@@ -0,0 +1,97 @@
+package com.hsbc.transaction.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.transaction.model.PageResponse;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.wire.WireInput;
+import com.hsbc.transaction.wire.WireOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes a page of {@code size} transactions as JSON, with an object mapper configured as Spring
+ * Boot's, and in the binary wire format. {@code write} returns the encoded size, so the two formats' payloads can
+ * be compared from the setup log as well as their cost. Run with {@code -prof gc} for the allocation per page.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    @Param({"json", "binary"})
+    public String format;
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private PageResponse<Transaction> page;
+    private ByteArrayOutputStream out;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        List<Transaction> content = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            content.add(Transaction.createInitialTransaction("ACC" + i, new BigDecimal("1234.56"), "Payment " + i,
+                    TransactionDirection.DEBIT));
+        }
+        page = PageResponse.<Transaction>builder()
+                .content(content)
+                .pageSize(size)
+                .totalElements(size)
+                .totalPages(1)
+                .first(true)
+                .last(true)
+                .build();
+        out = new ByteArrayOutputStream(size * 256);
+        write();
+        encoded = out.toByteArray();
+        System.out.println(format + " page of " + size + ": " + encoded.length + " bytes");
+    }
+
+    @Benchmark
+    public int write() throws IOException {
+        out.reset();
+        if (format.equals("json")) {
+            objectMapper.writeValue(out, page);
+        } else {
+            WireOutput output = new WireOutput(out);
+            output.writePage(page);
+            output.flush();
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public PageResponse<Transaction> read() throws IOException {
+        if (format.equals("json")) {
+            return objectMapper.readValue(encoded, objectMapper.getTypeFactory()
+                    .constructParametricType(PageResponse.class, Transaction.class));
+        }
+        return new WireInput(ByteBuffer.wrap(encoded)).readPage();
+    }
+}
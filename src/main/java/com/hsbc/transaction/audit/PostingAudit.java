@@ -0,0 +1,68 @@
+package com.hsbc.transaction.audit;
+
+import com.hsbc.transaction.journal.UndoLog;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+
+/**
+ * The audit trail of postings, written to the {@code audit.postings} logger as one {@code key=value} line per event.
+ * Every line starts with the ID of the service transaction it belongs to ({@code tx=0} outside one), so a
+ * {@code rollback} line identifies the postings it undid.
+ * <p>
+ * {@code logback-spring.xml} sends the channel through its own queue to its own file, so the file is written on a
+ * background thread, and it never drops an event; a full queue makes the posting wait. Messages are parameterised
+ * and only built when the channel is enabled.
+ */
+public final class PostingAudit {
+    private static final Logger audit = LoggerFactory.getLogger("audit.postings");
+
+    private PostingAudit() {
+    }
+
+    private static long transactionId() {
+        UndoLog undoLog = UndoLog.current();
+        return undoLog == null ? 0 : undoLog.getId();
+    }
+
+    public static void credited(String accountNo, BigDecimal amount) {
+        if (audit.isInfoEnabled()) {
+            audit.info("tx={} event=credit account={} amount={}", transactionId(), accountNo, amount);
+        }
+    }
+
+    public static void debited(String accountNo, BigDecimal amount) {
+        if (audit.isInfoEnabled()) {
+            audit.info("tx={} event=debit account={} amount={}", transactionId(), accountNo, amount);
+        }
+    }
+
+    public static void debitRejected(String accountNo, BigDecimal amount) {
+        if (audit.isInfoEnabled()) {
+            audit.info("tx={} event=debit-rejected account={} amount={}", transactionId(), accountNo, amount);
+        }
+    }
+
+    public static void transactionCreated(Transaction transaction) {
+        if (audit.isInfoEnabled()) {
+            audit.info("tx={} event=transaction-created id={} account={} direction={} amount={}", transactionId(),
+                    transaction.getTransactionId(), transaction.getAccountNo(), transaction.getDirection(),
+                    transaction.getAmount());
+        }
+    }
+
+    public static void statusChanged(String transactionId, TransactionStatus from, TransactionStatus to) {
+        if (audit.isInfoEnabled()) {
+            audit.info("tx={} event=status-changed id={} from={} to={}", transactionId(), transactionId, from, to);
+        }
+    }
+
+    public static void rolledBack(long transactionId, int undone) {
+        if (audit.isInfoEnabled()) {
+            audit.info("tx={} event=rollback undone={}", transactionId, undone);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.hsbc.transaction.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Account balance storage settings, bound from the {@code account.*} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "account")
+public class AccountProperties {
+    /**
+     * Which balance store backs the account service.
+     */
+    private BalanceStoreType balanceStore = BalanceStoreType.DECIMAL;
+
+    /**
+     * Number of decimal places of the currency minor unit, used by the fixed-point store.
+     */
+    private int currencyScale = 2;
+
+    /**
+     * Accounts whose credits are striped across per-core cells instead of updating one balance slot.
+     */
+    private List<String> hotAccounts = new ArrayList<>();
+
+    /**
+     * Number of cells per hot account, rounded up to a power of two; 0 means one per available processor.
+     */
+    private int hotAccountStripes = 0;
+
+    /**
+     * Number of locks account numbers are hashed onto when a batch holds several accounts at once, rounded up to a
+     * power of two.
+     */
+    private int lockStripes = 1024;
+
+    public enum BalanceStoreType {
+        /**
+         * One {@code BigDecimal} per account, any scale.
+         */
+        DECIMAL,
+        /**
+         * Primitive {@code long} minor units at {@code currency-scale}, updated with CAS.
+         */
+        FIXED_POINT
+    }
+}
@@ -1,50 +1,43 @@
 package com.hsbc.transaction.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
-import org.springframework.transaction.PlatformTransactionManager;
-import org.springframework.transaction.TransactionDefinition;
-import org.springframework.transaction.TransactionException;
-import org.springframework.transaction.support.AbstractPlatformTransactionManager;
-import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.time.Duration;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CachePolicyProperties.class)
 @Profile("!test")
 public class CacheConfig {
 
+    /**
+     * Caffeine-backed caches bounded by the {@code cache.transaction.*} and {@code cache.account.*} limits.
+     * Statistics are recorded so the actuator binds them as {@code cache.gets}, {@code cache.puts},
+     * {@code cache.evictions} and {@code cache.size} metrics per cache. Puts and evictions made inside a
+     * transaction are deferred until it commits, so a rolled-back change never reaches the cache.
+     */
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("transactions", "accounts");
+    public CacheManager cacheManager(CachePolicyProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache("transactions", boundedCache(properties.getTransaction()));
+        cacheManager.registerCustomCache("accounts", boundedCache(properties.getAccount()));
+        return new TransactionAwareCacheManagerProxy(cacheManager);
     }
 
-
-    @Bean
-    public PlatformTransactionManager transactionManager() {
-        return new AbstractPlatformTransactionManager() {
-            @Override
-            protected Object doGetTransaction() throws TransactionException {
-                return new Object();
-            }
-
-            @Override
-            protected void doBegin(Object transaction, TransactionDefinition definition) throws TransactionException {
-                // No-op for in-memory operations
-            }
-
-            @Override
-            protected void doCommit(DefaultTransactionStatus status) throws TransactionException {
-                // No-op for in-memory operations
-            }
-
-            @Override
-            protected void doRollback(DefaultTransactionStatus status) throws TransactionException {
-                // No-op for in-memory operations
-            }
-        };
+    private static Cache<Object, Object> boundedCache(CachePolicyProperties.Policy policy) {
+        return Caffeine.newBuilder()
+                .maximumSize(policy.getMaximumSize())
+                .expireAfterWrite(Duration.ofSeconds(policy.getTimeToLive()))
+                .recordStats()
+                .build();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.hsbc.transaction.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Size and time-to-live limits for the application caches, bound from the {@code cache.*} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "cache")
+public class CachePolicyProperties {
+    private Policy transaction = new Policy();
+    private Policy account = new Policy();
+
+    @Data
+    public static class Policy {
+        /**
+         * Seconds an entry stays cached after it was written.
+         */
+        private long timeToLive = 3600;
+
+        /**
+         * Maximum number of entries before the least valuable ones are evicted.
+         */
+        private long maximumSize = 10000;
+    }
+}
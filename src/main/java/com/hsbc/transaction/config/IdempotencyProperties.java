@@ -0,0 +1,25 @@
+package com.hsbc.transaction.config;
+
+import com.hsbc.transaction.store.IdempotencyStore;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Limits of the idempotency key store, bound from the {@code idempotency.*} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "idempotency")
+public class IdempotencyProperties {
+    /**
+     * How long after its call completed a key still replays its result; retries later than this run again.
+     */
+    private Duration timeToLive = IdempotencyStore.DEFAULT_TIME_TO_LIVE;
+
+    /**
+     * Most completed keys remembered at once; beyond it the least used are forgotten first. Keys whose call is still
+     * running do not count and are never forgotten.
+     */
+    private long maximumKeys = IdempotencyStore.DEFAULT_MAXIMUM_KEYS;
+}
@@ -0,0 +1,104 @@
+package com.hsbc.transaction.config;
+
+import com.hsbc.transaction.journal.FileJournal;
+import com.hsbc.transaction.journal.Journal;
+import com.hsbc.transaction.journal.JournalReplayer;
+import com.hsbc.transaction.journal.JournalTransactionManager;
+import com.hsbc.transaction.journal.SnapshotFile;
+import com.hsbc.transaction.journal.Snapshotter;
+import com.hsbc.transaction.store.BalanceStore;
+import com.hsbc.transaction.store.TransactionStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(JournalProperties.class)
+public class JournalConfig {
+    private static final Logger logger = LoggerFactory.getLogger(JournalConfig.class);
+
+    /**
+     * The journal restores the stores while it is being created, from the newest snapshot and then the journal
+     * written since, then rolls back any transaction the journal leaves incomplete, so the services that depend on
+     * it only see fully recovered state. Each phase's duration is published as {@code journal.restore.time}.
+     */
+    @Bean
+    public Journal journal(JournalProperties properties, BalanceStore balanceStore,
+                           TransactionStore transactionStore, MeterRegistry meterRegistry) throws IOException {
+        if (!properties.isEnabled()) {
+            return Journal.DISABLED;
+        }
+        Path directory = Path.of(properties.getDirectory());
+
+        long started = System.nanoTime();
+        long snapshotSequence = 0;
+        JournalReplayer replayer = new JournalReplayer(balanceStore, transactionStore);
+        List<SnapshotFile.Entry> snapshots = SnapshotFile.list(directory);
+        if (!snapshots.isEmpty()) {
+            snapshotSequence = SnapshotFile.read(snapshots.get(snapshots.size() - 1).path(), balanceStore::create,
+                    transactionStore::restore, replayer::restoreOpen);
+        }
+        long snapshotLoaded = System.nanoTime();
+
+        FileJournal journal = FileJournal.open(directory, snapshotSequence, properties.getDurability(),
+                properties.getCommitDelay(), properties.getBufferSize(), properties.getSegmentSize(), replayer);
+        int rolledBack = replayer.rollBackIncomplete(journal);
+        journal.onFailure(JournalConfig::halt);
+        long replayed = System.nanoTime();
+
+        restoreTimer(meterRegistry, "snapshot").record(snapshotLoaded - started, TimeUnit.NANOSECONDS);
+        restoreTimer(meterRegistry, "journal").record(replayed - snapshotLoaded, TimeUnit.NANOSECONDS);
+        logger.info("Restored snapshot at sequence {} in {} ms, then replayed {} journal records in {} ms "
+                        + "and rolled back {} incomplete transactions",
+                snapshotSequence, (snapshotLoaded - started) / 1_000_000, replayer.getReplayed(),
+                (replayed - snapshotLoaded) / 1_000_000, rolledBack);
+        return journal;
+    }
+
+    /**
+     * The stores now hold changes that never reached disk and can no longer be undone there, and callers may have
+     * been told either way. Stop at once, so a restart serves exactly what the journal holds. Halting rather than
+     * exiting skips the shutdown hooks, which would close the journal and wait for this flusher thread.
+     */
+    private static void halt(IOException failure) {
+        logger.error("Journal failed, halting so that a restart recovers from the journal", failure);
+        Runtime.getRuntime().halt(1);
+    }
+
+    private static Timer restoreTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("journal.restore.time")
+                .description("Time taken to rebuild in-memory state at startup")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Backs {@code @Transactional}: a failed service call is undone in memory and in the journal instead of being
+     * compensated by hand.
+     */
+    @Bean
+    public PlatformTransactionManager transactionManager(Journal journal) {
+        return new JournalTransactionManager(journal);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "journal", name = "enabled", havingValue = "true")
+    public Snapshotter snapshotter(JournalProperties properties, Journal journal) {
+        Snapshotter snapshotter = new Snapshotter((FileJournal) journal, properties.getSnapshot().getRetain());
+        if (!properties.getSnapshot().getInterval().isZero()) {
+            snapshotter.start(properties.getSnapshot().getInterval());
+        }
+        return snapshotter;
+    }
+}
@@ -0,0 +1,60 @@
+package com.hsbc.transaction.config;
+
+import com.hsbc.transaction.journal.FileJournal;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Write-ahead journal settings, bound from the {@code journal.*} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "journal")
+public class JournalProperties {
+    /**
+     * Record every balance and transaction change and replay them on startup.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory holding the journal segments and snapshots; must be on a volume that outlives the process.
+     */
+    private String directory = "data/journal";
+
+    /**
+     * Whether a change waits for its fsync or returns once buffered.
+     */
+    private FileJournal.Durability durability = FileJournal.Durability.FSYNC;
+
+    /**
+     * Extra time each group commit waits for more records before its fsync; zero flushes as soon as the previous
+     * fsync completes.
+     */
+    private Duration commitDelay = Duration.ZERO;
+
+    /**
+     * Initial size of each of the two group-commit buffers; they grow if a batch needs more.
+     */
+    private int bufferSize = 1 << 20;
+
+    /**
+     * Size in bytes after which the journal moves on to a new segment file.
+     */
+    private long segmentSize = 64L << 20;
+
+    private Snapshot snapshot = new Snapshot();
+
+    @Data
+    public static class Snapshot {
+        /**
+         * Time between snapshots; zero disables periodic snapshots.
+         */
+        private Duration interval = Duration.ofMinutes(10);
+
+        /**
+         * Number of snapshots kept; the journal is kept back to the oldest of them.
+         */
+        private int retain = 2;
+    }
+}
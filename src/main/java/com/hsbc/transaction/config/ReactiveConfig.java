@@ -0,0 +1,40 @@
+package com.hsbc.transaction.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+@EnableConfigurationProperties(ReactiveProperties.class)
+public class ReactiveConfig {
+
+    /**
+     * The pool the reactive services run their calls on. A write does not wait for its journal fsync here (see
+     * {@link com.hsbc.transaction.journal.Journal#supplyDeferred}), but calls still block on account locks, on an
+     * idempotency key another call holds and on the journal's append lock, so the pool grows with the calls waiting
+     * rather than being held to a thread per core.
+     */
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Scheduler serviceScheduler(ReactiveProperties properties) {
+        int threads = properties.getServiceThreads() > 0
+                ? properties.getServiceThreads()
+                : Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE;
+        return Schedulers.newBoundedElastic(threads, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "service");
+    }
+
+    /**
+     * Under the {@code virtual} profile each call gets its own virtual thread, which unmounts while it waits.
+     */
+    @Bean(name = "serviceScheduler", destroyMethod = "dispose")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Scheduler virtualServiceScheduler() {
+        return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "service");
+    }
+}
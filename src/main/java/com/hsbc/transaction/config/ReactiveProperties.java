@@ -0,0 +1,17 @@
+package com.hsbc.transaction.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the reactive services, bound from the {@code reactive.*} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "reactive")
+public class ReactiveProperties {
+    /**
+     * Most threads the reactive services run their calls on; 0 means Reactor's bounded elastic default of ten per
+     * available processor. Ignored on virtual threads.
+     */
+    private int serviceThreads = 0;
+}
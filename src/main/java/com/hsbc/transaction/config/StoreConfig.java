@@ -0,0 +1,81 @@
+package com.hsbc.transaction.config;
+
+import com.hsbc.transaction.store.AccountLocks;
+import com.hsbc.transaction.store.BalanceStore;
+import com.hsbc.transaction.store.DecimalBalanceStore;
+import com.hsbc.transaction.store.FixedPointBalanceStore;
+import com.hsbc.transaction.store.IdempotencyStore;
+import com.hsbc.transaction.store.ParallelQueryExecutor;
+import com.hsbc.transaction.store.SegmentMaintenance;
+import com.hsbc.transaction.store.StripedBalanceStore;
+import com.hsbc.transaction.store.TransactionStore;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.LocalDateTime;
+
+@Configuration
+@EnableConfigurationProperties({AccountProperties.class, IdempotencyProperties.class,
+        TransactionStoreProperties.class})
+public class StoreConfig {
+
+    @Bean
+    public BalanceStore balanceStore(AccountProperties properties) {
+        BalanceStore store = properties.getBalanceStore() == AccountProperties.BalanceStoreType.FIXED_POINT
+                ? new FixedPointBalanceStore(properties.getCurrencyScale())
+                : new DecimalBalanceStore();
+        if (properties.getHotAccounts().isEmpty()) {
+            return store;
+        }
+        int stripes = properties.getHotAccountStripes() > 0
+                ? properties.getHotAccountStripes()
+                : Runtime.getRuntime().availableProcessors();
+        return new StripedBalanceStore(store, properties.getHotAccounts(), stripes, properties.getCurrencyScale());
+    }
+
+    @Bean
+    public AccountLocks accountLocks(AccountProperties properties) {
+        return new AccountLocks(properties.getLockStripes());
+    }
+
+    /**
+     * The retention horizon is applied before the journal restores the store, so a restart does not bring back
+     * transactions that retention has already discarded from the snapshot and journal that still hold them.
+     */
+    @Bean
+    public TransactionStore transactionStore(TransactionStoreProperties properties) {
+        TransactionStore store = new TransactionStore(properties.getSegmentDuration());
+        if (!properties.getRetention().isZero()) {
+            store.dropBefore(LocalDateTime.now().minus(properties.getRetention()));
+        }
+        return store;
+    }
+
+    @Bean
+    public SegmentMaintenance segmentMaintenance(TransactionStoreProperties properties,
+                                                 TransactionStore transactionStore) {
+        SegmentMaintenance maintenance = new SegmentMaintenance(transactionStore, properties.getSealAfter(),
+                properties.getRetention());
+        if (!properties.getSealAfter().isZero() || !properties.getRetention().isZero()) {
+            maintenance.start(properties.getMaintenanceInterval());
+        }
+        return maintenance;
+    }
+
+    /**
+     * Its own fork-join pool, so a large query never competes with the common pool for threads.
+     */
+    @Bean
+    public ParallelQueryExecutor parallelQueryExecutor(TransactionStoreProperties properties) {
+        int parallelism = properties.getQueryParallelism() > 0
+                ? properties.getQueryParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        return new ParallelQueryExecutor(parallelism, properties.getParallelQueryThreshold());
+    }
+
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyProperties properties) {
+        return new IdempotencyStore(properties.getMaximumKeys(), properties.getTimeToLive());
+    }
+}
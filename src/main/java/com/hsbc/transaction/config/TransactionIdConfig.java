@@ -0,0 +1,56 @@
+package com.hsbc.transaction.config;
+
+import com.hsbc.transaction.id.SnowflakeTransactionIdGenerator;
+import com.hsbc.transaction.id.TransactionIdGenerator;
+import com.hsbc.transaction.id.TransactionIds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Arrays;
+import java.util.Set;
+
+@Configuration
+@EnableConfigurationProperties(TransactionIdProperties.class)
+public class TransactionIdConfig {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionIdConfig.class);
+    /**
+     * Profiles a local run may have active; {@code virtual} only changes threading, so it goes with either kind.
+     */
+    private static final Set<String> LOCAL_PROFILES = Set.of("dev", "test", "virtual");
+
+    /**
+     * Also installed as {@link TransactionIds}' generator, which is what the services and the {@code Transaction}
+     * factories draw from.
+     */
+    @Bean
+    public TransactionIdGenerator transactionIdGenerator(TransactionIdProperties properties, Environment environment) {
+        TransactionIdGenerator generator;
+        if (properties.getGenerator() == TransactionIdProperties.GeneratorType.UUID) {
+            generator = TransactionIdGenerator.UUID;
+            logger.info("Generating UUID transaction IDs");
+        } else {
+            int nodeId = properties.getNodeId() != null ? properties.getNodeId() : localNodeId(environment);
+            generator = new SnowflakeTransactionIdGenerator(nodeId);
+            logger.info("Generating snowflake transaction IDs as node {}", nodeId);
+        }
+        TransactionIds.use(generator);
+        return generator;
+    }
+
+    /**
+     * Without a configured node ID only a local run, under the default, dev or test profiles, falls back to node 0.
+     * Anywhere else replicas could end up sharing a node and issuing the same IDs, so startup fails instead.
+     */
+    static int localNodeId(Environment environment) {
+        String[] active = environment.getActiveProfiles();
+        if (!Arrays.stream(active).allMatch(LOCAL_PROFILES::contains)) {
+            throw new IllegalStateException("transaction.id.node-id (TRANSACTION_ID_NODE_ID) must be set to a node ID "
+                    + "distinct per replica when running with profiles " + Arrays.toString(active));
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.hsbc.transaction.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Transaction ID generation, bound from the {@code transaction.id.*} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "transaction.id")
+public class TransactionIdProperties {
+    /**
+     * How new transaction IDs are generated.
+     */
+    private GeneratorType generator = GeneratorType.SNOWFLAKE;
+
+    /**
+     * This instance's node ID for snowflake IDs, 0 to 1023 and different on every replica. Required outside the
+     * default, dev and test profiles; a local run without one is node 0.
+     */
+    private Integer nodeId;
+
+    public enum GeneratorType {
+        /**
+         * 13-character time-ordered IDs, see {@link com.hsbc.transaction.id.SnowflakeTransactionIdGenerator}.
+         */
+        SNOWFLAKE,
+        /**
+         * Random 36-character UUIDs.
+         */
+        UUID
+    }
+}
@@ -0,0 +1,48 @@
+package com.hsbc.transaction.config;
+
+import com.hsbc.transaction.store.ParallelQueryExecutor;
+import com.hsbc.transaction.store.TransactionStore;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Partitioning, retention and parallel queries of the transaction store, bound from the {@code transaction-store.*}
+ * properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "transaction-store")
+public class TransactionStoreProperties {
+    /**
+     * Length of the time window each segment holds; date-range queries only visit the segments they overlap.
+     */
+    private Duration segmentDuration = TransactionStore.DEFAULT_SEGMENT_DURATION;
+
+    /**
+     * Time after a segment's window ends before its settled transactions are sealed into compact form; zero never
+     * seals.
+     */
+    private Duration sealAfter = Duration.ofHours(1);
+
+    /**
+     * Age beyond which whole segments are discarded from memory; zero keeps every transaction.
+     */
+    private Duration retention = Duration.ZERO;
+
+    /**
+     * Time between sealing and retention passes.
+     */
+    private Duration maintenanceInterval = Duration.ofMinutes(1);
+
+    /**
+     * Threads offset queries are counted on, segment by segment; 0 means one per available processor and 1 always
+     * counts on the request thread.
+     */
+    private int queryParallelism = 0;
+
+    /**
+     * Index rows a query must walk before it is counted in parallel; smaller queries stay on the request thread.
+     */
+    private long parallelQueryThreshold = ParallelQueryExecutor.DEFAULT_THRESHOLD;
+}
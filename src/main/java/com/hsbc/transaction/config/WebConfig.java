@@ -0,0 +1,20 @@
+package com.hsbc.transaction.config;
+
+import com.hsbc.transaction.wire.BinaryWireMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Added after the defaults, so JSON is still chosen unless the client asks for the binary format.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new BinaryWireMessageConverter());
+    }
+}
@@ -0,0 +1,53 @@
+package com.hsbc.transaction.controller;
+
+import com.hsbc.transaction.service.ReactiveAccountService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * {@link AccountController} on the reactive services. Requests are handled asynchronously: the request thread is
+ * released as soon as the call is started and the response is written when it completes.
+ */
+@RestController
+@RequestMapping("/api/reactive/accounts")
+@Tag(name = "Reactive Account Operations", description = "Non-blocking APIs for account operations")
+public class ReactiveAccountController {
+    private final ReactiveAccountService accountService;
+
+    public ReactiveAccountController(ReactiveAccountService accountService) {
+        this.accountService = accountService;
+    }
+
+    @GetMapping("/{accountNo}/balance")
+    @Operation(summary = "Get account balance", description = "Retrieve the current balance of an account")
+    public Mono<BigDecimal> getBalance(@PathVariable String accountNo) {
+        return accountService.getBalance(accountNo);
+    }
+
+    @PostMapping
+    @Operation(summary = "Create account", description = "Create a new account with initial balance")
+    public Mono<ResponseEntity<Void>> createAccount(
+            @RequestParam String accountNo,
+            @RequestParam BigDecimal initialBalance) {
+        return accountService.createAccount(accountNo, initialBalance)
+                .then(Mono.just(ResponseEntity.ok().build()));
+    }
+
+    @DeleteMapping("/{accountNo}")
+    @Operation(summary = "Delete account", description = "Delete an existing account")
+    public Mono<ResponseEntity<Void>> deleteAccount(@PathVariable String accountNo) {
+        return accountService.deleteAccount(accountNo)
+                .then(Mono.just(ResponseEntity.ok().build()));
+    }
+}
@@ -0,0 +1,197 @@
+package com.hsbc.transaction.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.transaction.model.BulkItemResult;
+import com.hsbc.transaction.model.PageResponse;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionFilter;
+import com.hsbc.transaction.model.TransactionStatus;
+import com.hsbc.transaction.service.ReactiveTransactionService;
+import com.hsbc.transaction.service.TransactionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link TransactionController} on the reactive services. Requests are handled asynchronously, and the streaming
+ * endpoints write one element at a time, asking for the next only once the previous one is written, so a slow
+ * client holds the walk or the ingestion back instead of filling memory.
+ */
+@RestController
+@RequestMapping("/api/reactive/transactions")
+@Tag(name = "Reactive Transaction Controller", description = "Non-blocking APIs for managing transactions")
+public class ReactiveTransactionController {
+    private final ReactiveTransactionService transactionService;
+    private final ObjectMapper objectMapper;
+
+    public ReactiveTransactionController(ReactiveTransactionService transactionService, ObjectMapper objectMapper) {
+        this.transactionService = transactionService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping
+    @Operation(summary = "Create a new transaction",
+            description = "A retry carrying the same Idempotency-Key returns the transaction the first request "
+                    + "created instead of creating another.")
+    public Mono<Transaction> createTransaction(
+            @RequestBody Transaction transaction,
+            @Parameter(description = "Client-chosen key that makes retries of this request safe")
+            @RequestHeader(name = TransactionController.IDEMPOTENCY_KEY_HEADER, required = false)
+            String idempotencyKey) {
+        return transactionService.createTransaction(transaction,
+                TransactionController.idempotencyKey(idempotencyKey));
+    }
+
+    /**
+     * Reads one transaction per line and streams back one result per line, as
+     * {@link TransactionController#createTransactionsStream} does. The servlet API only offers blocking reads here,
+     * so the body is read on Reactor's bounded elastic pool, a batch ahead of the service at most.
+     */
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Create transactions in bulk from a newline-delimited JSON stream",
+            description = "Streams back one newline-delimited JSON result per item as each batch is created.")
+    public Flux<BulkItemResult> createTransactionsStream(HttpServletRequest request) {
+        Flux<String> lines = Flux.using(
+                        () -> new BufferedReader(new InputStreamReader(request.getInputStream(),
+                                StandardCharsets.UTF_8)),
+                        reader -> Flux.fromStream(reader.lines()),
+                        ReactiveTransactionController::close)
+                .subscribeOn(Schedulers.boundedElastic());
+        return lines.filter(line -> !line.isBlank())
+                .index()
+                .buffer(TransactionService.BULK_BATCH_SIZE)
+                .concatMap(this::createBatch, 0);
+    }
+
+    /**
+     * Create the well-formed lines of a batch, splitting it around malformed ones so results stay in request order.
+     */
+    private Flux<BulkItemResult> createBatch(List<Tuple2<Long, String>> lines) {
+        List<Mono<List<BulkItemResult>>> results = new ArrayList<>();
+        List<Transaction> run = new ArrayList<>();
+        long runStart = 0;
+        for (Tuple2<Long, String> line : lines) {
+            try {
+                Transaction transaction = objectMapper.readValue(line.getT2(), Transaction.class);
+                if (run.isEmpty()) {
+                    runStart = line.getT1();
+                }
+                run.add(transaction);
+            } catch (JsonProcessingException e) {
+                if (!run.isEmpty()) {
+                    results.add(transactionService.createTransactions(run, runStart));
+                    run = new ArrayList<>();
+                }
+                results.add(Mono.just(List.of(BulkItemResult.builder()
+                        .index(line.getT1())
+                        .error("Malformed transaction: " + e.getOriginalMessage())
+                        .build())));
+            }
+        }
+        if (!run.isEmpty()) {
+            results.add(transactionService.createTransactions(run, runStart));
+        }
+        return Flux.concat(results).concatMapIterable(batch -> batch);
+    }
+
+    private static void close(BufferedReader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PutMapping("/{id}/status")
+    @Operation(summary = "Update transaction status")
+    public Mono<Transaction> updateTransactionStatus(
+            @PathVariable String id,
+            @RequestParam TransactionStatus status) {
+        return transactionService.updateTransactionStatus(id, status);
+    }
+
+    @GetMapping
+    @Operation(summary = "Query transactions with optional filters and pagination",
+            description = "Pages by offset using page/size, or by keyset when a cursor is supplied. "
+                    + "Pass an empty cursor to start keyset paging and follow nextCursor from each response.")
+    public Mono<PageResponse<Transaction>> queryTransactions(
+            @Parameter(description = "Account number to filter by")
+            @RequestParam(required = false) String accountNo,
+            @Parameter(description = "Transaction direction to filter by")
+            @RequestParam(required = false) TransactionDirection direction,
+            @Parameter(description = "Transaction status to filter by")
+            @RequestParam(required = false) TransactionStatus status,
+            @Parameter(description = "Minimum amount to filter by")
+            @RequestParam(required = false) BigDecimal minAmount,
+            @Parameter(description = "Maximum amount to filter by")
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @Parameter(description = "Start date to filter by")
+            @RequestParam(required = false) LocalDateTime fromDate,
+            @Parameter(description = "End date to filter by")
+            @RequestParam(required = false) LocalDateTime toDate,
+            @Parameter(description = "Page number (0-based)")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size")
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Keyset cursor (nextCursor of the previous page); empty for the first page")
+            @RequestParam(required = false) String cursor) {
+
+        TransactionFilter filter = TransactionController.filter(accountNo, direction, status, minAmount, maxAmount,
+                fromDate, toDate);
+
+        if (cursor != null) {
+            return transactionService.queryTransactionsAfter(filter, cursor, size);
+        }
+        return transactionService.queryTransactions(filter, page, size);
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all matching transactions as a stream",
+            description = "Streams newline-delimited JSON, newest first.")
+    public Flux<Transaction> exportTransactions(
+            @Parameter(description = "Account number to filter by")
+            @RequestParam(required = false) String accountNo,
+            @Parameter(description = "Transaction direction to filter by")
+            @RequestParam(required = false) TransactionDirection direction,
+            @Parameter(description = "Transaction status to filter by")
+            @RequestParam(required = false) TransactionStatus status,
+            @Parameter(description = "Minimum amount to filter by")
+            @RequestParam(required = false) BigDecimal minAmount,
+            @Parameter(description = "Maximum amount to filter by")
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @Parameter(description = "Start date to filter by")
+            @RequestParam(required = false) LocalDateTime fromDate,
+            @Parameter(description = "End date to filter by")
+            @RequestParam(required = false) LocalDateTime toDate) {
+        return transactionService.streamTransactions(TransactionController.filter(accountNo, direction, status,
+                minAmount, maxAmount, fromDate, toDate));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete a transaction")
+    public Mono<ResponseEntity<Void>> deleteTransaction(@PathVariable String id) {
+        return transactionService.deleteTransaction(id)
+                .then(Mono.just(ResponseEntity.ok().build()));
+    }
+}
@@ -1,35 +1,159 @@
 package com.hsbc.transaction.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hsbc.transaction.exception.InvalidTransactionException;
+import com.hsbc.transaction.model.BulkItemResult;
 import com.hsbc.transaction.model.Transaction;
 import com.hsbc.transaction.model.TransactionStatus;
 import com.hsbc.transaction.model.TransactionDirection;
 import com.hsbc.transaction.model.PageResponse;
 import com.hsbc.transaction.model.TransactionFilter;
 import com.hsbc.transaction.service.TransactionService;
+import com.hsbc.transaction.wire.BinaryWireMessageConverter;
+import com.hsbc.transaction.wire.WireOutput;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/transactions")
 @Tag(name = "Transaction Controller", description = "APIs for managing transactions")
 public class TransactionController {
+    /**
+     * Rows written between flushes of an export.
+     */
+    private static final int EXPORT_FLUSH_ROWS = 1000;
+
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * Longest idempotency key accepted.
+     */
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final TransactionService transactionService;
+    private final ObjectMapper objectMapper;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, ObjectMapper objectMapper) {
         this.transactionService = transactionService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
-    @Operation(summary = "Create a new transaction")
-    public ResponseEntity<Transaction> createTransaction(@RequestBody Transaction transaction) {
-        return ResponseEntity.ok(transactionService.createTransaction(transaction));
+    @Operation(summary = "Create a new transaction",
+            description = "A retry carrying the same Idempotency-Key returns the transaction the first request "
+                    + "created instead of creating another.")
+    public ResponseEntity<Transaction> createTransaction(
+            @RequestBody Transaction transaction,
+            @Parameter(description = "Client-chosen key that makes retries of this request safe")
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return ResponseEntity.ok(transactionService.createTransaction(transaction, idempotencyKey(idempotencyKey)));
+    }
+
+    static String idempotencyKey(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        if (header.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new InvalidTransactionException(IDEMPOTENCY_KEY_HEADER + " must be at most "
+                    + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        return header;
+    }
+
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create transactions in bulk from a JSON array",
+            description = "Returns one result per item, in request order; invalid items are rejected individually.")
+    public ResponseEntity<List<BulkItemResult>> createTransactions(@RequestBody List<Transaction> transactions) {
+        List<BulkItemResult> results = new ArrayList<>(transactions.size());
+        for (int start = 0; start < transactions.size(); start += TransactionService.BULK_BATCH_SIZE) {
+            List<Transaction> batch = transactions.subList(start,
+                    Math.min(start + TransactionService.BULK_BATCH_SIZE, transactions.size()));
+            results.addAll(transactionService.createTransactions(batch, start));
+        }
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Reads one transaction per line and writes one result per line, a batch at a time, so neither the request
+     * nor the response is ever held in memory whole. Blank lines are skipped; a line that is not a valid
+     * transaction is rejected on its own.
+     */
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Create transactions in bulk from a newline-delimited JSON stream",
+            description = "Streams back one newline-delimited JSON result per item as each batch is created.")
+    public void createTransactionsStream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(),
+                StandardCharsets.UTF_8));
+        PrintWriter writer = response.getWriter();
+        List<Transaction> batch = new ArrayList<>(TransactionService.BULK_BATCH_SIZE);
+        long index = 0;
+        long batchStart = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                Transaction transaction = objectMapper.readValue(line, Transaction.class);
+                if (batch.isEmpty()) {
+                    batchStart = index;
+                }
+                batch.add(transaction);
+                if (batch.size() == TransactionService.BULK_BATCH_SIZE) {
+                    writeResults(writer, transactionService.createTransactions(batch, batchStart));
+                    batch.clear();
+                }
+            } catch (JsonProcessingException e) {
+                // flush first so results stay in request order
+                if (!batch.isEmpty()) {
+                    writeResults(writer, transactionService.createTransactions(batch, batchStart));
+                    batch.clear();
+                }
+                writeResults(writer, List.of(BulkItemResult.builder()
+                        .index(index)
+                        .error("Malformed transaction: " + e.getOriginalMessage())
+                        .build()));
+            }
+            index++;
+        }
+        if (!batch.isEmpty()) {
+            writeResults(writer, transactionService.createTransactions(batch, batchStart));
+        }
+        writer.flush();
+    }
+
+    private void writeResults(PrintWriter writer, List<BulkItemResult> results) throws IOException {
+        for (BulkItemResult result : results) {
+            writer.write(objectMapper.writeValueAsString(result));
+            writer.write('\n');
+        }
+        writer.flush();
     }
 
     @PutMapping("/{id}/status")
@@ -43,7 +167,9 @@ public class TransactionController {
 
 
     @GetMapping
-    @Operation(summary = "Query transactions with optional filters and pagination")
+    @Operation(summary = "Query transactions with optional filters and pagination",
+            description = "Pages by offset using page/size, or by keyset when a cursor is supplied. "
+                    + "Pass an empty cursor to start keyset paging and follow nextCursor from each response.")
     public ResponseEntity<PageResponse<Transaction>> queryTransactions(
             @Parameter(description = "Account number to filter by")
             @RequestParam(required = false) String accountNo,
@@ -62,9 +188,161 @@ public class TransactionController {
             @Parameter(description = "Page number (0-based)")
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size")
-            @RequestParam(defaultValue = "10") int size) {
-        
-        TransactionFilter filter = TransactionFilter.builder()
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Keyset cursor (nextCursor of the previous page); empty for the first page")
+            @RequestParam(required = false) String cursor) {
+
+        TransactionFilter filter = filter(accountNo, direction, status, minAmount, maxAmount, fromDate, toDate);
+
+        if (cursor != null) {
+            return ResponseEntity.ok(transactionService.queryTransactionsAfter(filter, cursor, size));
+        }
+        return ResponseEntity.ok(transactionService.queryTransactions(filter, page, size));
+    }
+
+    /**
+     * Writes every match straight to the response as the index is walked, flushing every
+     * {@value #EXPORT_FLUSH_ROWS} rows. Writes block while the client is not reading, which holds the walk back,
+     * so memory stays constant however many transactions match. An error after the first flush can only end the
+     * response early.
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export all matching transactions as a stream",
+            description = "Streams newline-delimited JSON, CSV with a header row, or the binary wire format, newest "
+                    + "first.")
+    public void exportTransactions(
+            @Parameter(description = "Account number to filter by")
+            @RequestParam(required = false) String accountNo,
+            @Parameter(description = "Transaction direction to filter by")
+            @RequestParam(required = false) TransactionDirection direction,
+            @Parameter(description = "Transaction status to filter by")
+            @RequestParam(required = false) TransactionStatus status,
+            @Parameter(description = "Minimum amount to filter by")
+            @RequestParam(required = false) BigDecimal minAmount,
+            @Parameter(description = "Maximum amount to filter by")
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @Parameter(description = "Start date to filter by")
+            @RequestParam(required = false) LocalDateTime fromDate,
+            @Parameter(description = "End date to filter by")
+            @RequestParam(required = false) LocalDateTime toDate,
+            @Parameter(description = "Output format")
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response) throws IOException {
+        TransactionFilter filter = filter(accountNo, direction, status, minAmount, maxAmount, fromDate, toDate);
+        if (format == ExportFormat.BINARY) {
+            response.setContentType(BinaryWireMessageConverter.MEDIA_TYPE_VALUE);
+            exportBinary(filter, response);
+        } else if (format == ExportFormat.CSV) {
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setContentType("text/csv");
+            exportCsv(filter, response);
+        } else {
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            exportNdjson(filter, response);
+        }
+    }
+
+    public enum ExportFormat {
+        NDJSON,
+        CSV,
+        /**
+         * Transactions back to back in the compact binary wire format, see {@link WireOutput}.
+         */
+        BINARY
+    }
+
+    private void exportNdjson(TransactionFilter filter, HttpServletResponse response) throws IOException {
+        ObjectWriter rowWriter = objectMapper.writerFor(Transaction.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            long[] rows = {0};
+            export(filter, transaction -> {
+                rowWriter.writeValue(generator, transaction);
+                generator.writeRaw('\n');
+                if (++rows[0] % EXPORT_FLUSH_ROWS == 0) {
+                    generator.flush();
+                }
+            });
+        }
+    }
+
+    private void exportCsv(TransactionFilter filter, HttpServletResponse response) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(),
+                StandardCharsets.UTF_8), 1 << 16)) {
+            writer.write("transactionId,accountNo,amount,description,direction,status,timestamp\n");
+            long[] rows = {0};
+            export(filter, transaction -> {
+                writer.write(csvField(transaction.getTransactionId()));
+                writer.write(',');
+                writer.write(csvField(transaction.getAccountNo()));
+                writer.write(',');
+                writer.write(transaction.getAmount() == null ? "" : transaction.getAmount().toPlainString());
+                writer.write(',');
+                writer.write(csvField(transaction.getDescription()));
+                writer.write(',');
+                writer.write(transaction.getDirection() == null ? "" : transaction.getDirection().name());
+                writer.write(',');
+                writer.write(transaction.getStatus() == null ? "" : transaction.getStatus().name());
+                writer.write(',');
+                writer.write(transaction.getTimestamp() == null ? "" : transaction.getTimestamp().toString());
+                writer.write('\n');
+                if (++rows[0] % EXPORT_FLUSH_ROWS == 0) {
+                    writer.flush();
+                }
+            });
+        }
+    }
+
+    private void exportBinary(TransactionFilter filter, HttpServletResponse response) throws IOException {
+        WireOutput output = new WireOutput(response.getOutputStream());
+        long[] rows = {0};
+        export(filter, transaction -> {
+            output.writeTransaction(transaction);
+            if (++rows[0] % EXPORT_FLUSH_ROWS == 0) {
+                output.flush();
+            }
+        });
+        output.flush();
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Transaction transaction) throws IOException;
+    }
+
+    private void export(TransactionFilter filter, RowWriter rowWriter) throws IOException {
+        try {
+            transactionService.exportTransactions(filter, transaction -> {
+                try {
+                    rowWriter.write(transaction);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Quote a field if it holds a separator, quote or line break, doubling any quotes inside (RFC 4180).
+     */
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    static TransactionFilter filter(String accountNo, TransactionDirection direction, TransactionStatus status,
+                                    BigDecimal minAmount, BigDecimal maxAmount, LocalDateTime fromDate,
+                                    LocalDateTime toDate) {
+        return TransactionFilter.builder()
                 .accountNo(accountNo)
                 .direction(direction)
                 .status(status)
@@ -73,8 +351,6 @@ public class TransactionController {
                 .fromDate(fromDate)
                 .toDate(toDate)
                 .build();
-
-        return ResponseEntity.ok(transactionService.queryTransactions(filter, page, size));
     }
 
     @DeleteMapping("/{id}")
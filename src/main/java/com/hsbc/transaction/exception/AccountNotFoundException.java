@@ -1,6 +1,6 @@
 package com.hsbc.transaction.exception;
 
-public class AccountNotFoundException extends RuntimeException {
+public class AccountNotFoundException extends BusinessRejectionException {
     public AccountNotFoundException(String message) {
         super(message);
     }
@@ -0,0 +1,7 @@
+package com.hsbc.transaction.exception;
+
+public class BalanceOverflowException extends BusinessRejectionException {
+    public BalanceOverflowException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.hsbc.transaction.exception;
+
+/**
+ * A request refused for a business reason: a missing account or transaction, a debit the balance cannot cover, a
+ * status change the transaction's state does not allow. These are ordinary traffic rather than faults, so they are
+ * created without a stack trace; the message says everything the caller needs, and capturing the stack would cost
+ * more than the rest of the refusal.
+ */
+public abstract class BusinessRejectionException extends RuntimeException {
+    protected BusinessRejectionException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hsbc.transaction.exception;
+
+public class DuplicateTransactionException extends BusinessRejectionException {
+    public DuplicateTransactionException(String message) {
+        super(message);
+    }
+}
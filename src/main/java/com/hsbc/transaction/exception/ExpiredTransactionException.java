@@ -0,0 +1,7 @@
+package com.hsbc.transaction.exception;
+
+public class ExpiredTransactionException extends BusinessRejectionException {
+    public ExpiredTransactionException(String message) {
+        super(message);
+    }
+}
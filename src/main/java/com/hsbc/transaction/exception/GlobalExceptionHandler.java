@@ -1,10 +1,9 @@
 package com.hsbc.transaction.exception;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
-import org.springframework.web.ErrorResponse;
-import org.springframework.web.ErrorResponseException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -12,21 +11,65 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Maps refusals to their response directly as a {@link ProblemDetail}, the same body an {@code ErrorResponse}
+ * renders to, without creating a further exception (and stack trace) per response.
+ */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
     @ExceptionHandler(InvalidTransactionException.class)
-    public ResponseEntity<ErrorResponse> handleInvalidTransaction(InvalidTransactionException ex) {
-        return ResponseEntity.badRequest().body(new ErrorResponseException(HttpStatus.BAD_REQUEST,ex));
+    public ResponseEntity<ProblemDetail> handleInvalidTransaction(InvalidTransactionException ex) {
+        return problem(HttpStatus.BAD_REQUEST, ex);
     }
 
     @ExceptionHandler(InsufficientBalanceException.class)
-    public ResponseEntity<ErrorResponse> handleInsufficientBalance(InsufficientBalanceException ex) {
-        return ResponseEntity.badRequest().body(new ErrorResponseException(HttpStatus.BAD_REQUEST,ex));
+    public ResponseEntity<ProblemDetail> handleInsufficientBalance(InsufficientBalanceException ex) {
+        return problem(HttpStatus.BAD_REQUEST, ex);
+    }
+
+    @ExceptionHandler(InvalidAmountException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidAmount(InvalidAmountException ex) {
+        return problem(HttpStatus.BAD_REQUEST, ex);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidCursor(InvalidCursorException ex) {
+        return problem(HttpStatus.BAD_REQUEST, ex);
+    }
+
+    @ExceptionHandler(DuplicateTransactionException.class)
+    public ResponseEntity<ProblemDetail> handleDuplicateTransaction(DuplicateTransactionException ex) {
+        return problem(HttpStatus.CONFLICT, ex);
+    }
+
+    @ExceptionHandler(InvalidTransactionStateException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidTransactionState(InvalidTransactionStateException ex) {
+        return problem(HttpStatus.CONFLICT, ex);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ProblemDetail> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        return problem(HttpStatus.UNPROCESSABLE_ENTITY, ex);
+    }
+
+    @ExceptionHandler(BalanceOverflowException.class)
+    public ResponseEntity<ProblemDetail> handleBalanceOverflow(BalanceOverflowException ex) {
+        return problem(HttpStatus.UNPROCESSABLE_ENTITY, ex);
+    }
+
+    @ExceptionHandler(ExpiredTransactionException.class)
+    public ResponseEntity<ProblemDetail> handleExpiredTransaction(ExpiredTransactionException ex) {
+        return problem(HttpStatus.UNPROCESSABLE_ENTITY, ex);
+    }
+
+    @ExceptionHandler(AccountNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleAccountNotFound(AccountNotFoundException ex) {
+        return problem(HttpStatus.NOT_FOUND, ex);
     }
 
     @ExceptionHandler(TransactionNotFoundException.class)
-    public ResponseEntity<ErrorResponse> handleTransactionNotFound(TransactionNotFoundException ex) {
+    public ResponseEntity<ProblemDetail> handleTransactionNotFound(TransactionNotFoundException ex) {
         return ResponseEntity.notFound().build();
     }
 
@@ -40,4 +83,8 @@ public class GlobalExceptionHandler {
         });
         return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
     }
-} 
\ No newline at end of file
+
+    private static ResponseEntity<ProblemDetail> problem(HttpStatus status, RuntimeException ex) {
+        return ResponseEntity.status(status).body(ProblemDetail.forStatusAndDetail(status, ex.getMessage()));
+    }
+}
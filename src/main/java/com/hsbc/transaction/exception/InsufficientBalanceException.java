@@ -1,6 +1,6 @@
 package com.hsbc.transaction.exception;
 
-public class InsufficientBalanceException extends RuntimeException {
+public class InsufficientBalanceException extends BusinessRejectionException {
     public InsufficientBalanceException(String message) {
         super(message);
     }
@@ -0,0 +1,7 @@
+package com.hsbc.transaction.exception;
+
+public class InvalidAmountException extends BusinessRejectionException {
+    public InvalidAmountException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,6 @@
 package com.hsbc.transaction.exception;
 
-public class InvalidTransactionStateException extends RuntimeException {
+public class InvalidTransactionStateException extends BusinessRejectionException {
     public InvalidTransactionStateException(String message) {
         super(message);
     }
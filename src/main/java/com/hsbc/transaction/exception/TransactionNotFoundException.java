@@ -1,6 +1,6 @@
 package com.hsbc.transaction.exception;
 
-public class TransactionNotFoundException extends RuntimeException {
+public class TransactionNotFoundException extends BusinessRejectionException {
     public TransactionNotFoundException(String message) {
         super(message);
     }
@@ -0,0 +1,107 @@
+package com.hsbc.transaction.id;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered IDs: a 64-bit value of
+ * <pre>
+ * 41 bits  milliseconds since 2024-01-01T00:00Z (good until 2093)
+ * 10 bits  node ID, unique per running instance
+ * 12 bits  sequence within the millisecond
+ * </pre>
+ * written as 13 Crockford base32 characters, so IDs compare as strings in the order they were generated on a node
+ * and roughly in creation order across nodes.
+ * <p>
+ * A node's IDs strictly increase: the last value is advanced with one CAS, never from a lock or a random source.
+ * More than 4096 IDs in one millisecond, or a clock that steps back, borrow from the following milliseconds instead
+ * of waiting, so IDs run slightly ahead of the clock until it catches up. Two generators with the same node ID must
+ * never run at once, in one JVM or across replicas, or they will repeat each other's IDs.
+ */
+public class SnowflakeTransactionIdGenerator implements TransactionIdGenerator {
+    public static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    public static final int NODE_BITS = 10;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int ID_CHARS = 13;
+    private static final byte[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".getBytes(StandardCharsets.US_ASCII);
+
+    private final long node;
+    private final Clock clock;
+    /**
+     * Last issued (millis since epoch << SEQUENCE_BITS | sequence); the sequence overflowing carries into the time.
+     */
+    private final AtomicLong last = new AtomicLong();
+
+    public SnowflakeTransactionIdGenerator(int nodeId) {
+        this(nodeId, Clock.systemUTC());
+    }
+
+    public SnowflakeTransactionIdGenerator(int nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.node = nodeId;
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextId() {
+        return encode(nextValue());
+    }
+
+    long nextValue() {
+        long now = (clock.millis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = last.get();
+            next = Math.max(now, previous + 1);
+        } while (!last.compareAndSet(previous, next));
+        return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)
+                | node << SEQUENCE_BITS
+                | (next & ((1L << SEQUENCE_BITS) - 1));
+    }
+
+    /**
+     * Fixed width, most significant digit first, so string order is numeric order.
+     */
+    static String encode(long value) {
+        byte[] chars = new byte[ID_CHARS];
+        for (int i = ID_CHARS - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (value & 0x1F)];
+            value >>>= 5;
+        }
+        return new String(chars, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * @return when an ID from this generator was issued, to the millisecond
+     * @throws IllegalArgumentException if {@code id} is not one
+     */
+    public static Instant timestampOf(String id) {
+        if (id.length() != ID_CHARS) {
+            throw new IllegalArgumentException("Not a snowflake ID: " + id);
+        }
+        long value = 0;
+        for (int i = 0; i < ID_CHARS; i++) {
+            int digit = indexOf(id.charAt(i));
+            if (digit < 0 || i == 0 && digit > 0xF) {
+                throw new IllegalArgumentException("Not a snowflake ID: " + id);
+            }
+            value = value << 5 | digit;
+        }
+        return Instant.ofEpochMilli((value >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS);
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,15 @@
+package com.hsbc.transaction.id;
+
+/**
+ * Source of transaction IDs. IDs are opaque strings to clients; they only need to be unique.
+ */
+@FunctionalInterface
+public interface TransactionIdGenerator {
+
+    /**
+     * Random type 4 UUIDs, as transactions were identified originally. Every call draws from {@code SecureRandom}.
+     */
+    TransactionIdGenerator UUID = () -> java.util.UUID.randomUUID().toString();
+
+    String nextId();
+}
@@ -0,0 +1,26 @@
+package com.hsbc.transaction.id;
+
+/**
+ * The process-wide {@link TransactionIdGenerator}. Everything that mints transaction IDs goes through this one
+ * instance, because two snowflake generators with the same node ID would issue the same IDs. It starts as a
+ * snowflake generator for node 0, as a local run would use, and is replaced with the configured generator when the
+ * application starts, before any transaction is created.
+ */
+public final class TransactionIds {
+    private static volatile TransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(0);
+
+    private TransactionIds() {
+    }
+
+    public static String next() {
+        return generator.nextId();
+    }
+
+    public static TransactionIdGenerator generator() {
+        return generator;
+    }
+
+    public static void use(TransactionIdGenerator generator) {
+        TransactionIds.generator = generator;
+    }
+}
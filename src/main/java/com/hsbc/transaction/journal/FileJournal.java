@@ -0,0 +1,521 @@
+package com.hsbc.transaction.journal;
+
+import com.hsbc.transaction.journal.JournalRecord.AccountCreated;
+import com.hsbc.transaction.journal.JournalRecord.AccountCredited;
+import com.hsbc.transaction.journal.JournalRecord.AccountDebited;
+import com.hsbc.transaction.journal.JournalRecord.AccountDeleted;
+import com.hsbc.transaction.journal.JournalRecord.TransactionCompleted;
+import com.hsbc.transaction.journal.JournalRecord.TransactionCreated;
+import com.hsbc.transaction.journal.JournalRecord.TransactionDeleted;
+import com.hsbc.transaction.journal.JournalRecord.TransactionStatusChanged;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Append-only journal written through a {@link FileChannel} with group commit, rolled into a new
+ * {@linkplain JournalSegments segment} file once the current one passes {@code segmentBytes}.
+ * <p>
+ * Appenders apply their mutation under an ordering lock striped by the account or transaction the record is about,
+ * then take one short lock only to encode the record into a shared buffer. Records about the same account or
+ * transaction therefore reach the journal in the order they were applied, while changes to different ones run in
+ * parallel; credits to one account share their stripe, since replay gets the same balance whatever order they come
+ * in. A dedicated flusher thread swaps that buffer out, writes
+ * it with one call and forces it with one fsync; in {@link Durability#FSYNC} mode every appender whose record was in
+ * the batch is then released together. While one batch is being forced the next one fills up, so the fsync cost
+ * is shared by however many postings arrived during it. {@code commitDelay} holds each batch open a little longer to
+ * trade latency for fewer fsyncs on lightly loaded disks. Records written inside a transaction are tagged with its
+ * {@link UndoLog} ID and only its completion record is waited for, so a business transaction costs one fsync wait
+ * however many changes it makes.
+ * <p>
+ * If a write or fsync fails the journal stops accepting records: the failing appenders and every later one get an
+ * {@link UncheckedIOException}, since the in-memory state can no longer be made durable. The file is cut back to the
+ * last fsynced record, so nothing whose appender saw the failure survives a restart, and the {@link #onFailure}
+ * handler is called: changes already visible in memory cannot be taken back, so the application stops there.
+ */
+public class FileJournal implements Journal, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(FileJournal.class);
+    private static final long IDLE_PARK_NANOS = Duration.ofMillis(10).toNanos();
+
+    public enum Durability {
+        /**
+         * Appends return once their record has been written and fsynced.
+         */
+        FSYNC,
+        /**
+         * Appends return once their record is buffered; batches are still written and fsynced in the background,
+         * so a crash can lose the last few milliseconds of changes.
+         */
+        ASYNC
+    }
+
+    private final Path directory;
+    private final long segmentBytes;
+    private FileChannel channel;
+    private final Durability durability;
+    private final long commitDelayNanos;
+
+    private static final int ORDER_STRIPES = 256;
+
+    private final ReentrantReadWriteLock[] orderLocks = new ReentrantReadWriteLock[ORDER_STRIPES];
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private ByteBuffer active;
+    private ByteBuffer flushing;
+    private long lastSequence;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+    private final PriorityQueue<DurableWaiter> durableWaiters = new PriorityQueue<>();
+    private volatile long durableSequence;
+    private long durableEnd;
+    private volatile IOException failure;
+    private volatile Consumer<IOException> failureHandler = e -> {
+    };
+
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    /**
+     * Highest sequence written by the {@link #supplyDeferred} call running on this thread, if there is one.
+     */
+    private final ThreadLocal<long[]> deferred = new ThreadLocal<>();
+
+    private record DurableWaiter(long sequence, CompletableFuture<Void> future) implements Comparable<DurableWaiter> {
+        @Override
+        public int compareTo(DurableWaiter other) {
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private FileJournal(Path directory, long segmentBytes, FileChannel channel, long lastSequence,
+                        Durability durability, Duration commitDelay, int bufferBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.channel = channel;
+        this.lastSequence = lastSequence;
+        this.durableSequence = lastSequence;
+        this.durability = durability;
+        this.commitDelayNanos = commitDelay.toNanos();
+        this.active = ByteBuffer.allocateDirect(bufferBytes);
+        this.flushing = ByteBuffer.allocateDirect(bufferBytes);
+        for (int i = 0; i < ORDER_STRIPES; i++) {
+            this.orderLocks[i] = new ReentrantReadWriteLock();
+        }
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        this.flusher.setDaemon(true);
+    }
+
+    /**
+     * Open (or create) the journal in {@code directory}, hand every intact record after sequence {@code after} to
+     * {@code replay} in order, cut off any torn tail left by a crash and start accepting appends after the last
+     * intact record.
+     * @param after sequence already covered by a restored snapshot, or 0
+     */
+    public static FileJournal open(Path directory, long after, Durability durability, Duration commitDelay,
+                                   int bufferBytes, long segmentBytes, JournalReader.RecordHandler replay)
+            throws IOException {
+        Files.createDirectories(directory);
+        List<JournalSegments.Segment> segments = JournalSegments.list(directory);
+        JournalSegments.ReplayResult result = JournalSegments.replay(segments, after, replay);
+        long lastSequence = Math.max(after, result.lastSequence());
+
+        FileChannel channel;
+        if (segments.isEmpty() || result.lastSequence() < after) {
+            // nothing to continue, or the snapshot is ahead of the journal: start a segment at the next sequence
+            channel = openSegment(directory, lastSequence + 1);
+        } else {
+            Path file = segments.get(segments.size() - 1).path();
+            channel = FileChannel.open(file, StandardOpenOption.WRITE);
+            try {
+                if (result.lastSegmentEnd() < channel.size()) {
+                    logger.warn("Discarding {} bytes of incomplete journal tail in {}",
+                            channel.size() - result.lastSegmentEnd(), file);
+                    channel.truncate(result.lastSegmentEnd());
+                    channel.force(true);
+                }
+                channel.position(result.lastSegmentEnd());
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+        logger.info("Opened journal {} at sequence {}", directory, lastSequence);
+
+        FileJournal journal = new FileJournal(directory, segmentBytes, channel, lastSequence, durability,
+                commitDelay, bufferBytes);
+        journal.durableEnd = channel.position();
+        journal.flusher.start();
+        return journal;
+    }
+
+    private static FileChannel openSegment(Path directory, long firstSequence) throws IOException {
+        return FileChannel.open(directory.resolve(JournalSegments.fileName(firstSequence)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    @Override
+    public void append(JournalRecord record, Runnable mutation) {
+        UndoLog undoLog = UndoLog.current();
+        long sequence = append(undoLog == null ? 0 : undoLog.getId(), record, mutation);
+        if (undoLog != null) {
+            undoLog.markWritten();
+        } else {
+            awaitOrDefer(sequence);
+        }
+    }
+
+    /**
+     * Apply and record a change on behalf of transaction {@code transactionId} (0 for none), without waiting for it
+     * to become durable.
+     * @return the record's sequence
+     */
+    public long append(long transactionId, JournalRecord record, Runnable mutation) {
+        Lock order = orderLock(record);
+        long sequence;
+        if (order == null) {
+            appendLock.lock();
+            try {
+                checkAccepting();
+                mutation.run();
+                sequence = encodeNext(transactionId, record);
+            } finally {
+                appendLock.unlock();
+            }
+        } else {
+            order.lock();
+            try {
+                checkAccepting();
+                mutation.run();
+                // recorded even if the journal fails meanwhile: the failure reaches the appender when it waits
+                appendLock.lock();
+                try {
+                    sequence = encodeNext(transactionId, record);
+                } finally {
+                    appendLock.unlock();
+                }
+            } finally {
+                order.unlock();
+            }
+        }
+        LockSupport.unpark(flusher);
+        return sequence;
+    }
+
+    private void checkAccepting() {
+        if (failure != null) {
+            throw new UncheckedIOException("Journal is not accepting records", failure);
+        }
+        if (!running) {
+            throw new IllegalStateException("Journal is closed");
+        }
+    }
+
+    /**
+     * The lock that orders {@code record} against other changes to the same account or transaction, or null if
+     * it changes no state. Credits take the shared side of their stripe and every other change the exclusive side,
+     * so a debit or deletion is recorded after every credit applied before it.
+     */
+    private Lock orderLock(JournalRecord record) {
+        return switch (record) {
+            case AccountCredited r -> orderStripe(r.accountNo()).readLock();
+            case AccountCreated r -> orderStripe(r.accountNo()).writeLock();
+            case AccountDebited r -> orderStripe(r.accountNo()).writeLock();
+            case AccountDeleted r -> orderStripe(r.accountNo()).writeLock();
+            case TransactionCreated r -> orderStripe(r.transaction().getTransactionId()).writeLock();
+            case TransactionStatusChanged r -> orderStripe(r.transactionId()).writeLock();
+            case TransactionDeleted r -> orderStripe(r.transactionId()).writeLock();
+            case TransactionCompleted r -> null;
+        };
+    }
+
+    private ReentrantReadWriteLock orderStripe(String key) {
+        int hash = key.hashCode();
+        return orderLocks[(hash ^ (hash >>> 16)) & (ORDER_STRIPES - 1)];
+    }
+
+    /**
+     * Call {@code handler} on the flusher thread if a write or fsync fails, once the journal has stopped accepting
+     * records and every waiting appender has been failed.
+     */
+    public void onFailure(Consumer<IOException> handler) {
+        this.failureHandler = handler;
+    }
+
+    @Override
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Record the end of a transaction; in {@link Durability#FSYNC} mode this waits until the transaction's records
+     * are all on disk.
+     */
+    @Override
+    public void complete(long transactionId) {
+        long sequence = append(transactionId, new JournalRecord.TransactionCompleted(), () -> {
+        });
+        awaitOrDefer(sequence);
+    }
+
+    /**
+     * In {@link Durability#FSYNC} mode, runs {@code call} with every fsync wait it would make skipped, and completes
+     * the future once the last record it wrote is on disk; the future completes on the flusher thread.
+     */
+    @Override
+    public <T> CompletableFuture<T> supplyDeferred(Supplier<T> call) {
+        if (durability != Durability.FSYNC) {
+            return CompletableFuture.completedFuture(call.get());
+        }
+        long[] written = deferred.get();
+        boolean outermost = written == null;
+        if (outermost) {
+            written = new long[1];
+            deferred.set(written);
+        }
+        try {
+            T result = call.get();
+            return whenDurable(written[0]).thenApply(ignored -> result);
+        } finally {
+            if (outermost) {
+                deferred.remove();
+            }
+        }
+    }
+
+    private void awaitOrDefer(long sequence) {
+        if (durability != Durability.FSYNC) {
+            return;
+        }
+        long[] written = deferred.get();
+        if (written != null) {
+            written[0] = Math.max(written[0], sequence);
+        } else {
+            awaitDurable(sequence);
+        }
+    }
+
+    private CompletableFuture<Void> whenDurable(long sequence) {
+        if (durableSequence >= sequence) {
+            return CompletableFuture.completedFuture(null);
+        }
+        syncLock.lock();
+        try {
+            if (failure != null) {
+                return CompletableFuture.failedFuture(new UncheckedIOException("Journal write failed", failure));
+            }
+            if (durableSequence >= sequence) {
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            durableWaiters.add(new DurableWaiter(sequence, future));
+            return future;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Encode under the next sequence and return it. Caller must hold the append lock.
+     */
+    private long encodeNext(long transactionId, JournalRecord record) {
+        encode(lastSequence + 1, transactionId, record);
+        return ++lastSequence;
+    }
+
+    /**
+     * Encode into the active buffer, growing it if the record does not fit. Caller must hold the append lock.
+     */
+    private void encode(long sequence, long transactionId, JournalRecord record) {
+        int start = active.position();
+        while (true) {
+            try {
+                JournalCodec.encode(active, sequence, transactionId, record);
+                return;
+            } catch (BufferOverflowException e) {
+                ByteBuffer larger = ByteBuffer.allocateDirect(active.capacity() * 2);
+                active.position(start).flip();
+                larger.put(active);
+                active = larger;
+            } catch (RuntimeException e) {
+                active.position(start);
+                throw e;
+            }
+        }
+    }
+
+    private void awaitDurable(long sequence) {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Journal write failed", failure);
+                }
+                synced.awaitUninterruptibly();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Sequence of the last record known to be on disk.
+     */
+    public long getDurableSequence() {
+        return durableSequence;
+    }
+
+    private void flushLoop() {
+        while (true) {
+            boolean pending;
+            appendLock.lock();
+            try {
+                pending = active.position() > 0;
+            } finally {
+                appendLock.unlock();
+            }
+            if (!pending) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            if (commitDelayNanos > 0 && running) {
+                // sleep rather than park: appenders unpark the flusher, which would cut the delay short
+                try {
+                    Thread.sleep(Duration.ofNanos(commitDelayNanos));
+                } catch (InterruptedException ignored) {
+                    // not re-asserted: an interrupt would make the channel close itself mid-write; flush now
+                }
+            }
+            try {
+                flushBatch();
+            } catch (IOException e) {
+                logger.error("Journal write failed, rejecting further records", e);
+                failure = e;
+                discardUnsynced();
+                signalWaiters();
+                failureHandler.accept(e);
+                return;
+            }
+        }
+    }
+
+    private void flushBatch() throws IOException {
+        long batchSequence;
+        appendLock.lock();
+        try {
+            ByteBuffer full = active;
+            active = flushing;
+            flushing = full;
+            batchSequence = lastSequence;
+        } finally {
+            appendLock.unlock();
+        }
+        flushing.flip();
+        while (flushing.hasRemaining()) {
+            channel.write(flushing);
+        }
+        channel.force(false);
+        flushing.clear();
+        durableEnd = channel.position();
+        durableSequence = batchSequence;
+        signalWaiters();
+        if (durableEnd >= segmentBytes) {
+            FileChannel next = openSegment(directory, batchSequence + 1);
+            channel.close();
+            channel = next;
+            durableEnd = 0;
+        }
+    }
+
+    /**
+     * Cut the current segment back to its last fsynced record, so a record whose appender was told the write
+     * failed is not replayed after a restart. Best effort: the disk has just failed.
+     */
+    private void discardUnsynced() {
+        try {
+            channel.truncate(durableEnd);
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Could not cut the journal back to its last fsynced record at {}", durableEnd, e);
+        }
+    }
+
+    private void signalWaiters() {
+        List<DurableWaiter> ready = new ArrayList<>();
+        syncLock.lock();
+        try {
+            synced.signalAll();
+            while (!durableWaiters.isEmpty()
+                    && (failure != null || durableWaiters.peek().sequence() <= durableSequence)) {
+                ready.add(durableWaiters.poll());
+            }
+        } finally {
+            syncLock.unlock();
+        }
+        // outside the lock: completing runs the futures' dependent stages on this thread
+        for (DurableWaiter waiter : ready) {
+            if (failure != null) {
+                waiter.future().completeExceptionally(new UncheckedIOException("Journal write failed", failure));
+            } else {
+                waiter.future().complete(null);
+            }
+        }
+    }
+
+    /**
+     * Stop accepting records, flush what is buffered and close the file.
+     */
+    @Override
+    public void close() throws IOException {
+        // wait for appends already applying their change, so each of them is still recorded
+        for (ReentrantReadWriteLock order : orderLocks) {
+            order.writeLock().lock();
+        }
+        appendLock.lock();
+        try {
+            running = false;
+        } finally {
+            appendLock.unlock();
+            for (ReentrantReadWriteLock order : orderLocks) {
+                order.writeLock().unlock();
+            }
+        }
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        logger.info("Closed journal at sequence {}", durableSequence);
+    }
+}
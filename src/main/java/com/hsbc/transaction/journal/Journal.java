@@ -0,0 +1,47 @@
+package com.hsbc.transaction.journal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Write-ahead journal for balance and transaction changes.
+ */
+public interface Journal {
+
+    /**
+     * Journal that only applies the mutation, used when journaling is switched off.
+     */
+    Journal DISABLED = (record, mutation) -> mutation.run();
+
+    /**
+     * Apply {@code mutation} to the in-memory state and record it. The mutation runs inside the journal's ordering
+     * section for the account or transaction the record is about, so records about each of them are in the order
+     * the changes were applied; if it throws, nothing is recorded and the exception propagates. Outside a transaction the call returns, depending on the configured
+     * durability, once the record is on disk or as soon as it is buffered; inside one it never waits, and
+     * {@link #complete} waits for all of the transaction's records at once.
+     */
+    void append(JournalRecord record, Runnable mutation);
+
+    /**
+     * Mark every record of {@link UndoLog} {@code transactionId} as final, so replay keeps them instead of rolling
+     * them back. Called once per transaction that wrote anything, after its commit or its rollback.
+     */
+    default void complete(long transactionId) {
+    }
+
+    /**
+     * True once a write has failed and the journal has stopped accepting records.
+     */
+    default boolean isFailed() {
+        return false;
+    }
+
+    /**
+     * Run {@code call} on this thread without waiting for anything it writes to reach disk, and return a future
+     * that completes with its result once it has, so the thread is free while the fsync runs. An exception from
+     * {@code call} propagates directly.
+     */
+    default <T> CompletableFuture<T> supplyDeferred(Supplier<T> call) {
+        return CompletableFuture.completedFuture(call.get());
+    }
+}
@@ -0,0 +1,233 @@
+package com.hsbc.transaction.journal;
+
+import com.hsbc.transaction.journal.JournalRecord.AccountCreated;
+import com.hsbc.transaction.journal.JournalRecord.AccountCredited;
+import com.hsbc.transaction.journal.JournalRecord.AccountDebited;
+import com.hsbc.transaction.journal.JournalRecord.AccountDeleted;
+import com.hsbc.transaction.journal.JournalRecord.TransactionCompleted;
+import com.hsbc.transaction.journal.JournalRecord.TransactionCreated;
+import com.hsbc.transaction.journal.JournalRecord.TransactionDeleted;
+import com.hsbc.transaction.journal.JournalRecord.TransactionStatusChanged;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of journal records. Each record is framed as
+ * <pre>
+ * int  length     bytes after the checksum
+ * int  checksum   CRC32C of those bytes
+ * long sequence   1-based, increasing by one per record
+ * long txId       unit of work the record belongs to, 0 for none
+ * byte type       {@link JournalRecord#type()}
+ * ...  payload
+ * </pre>
+ * Strings are an int byte count (-1 for null) followed by UTF-8; decimals are the scale followed by the unscaled
+ * value's two's-complement bytes; timestamps are UTC epoch seconds and nanos; enums are their ordinal.
+ * All values are big-endian.
+ */
+public final class JournalCodec {
+    public static final int HEADER_BYTES = 8;
+    /**
+     * Upper bound on a record body; anything larger in a length field means the file is damaged.
+     */
+    public static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private JournalCodec() {
+    }
+
+    /**
+     * Write one framed record at the buffer's position.
+     * @throws java.nio.BufferOverflowException if the buffer is too small; its position is then undefined
+     */
+    public static void encode(ByteBuffer buffer, long sequence, long transactionId, JournalRecord record) {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_BYTES) {
+            throw new BufferOverflowException();
+        }
+        buffer.position(start + HEADER_BYTES);
+        buffer.putLong(sequence);
+        buffer.putLong(transactionId);
+        encodeEntry(buffer, record);
+        int end = buffer.position();
+        int length = end - start - HEADER_BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + HEADER_BYTES, length));
+        buffer.putInt(start, length);
+        buffer.putInt(start + 4, (int) crc.getValue());
+    }
+
+    /**
+     * Write a record's type and payload without framing.
+     */
+    static void encodeEntry(ByteBuffer buffer, JournalRecord record) {
+        buffer.put(record.type());
+        switch (record) {
+            case AccountCreated r -> {
+                putString(buffer, r.accountNo());
+                putDecimal(buffer, r.balance());
+            }
+            case AccountCredited r -> {
+                putString(buffer, r.accountNo());
+                putDecimal(buffer, r.amount());
+            }
+            case AccountDebited r -> {
+                putString(buffer, r.accountNo());
+                putDecimal(buffer, r.amount());
+            }
+            case AccountDeleted r -> putString(buffer, r.accountNo());
+            case TransactionCreated r -> putTransaction(buffer, r.transaction());
+            case TransactionStatusChanged r -> {
+                putString(buffer, r.transactionId());
+                putEnum(buffer, r.status());
+            }
+            case TransactionDeleted r -> putString(buffer, r.transactionId());
+            case TransactionCompleted r -> {
+            }
+        }
+    }
+
+    /**
+     * Check a record body against the checksum from its header.
+     */
+    public static boolean verify(ByteBuffer body, int checksum) {
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        return (int) crc.getValue() == checksum;
+    }
+
+    /**
+     * Read the sequence number at the start of a verified body, without consuming it.
+     */
+    public static long sequence(ByteBuffer body) {
+        return body.getLong(body.position());
+    }
+
+    /**
+     * Read the transaction ID of a verified body, without consuming it.
+     */
+    public static long transactionId(ByteBuffer body) {
+        return body.getLong(body.position() + 8);
+    }
+
+    /**
+     * Decode the record in a verified body.
+     * @throws IllegalArgumentException for an unknown record type
+     */
+    public static JournalRecord decode(ByteBuffer body) {
+        body.position(body.position() + 16);
+        return decodeEntry(body);
+    }
+
+    /**
+     * Read a record written by {@link #encodeEntry}.
+     */
+    static JournalRecord decodeEntry(ByteBuffer body) {
+        byte type = body.get();
+        return switch (type) {
+            case 1 -> new AccountCreated(getString(body), getDecimal(body));
+            case 2 -> new AccountCredited(getString(body), getDecimal(body));
+            case 3 -> new AccountDebited(getString(body), getDecimal(body));
+            case 4 -> new AccountDeleted(getString(body));
+            case 5 -> new TransactionCreated(getTransaction(body));
+            case 6 -> new TransactionStatusChanged(getString(body), getEnum(body, TransactionStatus.values()));
+            case 7 -> new TransactionDeleted(getString(body));
+            case 8 -> new TransactionCompleted();
+            default -> throw new IllegalArgumentException("Unknown journal record type " + type);
+        };
+    }
+
+    static void putTransaction(ByteBuffer buffer, Transaction transaction) {
+        putString(buffer, transaction.getTransactionId());
+        putString(buffer, transaction.getAccountNo());
+        putDecimal(buffer, transaction.getAmount());
+        putString(buffer, transaction.getDescription());
+        putEnum(buffer, transaction.getDirection());
+        putEnum(buffer, transaction.getStatus());
+        putTimestamp(buffer, transaction.getTimestamp());
+    }
+
+    static Transaction getTransaction(ByteBuffer buffer) {
+        return Transaction.builder()
+                .transactionId(getString(buffer))
+                .accountNo(getString(buffer))
+                .amount(getDecimal(buffer))
+                .description(getString(buffer))
+                .direction(getEnum(buffer, TransactionDirection.values()))
+                .status(getEnum(buffer, TransactionStatus.values()))
+                .timestamp(getTimestamp(buffer))
+                .build();
+    }
+
+    static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void putDecimal(ByteBuffer buffer, BigDecimal value) {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        if (unscaled.length > 0xFF) {
+            throw new IllegalArgumentException("Amount too large to journal: " + value);
+        }
+        buffer.putInt(value.scale());
+        buffer.put((byte) unscaled.length);
+        buffer.put(unscaled);
+    }
+
+    static BigDecimal getDecimal(ByteBuffer buffer) {
+        int scale = buffer.getInt();
+        byte[] unscaled = new byte[buffer.get() & 0xFF];
+        buffer.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void putTimestamp(ByteBuffer buffer, LocalDateTime value) {
+        if (value == null) {
+            buffer.putLong(Long.MIN_VALUE);
+            return;
+        }
+        buffer.putLong(value.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(value.getNano());
+    }
+
+    private static LocalDateTime getTimestamp(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        if (seconds == Long.MIN_VALUE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(seconds, buffer.getInt(), ZoneOffset.UTC);
+    }
+
+    private static void putEnum(ByteBuffer buffer, Enum<?> value) {
+        buffer.put(value == null ? -1 : (byte) value.ordinal());
+    }
+
+    private static <E extends Enum<E>> E getEnum(ByteBuffer buffer, E[] values) {
+        byte ordinal = buffer.get();
+        return ordinal < 0 ? null : values[ordinal];
+    }
+}
@@ -0,0 +1,119 @@
+package com.hsbc.transaction.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Sequential reader over a journal file. Reading stops at the first record that is incomplete, fails its checksum
+ * or breaks the sequence: that is the torn tail of a write the process did not live to finish, and everything
+ * before it is intact.
+ */
+public class JournalReader {
+    private static final Logger logger = LoggerFactory.getLogger(JournalReader.class);
+    private static final int READ_BUFFER_BYTES = 1 << 20;
+
+    @FunctionalInterface
+    public interface RecordHandler {
+        void accept(long sequence, long transactionId, JournalRecord record);
+    }
+
+    private final FileChannel channel;
+    private long validEnd;
+    private long lastSequence;
+    /**
+     * File offset just past the bytes currently held in the read buffer.
+     */
+    private long readOffset;
+
+    /**
+     * @param previousSequence sequence of the record just before this file, which the first record must follow,
+     *                         or 0 if unknown
+     */
+    public JournalReader(FileChannel channel, long previousSequence) {
+        this.channel = channel;
+        this.lastSequence = previousSequence;
+    }
+
+    /**
+     * Hand every intact record, in order, to {@code handler}.
+     */
+    public void read(RecordHandler handler) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        buffer.flip();
+        while (true) {
+            if (!fill(buffer, JournalCodec.HEADER_BYTES)) {
+                break;
+            }
+            int length = buffer.getInt(buffer.position());
+            int checksum = buffer.getInt(buffer.position() + 4);
+            if (length <= 0 || length > JournalCodec.MAX_RECORD_BYTES) {
+                logger.warn("Invalid journal record length {} at offset {}", length, validEnd);
+                break;
+            }
+            if (buffer.capacity() < JournalCodec.HEADER_BYTES + length) {
+                ByteBuffer larger = ByteBuffer.allocate(JournalCodec.HEADER_BYTES + length);
+                larger.put(buffer).flip();
+                buffer = larger;
+            }
+            if (!fill(buffer, JournalCodec.HEADER_BYTES + length)) {
+                break;
+            }
+            ByteBuffer body = buffer.slice(buffer.position() + JournalCodec.HEADER_BYTES, length);
+            if (!JournalCodec.verify(body, checksum)) {
+                logger.warn("Journal checksum mismatch at offset {}", validEnd);
+                break;
+            }
+            long sequence = JournalCodec.sequence(body);
+            if (lastSequence != 0 && sequence != lastSequence + 1) {
+                logger.warn("Journal sequence gap at offset {}: expected {}, found {}",
+                        validEnd, lastSequence + 1, sequence);
+                break;
+            }
+            handler.accept(sequence, JournalCodec.transactionId(body), JournalCodec.decode(body));
+            buffer.position(buffer.position() + JournalCodec.HEADER_BYTES + length);
+            validEnd += JournalCodec.HEADER_BYTES + length;
+            lastSequence = sequence;
+        }
+    }
+
+    /**
+     * Make at least {@code needed} bytes readable, reading more of the file if necessary.
+     * @return false if the file ends first
+     */
+    private boolean fill(ByteBuffer buffer, int needed) throws IOException {
+        if (buffer.remaining() >= needed) {
+            return true;
+        }
+        buffer.compact();
+        try {
+            while (buffer.position() < needed) {
+                int read = channel.read(buffer, readOffset);
+                if (read < 0) {
+                    return false;
+                }
+                readOffset += read;
+            }
+            return true;
+        } finally {
+            buffer.flip();
+        }
+    }
+
+    /**
+     * File offset just past the last intact record.
+     */
+    public long getValidEnd() {
+        return validEnd;
+    }
+
+    /**
+     * Sequence of the last intact record, or the previous sequence given at construction if there were none.
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+}
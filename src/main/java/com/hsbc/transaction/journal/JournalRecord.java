@@ -0,0 +1,88 @@
+package com.hsbc.transaction.journal;
+
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+/**
+ * One state change written to the {@link Journal}. Replaying the records in journal order rebuilds the balances and
+ * the transaction store exactly; see {@link JournalReplayer}.
+ */
+public sealed interface JournalRecord {
+
+    /**
+     * Record type tag written before the payload. Values are part of the file format and must never be reused.
+     */
+    byte type();
+
+    record AccountCreated(String accountNo, BigDecimal balance) implements JournalRecord {
+        public byte type() {
+            return 1;
+        }
+    }
+
+    record AccountCredited(String accountNo, BigDecimal amount) implements JournalRecord {
+        public byte type() {
+            return 2;
+        }
+    }
+
+    record AccountDebited(String accountNo, BigDecimal amount) implements JournalRecord {
+        public byte type() {
+            return 3;
+        }
+    }
+
+    record AccountDeleted(String accountNo) implements JournalRecord {
+        public byte type() {
+            return 4;
+        }
+    }
+
+    record TransactionCreated(Transaction transaction) implements JournalRecord {
+        public byte type() {
+            return 5;
+        }
+    }
+
+    record TransactionStatusChanged(String transactionId, TransactionStatus status) implements JournalRecord {
+        public byte type() {
+            return 6;
+        }
+    }
+
+    record TransactionDeleted(String transactionId) implements JournalRecord {
+        public byte type() {
+            return 7;
+        }
+    }
+
+    /**
+     * Marks the end of a unit of work: every record tagged with its transaction ID before this one stands.
+     */
+    record TransactionCompleted() implements JournalRecord {
+        public byte type() {
+            return 8;
+        }
+    }
+
+    /**
+     * The record that reverses {@code record}, given lookups of the state just before {@code record} was applied.
+     */
+    static JournalRecord inverseOf(JournalRecord record, Function<String, BigDecimal> balanceBefore,
+                                   Function<String, Transaction> transactionBefore) {
+        return switch (record) {
+            case AccountCreated r -> new AccountDeleted(r.accountNo());
+            case AccountCredited r -> new AccountDebited(r.accountNo(), r.amount());
+            case AccountDebited r -> new AccountCredited(r.accountNo(), r.amount());
+            case AccountDeleted r -> new AccountCreated(r.accountNo(), balanceBefore.apply(r.accountNo()));
+            case TransactionCreated r -> new TransactionDeleted(r.transaction().getTransactionId());
+            case TransactionStatusChanged r -> new TransactionStatusChanged(r.transactionId(),
+                    transactionBefore.apply(r.transactionId()).getStatus());
+            case TransactionDeleted r -> new TransactionCreated(transactionBefore.apply(r.transactionId()));
+            case TransactionCompleted r -> throw new IllegalArgumentException("A completion has no inverse");
+        };
+    }
+}
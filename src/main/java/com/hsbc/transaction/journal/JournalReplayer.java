@@ -0,0 +1,102 @@
+package com.hsbc.transaction.journal;
+
+import com.hsbc.transaction.journal.JournalRecord.AccountCreated;
+import com.hsbc.transaction.journal.JournalRecord.AccountCredited;
+import com.hsbc.transaction.journal.JournalRecord.AccountDebited;
+import com.hsbc.transaction.journal.JournalRecord.AccountDeleted;
+import com.hsbc.transaction.journal.JournalRecord.TransactionCompleted;
+import com.hsbc.transaction.journal.JournalRecord.TransactionCreated;
+import com.hsbc.transaction.journal.JournalRecord.TransactionDeleted;
+import com.hsbc.transaction.journal.JournalRecord.TransactionStatusChanged;
+import com.hsbc.transaction.store.BalanceStore;
+import com.hsbc.transaction.store.TransactionStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies journal records straight to the stores, bypassing the services: validation already happened when the
+ * record was first written, and replaying must not write the journal again or touch the caches.
+ * <p>
+ * A transaction created before the retention horizon is skipped rather than restored.
+ * <p>
+ * Records of a transaction that has no completion record are applied like the rest and tracked; once the journal
+ * is open again, {@link #rollBackIncomplete} reverses them.
+ */
+public class JournalReplayer implements JournalReader.RecordHandler {
+    private static final Logger logger = LoggerFactory.getLogger(JournalReplayer.class);
+
+    private final BalanceStore balanceStore;
+    private final TransactionStore transactionStore;
+    private final OpenTransactions openTransactions = new OpenTransactions();
+    private long replayed;
+
+    public JournalReplayer(BalanceStore balanceStore, TransactionStore transactionStore) {
+        this.balanceStore = balanceStore;
+        this.transactionStore = transactionStore;
+    }
+
+    @Override
+    public void accept(long sequence, long transactionId, JournalRecord record) {
+        try {
+            openTransactions.track(transactionId, record, balanceStore::getBalance, transactionStore::get);
+            apply(record);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Journal replay failed at sequence " + sequence + ": " + record, e);
+        }
+        replayed++;
+    }
+
+    private void apply(JournalRecord record) {
+        switch (record) {
+            case AccountCreated r -> balanceStore.create(r.accountNo(), r.balance());
+            case AccountCredited r -> balanceStore.credit(r.accountNo(), r.amount());
+            case AccountDebited r -> balanceStore.debit(r.accountNo(), r.amount());
+            case AccountDeleted r -> balanceStore.delete(r.accountNo());
+            case TransactionCreated r -> transactionStore.restore(r.transaction());
+            case TransactionStatusChanged r ->
+                    transactionStore.update(r.transactionId(), transaction -> transaction.setStatus(r.status()));
+            case TransactionDeleted r -> transactionStore.remove(r.transactionId());
+            case TransactionCompleted r -> {
+            }
+        }
+    }
+
+    /**
+     * Take over a transaction that was still open in the restored snapshot; used as its
+     * {@link SnapshotFile#read} consumer.
+     */
+    public void restoreOpen(long transactionId, List<JournalRecord> inverses) {
+        openTransactions.restore(transactionId, inverses);
+    }
+
+    /**
+     * Reverse the changes of every transaction the journal left incomplete, newest first, journaling each reversal
+     * and then the transaction's completion so a later replay does not reverse them again.
+     * @return the number of transactions rolled back
+     */
+    public int rollBackIncomplete(FileJournal journal) {
+        Map<Long, List<JournalRecord>> incomplete = openTransactions.asMap();
+        int count = incomplete.size();
+        incomplete.forEach((transactionId, inverses) -> {
+            for (int i = inverses.size() - 1; i >= 0; i--) {
+                JournalRecord inverse = inverses.get(i);
+                try {
+                    journal.append(transactionId, inverse, () -> apply(inverse));
+                } catch (RuntimeException e) {
+                    logger.error("Could not undo {} of incomplete transaction {}", inverse, transactionId, e);
+                }
+            }
+            journal.complete(transactionId);
+            logger.warn("Rolled back {} changes of incomplete transaction {}", inverses.size(), transactionId);
+        });
+        openTransactions.clear();
+        return count;
+    }
+
+    public long getReplayed() {
+        return replayed;
+    }
+}
@@ -0,0 +1,95 @@
+package com.hsbc.transaction.journal;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * The journal is split into segment files named after the sequence of their first record, so the history a
+ * snapshot covers can be deleted a whole file at a time. Only the last segment is ever appended to.
+ */
+public final class JournalSegments {
+    private static final Pattern FILE_NAME = Pattern.compile("journal-(\\d{20})\\.log");
+
+    public record Segment(long firstSequence, Path path) {
+    }
+
+    /**
+     * Outcome of a replay: the last sequence seen and where the intact part of the last segment ends.
+     */
+    public record ReplayResult(long lastSequence, long lastSegmentEnd) {
+    }
+
+    private JournalSegments() {
+    }
+
+    public static String fileName(long firstSequence) {
+        return String.format("journal-%020d.log", firstSequence);
+    }
+
+    /**
+     * Segments in {@code directory}, oldest first.
+     */
+    public static List<Segment> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .map(path -> {
+                        Matcher matcher = FILE_NAME.matcher(path.getFileName().toString());
+                        return matcher.matches() ? new Segment(Long.parseLong(matcher.group(1)), path) : null;
+                    })
+                    .filter(segment -> segment != null)
+                    .sorted((a, b) -> Long.compare(a.firstSequence(), b.firstSequence()))
+                    .toList();
+        }
+    }
+
+    /**
+     * Hand every record after sequence {@code after} to {@code handler}, in order, skipping segments that hold
+     * nothing newer. Only the last segment may end in a torn record; damage anywhere else, or a journal that does
+     * not continue from {@code after}, fails the replay because the records past it would apply to the wrong state.
+     */
+    public static ReplayResult replay(List<Segment> segments, long after, JournalReader.RecordHandler handler)
+            throws IOException {
+        long lastSequence = 0;
+        long lastSegmentEnd = 0;
+        long[] expected = {after + 1};
+        JournalReader.RecordHandler tail = (sequence, transactionId, record) -> {
+            if (sequence < expected[0]) {
+                return;
+            }
+            if (sequence != expected[0]) {
+                throw new IllegalStateException("Journal does not continue from sequence " + (expected[0] - 1)
+                        + ": next record is " + sequence);
+            }
+            handler.accept(sequence, transactionId, record);
+            expected[0]++;
+        };
+        for (int i = 0; i < segments.size(); i++) {
+            boolean last = i == segments.size() - 1;
+            if (!last && segments.get(i + 1).firstSequence() <= after + 1) {
+                continue;
+            }
+            Segment segment = segments.get(i);
+            try (FileChannel channel = FileChannel.open(segment.path(), StandardOpenOption.READ)) {
+                JournalReader reader = new JournalReader(channel, lastSequence);
+                reader.read(tail);
+                if (!last && reader.getValidEnd() < channel.size()) {
+                    throw new IllegalStateException("Journal segment " + segment.path() + " is damaged at offset "
+                            + reader.getValidEnd());
+                }
+                lastSequence = reader.getLastSequence();
+                lastSegmentEnd = reader.getValidEnd();
+            }
+        }
+        return new ReplayResult(lastSequence, lastSegmentEnd);
+    }
+}
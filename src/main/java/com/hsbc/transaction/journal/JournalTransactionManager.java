@@ -0,0 +1,127 @@
+package com.hsbc.transaction.journal;
+
+import com.hsbc.transaction.audit.PostingAudit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction manager for the in-memory stores. Each transaction binds an {@link UndoLog} to the thread; commit
+ * keeps the changes, rollback reverses them newest first, journaling each reversal like any other change. The
+ * journal tags every record with the transaction's ID and gets one completion record when it ends, which is also
+ * the only point a transaction waits for its records to become durable. On startup, the records of transactions
+ * that never completed are rolled back by {@link JournalReplayer#rollBackIncomplete}.
+ * <p>
+ * There is no isolation: other threads see changes before commit, so a rollback can fail to reverse a credit whose
+ * funds were already spent. Such failures are reported as a {@link TransactionSystemException} after every other
+ * change has been reversed.
+ * <p>
+ * If the journal fails, the completion record of a committing transaction never reaches disk, so the commit fails
+ * and the transaction is rolled back. The reversals are then applied in memory only: a restart rolls the
+ * transaction back from the journal too, since it has no completion there.
+ */
+public class JournalTransactionManager extends AbstractPlatformTransactionManager {
+    private static final Logger logger = LoggerFactory.getLogger(JournalTransactionManager.class);
+
+    private final Journal journal;
+
+    public JournalTransactionManager(Journal journal) {
+        this.journal = journal;
+    }
+
+    private static final class TransactionObject implements SmartTransactionObject {
+        private UndoLog undoLog;
+
+        @Override
+        public boolean isRollbackOnly() {
+            return undoLog.isRollbackOnly();
+        }
+
+        @Override
+        public void flush() {
+        }
+    }
+
+    @Override
+    protected Object doGetTransaction() {
+        TransactionObject transaction = new TransactionObject();
+        transaction.undoLog = UndoLog.current();
+        return transaction;
+    }
+
+    @Override
+    protected boolean isExistingTransaction(Object transaction) {
+        return ((TransactionObject) transaction).undoLog != null;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        UndoLog undoLog = new UndoLog();
+        ((TransactionObject) transaction).undoLog = undoLog;
+        TransactionSynchronizationManager.bindResource(UndoLog.class, undoLog);
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        ((TransactionObject) transaction).undoLog = null;
+        return TransactionSynchronizationManager.unbindResource(UndoLog.class);
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        TransactionSynchronizationManager.bindResource(UndoLog.class, suspendedResources);
+    }
+
+    @Override
+    protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+        ((TransactionObject) status.getTransaction()).undoLog.setRollbackOnly();
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        UndoLog undoLog = ((TransactionObject) status.getTransaction()).undoLog;
+        if (undoLog.isWritten()) {
+            journal.complete(undoLog.getId());
+        }
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+        UndoLog undoLog = ((TransactionObject) status.getTransaction()).undoLog;
+        RuntimeException failure = null;
+        int failed = 0;
+        for (UndoLog.Entry entry : undoLog.entries()) {
+            try {
+                if (journal.isFailed()) {
+                    entry.undo().run();
+                } else {
+                    journal.append(entry.inverse(), entry.undo());
+                }
+            } catch (RuntimeException e) {
+                logger.error("Could not undo {} in transaction {}", entry.inverse(), undoLog.getId(), e);
+                failure = failure == null ? e : failure;
+                failed++;
+            }
+        }
+        if (undoLog.isWritten() && !journal.isFailed()) {
+            journal.complete(undoLog.getId());
+        }
+        if (undoLog.size() > 0) {
+            PostingAudit.rolledBack(undoLog.getId(), undoLog.size() - failed);
+        }
+        if (failure != null) {
+            throw new TransactionSystemException("Could not undo " + failed + " of " + undoLog.size()
+                    + " changes in transaction " + undoLog.getId(), failure);
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(UndoLog.class);
+    }
+}
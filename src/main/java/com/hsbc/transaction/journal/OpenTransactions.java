@@ -0,0 +1,61 @@
+package com.hsbc.transaction.journal;
+
+import com.hsbc.transaction.journal.JournalRecord.TransactionCompleted;
+import com.hsbc.transaction.journal.JournalRecord.TransactionDeleted;
+import com.hsbc.transaction.journal.JournalRecord.TransactionStatusChanged;
+import com.hsbc.transaction.model.Transaction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * While the journal is being replayed, the inverse records of every transaction that has written changes but no
+ * completion yet, oldest first. Whatever is left at the end of the journal was cut off by a crash.
+ */
+final class OpenTransactions {
+    private final Map<Long, List<JournalRecord>> inverses = new ConcurrentHashMap<>();
+
+    /**
+     * Take over a transaction that was still open when a snapshot was written.
+     */
+    void restore(long transactionId, List<JournalRecord> transactionInverses) {
+        inverses.put(transactionId, new ArrayList<>(transactionInverses));
+    }
+
+    /**
+     * Track {@code record}; must be called before it is applied, since its inverse is computed from the state it
+     * replaces. A change to a transaction that is not there, because retention discarded it before the restore,
+     * applies to nothing and so has nothing to undo.
+     */
+    void track(long transactionId, JournalRecord record, Function<String, BigDecimal> balanceBefore,
+               Function<String, Transaction> transactionBefore) {
+        if (transactionId == 0) {
+            return;
+        }
+        if (record instanceof TransactionCompleted) {
+            inverses.remove(transactionId);
+            return;
+        }
+        List<JournalRecord> undo = inverses.computeIfAbsent(transactionId, id -> new ArrayList<>());
+        boolean discarded = switch (record) {
+            case TransactionStatusChanged r -> transactionBefore.apply(r.transactionId()) == null;
+            case TransactionDeleted r -> transactionBefore.apply(r.transactionId()) == null;
+            default -> false;
+        };
+        if (!discarded) {
+            undo.add(JournalRecord.inverseOf(record, balanceBefore, transactionBefore));
+        }
+    }
+
+    Map<Long, List<JournalRecord>> asMap() {
+        return inverses;
+    }
+
+    void clear() {
+        inverses.clear();
+    }
+}
@@ -0,0 +1,214 @@
+package com.hsbc.transaction.journal;
+
+import com.hsbc.transaction.model.Transaction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary snapshot of every balance and transaction as of one journal sequence, plus the inverse records of the
+ * transactions open at that point. The entries are split into independently checksummed chunks so a restore can
+ * decode them in parallel:
+ * <pre>
+ * int  magic, int version, long sequence
+ * repeated: byte kind (1 accounts, 2 transactions, 3 open transactions), int entries, int length, int checksum,
+ *           length bytes
+ * byte 0   end marker
+ * </pre>
+ * Entries use the {@link JournalCodec} encodings. A snapshot is written to a temporary file and renamed into place,
+ * so a file with the final name is always complete.
+ */
+public final class SnapshotFile {
+    private static final int MAGIC = 0x54584E53;
+    private static final int VERSION = 1;
+    private static final byte END = 0;
+    private static final byte ACCOUNTS = 1;
+    private static final byte TRANSACTIONS = 2;
+    private static final byte OPEN_TRANSACTIONS = 3;
+    private static final int CHUNK_HEADER_BYTES = 13;
+    private static final int ENTRIES_PER_CHUNK = 8192;
+    private static final Pattern FILE_NAME = Pattern.compile("snapshot-(\\d{20})\\.snap");
+
+    public record Entry(long sequence, Path path) {
+    }
+
+    private record Chunk(byte kind, int entries, long offset, int length, int checksum) {
+    }
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Snapshots in {@code directory}, oldest first.
+     */
+    public static List<Entry> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .map(path -> {
+                        Matcher matcher = FILE_NAME.matcher(path.getFileName().toString());
+                        return matcher.matches() ? new Entry(Long.parseLong(matcher.group(1)), path) : null;
+                    })
+                    .filter(entry -> entry != null)
+                    .sorted((a, b) -> Long.compare(a.sequence(), b.sequence()))
+                    .toList();
+        }
+    }
+
+    public static Path write(Path directory, long sequence, Map<String, BigDecimal> balances,
+                             Collection<Transaction> transactions,
+                             Map<Long, List<JournalRecord>> openTransactions) throws IOException {
+        Path file = directory.resolve(String.format("snapshot-%020d.snap", sequence));
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(16).putInt(MAGIC).putInt(VERSION).putLong(sequence).flip();
+            writeFully(channel, header);
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+            buffer = writeChunks(channel, buffer, ACCOUNTS, balances.entrySet().iterator(), (out, entry) -> {
+                JournalCodec.putString(out, entry.getKey());
+                JournalCodec.putDecimal(out, entry.getValue());
+            });
+            buffer = writeChunks(channel, buffer, TRANSACTIONS, transactions.iterator(), JournalCodec::putTransaction);
+            writeChunks(channel, buffer, OPEN_TRANSACTIONS, openTransactions.entrySet().iterator(), (out, entry) -> {
+                out.putLong(entry.getKey());
+                out.putInt(entry.getValue().size());
+                for (JournalRecord inverse : entry.getValue()) {
+                    JournalCodec.encodeEntry(out, inverse);
+                }
+            });
+            writeFully(channel, ByteBuffer.wrap(new byte[]{END}));
+            channel.force(true);
+        }
+        return Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static <T> ByteBuffer writeChunks(FileChannel channel, ByteBuffer buffer, byte kind, Iterator<T> entries,
+                                              BiConsumer<ByteBuffer, T> encoder) throws IOException {
+        while (entries.hasNext()) {
+            buffer.clear().position(CHUNK_HEADER_BYTES);
+            int count = 0;
+            while (count < ENTRIES_PER_CHUNK && entries.hasNext()) {
+                T entry = entries.next();
+                int start = buffer.position();
+                while (true) {
+                    try {
+                        encoder.accept(buffer, entry);
+                        break;
+                    } catch (BufferOverflowException e) {
+                        ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                        buffer.position(start).flip();
+                        buffer = larger.put(buffer);
+                    }
+                }
+                count++;
+            }
+            int length = buffer.position() - CHUNK_HEADER_BYTES;
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(CHUNK_HEADER_BYTES, length));
+            buffer.put(0, kind).putInt(1, count).putInt(5, length).putInt(9, (int) crc.getValue());
+            writeFully(channel, buffer.flip());
+        }
+        return buffer;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Decode a snapshot, handing its entries to the consumers from several threads at once; they must be safe
+     * for concurrent use.
+     * @return the journal sequence the snapshot covers
+     */
+    public static long read(Path file, BiConsumer<String, BigDecimal> accounts, Consumer<Transaction> transactions,
+                            BiConsumer<Long, List<JournalRecord>> openTransactions) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = readAt(channel, 0, 16);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a supported snapshot file: " + file);
+            }
+            long sequence = header.getLong();
+
+            List<Chunk> chunks = new ArrayList<>();
+            long offset = 16;
+            while (true) {
+                byte kind = readAt(channel, offset, 1).get();
+                if (kind == END) {
+                    break;
+                }
+                ByteBuffer chunkHeader = readAt(channel, offset, CHUNK_HEADER_BYTES);
+                chunkHeader.get();
+                Chunk chunk = new Chunk(kind, chunkHeader.getInt(), offset + CHUNK_HEADER_BYTES,
+                        chunkHeader.getInt(), chunkHeader.getInt());
+                chunks.add(chunk);
+                offset = chunk.offset() + chunk.length();
+            }
+
+            try {
+                chunks.parallelStream().forEach(chunk -> {
+                    try {
+                        ByteBuffer body = readAt(channel, chunk.offset(), chunk.length());
+                        if (!JournalCodec.verify(body, chunk.checksum())) {
+                            throw new IOException("Snapshot chunk at offset " + chunk.offset() + " is damaged");
+                        }
+                        for (int i = 0; i < chunk.entries(); i++) {
+                            switch (chunk.kind()) {
+                                case ACCOUNTS ->
+                                        accounts.accept(JournalCodec.getString(body), JournalCodec.getDecimal(body));
+                                case TRANSACTIONS -> transactions.accept(JournalCodec.getTransaction(body));
+                                case OPEN_TRANSACTIONS -> {
+                                    long transactionId = body.getLong();
+                                    List<JournalRecord> inverses = new ArrayList<>();
+                                    for (int n = body.getInt(); n > 0; n--) {
+                                        inverses.add(JournalCodec.decodeEntry(body));
+                                    }
+                                    openTransactions.accept(transactionId, inverses);
+                                }
+                                default -> throw new IOException("Unknown snapshot chunk kind " + chunk.kind());
+                            }
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return sequence;
+        }
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Snapshot ends unexpectedly at offset " + (offset + buffer.position()));
+            }
+        }
+        return buffer.flip();
+    }
+}
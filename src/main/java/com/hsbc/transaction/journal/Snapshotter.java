@@ -0,0 +1,157 @@
+package com.hsbc.transaction.journal;
+
+import com.hsbc.transaction.journal.JournalRecord.AccountCreated;
+import com.hsbc.transaction.journal.JournalRecord.AccountCredited;
+import com.hsbc.transaction.journal.JournalRecord.AccountDebited;
+import com.hsbc.transaction.journal.JournalRecord.AccountDeleted;
+import com.hsbc.transaction.journal.JournalRecord.TransactionCompleted;
+import com.hsbc.transaction.journal.JournalRecord.TransactionCreated;
+import com.hsbc.transaction.journal.JournalRecord.TransactionDeleted;
+import com.hsbc.transaction.journal.JournalRecord.TransactionStatusChanged;
+import com.hsbc.transaction.model.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Periodically folds the journal into a {@link SnapshotFile} so startup only replays the journal written since.
+ * <p>
+ * A snapshot is built on the side rather than copied from the live stores: the previous snapshot is loaded into
+ * private maps and the journal records up to the current durable sequence are applied to them. The result is
+ * exactly the state at that sequence, produced without locking or pausing the writers, whose only cost is the
+ * snapshot thread's disk reads. Transactions still open at that sequence are carried in the snapshot as their
+ * inverse records, so a restore can finish or roll them back. Afterwards all but the newest {@code retain} snapshots are deleted, together with
+ * the journal segments every remaining snapshot already covers.
+ */
+public class Snapshotter implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(Snapshotter.class);
+
+    private final FileJournal journal;
+    private final int retain;
+    private final ReentrantLock lock = new ReentrantLock();
+    private ScheduledExecutorService scheduler;
+
+    public Snapshotter(FileJournal journal, int retain) {
+        if (retain < 1) {
+            throw new IllegalArgumentException("At least one snapshot must be retained");
+        }
+        this.journal = journal;
+        this.retain = retain;
+    }
+
+    public void start(Duration interval) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (Exception e) {
+                logger.error("Snapshot failed, will retry in {}", interval, e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Write a snapshot as of the journal's durable sequence, unless the newest snapshot already covers it.
+     * @return the sequence covered by the newest snapshot afterwards
+     */
+    public long snapshot() throws IOException {
+        lock.lock();
+        try {
+            Path directory = journal.getDirectory();
+            long target = journal.getDurableSequence();
+            List<SnapshotFile.Entry> snapshots = SnapshotFile.list(directory);
+            long base = snapshots.isEmpty() ? 0 : snapshots.get(snapshots.size() - 1).sequence();
+            if (target <= base) {
+                return base;
+            }
+
+            long started = System.nanoTime();
+            Map<String, BigDecimal> balances = new ConcurrentHashMap<>();
+            Map<String, Transaction> transactions = new ConcurrentHashMap<>();
+            OpenTransactions openTransactions = new OpenTransactions();
+            if (base > 0) {
+                SnapshotFile.read(snapshots.get(snapshots.size() - 1).path(), balances::put,
+                        transaction -> transactions.put(transaction.getTransactionId(), transaction),
+                        openTransactions::restore);
+            }
+            JournalSegments.replay(JournalSegments.list(directory), base, (sequence, transactionId, record) -> {
+                if (sequence <= target) {
+                    openTransactions.track(transactionId, record, balances::get, transactions::get);
+                    apply(record, balances, transactions);
+                }
+            });
+            SnapshotFile.write(directory, target, balances, transactions.values(), openTransactions.asMap());
+            logger.info("Wrote snapshot at sequence {} ({} accounts, {} transactions) in {} ms", target,
+                    balances.size(), transactions.size(), (System.nanoTime() - started) / 1_000_000);
+
+            prune(directory);
+            return target;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void apply(JournalRecord record, Map<String, BigDecimal> balances,
+                              Map<String, Transaction> transactions) {
+        switch (record) {
+            case AccountCreated r -> balances.put(r.accountNo(), r.balance());
+            case AccountCredited r -> balances.computeIfPresent(r.accountNo(), (key, balance) -> balance.add(r.amount()));
+            case AccountDebited r ->
+                    balances.computeIfPresent(r.accountNo(), (key, balance) -> balance.subtract(r.amount()));
+            case AccountDeleted r -> balances.remove(r.accountNo());
+            case TransactionCreated r -> transactions.put(r.transaction().getTransactionId(), r.transaction());
+            case TransactionStatusChanged r -> {
+                Transaction transaction = transactions.get(r.transactionId());
+                if (transaction != null) {
+                    transaction.setStatus(r.status());
+                }
+            }
+            case TransactionDeleted r -> transactions.remove(r.transactionId());
+            case TransactionCompleted r -> {
+            }
+        }
+    }
+
+    /**
+     * Delete snapshots beyond the newest {@code retain}, and journal segments whose records are all covered by the
+     * oldest snapshot kept. The last segment is never deleted since the journal is still appending to it.
+     */
+    private void prune(Path directory) throws IOException {
+        List<SnapshotFile.Entry> snapshots = SnapshotFile.list(directory);
+        int excess = snapshots.size() - retain;
+        for (int i = 0; i < excess; i++) {
+            Files.deleteIfExists(snapshots.get(i).path());
+        }
+        long oldestKept = snapshots.get(Math.max(0, excess)).sequence();
+        List<JournalSegments.Segment> segments = JournalSegments.list(directory);
+        for (int i = 0; i < segments.size() - 1; i++) {
+            if (segments.get(i + 1).firstSequence() <= oldestKept + 1) {
+                Files.deleteIfExists(segments.get(i).path());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.hsbc.transaction.journal;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Changes made by one in-memory transaction, bound to the thread by {@link JournalTransactionManager}. After each
+ * change a service registers the record and the action that reverse it; a rollback applies them newest first.
+ * Outside a transaction {@link #register} does nothing.
+ */
+public final class UndoLog {
+    private static final AtomicLong ids = new AtomicLong();
+
+    /**
+     * A reversing record and the store update that applies it.
+     */
+    public record Entry(JournalRecord inverse, Runnable undo) {
+    }
+
+    private final long id = ids.incrementAndGet();
+    private final Deque<Entry> entries = new ArrayDeque<>();
+    private boolean written;
+    private boolean rollbackOnly;
+
+    UndoLog() {
+    }
+
+    /**
+     * The undo log of the transaction active on this thread, or null.
+     */
+    public static UndoLog current() {
+        return (UndoLog) TransactionSynchronizationManager.getResource(UndoLog.class);
+    }
+
+    public static void register(JournalRecord inverse, Runnable undo) {
+        UndoLog log = current();
+        if (log != null) {
+            log.entries.push(new Entry(inverse, undo));
+        }
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Entries newest first.
+     */
+    Iterable<Entry> entries() {
+        return entries;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Note that a record tagged with this transaction's ID reached the journal, so it must be completed.
+     */
+    void markWritten() {
+        written = true;
+    }
+
+    boolean isWritten() {
+        return written;
+    }
+
+    void setRollbackOnly() {
+        rollbackOnly = true;
+    }
+
+    boolean isRollbackOnly() {
+        return rollbackOnly;
+    }
+}
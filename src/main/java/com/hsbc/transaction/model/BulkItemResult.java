@@ -0,0 +1,22 @@
+package com.hsbc.transaction.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@Schema(description = "Outcome of one item of a bulk transaction request")
+public class BulkItemResult {
+    @Schema(description = "0-based position of the item in the request")
+    private long index;
+
+    @Schema(description = "ID of the created transaction, or the rejected item's own ID if it had one")
+    private String transactionId;
+
+    @Schema(description = "Whether the item was created")
+    private boolean created;
+
+    @Schema(description = "Why the item was rejected")
+    private String error;
+}
@@ -15,4 +15,9 @@ public class PageResponse<T> {
     private int totalPages;
     private boolean first;
     private boolean last;
+    /**
+     * Opaque keyset cursor for the next page, or null when there are no further results.
+     * Only populated by cursor-based queries; offset-based queries leave it null.
+     */
+    private String nextCursor;
 } 
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.hsbc.transaction.model;
 
+import com.hsbc.transaction.id.TransactionIds;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
@@ -9,7 +10,6 @@ import lombok.Data;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @Data
 @Builder
@@ -43,7 +43,7 @@ public class Transaction {
 
     public static Transaction createInitialTransaction(String accountNo, BigDecimal amount, String description, TransactionDirection direction) {
         return Transaction.builder()
-                .transactionId(UUID.randomUUID().toString())
+                .transactionId(TransactionIds.next())
                 .accountNo(accountNo)
                 .amount(amount)
                 .description(description)
@@ -55,7 +55,7 @@ public class Transaction {
 
     public static Transaction coloneTransaction(Transaction transaction) {
         return Transaction.builder()
-                .transactionId(UUID.randomUUID().toString())
+                .transactionId(TransactionIds.next())
                 .accountNo(transaction.accountNo)
                 .amount(transaction.getAmount())
                 .description(transaction.getDescription())
@@ -67,7 +67,7 @@ public class Transaction {
 
     public static Transaction revertTransaction(Transaction transaction) {
         return Transaction.builder()
-                .transactionId(UUID.randomUUID().toString())
+                .transactionId(TransactionIds.next())
                 .accountNo(transaction.accountNo)
                 .amount(transaction.getAmount())
                 .description(transaction.getDescription())
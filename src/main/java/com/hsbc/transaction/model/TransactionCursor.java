@@ -0,0 +1,45 @@
+package com.hsbc.transaction.model;
+
+import com.hsbc.transaction.exception.InvalidCursorException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the transaction history: the timestamp and ID of the last transaction a client has seen.
+ * Clients only ever handle the opaque, URL-safe string produced by {@link #encode()}.
+ */
+@Value
+public class TransactionCursor {
+    private static final char SEPARATOR = '|';
+
+    LocalDateTime timestamp;
+    String transactionId;
+
+    public static TransactionCursor of(Transaction transaction) {
+        return new TransactionCursor(transaction.getTimestamp(), transaction.getTransactionId());
+    }
+
+    public String encode() {
+        String raw = timestamp.toString() + SEPARATOR + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0 || separator == raw.length() - 1) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            return new TransactionCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -7,5 +7,12 @@ import java.util.List;
 public interface BusinessService {
     void combine(List<Transaction> transactions);
 
+    /**
+     * {@link #combine(List)} at most once per idempotency key: a retry with the same key returns without applying
+     * the legs again.
+     * @param idempotencyKey The client's key for this request, or null to always apply
+     * @throws com.hsbc.transaction.exception.IdempotencyKeyReusedException if the key was used for different legs
+     */
+    void combine(List<Transaction> transactions, String idempotencyKey);
 
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.hsbc.transaction.service;
+
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * {@link AccountService} for non-blocking callers: each call runs on the service scheduler and completes once its
+ * changes are durable, without a thread waiting for the journal meanwhile. Nothing runs until subscription.
+ */
+public interface ReactiveAccountService {
+
+    Mono<BigDecimal> getBalance(String accountNo);
+
+    Mono<Void> credit(String accountNo, BigDecimal amount);
+
+    Mono<Void> createAccount(String accountNo, BigDecimal initBalance);
+
+    Mono<Void> debit(String accountNo, BigDecimal amount);
+
+    Mono<Void> deleteAccount(String accountNo);
+}
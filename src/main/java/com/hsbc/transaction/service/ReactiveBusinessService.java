@@ -0,0 +1,19 @@
+package com.hsbc.transaction.service;
+
+import com.hsbc.transaction.model.Transaction;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * {@link BusinessService} for non-blocking callers, on the same terms as {@link ReactiveAccountService}.
+ */
+public interface ReactiveBusinessService {
+
+    Mono<Void> combine(List<Transaction> transactions);
+
+    /**
+     * See {@link BusinessService#combine(List, String)}.
+     */
+    Mono<Void> combine(List<Transaction> transactions, String idempotencyKey);
+}
@@ -0,0 +1,53 @@
+package com.hsbc.transaction.service;
+
+import com.hsbc.transaction.model.BulkItemResult;
+import com.hsbc.transaction.model.PageResponse;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionFilter;
+import com.hsbc.transaction.model.TransactionStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * {@link TransactionService} for non-blocking callers, on the same terms as {@link ReactiveAccountService}. The
+ * streaming methods honour backpressure, so their memory use does not depend on how many transactions flow through.
+ */
+public interface ReactiveTransactionService {
+
+    Mono<Transaction> createTransaction(Transaction transaction);
+
+    /**
+     * See {@link TransactionService#createTransaction(Transaction, String)}.
+     */
+    Mono<Transaction> createTransaction(Transaction transaction, String idempotencyKey);
+
+    /**
+     * See {@link TransactionService#createTransactions}.
+     */
+    Mono<List<BulkItemResult>> createTransactions(List<Transaction> transactions, long firstIndex);
+
+    /**
+     * Create transactions as they arrive, a batch at a time, one batch in flight. The next batch is only requested
+     * once the previous one is created, so a fast source is held back rather than buffered.
+     * @return One result per item, in order, numbered from 0
+     */
+    Flux<BulkItemResult> createTransactions(Flux<Transaction> transactions);
+
+    Mono<Transaction> updateTransactionStatus(String transactionId, TransactionStatus status);
+
+    Mono<PageResponse<Transaction>> queryTransactions(TransactionFilter filter, int page, int size);
+
+    Mono<PageResponse<Transaction>> queryTransactionsAfter(TransactionFilter filter, String cursor, int size);
+
+    /**
+     * See {@link TransactionService#streamTransactions}; the index is walked only as far as the subscriber has
+     * requested.
+     */
+    Flux<Transaction> streamTransactions(TransactionFilter filter);
+
+    Mono<Transaction> getTransaction(String id);
+
+    Mono<Void> deleteTransaction(String id);
+}
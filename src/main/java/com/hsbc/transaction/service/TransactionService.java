@@ -1,19 +1,28 @@
 package com.hsbc.transaction.service;
 
+import com.hsbc.transaction.id.TransactionIds;
+import com.hsbc.transaction.model.BulkItemResult;
 import com.hsbc.transaction.model.PageResponse;
 import com.hsbc.transaction.model.Transaction;
 import com.hsbc.transaction.model.TransactionFilter;
 import com.hsbc.transaction.model.TransactionStatus;
 
-import java.util.UUID;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface TransactionService {
+    /**
+     * Items handed to {@link #createTransactions} per call, and so per journal fsync, by the bulk endpoints.
+     */
+    int BULK_BATCH_SIZE = 1000;
+
     /**
      * Generate a new transaction ID
-     * @return A new UUID string
+     * @return A new ID from the configured {@link TransactionIds} generator
      */
     default String generateTransactionId(){
-        return UUID.randomUUID().toString();
+        return TransactionIds.next();
     }
 
     /**
@@ -23,6 +32,26 @@ public interface TransactionService {
      */
     Transaction createTransaction(Transaction transaction);
 
+    /**
+     * Create a new transaction at most once per idempotency key: a retry with the same key returns the transaction
+     * the first call created instead of creating another.
+     * @param transaction The transaction to create
+     * @param idempotencyKey The client's key for this request, or null to always create
+     * @return The created transaction, or the one created by the first call with this key
+     * @throws com.hsbc.transaction.exception.IdempotencyKeyReusedException if the key was used for a different
+     *         transaction
+     */
+    Transaction createTransaction(Transaction transaction, String idempotencyKey);
+
+    /**
+     * Create a batch of transactions, each validated and created independently: an invalid item is reported and
+     * the rest are still created. The batch is journaled as one unit, so it waits for a single fsync.
+     * @param transactions The transactions to create, with IDs generated where missing
+     * @param firstIndex Index reported for the first item, so results of consecutive batches number on
+     * @return One result per item, in order
+     */
+    List<BulkItemResult> createTransactions(List<Transaction> transactions, long firstIndex);
+
     /**
      * Update an existing transaction's status
      * @param transactionId The ID of the transaction to update
@@ -42,6 +71,36 @@ public interface TransactionService {
      */
     PageResponse<Transaction> queryTransactions(TransactionFilter filter, int page, int size);
 
+    /**
+     * Query transactions with optional filters using keyset pagination.
+     * Each page continues strictly after the position encoded in the cursor, so the cost of a page does not
+     * depend on how deep into the history it is and transactions arriving meanwhile do not shift the results.
+     * @param filter Optional filters for transactions
+     * @param cursor The nextCursor of the previous page, or null/blank for the first page
+     * @param size The page size
+     * @return PageResponse containing the page and the cursor for the next one. totalElements and totalPages
+     *         are only filled in when known without a scan, otherwise they are -1
+     */
+    PageResponse<Transaction> queryTransactionsAfter(TransactionFilter filter, String cursor, int size);
+
+    /**
+     * Hand every transaction matching the filter to the sink, newest first, as the index is walked, so memory use
+     * does not depend on how many match. Transactions created or changed during the walk may or may not be seen.
+     * @param filter Optional filters for transactions
+     * @param sink Receives each matching transaction; an exception from it stops the export
+     * @return The number of transactions exported
+     */
+    long exportTransactions(TransactionFilter filter, Consumer<Transaction> sink);
+
+    /**
+     * Every transaction matching the filter, newest first, walked lazily as the stream is consumed, so a consumer
+     * that pulls slowly holds the walk back instead of buffering matches. Transactions created or changed during the
+     * walk may or may not be seen. Close the stream when done.
+     * @param filter Optional filters for transactions
+     * @return The matching transactions
+     */
+    Stream<Transaction> streamTransactions(TransactionFilter filter);
+
     Transaction getTransactionOrThrow(String id);
 
     /**
@@ -1,13 +1,21 @@
 package com.hsbc.transaction.service.impl;
 
-import com.hsbc.transaction.exception.AccountAlwaysExistException;
-import com.hsbc.transaction.exception.AccountNotFoundException;
+import com.hsbc.transaction.audit.PostingAudit;
 import com.hsbc.transaction.exception.InsufficientBalanceException;
+import com.hsbc.transaction.journal.Journal;
+import com.hsbc.transaction.journal.JournalRecord;
+import com.hsbc.transaction.journal.UndoLog;
 import com.hsbc.transaction.model.Transaction;
 import com.hsbc.transaction.model.TransactionDirection;
 import com.hsbc.transaction.service.AccountService;
+import com.hsbc.transaction.store.BalanceStore;
+import com.hsbc.transaction.store.DecimalBalanceStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
@@ -15,30 +23,66 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @CacheConfig(cacheNames = "accounts")
 public class AccountServiceImpl implements AccountService {
     private static final Logger logger = LoggerFactory.getLogger(AccountServiceImpl.class);
-    private final ConcurrentHashMap<String, BigDecimal> accountBalances = new ConcurrentHashMap<>();
+    private final BalanceStore balanceStore;
+    private final Journal journal;
+    private final OperationTimer createTimer;
+    private final OperationTimer creditTimer;
+    private final OperationTimer debitTimer;
+    private final OperationTimer balanceTimer;
+    private final OperationTimer deleteTimer;
+    private final Counter insufficientBalance;
+
+    public AccountServiceImpl() {
+        this(new DecimalBalanceStore(), Journal.DISABLED);
+    }
+
+    public AccountServiceImpl(BalanceStore balanceStore, Journal journal) {
+        this(balanceStore, journal, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Each operation is timed as {@code account.operation.time}; debits refused for lack of funds are counted as
+     * {@code account.insufficient.balance}.
+     */
+    @Autowired
+    public AccountServiceImpl(BalanceStore balanceStore, Journal journal, MeterRegistry meterRegistry) {
+        this.balanceStore = balanceStore;
+        this.journal = journal;
+        this.createTimer = new OperationTimer(meterRegistry, "account.operation.time", "create");
+        this.creditTimer = new OperationTimer(meterRegistry, "account.operation.time", "credit");
+        this.debitTimer = new OperationTimer(meterRegistry, "account.operation.time", "debit");
+        this.balanceTimer = new OperationTimer(meterRegistry, "account.operation.time", "balance");
+        this.deleteTimer = new OperationTimer(meterRegistry, "account.operation.time", "delete");
+        this.insufficientBalance = insufficientBalanceCounter(meterRegistry, "debit");
+    }
+
+    static Counter insufficientBalanceCounter(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder("account.insufficient.balance")
+                .description("Debits refused because the account could not cover them")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
 
     @Override
     @Transactional
     @CachePut(key = "#accountNo")
     public void createAccount(String accountNo, BigDecimal initBalance) {
-        if (initBalance == null) {
-            throw new IllegalArgumentException("Initial balance cannot be null");
-        }
-        if (initBalance.compareTo(BigDecimal.ZERO) < 0) {
-            throw new IllegalArgumentException("Initial balance cannot be negative");
-        }
-
-        accountBalances.compute(accountNo, (key, existing) -> {
-            if (existing != null) {
-                throw new AccountAlwaysExistException("Account already exists: " + accountNo);
+        createTimer.record(() -> {
+            if (initBalance == null) {
+                throw new IllegalArgumentException("Initial balance cannot be null");
+            }
+            if (initBalance.compareTo(BigDecimal.ZERO) < 0) {
+                throw new IllegalArgumentException("Initial balance cannot be negative");
             }
-            return initBalance;
+
+            journal.append(new JournalRecord.AccountCreated(accountNo, initBalance),
+                    () -> balanceStore.create(accountNo, initBalance));
+            UndoLog.register(new JournalRecord.AccountDeleted(accountNo), () -> balanceStore.delete(accountNo));
         });
     }
 
@@ -46,11 +90,12 @@ public class AccountServiceImpl implements AccountService {
     @Transactional
     @CachePut(key = "#accountNo")
     public void credit(String accountNo, BigDecimal amount) {
-        accountBalances.compute(accountNo, (key, currentBalance) -> {
-            if (currentBalance == null) {
-                throw new AccountNotFoundException("Account not found: " + accountNo);
-            }
-            return currentBalance.add(amount);
+        creditTimer.record(() -> {
+            journal.append(new JournalRecord.AccountCredited(accountNo, amount),
+                    () -> balanceStore.credit(accountNo, amount));
+            UndoLog.register(new JournalRecord.AccountDebited(accountNo, amount),
+                    () -> balanceStore.debit(accountNo, amount));
+            PostingAudit.credited(accountNo, amount);
         });
     }
 
@@ -58,40 +103,41 @@ public class AccountServiceImpl implements AccountService {
     @Transactional
     @CachePut(key = "#accountNo")
     public void debit(String accountNo, BigDecimal amount) {
-        accountBalances.compute(accountNo, (key, currentBalance) -> {
-            if (currentBalance == null) {
-                throw new AccountNotFoundException("Account not found: " + accountNo);
-            } else if (currentBalance.compareTo(amount) < 0) {
-                throw new InsufficientBalanceException(
-                    String.format("Insufficient balance in account %s. Required: %s, Available: %s",
-                        accountNo, amount, currentBalance)
-                );
+        debitTimer.record(() -> {
+            try {
+                journal.append(new JournalRecord.AccountDebited(accountNo, amount),
+                        () -> balanceStore.debit(accountNo, amount));
+            } catch (InsufficientBalanceException e) {
+                insufficientBalance.increment();
+                PostingAudit.debitRejected(accountNo, amount);
+                throw e;
             }
-            return currentBalance.subtract(amount);
+            UndoLog.register(new JournalRecord.AccountCredited(accountNo, amount),
+                    () -> balanceStore.credit(accountNo, amount));
+            PostingAudit.debited(accountNo, amount);
         });
     }
 
     @Override
     @CachePut(key = "#accountNo")
     public BigDecimal getBalance(String accountNo) {
-        BigDecimal balance = accountBalances.get(accountNo);
-        if (balance == null) {
-            throw new AccountNotFoundException("Account not found: " + accountNo);
-        }
-        return balance;
+        return balanceTimer.record(() -> balanceStore.getBalance(accountNo));
     }
 
     @Override
     @Transactional
     @CacheEvict(key = "#accountNo")
     public void deleteAccount(String accountNo) {
-        accountBalances.compute(accountNo, (key, existing) -> {
-            if (existing == null) {
-                throw new AccountNotFoundException("Account not found: " + accountNo);
-            }
-            logger.info("Deleting account: {}", accountNo);
-            return null;
+        deleteTimer.record(() -> {
+            BigDecimal[] balance = new BigDecimal[1];
+            journal.append(new JournalRecord.AccountDeleted(accountNo), () -> {
+                balance[0] = balanceStore.getBalance(accountNo);
+                balanceStore.delete(accountNo);
+            });
+            UndoLog.register(new JournalRecord.AccountCreated(accountNo, balance[0]),
+                    () -> balanceStore.create(accountNo, balance[0]));
         });
+        logger.info("Deleted account: {}", accountNo);
     }
 
     @Transactional
@@ -102,10 +148,8 @@ public class AccountServiceImpl implements AccountService {
 
         if (transaction.getDirection() == TransactionDirection.DEBIT) {
             debit(accountNo, amount);
-            logger.info("Debited {} from account {}", amount, accountNo);
         } else if (transaction.getDirection() == TransactionDirection.CREDIT) {
             credit(accountNo, amount);
-            logger.info("Credited {} to account {}", amount, accountNo);
         }
     }
 } 
\ No newline at end of file
@@ -1,19 +1,33 @@
 package com.hsbc.transaction.service.impl;
 
-import java.util.ArrayList;
+import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.hsbc.transaction.exception.InsufficientBalanceException;
 import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
 import com.hsbc.transaction.model.TransactionStatus;
 import com.hsbc.transaction.service.AccountService;
 import com.hsbc.transaction.service.BusinessService;
 import com.hsbc.transaction.service.TransactionService;
+import com.hsbc.transaction.store.AccountLocks;
+import com.hsbc.transaction.store.IdempotencyStore;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @Service
 public class BusinessServiceImpl implements BusinessService {
@@ -25,40 +39,147 @@ public class BusinessServiceImpl implements BusinessService {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private AccountLocks accountLocks;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    private final OperationTimer combineTimer;
+    private final DistributionSummary combineLegs;
+    private final Counter insufficientBalance;
+
+    public BusinessServiceImpl() {
+        this(new SimpleMeterRegistry());
+    }
+
+    /**
+     * Combines are timed as {@code business.operation.time} and their size recorded as {@code business.combine.legs};
+     * batches refused by the up-front balance check are counted as {@code account.insufficient.balance}.
+     */
+    @Autowired
+    public BusinessServiceImpl(MeterRegistry meterRegistry) {
+        this.combineTimer = new OperationTimer(meterRegistry, "business.operation.time", "combine");
+        this.combineLegs = DistributionSummary.builder("business.combine.legs")
+                .description("Legs per combined batch")
+                .register(meterRegistry);
+        this.insufficientBalance = AccountServiceImpl.insufficientBalanceCounter(meterRegistry, "combine");
+    }
+
+    /**
+     * Applies the legs as one batch: the accounts they touch are locked together (see {@link AccountLocks}), every
+     * debit is checked against the balances before anything is written, and the legs are then applied while the
+     * locks are held. Concurrent batches over the same accounts therefore run one after the other without
+     * deadlocking, and batches over other accounts are not held up.
+     * <p>
+     * Inside a transaction the locks are kept until it has committed or rolled back, so no other batch sees the legs
+     * of one that is being undone, or runs between its last leg and its journal completion.
+     */
     @Override
     @Transactional
     public void combine(List<Transaction> transactions) {
+        combineBatch(transactions);
+    }
+
+    /**
+     * The key is claimed before any account lock is taken, so a retry waiting on the first call never holds locks
+     * that call needs. The batch runs in this method's transaction, so its locks are held until that completes.
+     */
+    @Override
+    @Transactional
+    public void combine(List<Transaction> transactions, String idempotencyKey) {
+        if (idempotencyKey == null || transactions == null) {
+            combineBatch(transactions);
+            return;
+        }
+        List<List<Object>> fingerprint = transactions.stream().map(TransactionServiceImpl::fingerprint).toList();
+        idempotencyStore.execute("combine:" + idempotencyKey, fingerprint, () -> {
+            combineBatch(transactions);
+            return Boolean.TRUE;
+        });
+    }
+
+    /**
+     * The body of both {@code combine} methods, run in the caller's transaction rather than through the proxy.
+     */
+    private void combineBatch(List<Transaction> transactions) {
         if (transactions == null) {
             throw new IllegalArgumentException("Transaction list cannot be null");
         }
         if (transactions.isEmpty()) {
             return;
         }
-        processCombineTransactions(transactions);
+        combineLegs.record(transactions.size());
+        combineTimer.record(() -> {
+            List<String> accountNos = transactions.stream()
+                    .map(Transaction::getAccountNo)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .toList();
+            AccountLocks.Held held = accountLocks.lockAll(accountNos);
+            boolean releasedOnCompletion = false;
+            try {
+                releasedOnCompletion = releaseOnCompletion(held);
+                checkBalances(transactions);
+                processCombineTransactions(transactions);
+            } finally {
+                if (!releasedOnCompletion) {
+                    held.close();
+                }
+            }
+        });
     }
 
-    private void processCombineTransactions(List<Transaction> transactions) {
-        List<Transaction> refundTnx = new ArrayList<>();
-        try {
-            for (Transaction transaction : transactions) {
-                transactionService.createTransaction(transaction);
-                accountService.updateAccountBalance(transaction);
-                transactionService.updateTransactionStatus(transaction.getTransactionId(), TransactionStatus.SUCCESS);
-                refundTnx.add(transaction);
+    /**
+     * Hand the locks to the current transaction to release once it has completed; false if there is none.
+     */
+    private static boolean releaseOnCompletion(AccountLocks.Held held) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                held.close();
             }
-        }catch (Exception e) {//simulate rollback
-            for (Transaction transaction : refundTnx) {
-                Transaction refundTransaction = Transaction.revertTransaction(transaction);
-                transactionService.createTransaction(refundTransaction);
-                accountService.updateAccountBalance(refundTransaction);
-                transactionService.updateTransactionStatus(refundTransaction.getTransactionId(), TransactionStatus.SUCCESS);
-                transactionService.updateTransactionStatus(transaction.getTransactionId(), TransactionStatus.REFUNDED);
+        });
+        return true;
+    }
+
+    /**
+     * Walk the legs in order against the current balances and fail before the first write if any debit would
+     * overdraw its account.
+     */
+    private void checkBalances(List<Transaction> transactions) {
+        Map<String, BigDecimal> balances = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            String accountNo = transaction.getAccountNo();
+            if (accountNo == null || transaction.getAmount() == null) {
+                continue; // rejected by createTransaction's validation
+            }
+            BigDecimal balance = balances.computeIfAbsent(accountNo, accountService::getBalance);
+            if (transaction.getDirection() == TransactionDirection.DEBIT) {
+                if (balance.compareTo(transaction.getAmount()) < 0) {
+                    insufficientBalance.increment();
+                    throw new InsufficientBalanceException("Insufficient balance in account " + accountNo
+                            + ". Required: " + transaction.getAmount() + ", Available: " + balance);
+                }
+                balances.put(accountNo, balance.subtract(transaction.getAmount()));
+            } else if (transaction.getDirection() == TransactionDirection.CREDIT) {
+                balances.put(accountNo, balance.add(transaction.getAmount()));
             }
-            throw e;
         }
     }
 
-
-
-
-}
\ No newline at end of file
+    /**
+     * Runs inside {@link #combine}'s transaction: if a leg still fails, the transaction manager reverses the legs
+     * already applied, so no compensating transactions are written.
+     */
+    private void processCombineTransactions(List<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            transactionService.createTransaction(transaction);
+            accountService.updateAccountBalance(transaction);
+            transactionService.updateTransactionStatus(transaction.getTransactionId(), TransactionStatus.SUCCESS);
+        }
+    }
+}
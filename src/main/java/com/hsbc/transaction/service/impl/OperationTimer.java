@@ -0,0 +1,90 @@
+package com.hsbc.transaction.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Times one service operation as {@code name{operation, outcome}}, where an operation that throws is a failure.
+ * Both outcomes are registered up front, so a call costs two clock reads and a timer update, with no meter lookup or
+ * allocation beyond the operation's lambda. Timings cover the method body only: commits run after it, and calls
+ * answered from a cache never reach it.
+ */
+final class OperationTimer {
+    private final Timer success;
+    private final Timer failure;
+
+    OperationTimer(MeterRegistry registry, String name, String operation) {
+        this.success = timer(registry, name, operation, "success");
+        this.failure = timer(registry, name, operation, "failure");
+    }
+
+    private static Timer timer(MeterRegistry registry, String name, String operation, String outcome) {
+        return Timer.builder(name)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    <T> T record(Supplier<T> operation) {
+        long started = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            T result = operation.get();
+            succeeded = true;
+            return result;
+        } finally {
+            record(started, succeeded);
+        }
+    }
+
+    void record(Runnable operation) {
+        record(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Time a stream from opening it until it is closed. It fails if opening it or walking it throws, including
+     * when the consumer of an element does; a stream closed before it is walked to the end still succeeds.
+     */
+    <T> Stream<T> recordStream(Supplier<Stream<T>> opening) {
+        long started = System.nanoTime();
+        Stream<T> stream;
+        try {
+            stream = opening.get();
+        } catch (RuntimeException | Error e) {
+            record(started, false);
+            throw e;
+        }
+        Spliterator<T> source = stream.spliterator();
+        boolean[] failed = new boolean[1];
+        Spliterator<T> watched = new Spliterators.AbstractSpliterator<>(source.estimateSize(),
+                source.characteristics()) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    return source.tryAdvance(action);
+                } catch (RuntimeException | Error e) {
+                    failed[0] = true;
+                    throw e;
+                }
+            }
+        };
+        return StreamSupport.stream(watched, false)
+                .onClose(stream::close)
+                .onClose(() -> record(started, !failed[0]));
+    }
+
+    private void record(long startNanos, boolean succeeded) {
+        (succeeded ? success : failure).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,49 @@
+package com.hsbc.transaction.service.impl;
+
+import com.hsbc.transaction.journal.Journal;
+import com.hsbc.transaction.service.AccountService;
+import com.hsbc.transaction.service.ReactiveAccountService;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.math.BigDecimal;
+
+/**
+ * Calls the {@link AccountService} bean, behind its transaction and cache proxies, through {@link ServiceCalls}.
+ */
+@Service
+public class ReactiveAccountServiceImpl implements ReactiveAccountService {
+    private final AccountService accountService;
+    private final ServiceCalls calls;
+
+    public ReactiveAccountServiceImpl(AccountService accountService, Journal journal, Scheduler serviceScheduler) {
+        this.accountService = accountService;
+        this.calls = new ServiceCalls(journal, serviceScheduler);
+    }
+
+    @Override
+    public Mono<BigDecimal> getBalance(String accountNo) {
+        return calls.read(() -> accountService.getBalance(accountNo));
+    }
+
+    @Override
+    public Mono<Void> credit(String accountNo, BigDecimal amount) {
+        return calls.run(() -> accountService.credit(accountNo, amount));
+    }
+
+    @Override
+    public Mono<Void> createAccount(String accountNo, BigDecimal initBalance) {
+        return calls.run(() -> accountService.createAccount(accountNo, initBalance));
+    }
+
+    @Override
+    public Mono<Void> debit(String accountNo, BigDecimal amount) {
+        return calls.run(() -> accountService.debit(accountNo, amount));
+    }
+
+    @Override
+    public Mono<Void> deleteAccount(String accountNo) {
+        return calls.run(() -> accountService.deleteAccount(accountNo));
+    }
+}
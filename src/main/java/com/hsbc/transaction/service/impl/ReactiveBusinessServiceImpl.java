@@ -0,0 +1,36 @@
+package com.hsbc.transaction.service.impl;
+
+import com.hsbc.transaction.journal.Journal;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.service.BusinessService;
+import com.hsbc.transaction.service.ReactiveBusinessService;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+
+/**
+ * Calls the {@link BusinessService} bean through {@link ServiceCalls}. A combine still holds its accounts' locks
+ * while its legs are applied, but the wait for its single fsync no longer holds a thread.
+ */
+@Service
+public class ReactiveBusinessServiceImpl implements ReactiveBusinessService {
+    private final BusinessService businessService;
+    private final ServiceCalls calls;
+
+    public ReactiveBusinessServiceImpl(BusinessService businessService, Journal journal, Scheduler serviceScheduler) {
+        this.businessService = businessService;
+        this.calls = new ServiceCalls(journal, serviceScheduler);
+    }
+
+    @Override
+    public Mono<Void> combine(List<Transaction> transactions) {
+        return calls.run(() -> businessService.combine(transactions));
+    }
+
+    @Override
+    public Mono<Void> combine(List<Transaction> transactions, String idempotencyKey) {
+        return calls.run(() -> businessService.combine(transactions, idempotencyKey));
+    }
+}
@@ -0,0 +1,87 @@
+package com.hsbc.transaction.service.impl;
+
+import com.hsbc.transaction.journal.Journal;
+import com.hsbc.transaction.model.BulkItemResult;
+import com.hsbc.transaction.model.PageResponse;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionFilter;
+import com.hsbc.transaction.model.TransactionStatus;
+import com.hsbc.transaction.service.ReactiveTransactionService;
+import com.hsbc.transaction.service.TransactionService;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+
+/**
+ * Calls the {@link TransactionService} bean through {@link ServiceCalls}. Streams walk the index on the service
+ * scheduler, one request's worth at a time.
+ */
+@Service
+public class ReactiveTransactionServiceImpl implements ReactiveTransactionService {
+    private final TransactionService transactionService;
+    private final ServiceCalls calls;
+
+    public ReactiveTransactionServiceImpl(TransactionService transactionService, Journal journal,
+                                          Scheduler serviceScheduler) {
+        this.transactionService = transactionService;
+        this.calls = new ServiceCalls(journal, serviceScheduler);
+    }
+
+    @Override
+    public Mono<Transaction> createTransaction(Transaction transaction) {
+        return calls.write(() -> transactionService.createTransaction(transaction));
+    }
+
+    @Override
+    public Mono<Transaction> createTransaction(Transaction transaction, String idempotencyKey) {
+        return calls.write(() -> transactionService.createTransaction(transaction, idempotencyKey));
+    }
+
+    @Override
+    public Mono<List<BulkItemResult>> createTransactions(List<Transaction> transactions, long firstIndex) {
+        return calls.write(() -> transactionService.createTransactions(transactions, firstIndex));
+    }
+
+    @Override
+    public Flux<BulkItemResult> createTransactions(Flux<Transaction> transactions) {
+        return transactions.buffer(TransactionService.BULK_BATCH_SIZE)
+                .index()
+                .concatMap(batch -> createTransactions(batch.getT2(),
+                        batch.getT1() * TransactionService.BULK_BATCH_SIZE), 0)
+                .concatMapIterable(results -> results);
+    }
+
+    @Override
+    public Mono<Transaction> updateTransactionStatus(String transactionId, TransactionStatus status) {
+        return calls.write(() -> transactionService.updateTransactionStatus(transactionId, status));
+    }
+
+    @Override
+    public Mono<PageResponse<Transaction>> queryTransactions(TransactionFilter filter, int page, int size) {
+        return calls.read(() -> transactionService.queryTransactions(filter, page, size));
+    }
+
+    @Override
+    public Mono<PageResponse<Transaction>> queryTransactionsAfter(TransactionFilter filter, String cursor, int size) {
+        return calls.read(() -> transactionService.queryTransactionsAfter(filter, cursor, size));
+    }
+
+    @Override
+    public Flux<Transaction> streamTransactions(TransactionFilter filter) {
+        return Flux.fromStream(() -> transactionService.streamTransactions(filter))
+                .subscribeOn(calls.getScheduler());
+    }
+
+    @Override
+    public Mono<Transaction> getTransaction(String id) {
+        return calls.read(() -> transactionService.getTransactionOrThrow(id));
+    }
+
+    @Override
+    public Mono<Void> deleteTransaction(String id) {
+        return calls.run(() -> transactionService.deleteTransaction(id));
+    }
+}
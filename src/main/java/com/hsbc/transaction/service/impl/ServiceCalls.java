@@ -0,0 +1,44 @@
+package com.hsbc.transaction.service.impl;
+
+import com.hsbc.transaction.journal.Journal;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs the reactive services' calls to the blocking ones on the service scheduler. Calls that write go through
+ * {@link Journal#supplyDeferred}: the scheduler thread moves on as soon as the changes are applied and the result
+ * is handed back to the scheduler once they are durable. What remains blocking are the account and journal lock
+ * waits, which last as long as another thread's in-memory update.
+ */
+final class ServiceCalls {
+    private final Journal journal;
+    private final Scheduler scheduler;
+
+    ServiceCalls(Journal journal, Scheduler scheduler) {
+        this.journal = journal;
+        this.scheduler = scheduler;
+    }
+
+    Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    <T> Mono<T> read(Supplier<T> call) {
+        return Mono.fromSupplier(call).subscribeOn(scheduler);
+    }
+
+    <T> Mono<T> write(Supplier<T> call) {
+        return Mono.defer(() -> Mono.fromFuture(journal.supplyDeferred(call)))
+                .subscribeOn(scheduler)
+                .publishOn(scheduler);
+    }
+
+    Mono<Void> run(Runnable call) {
+        return write(() -> {
+            call.run();
+            return null;
+        }).then();
+    }
+}
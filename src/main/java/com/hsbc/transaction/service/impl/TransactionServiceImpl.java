@@ -2,13 +2,18 @@ package com.hsbc.transaction.service.impl;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
@@ -17,27 +22,221 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.hsbc.transaction.audit.PostingAudit;
+import com.hsbc.transaction.exception.DuplicateTransactionException;
 import com.hsbc.transaction.exception.InvalidTransactionException;
 import com.hsbc.transaction.exception.InvalidTransactionStateException;
 import com.hsbc.transaction.exception.TransactionNotFoundException;
+import com.hsbc.transaction.journal.Journal;
+import com.hsbc.transaction.journal.JournalRecord;
+import com.hsbc.transaction.journal.UndoLog;
+import com.hsbc.transaction.model.BulkItemResult;
 import com.hsbc.transaction.model.PageResponse;
 import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionCursor;
 import com.hsbc.transaction.model.TransactionFilter;
 import com.hsbc.transaction.model.TransactionStatus;
 import com.hsbc.transaction.service.TransactionService;
+import com.hsbc.transaction.store.IdempotencyStore;
+import com.hsbc.transaction.store.IndexKey;
+import com.hsbc.transaction.store.ParallelQueryExecutor;
+import com.hsbc.transaction.store.QueryPlan;
+import com.hsbc.transaction.store.TransactionStore;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @Service
 @CacheConfig(cacheNames = "transactions")
 public class TransactionServiceImpl implements TransactionService {
     private static final Logger logger = LoggerFactory.getLogger(TransactionServiceImpl.class);
-    private final ConcurrentHashMap<String, Transaction> transactionStore = new ConcurrentHashMap<>();
+    private final TransactionStore transactionStore;
+    private final Journal journal;
+    private final IdempotencyStore idempotencyStore;
+    private final ParallelQueryExecutor queryExecutor;
+    private final OperationTimer createTimer;
+    private final OperationTimer bulkTimer;
+    private final OperationTimer getTimer;
+    private final OperationTimer deleteTimer;
+    private final OperationTimer updateStatusTimer;
+    private final OperationTimer queryTimer;
+    private final OperationTimer queryAfterTimer;
+    private final OperationTimer exportTimer;
+    private final OperationTimer streamTimer;
+    private final Counter bulkCreated;
+    private final Counter bulkRejected;
+    private final Map<TransactionStatus, Counter> statusChanges = new EnumMap<>(TransactionStatus.class);
+    private final Map<String, ScanMeters> scans;
+
+    /**
+     * Rows a query walked in the chosen index against the rows it returned.
+     */
+    private record ScanMeters(DistributionSummary scanned, DistributionSummary returned) {
+        static ScanMeters of(MeterRegistry meterRegistry, String index) {
+            return new ScanMeters(
+                    DistributionSummary.builder("transaction.query.scanned")
+                            .description("Index rows walked per query")
+                            .tag("index", index)
+                            .register(meterRegistry),
+                    DistributionSummary.builder("transaction.query.returned")
+                            .description("Rows returned per query")
+                            .tag("index", index)
+                            .register(meterRegistry));
+        }
+
+        void record(long scanned, long returned) {
+            this.scanned.record(scanned);
+            this.returned.record(returned);
+        }
+    }
+
+    public TransactionServiceImpl() {
+        this(new TransactionStore(), Journal.DISABLED);
+    }
+
+    public TransactionServiceImpl(TransactionStore transactionStore, Journal journal) {
+        this(transactionStore, journal, new SimpleMeterRegistry());
+    }
+
+    public TransactionServiceImpl(TransactionStore transactionStore, Journal journal, MeterRegistry meterRegistry) {
+        this(transactionStore, journal, meterRegistry, new IdempotencyStore());
+    }
+
+    public TransactionServiceImpl(TransactionStore transactionStore, Journal journal, MeterRegistry meterRegistry,
+                                  IdempotencyStore idempotencyStore) {
+        this(transactionStore, journal, meterRegistry, idempotencyStore, new ParallelQueryExecutor());
+    }
+
+    /**
+     * Each operation is timed as {@code transaction.operation.time}. Queries, cursor pages, exports and streams
+     * also record {@code transaction.query.scanned} and {@code transaction.query.returned} per index, status updates
+     * count {@code transaction.status.changes} by new status (refunds are {@code status=REFUNDED}), and bulk items
+     * count {@code transaction.bulk.items} by outcome. Offset queries too large to count on the request thread are
+     * counted on {@code queryExecutor}.
+     */
+    @Autowired
+    public TransactionServiceImpl(TransactionStore transactionStore, Journal journal, MeterRegistry meterRegistry,
+                                  IdempotencyStore idempotencyStore, ParallelQueryExecutor queryExecutor) {
+        this.transactionStore = transactionStore;
+        this.journal = journal;
+        this.idempotencyStore = idempotencyStore;
+        this.queryExecutor = queryExecutor;
+        this.createTimer = new OperationTimer(meterRegistry, "transaction.operation.time", "create");
+        this.bulkTimer = new OperationTimer(meterRegistry, "transaction.operation.time", "bulk");
+        this.getTimer = new OperationTimer(meterRegistry, "transaction.operation.time", "get");
+        this.deleteTimer = new OperationTimer(meterRegistry, "transaction.operation.time", "delete");
+        this.updateStatusTimer = new OperationTimer(meterRegistry, "transaction.operation.time", "update-status");
+        this.queryTimer = new OperationTimer(meterRegistry, "transaction.operation.time", "query");
+        this.queryAfterTimer = new OperationTimer(meterRegistry, "transaction.operation.time", "query-after");
+        this.exportTimer = new OperationTimer(meterRegistry, "transaction.operation.time", "export");
+        this.streamTimer = new OperationTimer(meterRegistry, "transaction.operation.time", "stream");
+        this.bulkCreated = bulkItems(meterRegistry, "created");
+        this.bulkRejected = bulkItems(meterRegistry, "rejected");
+        for (TransactionStatus status : TransactionStatus.values()) {
+            statusChanges.put(status, Counter.builder("transaction.status.changes")
+                    .description("Transactions moved to each status")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+        this.scans = Map.of(
+                "time", ScanMeters.of(meterRegistry, "time"),
+                "account", ScanMeters.of(meterRegistry, "account"),
+                "status", ScanMeters.of(meterRegistry, "status"),
+                "direction", ScanMeters.of(meterRegistry, "direction"));
+    }
+
+    private static Counter bulkItems(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("transaction.bulk.items")
+                .description("Items of bulk requests by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void recordScan(QueryPlan plan, long scanned, long returned) {
+        ScanMeters meters = scans.get(plan.getIndexName());
+        if (meters != null) {
+            meters.record(scanned, returned);
+        }
+    }
 
     @Override
     @Transactional
     @CachePut(key = "#result.transactionId")
     public Transaction createTransaction(Transaction transaction) {
-        validateTransaction(transaction);
+        return create(transaction);
+    }
 
+    /**
+     * Keys are scoped to this operation, so the same key sent to {@code combine} is a different request.
+     */
+    @Override
+    @Transactional
+    @CachePut(key = "#result.transactionId")
+    public Transaction createTransaction(Transaction transaction, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return create(transaction);
+        }
+        return idempotencyStore.execute("create:" + idempotencyKey, fingerprint(transaction),
+                () -> create(transaction));
+    }
+
+    /**
+     * What a client asked for in a transaction, before defaults are assigned, to recognise a replayed request.
+     */
+    static List<Object> fingerprint(Transaction transaction) {
+        if (transaction == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(transaction.getTransactionId(), transaction.getAccountNo(), transaction.getAmount(),
+                transaction.getDirection(), transaction.getDescription(), transaction.getStatus());
+    }
+
+    private Transaction create(Transaction transaction) {
+        return createTimer.record(() -> {
+            validateTransaction(transaction);
+            assignDefaults(transaction, LocalDateTime.now());
+            insert(transaction);
+            return transaction;
+        });
+    }
+
+    /**
+     * Items are not cached on the way in: a bulk feed is rarely read back straight away, and
+     * {@link #getTransactionOrThrow} caches them on first read.
+     */
+    @Override
+    @Transactional
+    public List<BulkItemResult> createTransactions(List<Transaction> transactions, long firstIndex) {
+        return bulkTimer.record(() -> createEach(transactions, firstIndex));
+    }
+
+    private List<BulkItemResult> createEach(List<Transaction> transactions, long firstIndex) {
+        List<BulkItemResult> results = new ArrayList<>(transactions.size());
+        LocalDateTime now = LocalDateTime.now();
+        int created = 0;
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            BulkItemResult.BulkItemResultBuilder result = BulkItemResult.builder().index(firstIndex + i);
+            try {
+                validateTransaction(transaction);
+                assignDefaults(transaction, now);
+                insert(transaction);
+                result.transactionId(transaction.getTransactionId()).created(true);
+                created++;
+            } catch (InvalidTransactionException | DuplicateTransactionException e) {
+                result.transactionId(transaction == null ? null : transaction.getTransactionId()).error(e.getMessage());
+            }
+            results.add(result.build());
+        }
+        bulkCreated.increment(created);
+        bulkRejected.increment(transactions.size() - created);
+        logger.info("Created {} of {} transactions in bulk", created, transactions.size());
+        return results;
+    }
+
+    private void assignDefaults(Transaction transaction, LocalDateTime now) {
         if (transaction.getTransactionId() == null) {
             transaction.setTransactionId(generateTransactionId());
         }
@@ -46,41 +245,46 @@ public class TransactionServiceImpl implements TransactionService {
             transaction.setStatus(TransactionStatus.RUNNING);
         }
 
-        transaction.setTimestamp(LocalDateTime.now());
-
-        logger.info("Creating new transaction with ID: {}", transaction.getTransactionId());
-
-        String transactionId = transaction.getTransactionId();
-        Transaction existing = transactionStore.putIfAbsent(transactionId, transaction);
-        if (existing != null) {
-            throw new IllegalStateException("Transaction ID " + transactionId + " already exists");
-        }
+        transaction.setTimestamp(now);
+    }
 
-        return transaction;
+    private void insert(Transaction transaction) {
+        journal.append(new JournalRecord.TransactionCreated(transaction),
+                () -> transactionStore.insert(transaction));
+        UndoLog.register(new JournalRecord.TransactionDeleted(transaction.getTransactionId()),
+                () -> transactionStore.remove(transaction.getTransactionId()));
+        PostingAudit.transactionCreated(transaction);
     }
 
     @Override
     @Cacheable(unless = "#result == null")
     public Transaction getTransactionOrThrow(String id) {
-        Transaction transaction = transactionStore.get(id);
-        if (transaction == null) {
-            logger.warn("Transaction not found: {}", id);
-            throw new TransactionNotFoundException("Transaction not found: " + id);
-        }
-        return transaction;
+        return getTimer.record(() -> {
+            Transaction transaction = transactionStore.get(id);
+            if (transaction == null) {
+                logger.warn("Transaction not found: {}", id);
+                throw new TransactionNotFoundException("Transaction not found: " + id);
+            }
+            return transaction;
+        });
     }
 
     @Override
     @Transactional
     @CacheEvict(key = "#id")
     public void deleteTransaction(String id) {
-        transactionStore.compute(id, (key, existing) -> {
-            if (existing == null) {
-                logger.warn("Transaction not found: {}", id);
-                throw new TransactionNotFoundException("Transaction not found: " + id);
-            }
-            logger.info("Deleting transaction: {}", id);
-            return null;
+        deleteTimer.record(() -> {
+            Transaction[] removed = new Transaction[1];
+            journal.append(new JournalRecord.TransactionDeleted(id), () -> {
+                removed[0] = transactionStore.remove(id);
+                if (removed[0] == null) {
+                    logger.warn("Transaction not found: {}", id);
+                    throw new TransactionNotFoundException("Transaction not found: " + id);
+                }
+                logger.info("Deleting transaction: {}", id);
+            });
+            UndoLog.register(new JournalRecord.TransactionCreated(removed[0]),
+                    () -> transactionStore.restore(removed[0]));
         });
     }
 
@@ -88,46 +292,78 @@ public class TransactionServiceImpl implements TransactionService {
     @Transactional(propagation = Propagation.REQUIRED)
     @CachePut(key = "#transactionId")
     public Transaction updateTransactionStatus(String transactionId, TransactionStatus status) {
-        Transaction updated = transactionStore.compute(transactionId, (key, existing) -> {
-            if (existing == null) {
+        return updateStatusTimer.record(() -> {
+            Transaction updated = changeStatus(transactionId, status);
+            statusChanges.get(status).increment();
+            return updated;
+        });
+    }
+
+    private Transaction changeStatus(String transactionId, TransactionStatus status) {
+        Transaction[] updated = new Transaction[1];
+        TransactionStatus[] replaced = new TransactionStatus[1];
+        journal.append(new JournalRecord.TransactionStatusChanged(transactionId, status), () -> {
+            updated[0] = transactionStore.update(transactionId, existing -> {
+                TransactionStatus previous = existing.getStatus();
+                validateStatusTransition(previous, status);
+                replaced[0] = previous;
+
+                existing.setStatus(status);
+            });
+            if (updated[0] == null) {
                 logger.warn("Transaction not found: {}", transactionId);
                 throw new TransactionNotFoundException("Transaction not found: " + transactionId);
             }
-
-            validateStatusTransition(existing.getStatus(), status);
-
-            existing.setStatus(status);
-
-            logger.info("Updating transaction {} status from {} to {}",
-                    transactionId, existing.getStatus(), status);
-
-            return existing;
         });
+        UndoLog.register(new JournalRecord.TransactionStatusChanged(transactionId, replaced[0]),
+                () -> transactionStore.update(transactionId, existing -> existing.setStatus(replaced[0])));
+        PostingAudit.statusChanged(transactionId, replaced[0], status);
 
-        return updated;
+        return updated[0];
     }
 
     @Override
     @Cacheable(unless = "#result.content.empty")
     public PageResponse<Transaction> queryTransactions(TransactionFilter filter, int page, int size) {
+        return queryTimer.record(() -> queryPage(filter, page, size));
+    }
+
+    private PageResponse<Transaction> queryPage(TransactionFilter filter, int page, int size) {
         logger.debug("Querying transactions with filter: {}, page: {}, size: {}", filter, page, size);
         
-        List<Transaction> filteredTransactions = transactionStore.values().stream()
-                .filter(t -> matchesFilter(t, filter))
-                .sorted(Comparator.comparing(Transaction::getTimestamp).reversed())
-                .collect(Collectors.toList());
-
-        int totalElements = filteredTransactions.size();
+        QueryPlan plan = transactionStore.plan(filter);
+        long totalElements = plan.exactCount();
+        List<Transaction> pageContent;
+        long scanned;
+        if (totalElements >= 0) {
+            page = clampPage(page, totalElements, size);
+            PageWindow window = collectPage(plan, filter, page * size, size);
+            pageContent = window.content;
+            scanned = window.scanned;
+        } else if (queryExecutor.shouldRun(plan)) {
+            ParallelQueryExecutor.Counts counts = queryExecutor.count(plan,
+                    transaction -> matchesFilter(transaction, filter));
+            totalElements = counts.total();
+            page = clampPage(page, totalElements, size);
+            PageWindow window = collectPage(plan, counts, filter, page * size, size);
+            pageContent = window.content;
+            scanned = counts.scanned() + window.scanned;
+        } else {
+            PageWindow window = collectPage(plan, filter, page * size, size);
+            totalElements = window.matched;
+            scanned = window.scanned;
+            int lastPage = clampPage(page, totalElements, size);
+            if (lastPage != page) {
+                page = lastPage;
+                window = collectPage(plan, filter, page * size, size);
+                scanned += window.scanned;
+            }
+            pageContent = window.content;
+        }
+        recordScan(plan, scanned, pageContent.size());
         int totalPages = (int) Math.ceil((double) totalElements / size);
-        
-        // Ensure page is within valid range
-        page = Math.max(0, Math.min(page, totalPages - 1));
-        
-        int start = page * size;
-        int end = Math.min(start + size, totalElements);
-        List<Transaction> pageContent = filteredTransactions.subList(start, end);
 
-        logger.debug("Found {} transactions matching filter", totalElements);
+        logger.debug("Found {} transactions matching filter using {} index", totalElements, plan.getIndexName());
         
         return PageResponse.<Transaction>builder()
                 .content(pageContent)
@@ -140,6 +376,161 @@ public class TransactionServiceImpl implements TransactionService {
                 .build();
     }
 
+    @Override
+    public PageResponse<Transaction> queryTransactionsAfter(TransactionFilter filter, String cursor, int size) {
+        return queryAfterTimer.record(() -> queryPageAfter(filter, cursor, size));
+    }
+
+    private PageResponse<Transaction> queryPageAfter(TransactionFilter filter, String cursor, int size) {
+        logger.debug("Querying transactions with filter: {}, cursor: {}, size: {}", filter, cursor, size);
+
+        QueryPlan plan = transactionStore.plan(filter);
+        boolean first = cursor == null || cursor.isBlank();
+        IndexKey after = null;
+        if (!first) {
+            TransactionCursor position = TransactionCursor.decode(cursor);
+            after = new IndexKey(position.getTimestamp(), position.getTransactionId());
+        }
+
+        List<Transaction> pageContent = new ArrayList<>();
+        boolean hasMore = false;
+        long scanned = 0;
+        QueryPlan.Cursor rows = plan.cursor(after);
+        while (rows.advance()) {
+            scanned++;
+            if (!rows.isMatch() && !matchesFilter(rows.row(), filter)) {
+                continue;
+            }
+            if (pageContent.size() >= size) {
+                hasMore = true;
+                break;
+            }
+            pageContent.add(rows.row());
+        }
+        recordScan(plan, scanned, pageContent.size());
+
+        long totalElements = plan.exactCount();
+        int totalPages = totalElements < 0 ? -1 : (int) Math.ceil((double) totalElements / size);
+        String nextCursor = hasMore && !pageContent.isEmpty()
+                ? TransactionCursor.of(pageContent.get(pageContent.size() - 1)).encode()
+                : null;
+
+        return PageResponse.<Transaction>builder()
+                .content(pageContent)
+                .pageSize(size)
+                .totalElements(totalElements)
+                .totalPages(totalPages)
+                .first(first)
+                .last(nextCursor == null)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    public long exportTransactions(TransactionFilter filter, Consumer<Transaction> sink) {
+        return exportTimer.record(() -> {
+            QueryPlan plan = transactionStore.plan(filter);
+            long scanned = 0;
+            long exported = 0;
+            for (Transaction transaction : plan.rows()) {
+                scanned++;
+                if (!plan.isCovering() && !matchesFilter(transaction, filter)) {
+                    continue;
+                }
+                sink.accept(transaction);
+                exported++;
+            }
+            recordScan(plan, scanned, exported);
+            logger.debug("Exported {} transactions matching filter using {} index", exported, plan.getIndexName());
+            return exported;
+        });
+    }
+
+    /**
+     * Timed and metered from the call to when the stream is closed, like an export, and timed as a failure if
+     * walking it threw.
+     */
+    @Override
+    public Stream<Transaction> streamTransactions(TransactionFilter filter) {
+        return streamTimer.recordStream(() -> {
+            QueryPlan plan = transactionStore.plan(filter);
+            long[] counts = new long[2];
+            return plan.stream()
+                    .filter(transaction -> {
+                        counts[0]++;
+                        return plan.isCovering() || matchesFilter(transaction, filter);
+                    })
+                    .peek(transaction -> counts[1]++)
+                    .onClose(() -> recordScan(plan, counts[0], counts[1]));
+        });
+    }
+
+    private static int clampPage(int page, long totalElements, int size) {
+        int totalPages = (int) Math.ceil((double) totalElements / size);
+        // Ensure page is within valid range
+        return Math.max(0, Math.min(page, totalPages - 1));
+    }
+
+    /**
+     * Walk the planned index in timestamp order and keep the rows in [start, start + size).
+     * A plan that knows its count stops as soon as the window is full; otherwise the walk continues to count every
+     * match. Rows outside the window are only counted, so sealed rows among them are never built.
+     */
+    private PageWindow collectPage(QueryPlan plan, TransactionFilter filter, int start, int size) {
+        PageWindow window = new PageWindow();
+        boolean counted = plan.exactCount() >= 0;
+        QueryPlan.Cursor rows = plan.cursor();
+        while (rows.advance()) {
+            window.scanned++;
+            if (!rows.isMatch() && !matchesFilter(rows.row(), filter)) {
+                continue;
+            }
+            if (window.matched >= start && window.content.size() < size) {
+                window.content.add(rows.row());
+            }
+            window.matched++;
+            if (counted && window.content.size() >= size) {
+                break;
+            }
+        }
+        return window;
+    }
+
+    /**
+     * Take the rows in [start, start + size) from just the parts they fall in, given the matches counted per part.
+     */
+    private PageWindow collectPage(QueryPlan plan, ParallelQueryExecutor.Counts counts, TransactionFilter filter,
+                                   int start, int size) {
+        PageWindow window = new PageWindow();
+        long[] matched = counts.matched();
+        int part = 0;
+        long skip = start;
+        while (part < matched.length && skip >= matched[part]) {
+            skip -= matched[part++];
+        }
+        for (; part < matched.length && window.content.size() < size; part++) {
+            QueryPlan.Cursor rows = plan.partitionCursor(part);
+            while (window.content.size() < size && rows.advance()) {
+                window.scanned++;
+                if (!rows.isMatch() && !matchesFilter(rows.row(), filter)) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                window.content.add(rows.row());
+            }
+        }
+        return window;
+    }
+
+    private static final class PageWindow {
+        private final List<Transaction> content = new ArrayList<>();
+        private long matched;
+        private long scanned;
+    }
+
     private boolean matchesFilter(Transaction transaction, TransactionFilter filter) {
         if (filter == null) {
             return true;
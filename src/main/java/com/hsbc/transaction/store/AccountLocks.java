@@ -0,0 +1,71 @@
+package com.hsbc.transaction.store;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks over account numbers for work that must hold several accounts at once, such as a multi-leg
+ * {@code combine}. {@link #lockAll} takes the stripes of all the accounts in ascending stripe order, so two callers
+ * can never each hold a lock the other is waiting for, whatever order their accounts were listed in. Callers over
+ * disjoint accounts proceed in parallel unless their accounts happen to share a stripe.
+ * <p>
+ * The locks only coordinate callers that take them; single postings through the balance store do not.
+ */
+public class AccountLocks {
+
+    /**
+     * Locks held by one {@link #lockAll} call; closing releases them.
+     */
+    public static final class Held implements AutoCloseable {
+        private final ReentrantLock[] locks;
+
+        private Held(ReentrantLock[] locks) {
+            this.locks = locks;
+        }
+
+        @Override
+        public void close() {
+            for (int i = locks.length - 1; i >= 0; i--) {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    private final ReentrantLock[] stripes;
+
+    public AccountLocks(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        // round up to a power of two so the stripe can be picked with a mask
+        int size = Integer.bitCount(stripes) == 1 ? stripes : Integer.highestOneBit(stripes) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public int getStripes() {
+        return stripes.length;
+    }
+
+    int stripeOf(String accountNo) {
+        int hash = accountNo.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    /**
+     * Block until the stripes of every account in {@code accountNos} are held by the calling thread.
+     */
+    public Held lockAll(Collection<String> accountNos) {
+        int[] indexes = accountNos.stream().mapToInt(this::stripeOf).sorted().distinct().toArray();
+        ReentrantLock[] locks = new ReentrantLock[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            locks[i] = stripes[indexes[i]];
+        }
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+        return new Held(locks);
+    }
+}
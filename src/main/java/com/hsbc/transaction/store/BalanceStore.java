@@ -0,0 +1,23 @@
+package com.hsbc.transaction.store;
+
+import java.math.BigDecimal;
+
+/**
+ * Storage of account balances behind {@code AccountService}.
+ * <p>
+ * Implementations must make each operation atomic per account and signal business failures with the same
+ * exceptions as the service: {@code AccountAlwaysExistException}, {@code AccountNotFoundException} and
+ * {@code InsufficientBalanceException}.
+ */
+public interface BalanceStore {
+
+    void create(String accountNo, BigDecimal initialBalance);
+
+    void credit(String accountNo, BigDecimal amount);
+
+    void debit(String accountNo, BigDecimal amount);
+
+    BigDecimal getBalance(String accountNo);
+
+    void delete(String accountNo);
+}
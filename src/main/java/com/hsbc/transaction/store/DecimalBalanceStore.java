@@ -0,0 +1,68 @@
+package com.hsbc.transaction.store;
+
+import com.hsbc.transaction.exception.AccountAlwaysExistException;
+import com.hsbc.transaction.exception.AccountNotFoundException;
+import com.hsbc.transaction.exception.InsufficientBalanceException;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Default balance store: one immutable {@link BigDecimal} per account, updated under the map's per-bin lock.
+ * Balances keep whatever scale the amounts were posted with.
+ */
+public class DecimalBalanceStore implements BalanceStore {
+    private final ConcurrentHashMap<String, BigDecimal> accountBalances = new ConcurrentHashMap<>();
+
+    @Override
+    public void create(String accountNo, BigDecimal initialBalance) {
+        accountBalances.compute(accountNo, (key, existing) -> {
+            if (existing != null) {
+                throw new AccountAlwaysExistException("Account already exists: " + accountNo);
+            }
+            return initialBalance;
+        });
+    }
+
+    @Override
+    public void credit(String accountNo, BigDecimal amount) {
+        accountBalances.compute(accountNo, (key, currentBalance) -> {
+            if (currentBalance == null) {
+                throw new AccountNotFoundException("Account not found: " + accountNo);
+            }
+            return currentBalance.add(amount);
+        });
+    }
+
+    @Override
+    public void debit(String accountNo, BigDecimal amount) {
+        accountBalances.compute(accountNo, (key, currentBalance) -> {
+            if (currentBalance == null) {
+                throw new AccountNotFoundException("Account not found: " + accountNo);
+            } else if (currentBalance.compareTo(amount) < 0) {
+                throw new InsufficientBalanceException("Insufficient balance in account " + accountNo
+                        + ". Required: " + amount + ", Available: " + currentBalance);
+            }
+            return currentBalance.subtract(amount);
+        });
+    }
+
+    @Override
+    public BigDecimal getBalance(String accountNo) {
+        BigDecimal balance = accountBalances.get(accountNo);
+        if (balance == null) {
+            throw new AccountNotFoundException("Account not found: " + accountNo);
+        }
+        return balance;
+    }
+
+    @Override
+    public void delete(String accountNo) {
+        accountBalances.compute(accountNo, (key, existing) -> {
+            if (existing == null) {
+                throw new AccountNotFoundException("Account not found: " + accountNo);
+            }
+            return null;
+        });
+    }
+}
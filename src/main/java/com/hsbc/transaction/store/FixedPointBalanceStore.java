@@ -0,0 +1,290 @@
+package com.hsbc.transaction.store;
+
+import com.hsbc.transaction.exception.AccountAlwaysExistException;
+import com.hsbc.transaction.exception.AccountNotFoundException;
+import com.hsbc.transaction.exception.BalanceOverflowException;
+import com.hsbc.transaction.exception.InsufficientBalanceException;
+import com.hsbc.transaction.exception.InvalidAmountException;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Balance store that keeps every balance as a {@code long} count of minor units (e.g. cents for scale 2)
+ * in an open-addressed table, so postings are a lock-free CAS on a primitive slot and allocate nothing.
+ * <p>
+ * Account creation and table growth are serialised on a lock; credits, debits, reads and deletes are not.
+ * Deleted accounts leave their key behind as a tombstone that a later create of the same account reuses,
+ * and growth drops tombstones. While the table is being resized, migrated slots hold {@link #MOVED} and
+ * writers wait for the new table to be published before retrying.
+ * <p>
+ * Amounts must be representable at the configured scale; anything with more decimal places or beyond the
+ * {@code long} range is rejected with {@link InvalidAmountException} rather than rounded, and postings that would
+ * overflow a balance fail with {@link BalanceOverflowException}. Balances are returned at exactly the configured scale.
+ */
+public class FixedPointBalanceStore implements BalanceStore {
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(String[].class);
+    private static final VarHandle BALANCES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final long DELETED = Long.MIN_VALUE;
+    private static final long MOVED = Long.MIN_VALUE + 1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int scale;
+    // A lock, not a monitor: a virtual thread waiting out a resize unmounts instead of pinning its carrier
+    private final ReentrantLock resizeLock = new ReentrantLock();
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+
+    public FixedPointBalanceStore(int scale) {
+        if (scale < 0) {
+            throw new IllegalArgumentException("Currency scale cannot be negative");
+        }
+        this.scale = scale;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    @Override
+    public void create(String accountNo, BigDecimal initialBalance) {
+        long units = toUnits(initialBalance);
+        resizeLock.lock();
+        try {
+            Table current = table;
+            int slot = current.find(accountNo);
+            if (slot >= 0) {
+                if (BALANCES.compareAndSet(current.balances, slot, DELETED, units)) {
+                    return;
+                }
+                throw new AccountAlwaysExistException("Account already exists: " + accountNo);
+            }
+            if ((current.used + 1) * 2 > current.capacity()) {
+                current = resize(current);
+            }
+            current.insert(accountNo, units);
+        } finally {
+            resizeLock.unlock();
+        }
+    }
+
+    @Override
+    public void credit(String accountNo, BigDecimal amount) {
+        long units = toUnits(amount);
+        while (true) {
+            Table current = table;
+            int slot = slotOf(current, accountNo);
+            long balance = (long) BALANCES.getVolatile(current.balances, slot);
+            if (balance == MOVED) {
+                awaitResize(current);
+                continue;
+            }
+            checkLive(balance, accountNo);
+            long updated = add(balance, units, accountNo);
+            if (BALANCES.compareAndSet(current.balances, slot, balance, updated)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void debit(String accountNo, BigDecimal amount) {
+        long units = toUnits(amount);
+        while (true) {
+            Table current = table;
+            int slot = slotOf(current, accountNo);
+            long balance = (long) BALANCES.getVolatile(current.balances, slot);
+            if (balance == MOVED) {
+                awaitResize(current);
+                continue;
+            }
+            checkLive(balance, accountNo);
+            if (balance < units) {
+                throw new InsufficientBalanceException("Insufficient balance in account " + accountNo
+                        + ". Required: " + amount + ", Available: " + toDecimal(balance));
+            }
+            long updated = subtract(balance, units, accountNo);
+            if (BALANCES.compareAndSet(current.balances, slot, balance, updated)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public BigDecimal getBalance(String accountNo) {
+        while (true) {
+            Table current = table;
+            long balance = (long) BALANCES.getVolatile(current.balances, slotOf(current, accountNo));
+            if (balance == MOVED) {
+                awaitResize(current);
+                continue;
+            }
+            checkLive(balance, accountNo);
+            return toDecimal(balance);
+        }
+    }
+
+    @Override
+    public void delete(String accountNo) {
+        while (true) {
+            Table current = table;
+            int slot = slotOf(current, accountNo);
+            long balance = (long) BALANCES.getVolatile(current.balances, slot);
+            if (balance == MOVED) {
+                awaitResize(current);
+                continue;
+            }
+            checkLive(balance, accountNo);
+            if (BALANCES.compareAndSet(current.balances, slot, balance, DELETED)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Convert an amount to minor units without rounding.
+     */
+    public long toUnits(BigDecimal amount) {
+        try {
+            return amount.movePointRight(scale).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new InvalidAmountException(
+                    "Amount " + amount + " cannot be represented in minor units with scale " + scale);
+        }
+    }
+
+    public BigDecimal toDecimal(long units) {
+        return BigDecimal.valueOf(units, scale);
+    }
+
+    private static int slotOf(Table table, String accountNo) {
+        int slot = table.find(accountNo);
+        if (slot < 0) {
+            throw new AccountNotFoundException("Account not found: " + accountNo);
+        }
+        return slot;
+    }
+
+    private static void checkLive(long balance, String accountNo) {
+        if (balance == DELETED) {
+            throw new AccountNotFoundException("Account not found: " + accountNo);
+        }
+    }
+
+    private static long add(long balance, long units, String accountNo) {
+        try {
+            return checkRange(Math.addExact(balance, units), accountNo);
+        } catch (ArithmeticException e) {
+            throw overflow(accountNo);
+        }
+    }
+
+    private static long subtract(long balance, long units, String accountNo) {
+        try {
+            return checkRange(Math.subtractExact(balance, units), accountNo);
+        } catch (ArithmeticException e) {
+            throw overflow(accountNo);
+        }
+    }
+
+    private static long checkRange(long balance, String accountNo) {
+        if (balance <= MOVED) {
+            throw overflow(accountNo);
+        }
+        return balance;
+    }
+
+    private static BalanceOverflowException overflow(String accountNo) {
+        return new BalanceOverflowException("Balance overflow in account " + accountNo);
+    }
+
+    private void awaitResize(Table stale) {
+        while (table == stale) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Copy live slots into a new table, freezing each old slot with {@link #MOVED} as it goes.
+     * Caller must hold {@link #resizeLock}.
+     */
+    private Table resize(Table current) {
+        int live = 0;
+        for (int i = 0; i < current.capacity(); i++) {
+            if (current.keys[i] != null && (long) BALANCES.getVolatile(current.balances, i) != DELETED) {
+                live++;
+            }
+        }
+        int capacity = current.capacity();
+        while ((live + 1) * 2 > capacity) {
+            capacity <<= 1;
+        }
+
+        Table next = new Table(capacity);
+        for (int i = 0; i < current.capacity(); i++) {
+            String key = current.keys[i];
+            if (key == null) {
+                continue;
+            }
+            long balance;
+            do {
+                balance = (long) BALANCES.getVolatile(current.balances, i);
+            } while (!BALANCES.compareAndSet(current.balances, i, balance, MOVED));
+            if (balance != DELETED) {
+                next.insert(key, balance);
+            }
+        }
+        table = next;
+        return next;
+    }
+
+    private static final class Table {
+        private final String[] keys;
+        private final long[] balances;
+        private final int mask;
+        private int used;
+
+        Table(int capacity) {
+            keys = new String[capacity];
+            balances = new long[capacity];
+            mask = capacity - 1;
+        }
+
+        int capacity() {
+            return keys.length;
+        }
+
+        int find(String key) {
+            int slot = spread(key.hashCode()) & mask;
+            while (true) {
+                String candidate = (String) KEYS.getAcquire(keys, slot);
+                if (candidate == null) {
+                    return -1;
+                }
+                if (candidate.equals(key)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        /**
+         * Publish a new key; the balance is written before the key becomes visible to readers.
+         */
+        void insert(String key, long balance) {
+            int slot = spread(key.hashCode()) & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            BALANCES.setVolatile(balances, slot, balance);
+            KEYS.setRelease(keys, slot, key);
+            used++;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
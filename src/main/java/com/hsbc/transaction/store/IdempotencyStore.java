@@ -0,0 +1,135 @@
+package com.hsbc.transaction.store;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hsbc.transaction.exception.IdempotencyKeyReusedException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Results of calls made under a client's idempotency key, so a retried call gets the original result back instead
+ * of running again. At most {@code maximumKeys} results are remembered, each for {@code timeToLive} after its call
+ * completed, in memory on this instance only.
+ * <p>
+ * The first call under a key runs; calls with the same key while it runs wait for its result rather than run beside it.
+ * Calls still running are held apart from the completed results and never evicted, so the bound cannot let a retry run
+ * a call that is still in flight. A result is only kept once the surrounding transaction commits: if the call fails or
+ * is rolled back the key is forgotten, and a waiting or later retry runs the call afresh. Each key remembers a
+ * fingerprint of the request it was first used with, and a call that reuses the key for a different request is refused.
+ */
+public class IdempotencyStore {
+
+    private static final class Entry {
+        private final Object fingerprint;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Entry(Object fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    public static final long DEFAULT_MAXIMUM_KEYS = 100_000;
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofHours(24);
+
+    private final ConcurrentHashMap<String, Entry> running = new ConcurrentHashMap<>();
+    private final Cache<String, Entry> completed;
+
+    public IdempotencyStore() {
+        this(DEFAULT_MAXIMUM_KEYS, DEFAULT_TIME_TO_LIVE);
+    }
+
+    public IdempotencyStore(long maximumKeys, Duration timeToLive) {
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterWrite(timeToLive)
+                .build();
+    }
+
+    /**
+     * Run {@code call} once per key, or return the result of the call already made with it.
+     * @param key The client's idempotency key, scoped by the caller to the operation
+     * @param fingerprint What the request asked for, compared with {@code equals}
+     * @throws IdempotencyKeyReusedException if the key was first used with a different fingerprint
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Object fingerprint, Supplier<T> call) {
+        while (true) {
+            Entry done = completed.getIfPresent(key);
+            if (done != null) {
+                return (T) resultOf(key, done, fingerprint);
+            }
+            Entry entry = new Entry(fingerprint);
+            Entry existing = running.putIfAbsent(key, entry);
+            if (existing == null) {
+                if (completed.getIfPresent(key) != null) {
+                    // completed between the lookup and the claim; return that result instead
+                    running.remove(key, entry);
+                    continue;
+                }
+                return run(key, entry, call);
+            }
+            try {
+                return (T) resultOf(key, existing, fingerprint);
+            } catch (CompletionException e) {
+                // the first call failed and released the key; claim it again
+            }
+        }
+    }
+
+    private static Object resultOf(String key, Entry entry, Object fingerprint) {
+        if (!entry.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException("Idempotency key " + key
+                    + " was already used for a different request");
+        }
+        return entry.result.join();
+    }
+
+    private <T> T run(String key, Entry entry, Supplier<T> call) {
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException | Error e) {
+            release(key, entry, e);
+            throw e;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            complete(key, entry, result);
+            return result;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    complete(key, entry, result);
+                } else {
+                    release(key, entry, new IllegalStateException("Rolled back"));
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Keep the result before letting go of the claim, so a retry always finds the key in one place or the other.
+     */
+    private void complete(String key, Entry entry, Object result) {
+        entry.result.complete(result);
+        completed.put(key, entry);
+        running.remove(key, entry);
+    }
+
+    private void release(String key, Entry entry, Throwable cause) {
+        running.remove(key, entry);
+        entry.result.completeExceptionally(cause);
+    }
+
+    public long size() {
+        return completed.estimatedSize() + running.size();
+    }
+}
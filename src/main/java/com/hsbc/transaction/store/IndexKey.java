@@ -0,0 +1,54 @@
+package com.hsbc.transaction.store;
+
+import com.hsbc.transaction.model.Transaction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sort key shared by every transaction index: newest timestamp first, ties broken by transaction ID.
+ * A {@code null} transactionId is a sentinel that sorts after every real ID with the same timestamp,
+ * which lets a range bound include all transactions stamped exactly at that instant.
+ */
+public record IndexKey(LocalDateTime timestamp, String transactionId) implements Comparable<IndexKey> {
+
+    public static IndexKey of(Transaction transaction) {
+        return new IndexKey(transaction.getTimestamp(), transaction.getTransactionId());
+    }
+
+    /**
+     * @return the smallest key for the given instant, i.e. the first key in iteration order
+     */
+    static IndexKey first(LocalDateTime timestamp) {
+        return new IndexKey(timestamp, "");
+    }
+
+    /**
+     * @return the largest key for the given instant, i.e. the last key in iteration order
+     */
+    static IndexKey last(LocalDateTime timestamp) {
+        return new IndexKey(timestamp, null);
+    }
+
+    @Override
+    public int compareTo(IndexKey other) {
+        return compare(timestamp, transactionId, other.timestamp, other.transactionId);
+    }
+
+    /**
+     * Compare two keys given as their parts, for stores that keep the parts in columns rather than as keys.
+     */
+    static int compare(LocalDateTime timestamp, String transactionId,
+                       LocalDateTime otherTimestamp, String otherTransactionId) {
+        int byTime = otherTimestamp.compareTo(timestamp);
+        if (byTime != 0) {
+            return byTime;
+        }
+        if (transactionId == null) {
+            return otherTransactionId == null ? 0 : 1;
+        }
+        if (otherTransactionId == null) {
+            return -1;
+        }
+        return transactionId.compareTo(otherTransactionId);
+    }
+}
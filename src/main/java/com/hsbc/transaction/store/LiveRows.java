@@ -0,0 +1,69 @@
+package com.hsbc.transaction.store;
+
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionFilter;
+import com.hsbc.transaction.model.TransactionStatus;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * The rows of a {@link Segment} still open to change: a map by transaction ID plus the {@link TransactionIndex} kept
+ * in step with it. Every change goes through the map's per-key compute so the indexes never disagree with the
+ * stored row.
+ */
+final class LiveRows {
+    private final ConcurrentHashMap<String, Transaction> transactions = new ConcurrentHashMap<>();
+    private final TransactionIndex index = new TransactionIndex();
+
+    void insert(Transaction transaction) {
+        transactions.compute(transaction.getTransactionId(), (key, existing) -> {
+            if (existing != null) {
+                index.remove(existing);
+            }
+            index.add(transaction);
+            return transaction;
+        });
+    }
+
+    Transaction get(String transactionId) {
+        return transactions.get(transactionId);
+    }
+
+    /**
+     * @return the updated transaction, or null if there is none with that ID
+     */
+    Transaction update(String transactionId, Consumer<Transaction> change) {
+        return transactions.computeIfPresent(transactionId, (key, existing) -> {
+            TransactionStatus previous = existing.getStatus();
+            change.accept(existing);
+            index.statusChanged(existing, previous);
+            return existing;
+        });
+    }
+
+    /**
+     * @return the removed transaction, or null if there is none with that ID
+     */
+    Transaction remove(String transactionId) {
+        Transaction[] removed = new Transaction[1];
+        transactions.computeIfPresent(transactionId, (key, existing) -> {
+            index.remove(existing);
+            removed[0] = existing;
+            return null;
+        });
+        return removed[0];
+    }
+
+    QueryPlan plan(TransactionFilter filter) {
+        return index.plan(filter);
+    }
+
+    Iterable<Transaction> values() {
+        return transactions.values();
+    }
+
+    int size() {
+        return transactions.size();
+    }
+}
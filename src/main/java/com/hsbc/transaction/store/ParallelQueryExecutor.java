@@ -0,0 +1,122 @@
+package com.hsbc.transaction.store;
+
+import com.hsbc.transaction.model.Transaction;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+import java.util.stream.LongStream;
+
+/**
+ * Counts the matches of a large query one plan part at a time, in parallel on its own {@link ForkJoinPool} rather
+ * than the common pool, so that an offset page can find where it starts without one thread walking every part.
+ * Parts are store segments, disjoint in time and each already in key order, so once the counts are known the page
+ * is taken from just the parts it falls in; nothing has to be sorted or merged.
+ * <p>
+ * {@link #shouldRun} decides per query: only a plan that cannot count its matches itself and has at least
+ * {@code threshold} index rows to walk, spread over more than one part, is worth the hand-off.
+ */
+public class ParallelQueryExecutor implements AutoCloseable {
+    public static final long DEFAULT_THRESHOLD = 100_000;
+
+    private final ForkJoinPool pool;
+    private final long threshold;
+
+    /**
+     * An executor that never runs in parallel.
+     */
+    public ParallelQueryExecutor() {
+        this(1, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param parallelism worker threads; 1 or less never runs in parallel
+     * @param threshold index rows a plan must have before it is counted in parallel
+     */
+    public ParallelQueryExecutor(int parallelism, long threshold) {
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism, ParallelQueryExecutor::newWorker, null, false) : null;
+        this.threshold = threshold;
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        worker.setName("transaction-query-" + worker.getPoolIndex());
+        return worker;
+    }
+
+    public boolean shouldRun(QueryPlan plan) {
+        return pool != null && plan.exactCount() < 0 && plan.getIndexSize() >= threshold
+                && plan.partitionCount() > 1;
+    }
+
+    /**
+     * Matches per part, in part order, and the rows walked to find them.
+     */
+    public record Counts(long[] matched, long scanned) {
+        public long total() {
+            return LongStream.of(matched).sum();
+        }
+    }
+
+    /**
+     * @param filter checked against rows the plan does not already know to match
+     */
+    public Counts count(QueryPlan plan, Predicate<Transaction> filter) {
+        int parts = plan.partitionCount();
+        long[] matched = new long[parts];
+        long[] scanned = new long[parts];
+        pool.invoke(new CountTask(plan, filter, matched, scanned, 0, parts));
+        return new Counts(matched, LongStream.of(scanned).sum());
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Splits the parts in halves down to one part per task.
+     */
+    private static final class CountTask extends RecursiveAction {
+        private final QueryPlan plan;
+        private final Predicate<Transaction> filter;
+        private final long[] matched;
+        private final long[] scanned;
+        private final int from;
+        private final int to;
+
+        private CountTask(QueryPlan plan, Predicate<Transaction> filter, long[] matched, long[] scanned,
+                          int from, int to) {
+            this.plan = plan;
+            this.filter = filter;
+            this.matched = matched;
+            this.scanned = scanned;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new CountTask(plan, filter, matched, scanned, from, middle),
+                        new CountTask(plan, filter, matched, scanned, middle, to));
+                return;
+            }
+            QueryPlan.Cursor rows = plan.partitionCursor(from);
+            long walked = 0;
+            long found = 0;
+            while (rows.advance()) {
+                walked++;
+                if (rows.isMatch() || filter.test(rows.row())) {
+                    found++;
+                }
+            }
+            scanned[from] = walked;
+            matched[from] = found;
+        }
+    }
+}
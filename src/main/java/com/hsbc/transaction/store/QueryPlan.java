@@ -0,0 +1,371 @@
+package com.hsbc.transaction.store;
+
+import com.hsbc.transaction.model.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Result of planning a query: the rows to walk, in newest-first {@link IndexKey} order.
+ * <p>
+ * When the plan is covering, every row it yields matches the filter; otherwise the caller still has to apply the
+ * filter to each row. {@link #exactCount()} is the number of matches when the plan knows it without a walk, which
+ * a covering plan always does and some others do too.
+ * <p>
+ * A plan is made of parts, one per store segment, each yielding its rows in key order and each wholly older than
+ * the part before it, so walking the parts in turn keeps the order without a sort. A {@link #cursor()} walks the
+ * rows without building a {@link Transaction} for each: sealed rows are filtered on their columns and only built
+ * when the caller asks for one.
+ */
+public final class QueryPlan {
+
+    /**
+     * A walk over the rows of a plan in key order.
+     */
+    public interface Cursor {
+        /**
+         * Move to the next row.
+         * @return false once there are no more rows
+         */
+        boolean advance();
+
+        /**
+         * @return the current row, built on first call if the rows are not held as objects
+         */
+        Transaction row();
+
+        /**
+         * @return true if the current row is known to match the filter without looking at it
+         */
+        boolean isMatch();
+
+        LocalDateTime timestamp();
+
+        String transactionId();
+    }
+
+    /**
+     * Rows of one part in key order, optionally starting after a key.
+     */
+    @FunctionalInterface
+    interface Part {
+        Cursor cursor(IndexKey after);
+    }
+
+    private static final String MIXED = "mixed";
+
+    private final String indexName;
+    private final List<Part> parts;
+    private final long indexSize;
+    private final boolean covering;
+    private final long count;
+
+    QueryPlan(String indexName, NavigableMap<IndexKey, Transaction> rows, long indexSize, boolean covering) {
+        this(indexName, List.of(after -> new IteratorCursor(
+                        (after == null ? rows : rows.tailMap(after, false)).values().iterator(), covering)),
+                indexSize, covering, covering ? indexSize : -1);
+    }
+
+    QueryPlan(String indexName, List<Part> parts, long indexSize, boolean covering, long count) {
+        this.indexName = indexName;
+        this.parts = parts;
+        this.indexSize = indexSize;
+        this.covering = covering;
+        this.count = count;
+    }
+
+    static QueryPlan empty(String indexName) {
+        return new QueryPlan(indexName, Collections.emptyList(), 0, true, 0);
+    }
+
+    /**
+     * Interleave the rows of two plans over the same time window into one part.
+     */
+    static QueryPlan merge(QueryPlan first, QueryPlan second) {
+        if (second.parts.isEmpty()) {
+            return first;
+        }
+        if (first.parts.isEmpty()) {
+            return second;
+        }
+        Part merged = after -> new MergingCursor(first.cursor(after), second.cursor(after));
+        return new QueryPlan(combinedName(first, second), List.of(merged), first.indexSize + second.indexSize,
+                first.covering && second.covering, combinedCount(first, second));
+    }
+
+    /**
+     * Walk each plan after the one before it; each must be wholly older than the previous.
+     */
+    static QueryPlan concat(List<QueryPlan> plans) {
+        QueryPlan combined = null;
+        for (QueryPlan plan : plans) {
+            if (plan.parts.isEmpty()) {
+                continue;
+            }
+            if (combined == null) {
+                combined = plan;
+                continue;
+            }
+            List<Part> parts = new ArrayList<>(combined.parts);
+            parts.addAll(plan.parts);
+            combined = new QueryPlan(combinedName(combined, plan), parts, combined.indexSize + plan.indexSize,
+                    combined.covering && plan.covering, combinedCount(combined, plan));
+        }
+        if (combined != null) {
+            return combined;
+        }
+        return plans.isEmpty() ? empty("time") : plans.get(0);
+    }
+
+    private static String combinedName(QueryPlan first, QueryPlan second) {
+        return first.indexName.equals(second.indexName) ? first.indexName : MIXED;
+    }
+
+    private static long combinedCount(QueryPlan first, QueryPlan second) {
+        return first.count < 0 || second.count < 0 ? -1 : first.count + second.count;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    /**
+     * @return every row of the plan, newest first
+     */
+    public Iterable<Transaction> rows() {
+        return () -> new CursorIterator(cursor(null));
+    }
+
+    /**
+     * @return the rows of the plan that come after {@code key} in iteration order
+     */
+    public Iterable<Transaction> rowsAfter(IndexKey key) {
+        return () -> new CursorIterator(cursor(key));
+    }
+
+    public Stream<Transaction> stream() {
+        return StreamSupport.stream(rows().spliterator(), false);
+    }
+
+    public boolean isEmpty() {
+        return !cursor(null).advance();
+    }
+
+    public Cursor cursor() {
+        return cursor(null);
+    }
+
+    /**
+     * @return a cursor over the rows of the plan that come after {@code key}, or over all of them if it is null
+     */
+    public Cursor cursor(IndexKey after) {
+        if (parts.size() == 1) {
+            return parts.get(0).cursor(after);
+        }
+        return new Cursor() {
+            private int next;
+            private Cursor current;
+
+            @Override
+            public boolean advance() {
+                while (current == null || !current.advance()) {
+                    if (next == parts.size()) {
+                        current = null;
+                        return false;
+                    }
+                    current = parts.get(next++).cursor(after);
+                }
+                return true;
+            }
+
+            @Override
+            public Transaction row() {
+                return current.row();
+            }
+
+            @Override
+            public boolean isMatch() {
+                return current.isMatch();
+            }
+
+            @Override
+            public LocalDateTime timestamp() {
+                return current.timestamp();
+            }
+
+            @Override
+            public String transactionId() {
+                return current.transactionId();
+            }
+        };
+    }
+
+    /**
+     * @return the number of parts, one per store segment the plan covers, each wholly older than the one before
+     */
+    public int partitionCount() {
+        return parts.size();
+    }
+
+    /**
+     * @return a cursor over the rows of one part; separate parts can be walked from separate threads
+     */
+    public Cursor partitionCursor(int partition) {
+        return parts.get(partition).cursor(null);
+    }
+
+    /**
+     * @return the number of entries in the chosen indexes, an upper bound on the rows visited
+     */
+    public long getIndexSize() {
+        return indexSize;
+    }
+
+    public boolean isCovering() {
+        return covering;
+    }
+
+    /**
+     * @return the number of matching rows if known without a walk, otherwise -1
+     */
+    public long exactCount() {
+        return count;
+    }
+
+    /**
+     * Rows already held as objects, each known to match when the part is covering.
+     */
+    private static final class IteratorCursor implements Cursor {
+        private final Iterator<Transaction> rows;
+        private final boolean covering;
+        private Transaction current;
+
+        private IteratorCursor(Iterator<Transaction> rows, boolean covering) {
+            this.rows = rows;
+            this.covering = covering;
+        }
+
+        @Override
+        public boolean advance() {
+            current = rows.hasNext() ? rows.next() : null;
+            return current != null;
+        }
+
+        @Override
+        public Transaction row() {
+            return current;
+        }
+
+        @Override
+        public boolean isMatch() {
+            return covering;
+        }
+
+        @Override
+        public LocalDateTime timestamp() {
+            return current.getTimestamp();
+        }
+
+        @Override
+        public String transactionId() {
+            return current.getTransactionId();
+        }
+    }
+
+    private static final class CursorIterator implements Iterator<Transaction> {
+        private final Cursor cursor;
+        private boolean ready;
+        private boolean more;
+
+        private CursorIterator(Cursor cursor) {
+            this.cursor = cursor;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!ready) {
+                more = cursor.advance();
+                ready = true;
+            }
+            return more;
+        }
+
+        @Override
+        public Transaction next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ready = false;
+            return cursor.row();
+        }
+    }
+
+    /**
+     * Two key-ordered cursors as one, taking the smaller head each time. Heads are compared by timestamp, and by
+     * transaction ID only on a tie.
+     */
+    private static final class MergingCursor implements Cursor {
+        private final Cursor first;
+        private final Cursor second;
+        private boolean started;
+        private boolean firstMore;
+        private boolean secondMore;
+        private Cursor current;
+
+        private MergingCursor(Cursor first, Cursor second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean advance() {
+            if (!started) {
+                firstMore = first.advance();
+                secondMore = second.advance();
+                started = true;
+            } else if (current == first) {
+                firstMore = first.advance();
+            } else if (current == second) {
+                secondMore = second.advance();
+            }
+            if (!firstMore && !secondMore) {
+                current = null;
+                return false;
+            }
+            current = !secondMore || firstMore && compareHeads() <= 0 ? first : second;
+            return true;
+        }
+
+        private int compareHeads() {
+            int byTime = second.timestamp().compareTo(first.timestamp());
+            return byTime != 0 ? byTime : first.transactionId().compareTo(second.transactionId());
+        }
+
+        @Override
+        public Transaction row() {
+            return current.row();
+        }
+
+        @Override
+        public boolean isMatch() {
+            return current.isMatch();
+        }
+
+        @Override
+        public LocalDateTime timestamp() {
+            return current.timestamp();
+        }
+
+        @Override
+        public String transactionId() {
+            return current.transactionId();
+        }
+    }
+}
@@ -0,0 +1,709 @@
+package com.hsbc.transaction.store;
+
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionFilter;
+import com.hsbc.transaction.model.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * The settled rows of a sealed {@link Segment}, held off heap as columns in {@link IndexKey} order: epoch second and
+ * nanosecond, transaction ID, account as an index into a dictionary, amount as a long at one scale for the whole
+ * segment, status and direction as a byte each, and description as an index into a dictionary holding each distinct
+ * description of a seal once. Only the account dictionary stays on the heap, so a sealed row costs the collector
+ * nothing.
+ * <p>
+ * A query filters on the columns and builds a {@link Transaction} only for a row the caller takes, and
+ * {@link #get} builds a fresh one on every call. Rows are found by ID through a copy of the positions sorted by ID,
+ * and by account through the positions grouped per account.
+ * <p>
+ * No row here is RUNNING: settled rows only ever move on to a later status, so a status filter of RUNNING skips
+ * the segment. A row can still change status or be removed in place; the counts per status and direction are kept
+ * up to date so single-predicate queries still know their size.
+ */
+final class SealedRows {
+    private static final int NO_DESCRIPTION = -1;
+    /**
+     * Marks an amount that does not fit the amount column and is kept in {@link #wideAmounts} instead.
+     */
+    private static final long WIDE = Long.MIN_VALUE;
+    /**
+     * Rows a cursor selects at a time, one bit each in its selection.
+     */
+    private static final int BLOCK = 4096;
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+    private static final TransactionDirection[] DIRECTIONS = TransactionDirection.values();
+
+    static final SealedRows EMPTY = new SealedRows(null, List.of());
+
+    private final int rowCount;
+    private final LongBuffer seconds;
+    private final IntBuffer nanos;
+    private final StringColumn transactionIds;
+    private final IntBuffer idOrder;
+    private final IntBuffer accounts;
+    private final String[] accountNames;
+    private final Map<String, Integer> accountCodes;
+    private final int[] accountStarts;
+    private final IntBuffer accountRows;
+    private final int amountScale;
+    private final LongBuffer amounts;
+    private final ByteBuffer amountScales;
+    private final Map<Integer, BigDecimal> wideAmounts;
+    private final ByteBuffer statuses;
+    private final AtomicLongArray removed;
+    private final ByteBuffer directions;
+    private final IntBuffer descriptions;
+    private final StringColumn descriptionDictionary;
+    private final AtomicIntegerArray statusCounts = new AtomicIntegerArray(STATUSES.length);
+    private final AtomicIntegerArray directionCounts = new AtomicIntegerArray(DIRECTIONS.length);
+    private volatile int size;
+    private volatile boolean removedAny;
+
+    /**
+     * Merge the remaining rows of {@code previous} with newly settled rows, copying the previous rows column by
+     * column rather than building them.
+     * @param previous rows sealed before, or null
+     * @param settled rows that are not RUNNING, in any order
+     */
+    SealedRows(SealedRows previous, Collection<Transaction> settled) {
+        Transaction[] added = settled.toArray(new Transaction[0]);
+        Arrays.sort(added, (a, b) -> IndexKey.compare(a.getTimestamp(), a.getTransactionId(),
+                b.getTimestamp(), b.getTransactionId()));
+        int[] kept = previous == null ? new int[0] : previous.remainingPositions();
+        rowCount = kept.length + added.length;
+
+        seconds = allocate(rowCount * Long.BYTES).asLongBuffer();
+        nanos = allocate(rowCount * Integer.BYTES).asIntBuffer();
+        accounts = allocate(rowCount * Integer.BYTES).asIntBuffer();
+        amounts = allocate(rowCount * Long.BYTES).asLongBuffer();
+        amountScales = allocate(rowCount);
+        statuses = allocate(rowCount);
+        removed = new AtomicLongArray((rowCount + 63) >>> 6);
+        directions = allocate(rowCount);
+        descriptions = allocate(rowCount * Integer.BYTES).asIntBuffer();
+        wideAmounts = new HashMap<>();
+
+        // The previous dictionaries are kept whole so previous rows keep their codes
+        List<String> names = new ArrayList<>();
+        accountCodes = new HashMap<>();
+        if (previous != null) {
+            names.addAll(Arrays.asList(previous.accountNames));
+            accountCodes.putAll(previous.accountCodes);
+        }
+        Map<String, Integer> newDescriptions = new HashMap<>();
+        byte[][] addedIds = new byte[added.length][];
+        List<byte[]> addedDescriptions = new ArrayList<>();
+        int idBytes = 0;
+        int descriptionBytes = 0;
+        int previousDescriptions = previous == null ? 0 : previous.descriptionDictionary.size();
+        int scale = previous == null ? 0 : previous.amountScale;
+        for (int i = 0; i < added.length; i++) {
+            Transaction transaction = added[i];
+            addedIds[i] = StringColumn.encode(transaction.getTransactionId());
+            idBytes += addedIds[i].length;
+            accountCodes.computeIfAbsent(transaction.getAccountNo(), accountNo -> {
+                names.add(accountNo);
+                return names.size() - 1;
+            });
+            String description = transaction.getDescription();
+            if (description != null && !newDescriptions.containsKey(description)) {
+                newDescriptions.put(description, previousDescriptions + addedDescriptions.size());
+                byte[] encoded = StringColumn.encode(description);
+                addedDescriptions.add(encoded);
+                descriptionBytes += encoded.length;
+            }
+            scale = Math.max(scale, Math.min(transaction.getAmount().scale(), 18));
+        }
+        accountNames = names.toArray(new String[0]);
+        amountScale = scale;
+
+        StringColumn.Builder descriptionBuilder;
+        if (previous == null) {
+            descriptionBuilder = new StringColumn.Builder(addedDescriptions.size(), descriptionBytes);
+        } else {
+            StringColumn before = previous.descriptionDictionary;
+            for (int code = 0; code < before.size(); code++) {
+                descriptionBytes += before.length(code);
+            }
+            descriptionBuilder = new StringColumn.Builder(before.size() + addedDescriptions.size(), descriptionBytes);
+            for (int code = 0; code < before.size(); code++) {
+                descriptionBuilder.add(before, code);
+            }
+        }
+        addedDescriptions.forEach(descriptionBuilder::add);
+        descriptionDictionary = descriptionBuilder.build();
+
+        for (int position : kept) {
+            idBytes += previous.transactionIds.length(position);
+        }
+        StringColumn.Builder idBuilder = new StringColumn.Builder(rowCount, idBytes);
+        long[] addedSeconds = new long[added.length];
+        for (int i = 0; i < added.length; i++) {
+            addedSeconds[i] = added[i].getTimestamp().toEpochSecond(ZoneOffset.UTC);
+        }
+
+        // Both inputs are in key order, so one merge pass writes every column in order
+        int fromPrevious = 0;
+        int fromAdded = 0;
+        for (int row = 0; row < rowCount; row++) {
+            boolean takePrevious = fromAdded == added.length || fromPrevious < kept.length
+                    && previous.compareWith(kept[fromPrevious], addedSeconds[fromAdded], added[fromAdded]) <= 0;
+            if (takePrevious) {
+                copyRow(previous, kept[fromPrevious++], row, idBuilder);
+            } else {
+                Transaction transaction = added[fromAdded];
+                seconds.put(row, addedSeconds[fromAdded]);
+                nanos.put(row, transaction.getTimestamp().getNano());
+                idBuilder.add(addedIds[fromAdded++]);
+                accounts.put(row, accountCodes.get(transaction.getAccountNo()));
+                putAmount(row, transaction.getAmount());
+                statuses.put(row, (byte) transaction.getStatus().ordinal());
+                directions.put(row, (byte) transaction.getDirection().ordinal());
+                descriptions.put(row, transaction.getDescription() == null
+                        ? NO_DESCRIPTION : newDescriptions.get(transaction.getDescription()));
+            }
+            statusCounts.incrementAndGet(statuses.get(row));
+            directionCounts.incrementAndGet(directions.get(row));
+        }
+        transactionIds = idBuilder.build();
+
+        idOrder = allocate(rowCount * Integer.BYTES).asIntBuffer();
+        int[] byId = IntStream.range(0, rowCount).boxed()
+                .sorted(transactionIds::compare)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        idOrder.put(0, byId);
+
+        // Group positions by account, keeping key order within each account
+        accountStarts = new int[accountNames.length + 1];
+        for (int row = 0; row < rowCount; row++) {
+            accountStarts[accounts.get(row) + 1]++;
+        }
+        for (int code = 0; code < accountNames.length; code++) {
+            accountStarts[code + 1] += accountStarts[code];
+        }
+        int[] filled = Arrays.copyOf(accountStarts, accountNames.length);
+        accountRows = allocate(rowCount * Integer.BYTES).asIntBuffer();
+        for (int row = 0; row < rowCount; row++) {
+            accountRows.put(filled[accounts.get(row)]++, row);
+        }
+        size = rowCount;
+    }
+
+    private void copyRow(SealedRows previous, int position, int row, StringColumn.Builder idBuilder) {
+        seconds.put(row, previous.seconds.get(position));
+        nanos.put(row, previous.nanos.get(position));
+        idBuilder.add(previous.transactionIds, position);
+        accounts.put(row, previous.accounts.get(position));
+        if (previous.amountScale == amountScale && previous.amounts.get(position) != WIDE) {
+            amounts.put(row, previous.amounts.get(position));
+            amountScales.put(row, previous.amountScales.get(position));
+        } else {
+            putAmount(row, previous.amount(position));
+        }
+        statuses.put(row, previous.statuses.get(position));
+        directions.put(row, previous.directions.get(position));
+        descriptions.put(row, previous.descriptions.get(position));
+    }
+
+    private void putAmount(int row, BigDecimal amount) {
+        if (amount.scale() <= amountScale && amount.scale() >= Byte.MIN_VALUE) {
+            BigInteger unscaled = amount.setScale(amountScale).unscaledValue();
+            // Stay clear of the marker and leave room for the filter bounds to clamp to
+            if (unscaled.bitLength() < 63) {
+                amounts.put(row, unscaled.longValue());
+                amountScales.put(row, (byte) amount.scale());
+                return;
+            }
+        }
+        amounts.put(row, WIDE);
+        wideAmounts.put(row, amount);
+    }
+
+    private BigDecimal amount(int position) {
+        long unscaled = amounts.get(position);
+        if (unscaled == WIDE) {
+            return wideAmounts.get(position);
+        }
+        return BigDecimal.valueOf(unscaled, amountScale).setScale(amountScales.get(position));
+    }
+
+    private int[] remainingPositions() {
+        return IntStream.range(0, rowCount).filter(position -> !isRemoved(position)).toArray();
+    }
+
+    private boolean isRemoved(int position) {
+        return (removed.getAcquire(position >>> 6) & 1L << position) != 0;
+    }
+
+    /**
+     * Called with the monitor held, so no other writer races the word. The row keeps its last status so a cursor
+     * that selected it can still build it.
+     */
+    private void markRemoved(int position, TransactionDirection direction) {
+        removed.setRelease(position >>> 6, removed.get(position >>> 6) | 1L << position);
+        directionCounts.decrementAndGet(direction.ordinal());
+        removedAny = true;
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * A direct buffer in native byte order, for any column of the rows. It is freed by the collector once no rows
+     * or query refer to it, within the {@code -XX:MaxDirectMemorySize} limit.
+     */
+    static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    Transaction get(String transactionId) {
+        int position = positionOf(transactionId);
+        return position < 0 ? null : row(position);
+    }
+
+    /**
+     * Apply a status change to a copy of the row and write the new status back. A change back to RUNNING, as when
+     * a settlement is rolled back, removes the row and returns it for the caller to keep with the live rows instead.
+     * @return the changed row, or null if there is none with that ID
+     */
+    synchronized Transaction update(String transactionId, Consumer<Transaction> change) {
+        int position = positionOf(transactionId);
+        if (position < 0) {
+            return null;
+        }
+        Transaction existing = row(position);
+        TransactionStatus previous = existing.getStatus();
+        change.accept(existing);
+        if (existing.getStatus() != previous) {
+            statusCounts.decrementAndGet(previous.ordinal());
+            if (existing.getStatus() == TransactionStatus.RUNNING) {
+                markRemoved(position, existing.getDirection());
+            } else {
+                statuses.put(position, (byte) existing.getStatus().ordinal());
+                statusCounts.incrementAndGet(existing.getStatus().ordinal());
+            }
+        }
+        return existing;
+    }
+
+    synchronized Transaction remove(String transactionId) {
+        int position = positionOf(transactionId);
+        if (position < 0) {
+            return null;
+        }
+        Transaction existing = row(position);
+        statusCounts.decrementAndGet(existing.getStatus().ordinal());
+        markRemoved(position, existing.getDirection());
+        return existing;
+    }
+
+    void forEachId(Consumer<String> action) {
+        for (int position = 0; position < rowCount; position++) {
+            if (!isRemoved(position)) {
+                action.accept(transactionIds.get(position));
+            }
+        }
+    }
+
+    /**
+     * Narrow to the account's positions when the filter names one, then to the date range by binary search. The
+     * cursor evaluates the remaining predicates on the columns, so every row it yields matches.
+     */
+    QueryPlan plan(TransactionFilter filter) {
+        if (rowCount == 0) {
+            return QueryPlan.empty("time");
+        }
+        if (filter == null) {
+            return plan("time", -1, 0, rowCount, Predicates.NONE, size);
+        }
+        if (filter.getStatus() == TransactionStatus.RUNNING) {
+            return QueryPlan.empty("status");
+        }
+
+        String indexName = "time";
+        int account = -1;
+        int length = rowCount;
+        if (filter.getAccountNo() != null) {
+            Integer code = accountCodes.get(filter.getAccountNo());
+            if (code == null) {
+                return QueryPlan.empty("account");
+            }
+            indexName = "account";
+            account = code;
+            length = accountStarts[code + 1] - accountStarts[code];
+        }
+
+        int from = 0;
+        int to = length;
+        boolean ranged = filter.getFromDate() != null || filter.getToDate() != null;
+        if (filter.getToDate() != null) {
+            from = lowerBound(account, length, IndexKey.first(filter.getToDate()));
+        }
+        if (filter.getFromDate() != null) {
+            to = upperBound(account, length, IndexKey.last(filter.getFromDate()));
+        }
+        if (from >= to) {
+            return QueryPlan.empty(indexName);
+        }
+
+        boolean amounts = filter.getMinAmount() != null || filter.getMaxAmount() != null;
+        boolean statusOrDirection = filter.getStatus() != null || filter.getDirection() != null;
+        long count = -1;
+        if (!ranged && !amounts && !statusOrDirection) {
+            count = account < 0 ? size : removedAny ? -1 : length;
+        } else if (account < 0 && !ranged && !amounts
+                && (filter.getStatus() == null || filter.getDirection() == null)) {
+            count = filter.getStatus() != null
+                    ? statusCounts.get(filter.getStatus().ordinal())
+                    : directionCounts.get(filter.getDirection().ordinal());
+        }
+        if (count == 0) {
+            return QueryPlan.empty(indexName);
+        }
+        return plan(indexName, account, from, to, new Predicates(filter, amountScale), count);
+    }
+
+    private QueryPlan plan(String indexName, int account, int from, int to, Predicates predicates, long count) {
+        QueryPlan.Part part = after -> {
+            int start = after == null ? from : Math.max(from, upperBound(account, to, after));
+            return new ColumnCursor(account, start, to, predicates);
+        };
+        return new QueryPlan(indexName, List.of(part), to - from, true, count);
+    }
+
+    private Transaction row(int position) {
+        int description = descriptions.get(position);
+        return Transaction.builder()
+                .transactionId(transactionIds.get(position))
+                .accountNo(accountNames[accounts.get(position)])
+                .amount(amount(position))
+                .description(description == NO_DESCRIPTION ? null : descriptionDictionary.get(description))
+                .direction(DIRECTIONS[directions.get(position)])
+                .status(STATUSES[statuses.get(position)])
+                .timestamp(timestamp(position))
+                .build();
+    }
+
+    private LocalDateTime timestamp(int position) {
+        return LocalDateTime.ofEpochSecond(seconds.get(position), nanos.get(position), ZoneOffset.UTC);
+    }
+
+    private int positionOf(String transactionId) {
+        byte[] key = StringColumn.encode(transactionId);
+        int low = 0;
+        int high = rowCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int position = idOrder.get(middle);
+            int order = transactionIds.compare(position, key);
+            if (order < 0) {
+                low = middle + 1;
+            } else if (order > 0) {
+                high = middle - 1;
+            } else {
+                return isRemoved(position) ? -1 : position;
+            }
+        }
+        return -1;
+    }
+
+    private int rowAt(int account, int index) {
+        return account < 0 ? index : accountRows.get(accountStarts[account] + index);
+    }
+
+    /**
+     * Compare the key of the row at {@code position} with the key of a transaction, as {@link IndexKey} does.
+     */
+    private int compareWith(int position, long otherSecond, Transaction other) {
+        int byTime = Long.compare(otherSecond, seconds.get(position));
+        if (byTime == 0) {
+            byTime = Integer.compare(other.getTimestamp().getNano(), nanos.get(position));
+        }
+        return byTime != 0 ? byTime : transactionIds.get(position).compareTo(other.getTransactionId());
+    }
+
+    private int compareWith(int position, IndexKey key) {
+        LocalDateTime timestamp = key.timestamp();
+        int byTime = Long.compare(timestamp.toEpochSecond(ZoneOffset.UTC), seconds.get(position));
+        if (byTime == 0) {
+            byTime = Integer.compare(timestamp.getNano(), nanos.get(position));
+        }
+        return byTime != 0 ? byTime
+                : IndexKey.compare(timestamp, transactionIds.get(position), timestamp, key.transactionId());
+    }
+
+    /**
+     * @return the first index in [0, length) whose row key is not before {@code key}
+     */
+    private int lowerBound(int account, int length, IndexKey key) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareWith(rowAt(account, middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the first index in [0, length) whose row key is after {@code key}
+     */
+    private int upperBound(int account, int length, IndexKey key) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareWith(rowAt(account, middle), key) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The predicates a plan leaves to the columns, with amount bounds converted to the amount column's scale.
+     */
+    private static final class Predicates {
+        static final Predicates NONE = new Predicates(null, 0);
+
+        private final int status;
+        private final int direction;
+        private final BigDecimal minAmount;
+        private final BigDecimal maxAmount;
+        private final long minUnscaled;
+        private final long maxUnscaled;
+        private final boolean ranged;
+
+        private Predicates(TransactionFilter filter, int scale) {
+            status = filter == null || filter.getStatus() == null ? -1 : filter.getStatus().ordinal();
+            direction = filter == null || filter.getDirection() == null ? -1 : filter.getDirection().ordinal();
+            minAmount = filter == null ? null : filter.getMinAmount();
+            maxAmount = filter == null ? null : filter.getMaxAmount();
+            minUnscaled = minAmount == null ? Long.MIN_VALUE : clamp(minAmount.setScale(scale, RoundingMode.CEILING));
+            maxUnscaled = maxAmount == null ? Long.MAX_VALUE : clamp(maxAmount.setScale(scale, RoundingMode.FLOOR));
+            ranged = minAmount != null || maxAmount != null;
+        }
+
+        private boolean matchesWide(BigDecimal amount) {
+            return (minAmount == null || amount.compareTo(minAmount) >= 0)
+                    && (maxAmount == null || amount.compareTo(maxAmount) <= 0);
+        }
+
+        private static long clamp(BigDecimal bound) {
+            BigInteger unscaled = bound.unscaledValue();
+            if (unscaled.bitLength() < 64) {
+                return unscaled.longValue();
+            }
+            return unscaled.signum() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Walks positions [start, end) of all rows or of one account's rows, stopping only at rows that match.
+     * <p>
+     * Rows are selected a block at a time: each predicate runs as its own loop over one column, setting a bit per
+     * row without branching on the value, and ANDs its bits into the block's selection, skipping words already
+     * empty. The cursor then steps from set bit to set bit. Amounts too wide for the column are selected by the
+     * amount loop and checked on their own when reached.
+     */
+    private final class ColumnCursor implements QueryPlan.Cursor {
+        private final int account;
+        private final int end;
+        private final Predicates predicates;
+        private final int[] block;
+        private final long[] selection;
+        private int index;
+        private int blockStart;
+        private int blockLength;
+        private int word;
+        private long bits;
+        private int position = -1;
+        private Transaction row;
+        private LocalDateTime timestamp;
+        private String transactionId;
+
+        private ColumnCursor(int account, int start, int end, Predicates predicates) {
+            this.account = account;
+            this.index = start;
+            this.end = end;
+            this.predicates = predicates;
+            int capacity = Math.min(BLOCK, end - start);
+            this.block = account < 0 ? null : new int[capacity];
+            this.selection = new long[(capacity + 63) >>> 6];
+            this.word = selection.length;
+        }
+
+        @Override
+        public boolean advance() {
+            row = null;
+            timestamp = null;
+            transactionId = null;
+            while (true) {
+                while (bits == 0) {
+                    if (++word >= (blockLength + 63) >>> 6) {
+                        if (index >= end) {
+                            position = -1;
+                            return false;
+                        }
+                        select();
+                        word = 0;
+                    }
+                    bits = selection[word];
+                }
+                int candidate = at((word << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+                if (amounts.get(candidate) != WIDE || predicates.matchesWide(wideAmounts.get(candidate))) {
+                    position = candidate;
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Load the next block of positions and select the rows in it that match.
+         */
+        private void select() {
+            blockStart = index;
+            blockLength = Math.min(BLOCK, end - index);
+            if (account >= 0) {
+                accountRows.get(accountStarts[account] + index, block, 0, blockLength);
+            }
+            index += blockLength;
+            int words = (blockLength + 63) >>> 6;
+            selectStatus(words);
+            if (predicates.direction >= 0) {
+                selectDirection(words);
+            }
+            if (predicates.ranged) {
+                selectAmount(words);
+            }
+        }
+
+        private void selectStatus(int words) {
+            int wanted = predicates.status;
+            boolean anyRemoved = removedAny;
+            for (int w = 0; w < words; w++) {
+                int base = w << 6;
+                int limit = Math.min(64, blockLength - base);
+                long hits = limit == 64 ? -1L : (1L << limit) - 1;
+                if (wanted >= 0) {
+                    long matched = 0;
+                    for (int j = 0; j < limit; j++) {
+                        matched |= (statuses.get(at(base + j)) == wanted ? 1L : 0L) << j;
+                    }
+                    hits &= matched;
+                }
+                if (anyRemoved) {
+                    long live = 0;
+                    for (int j = 0; j < limit; j++) {
+                        int candidate = at(base + j);
+                        live |= (~removed.getAcquire(candidate >>> 6) >>> candidate & 1L) << j;
+                    }
+                    hits &= live;
+                }
+                selection[w] = hits;
+            }
+        }
+
+        private void selectDirection(int words) {
+            int wanted = predicates.direction;
+            for (int w = 0; w < words; w++) {
+                long selected = selection[w];
+                if (selected == 0) {
+                    continue;
+                }
+                int base = w << 6;
+                int limit = Math.min(64, blockLength - base);
+                long hits = 0;
+                for (int j = 0; j < limit; j++) {
+                    hits |= (directions.get(at(base + j)) == wanted ? 1L : 0L) << j;
+                }
+                selection[w] = selected & hits;
+            }
+        }
+
+        private void selectAmount(int words) {
+            long min = predicates.minUnscaled;
+            long max = predicates.maxUnscaled;
+            for (int w = 0; w < words; w++) {
+                long selected = selection[w];
+                if (selected == 0) {
+                    continue;
+                }
+                int base = w << 6;
+                int limit = Math.min(64, blockLength - base);
+                long hits = 0;
+                for (int j = 0; j < limit; j++) {
+                    long amount = amounts.get(at(base + j));
+                    hits |= (amount >= min & amount <= max | amount == WIDE ? 1L : 0L) << j;
+                }
+                selection[w] = selected & hits;
+            }
+        }
+
+        /**
+         * @return the position of the row at {@code offset} in the current block
+         */
+        private int at(int offset) {
+            return block == null ? blockStart + offset : block[offset];
+        }
+
+        @Override
+        public Transaction row() {
+            if (row == null) {
+                row = SealedRows.this.row(position);
+            }
+            return row;
+        }
+
+        @Override
+        public boolean isMatch() {
+            return true;
+        }
+
+        @Override
+        public LocalDateTime timestamp() {
+            if (timestamp == null) {
+                timestamp = SealedRows.this.timestamp(position);
+            }
+            return timestamp;
+        }
+
+        @Override
+        public String transactionId() {
+            if (transactionId == null) {
+                transactionId = transactionIds.get(position);
+            }
+            return transactionId;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.hsbc.transaction.store;
+
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionFilter;
+import com.hsbc.transaction.model.TransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * The transactions of one time window of the {@link TransactionStore}, as {@link LiveRows} and, once sealed,
+ * {@link SealedRows}. Sealing moves every settled row into the compact form and keeps only RUNNING rows live; it
+ * can be repeated to fold in rows that settled or arrived since.
+ * <p>
+ * Changes share the read side of a lock and sealing takes the write side, so no change is lost to a seal. Queries
+ * take no lock: they read the live and sealed rows as one pair, swapped in whole by a seal, so a query sees each
+ * row exactly once.
+ */
+final class Segment {
+
+    private record Parts(LiveRows live, SealedRows sealed) {
+    }
+
+    private final long window;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Parts parts = new Parts(new LiveRows(), SealedRows.EMPTY);
+    private volatile boolean dropped;
+
+    Segment(long window) {
+        this.window = window;
+    }
+
+    void insert(Transaction transaction) {
+        lock.readLock().lock();
+        try {
+            parts.live().insert(transaction);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Transaction get(String transactionId) {
+        Parts current = parts;
+        Transaction transaction = current.live().get(transactionId);
+        return transaction != null ? transaction : current.sealed().get(transactionId);
+    }
+
+    Transaction update(String transactionId, Consumer<Transaction> change) {
+        lock.readLock().lock();
+        try {
+            Parts current = parts;
+            Transaction updated = current.live().update(transactionId, change);
+            if (updated == null) {
+                updated = current.sealed().update(transactionId, change);
+                if (updated != null && updated.getStatus() == TransactionStatus.RUNNING) {
+                    current.live().insert(updated);
+                }
+            }
+            return updated;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Transaction remove(String transactionId) {
+        lock.readLock().lock();
+        try {
+            Parts current = parts;
+            Transaction removed = current.live().remove(transactionId);
+            return removed != null ? removed : current.sealed().remove(transactionId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Move the settled live rows into the sealed rows.
+     * @return the number of rows moved
+     */
+    int seal() {
+        lock.writeLock().lock();
+        try {
+            Parts current = parts;
+            List<Transaction> settled = new ArrayList<>();
+            List<Transaction> running = new ArrayList<>();
+            for (Transaction transaction : current.live().values()) {
+                (transaction.getStatus() == TransactionStatus.RUNNING ? running : settled).add(transaction);
+            }
+            if (settled.isEmpty()) {
+                return 0;
+            }
+            LiveRows live = new LiveRows();
+            running.forEach(live::insert);
+            parts = new Parts(live, new SealedRows(current.sealed(), settled));
+            return settled.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean isSealed() {
+        return parts.sealed() != SealedRows.EMPTY;
+    }
+
+    QueryPlan plan(TransactionFilter filter) {
+        Parts current = parts;
+        QueryPlan sealed = current.sealed().plan(filter);
+        if (current.live().size() == 0 && current.sealed().size() > 0) {
+            return sealed;
+        }
+        return QueryPlan.merge(current.live().plan(filter), sealed);
+    }
+
+    int size() {
+        Parts current = parts;
+        return current.live().size() + current.sealed().size();
+    }
+
+    /**
+     * Stop serving this segment's rows; the store has already unlinked it.
+     */
+    void drop() {
+        dropped = true;
+    }
+
+    boolean isDropped() {
+        return dropped;
+    }
+
+    void forEachId(Consumer<String> action) {
+        Parts current = parts;
+        current.live().values().forEach(transaction -> action.accept(transaction.getTransactionId()));
+        current.sealed().forEachId(action);
+    }
+}
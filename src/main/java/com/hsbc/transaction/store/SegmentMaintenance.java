@@ -0,0 +1,81 @@
+package com.hsbc.transaction.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically seals the {@link TransactionStore}'s segments once their window has been over for
+ * {@code sealAfter}, and discards those entirely older than {@code retention}. A zero duration turns the step off.
+ * <p>
+ * Retention only applies to memory: the journal and snapshots still hold the discarded transactions. A restart
+ * does not restore them, since the store is given the same horizon before the journal restores it.
+ */
+public class SegmentMaintenance implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SegmentMaintenance.class);
+
+    private final TransactionStore store;
+    private final Duration sealAfter;
+    private final Duration retention;
+    private final Clock clock;
+    private ScheduledExecutorService scheduler;
+
+    public SegmentMaintenance(TransactionStore store, Duration sealAfter, Duration retention) {
+        this(store, sealAfter, retention, Clock.systemDefaultZone());
+    }
+
+    public SegmentMaintenance(TransactionStore store, Duration sealAfter, Duration retention, Clock clock) {
+        this.store = store;
+        this.sealAfter = sealAfter;
+        this.retention = retention;
+        this.clock = clock;
+    }
+
+    public void start(Duration interval) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-segments");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                run();
+            } catch (Exception e) {
+                logger.error("Segment maintenance failed, will retry in {}", interval, e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void run() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (!retention.isZero()) {
+            long started = System.nanoTime();
+            int dropped = store.dropBefore(now.minus(retention));
+            if (dropped > 0) {
+                logger.info("Discarded {} transactions older than {} in {} ms", dropped, retention,
+                        (System.nanoTime() - started) / 1_000_000);
+            }
+        }
+        if (!sealAfter.isZero()) {
+            long started = System.nanoTime();
+            int sealed = store.sealBefore(now.minus(sealAfter));
+            if (sealed > 0) {
+                logger.info("Sealed {} settled transactions in {} ms", sealed,
+                        (System.nanoTime() - started) / 1_000_000);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.hsbc.transaction.store;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Strings held off heap as UTF-8, addressed by index. Written once by its {@link Builder} and read-only after, so any
+ * number of threads can read it.
+ */
+final class StringColumn {
+    private final ByteBuffer bytes;
+    private final IntBuffer offsets;
+    private final int size;
+
+    private StringColumn(ByteBuffer bytes, IntBuffer offsets, int size) {
+        this.bytes = bytes;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    String get(int index) {
+        int from = offsets.get(index);
+        byte[] value = new byte[offsets.get(index + 1) - from];
+        bytes.get(from, value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    int length(int index) {
+        return offsets.get(index + 1) - offsets.get(index);
+    }
+
+    /**
+     * Compare an entry with an encoded string byte by byte, unsigned, which for UTF-8 is code point order.
+     */
+    int compare(int index, byte[] other) {
+        int from = offsets.get(index);
+        int length = offsets.get(index + 1) - from;
+        int common = Math.min(length, other.length);
+        for (int i = 0; i < common; i++) {
+            int byByte = Byte.compareUnsigned(bytes.get(from + i), other[i]);
+            if (byByte != 0) {
+                return byByte;
+            }
+        }
+        return Integer.compare(length, other.length);
+    }
+
+    /**
+     * Compare two entries in the order of {@link #compare(int, byte[])}.
+     */
+    int compare(int index, int otherIndex) {
+        int from = offsets.get(index);
+        int length = offsets.get(index + 1) - from;
+        int otherFrom = offsets.get(otherIndex);
+        int otherLength = offsets.get(otherIndex + 1) - otherFrom;
+        int common = Math.min(length, otherLength);
+        for (int i = 0; i < common; i++) {
+            int byByte = Byte.compareUnsigned(bytes.get(from + i), bytes.get(otherFrom + i));
+            if (byByte != 0) {
+                return byByte;
+            }
+        }
+        return Integer.compare(length, otherLength);
+    }
+
+    static byte[] encode(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends entries into buffers sized up front for the given number of entries and bytes.
+     */
+    static final class Builder {
+        private final ByteBuffer bytes;
+        private final IntBuffer offsets;
+        private int size;
+
+        Builder(int count, int byteCount) {
+            this.bytes = SealedRows.allocate(byteCount);
+            this.offsets = SealedRows.allocate((count + 1) * Integer.BYTES).asIntBuffer();
+        }
+
+        int add(byte[] value) {
+            int from = offsets.get(size);
+            bytes.put(from, value);
+            offsets.put(size + 1, from + value.length);
+            return size++;
+        }
+
+        /**
+         * Copy an entry of another column without decoding it.
+         */
+        int add(StringColumn source, int index) {
+            int sourceFrom = source.offsets.get(index);
+            int length = source.offsets.get(index + 1) - sourceFrom;
+            int from = offsets.get(size);
+            bytes.put(from, source.bytes, sourceFrom, length);
+            offsets.put(size + 1, from + length);
+            return size++;
+        }
+
+        StringColumn build() {
+            return new StringColumn(bytes, offsets, size);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.hsbc.transaction.store;
+
+import com.hsbc.transaction.exception.AccountNotFoundException;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decorator that spreads credits to designated hot accounts (merchant settlement, fee pools, ...) across
+ * per-thread striped cells of minor units, LongAdder-style, so credit throughput on one account scales with cores
+ * instead of serialising on a single slot.
+ * <p>
+ * The cells only ever receive positive credits. Debits, balance reads and deletes take the account's lock, drain
+ * the cells into the underlying store and then operate on it, so a debit still sees every credit made before it
+ * and can never take the total below zero. Cells of an account that does not exist hold {@link #CLOSED}, which
+ * makes a credit racing with a delete fail with {@link AccountNotFoundException} rather than leak into a later
+ * account with the same number. Accounts that are not hot, and credits that cannot be expressed as positive minor
+ * units at the configured scale, go straight to the underlying store.
+ */
+public class StripedBalanceStore implements BalanceStore {
+    private static final VarHandle CELLS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final long CLOSED = Long.MIN_VALUE;
+    /**
+     * Longs between used cells, so every cell sits on its own cache line.
+     */
+    private static final int PADDING = 16;
+
+    private final BalanceStore delegate;
+    private final int scale;
+    private final int stripes;
+    private final Map<String, HotAccount> hotAccounts = new HashMap<>();
+
+    public StripedBalanceStore(BalanceStore delegate, Collection<String> hotAccountNos, int stripes, int scale) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        this.delegate = delegate;
+        this.scale = scale;
+        // round up to a power of two so the cell can be picked with a mask
+        this.stripes = Integer.bitCount(stripes) == 1 ? stripes : Integer.highestOneBit(stripes) << 1;
+        for (String accountNo : hotAccountNos) {
+            hotAccounts.put(accountNo, new HotAccount(this.stripes));
+        }
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public boolean isHot(String accountNo) {
+        return hotAccounts.containsKey(accountNo);
+    }
+
+    @Override
+    public void create(String accountNo, BigDecimal initialBalance) {
+        HotAccount hot = hotAccounts.get(accountNo);
+        if (hot == null) {
+            delegate.create(accountNo, initialBalance);
+            return;
+        }
+        hot.lock.lock();
+        try {
+            delegate.create(accountNo, initialBalance);
+            hot.open();
+        } finally {
+            hot.lock.unlock();
+        }
+    }
+
+    @Override
+    public void credit(String accountNo, BigDecimal amount) {
+        HotAccount hot = hotAccounts.get(accountNo);
+        long units = hot == null ? 0 : toUnits(amount);
+        if (units <= 0) {
+            if (hot == null) {
+                delegate.credit(accountNo, amount);
+                return;
+            }
+            hot.lock.lock();
+            try {
+                reconcile(accountNo, hot);
+                delegate.credit(accountNo, amount);
+            } finally {
+                hot.lock.unlock();
+            }
+            return;
+        }
+        if (!hot.add(units)) {
+            throw new AccountNotFoundException("Account not found: " + accountNo);
+        }
+    }
+
+    @Override
+    public void debit(String accountNo, BigDecimal amount) {
+        HotAccount hot = hotAccounts.get(accountNo);
+        if (hot == null) {
+            delegate.debit(accountNo, amount);
+            return;
+        }
+        hot.lock.lock();
+        try {
+            reconcile(accountNo, hot);
+            delegate.debit(accountNo, amount);
+        } finally {
+            hot.lock.unlock();
+        }
+    }
+
+    @Override
+    public BigDecimal getBalance(String accountNo) {
+        HotAccount hot = hotAccounts.get(accountNo);
+        if (hot == null) {
+            return delegate.getBalance(accountNo);
+        }
+        hot.lock.lock();
+        try {
+            reconcile(accountNo, hot);
+            return delegate.getBalance(accountNo);
+        } finally {
+            hot.lock.unlock();
+        }
+    }
+
+    @Override
+    public void delete(String accountNo) {
+        HotAccount hot = hotAccounts.get(accountNo);
+        if (hot == null) {
+            delegate.delete(accountNo);
+            return;
+        }
+        hot.lock.lock();
+        try {
+            long pending = hot.close();
+            if (pending > 0) {
+                delegate.credit(accountNo, BigDecimal.valueOf(pending, scale));
+            }
+            delegate.delete(accountNo);
+        } finally {
+            hot.lock.unlock();
+        }
+    }
+
+    /**
+     * Move everything accumulated in the cells into the underlying store. Caller must hold the account's lock.
+     */
+    private void reconcile(String accountNo, HotAccount hot) {
+        long pending = hot.drain();
+        if (pending > 0) {
+            delegate.credit(accountNo, BigDecimal.valueOf(pending, scale));
+        }
+    }
+
+    private long toUnits(BigDecimal amount) {
+        try {
+            return amount.movePointRight(scale).longValueExact();
+        } catch (ArithmeticException e) {
+            return 0;
+        }
+    }
+
+    private static final class HotAccount {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long[] cells;
+        private final int mask;
+
+        HotAccount(int stripes) {
+            cells = new long[stripes * PADDING];
+            mask = stripes - 1;
+            for (int i = 0; i < stripes; i++) {
+                cells[i * PADDING] = CLOSED;
+            }
+        }
+
+        private int cellIndex() {
+            long id = Thread.currentThread().threadId();
+            int hash = (int) (id ^ (id >>> 32));
+            hash ^= hash >>> 16;
+            return (hash & mask) * PADDING;
+        }
+
+        /**
+         * @return false if the account does not exist
+         */
+        boolean add(long units) {
+            int index = cellIndex();
+            while (true) {
+                long current = (long) CELLS.getVolatile(cells, index);
+                if (current == CLOSED) {
+                    return false;
+                }
+                long updated = Math.addExact(current, units);
+                if (CELLS.compareAndSet(cells, index, current, updated)) {
+                    return true;
+                }
+            }
+        }
+
+        long drain() {
+            long total = 0;
+            for (int i = 0; i < cells.length; i += PADDING) {
+                while (true) {
+                    long current = (long) CELLS.getVolatile(cells, i);
+                    if (current == CLOSED || current == 0) {
+                        break;
+                    }
+                    if (CELLS.compareAndSet(cells, i, current, 0L)) {
+                        total += current;
+                        break;
+                    }
+                }
+            }
+            return total;
+        }
+
+        long close() {
+            long total = 0;
+            for (int i = 0; i < cells.length; i += PADDING) {
+                long previous = (long) CELLS.getAndSet(cells, i, CLOSED);
+                if (previous != CLOSED) {
+                    total += previous;
+                }
+            }
+            return total;
+        }
+
+        void open() {
+            for (int i = 0; i < cells.length; i += PADDING) {
+                CELLS.setVolatile(cells, i, 0L);
+            }
+        }
+    }
+}
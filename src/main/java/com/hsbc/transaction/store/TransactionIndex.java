@@ -0,0 +1,166 @@
+package com.hsbc.transaction.store;
+
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionFilter;
+import com.hsbc.transaction.model.TransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Secondary indexes over the transaction store.
+ * <p>
+ * Every index is kept in {@link IndexKey} order (newest first), so whichever index the planner picks can be
+ * walked page by page without a sort, and a date range is a sub-map view of it rather than a scan.
+ */
+public class TransactionIndex {
+    private final Bucket byTime = new Bucket();
+    private final ConcurrentHashMap<String, Bucket> byAccount = new ConcurrentHashMap<>();
+    private final Map<TransactionStatus, Bucket> byStatus = new EnumMap<>(TransactionStatus.class);
+    private final Map<TransactionDirection, Bucket> byDirection = new EnumMap<>(TransactionDirection.class);
+
+    public TransactionIndex() {
+        for (TransactionStatus status : TransactionStatus.values()) {
+            byStatus.put(status, new Bucket());
+        }
+        for (TransactionDirection direction : TransactionDirection.values()) {
+            byDirection.put(direction, new Bucket());
+        }
+    }
+
+    public void add(Transaction transaction) {
+        IndexKey key = IndexKey.of(transaction);
+        byTime.put(key, transaction);
+        byAccount.compute(transaction.getAccountNo(), (accountNo, bucket) -> {
+            Bucket target = bucket == null ? new Bucket() : bucket;
+            target.put(key, transaction);
+            return target;
+        });
+        byStatus.get(transaction.getStatus()).put(key, transaction);
+        byDirection.get(transaction.getDirection()).put(key, transaction);
+    }
+
+    public void remove(Transaction transaction) {
+        IndexKey key = IndexKey.of(transaction);
+        byTime.remove(key);
+        byAccount.computeIfPresent(transaction.getAccountNo(), (accountNo, bucket) -> {
+            bucket.remove(key);
+            return bucket.isEmpty() ? null : bucket;
+        });
+        byStatus.get(transaction.getStatus()).remove(key);
+        byDirection.get(transaction.getDirection()).remove(key);
+    }
+
+    /**
+     * Move a transaction between status buckets. Must be called after the new status has been set.
+     */
+    public void statusChanged(Transaction transaction, TransactionStatus previous) {
+        if (previous == transaction.getStatus()) {
+            return;
+        }
+        IndexKey key = IndexKey.of(transaction);
+        byStatus.get(previous).remove(key);
+        byStatus.get(transaction.getStatus()).put(key, transaction);
+    }
+
+    public long size() {
+        return byTime.size();
+    }
+
+    /**
+     * Pick the most selective index for the filter: the smallest of the account, status and direction buckets
+     * the filter constrains, falling back to the time index. Date bounds narrow the chosen index to a range view.
+     * A constrained field always picks its own bucket over the time index, even when the two are the same size:
+     * only that bucket holds nothing but matching rows, so only it can be covering.
+     */
+    public QueryPlan plan(TransactionFilter filter) {
+        if (filter == null) {
+            return new QueryPlan("time", byTime.entries, byTime.size(), true);
+        }
+
+        String indexName = "time";
+        Bucket chosen = byTime;
+        int indexedPredicates = 0;
+
+        if (filter.getAccountNo() != null) {
+            indexedPredicates++;
+            Bucket bucket = byAccount.get(filter.getAccountNo());
+            if (bucket == null) {
+                return QueryPlan.empty("account");
+            }
+            indexName = "account";
+            chosen = bucket;
+        }
+        if (filter.getStatus() != null) {
+            indexedPredicates++;
+            Bucket bucket = byStatus.get(filter.getStatus());
+            if (chosen == byTime || bucket.size() < chosen.size()) {
+                indexName = "status";
+                chosen = bucket;
+            }
+        }
+        if (filter.getDirection() != null) {
+            indexedPredicates++;
+            Bucket bucket = byDirection.get(filter.getDirection());
+            if (chosen == byTime || bucket.size() < chosen.size()) {
+                indexName = "direction";
+                chosen = bucket;
+            }
+        }
+
+        boolean ranged = filter.getFromDate() != null || filter.getToDate() != null;
+        boolean covering = indexedPredicates <= 1 && !ranged
+                && filter.getMinAmount() == null && filter.getMaxAmount() == null;
+
+        NavigableMap<IndexKey, Transaction> rows = ranged
+                ? range(chosen.entries, filter.getFromDate(), filter.getToDate())
+                : chosen.entries;
+        return new QueryPlan(indexName, rows, chosen.size(), covering);
+    }
+
+    private static NavigableMap<IndexKey, Transaction> range(
+            ConcurrentSkipListMap<IndexKey, Transaction> entries, LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null) {
+            if (from.isAfter(to)) {
+                return Collections.emptyNavigableMap();
+            }
+            return entries.subMap(IndexKey.first(to), true, IndexKey.last(from), true);
+        }
+        if (to != null) {
+            return entries.tailMap(IndexKey.first(to), true);
+        }
+        return entries.headMap(IndexKey.last(from), true);
+    }
+
+    private static final class Bucket {
+        private final ConcurrentSkipListMap<IndexKey, Transaction> entries = new ConcurrentSkipListMap<>();
+        private final AtomicLong size = new AtomicLong();
+
+        void put(IndexKey key, Transaction transaction) {
+            if (entries.put(key, transaction) == null) {
+                size.incrementAndGet();
+            }
+        }
+
+        void remove(IndexKey key) {
+            if (entries.remove(key) != null) {
+                size.decrementAndGet();
+            }
+        }
+
+        long size() {
+            return size.get();
+        }
+
+        boolean isEmpty() {
+            return size.get() == 0;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.hsbc.transaction.store;
+
+import com.hsbc.transaction.exception.DuplicateTransactionException;
+import com.hsbc.transaction.exception.ExpiredTransactionException;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionFilter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory transaction storage, partitioned by timestamp into {@link Segment}s of a fixed duration, plus a
+ * directory from transaction ID to segment. A query only plans the segments its date range overlaps, and walks
+ * them newest first. Business validation stays in the service; this class only stores.
+ * <p>
+ * Segments whose window has passed can be {@linkplain #sealBefore sealed} into a compact read-mostly form, and
+ * {@linkplain #dropBefore retention} discards a whole segment at once rather than deleting its rows one by one:
+ * it disappears from queries and lookups as soon as it is unlinked, and its directory entries are cleared
+ * afterwards. A transaction older than what retention has already discarded is refused, since its segment is
+ * gone; only {@linkplain #restore restoring} one skips it quietly.
+ * <p>
+ * Changes to one transaction are serialised by the directory's per-key compute, which also keeps IDs unique across
+ * segments.
+ */
+public class TransactionStore {
+    public static final Duration DEFAULT_SEGMENT_DURATION = Duration.ofDays(1);
+
+    private final long segmentSeconds;
+    /**
+     * Newest window first.
+     */
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+    private final ConcurrentHashMap<String, Segment> directory = new ConcurrentHashMap<>();
+    private volatile long retainedFrom = Long.MIN_VALUE;
+
+    public TransactionStore() {
+        this(DEFAULT_SEGMENT_DURATION);
+    }
+
+    public TransactionStore(Duration segmentDuration) {
+        if (segmentDuration.getSeconds() < 1 || segmentDuration.getNano() != 0) {
+            throw new IllegalArgumentException("Segment duration must be a whole number of seconds: " + segmentDuration);
+        }
+        this.segmentSeconds = segmentDuration.getSeconds();
+    }
+
+    /**
+     * @throws DuplicateTransactionException if a transaction with the same ID is already stored
+     * @throws ExpiredTransactionException if retention has already discarded the transaction's time window
+     */
+    public void insert(Transaction transaction) {
+        insert(transaction, true);
+    }
+
+    /**
+     * Put back a transaction that was stored before, as replay and rollback do, skipping it if retention has
+     * discarded its time window since.
+     * @return false if the transaction was skipped as expired
+     * @throws DuplicateTransactionException if a transaction with the same ID is already stored
+     */
+    public boolean restore(Transaction transaction) {
+        return insert(transaction, false);
+    }
+
+    private boolean insert(Transaction transaction, boolean rejectExpired) {
+        String transactionId = transaction.getTransactionId();
+        long window = windowOf(transaction.getTimestamp());
+        boolean[] stored = new boolean[1];
+        directory.compute(transactionId, (key, existing) -> {
+            if (existing != null && !existing.isDropped()) {
+                throw new DuplicateTransactionException("Transaction ID " + transactionId + " already exists");
+            }
+            Segment target = segments.computeIfAbsent(window, Segment::new);
+            // Checked once the segment is linked: dropBefore raises retainedFrom before it unlinks segments, so
+            // either it finds this one or this sees the new horizon.
+            if (window < retainedFrom) {
+                if (target.size() == 0) {
+                    segments.remove(window, target);
+                }
+                if (rejectExpired) {
+                    throw new ExpiredTransactionException("Transaction " + transactionId + " at "
+                            + transaction.getTimestamp() + " is older than the retention period");
+                }
+                return existing;
+            }
+            target.insert(transaction);
+            stored[0] = true;
+            return target;
+        });
+        return stored[0];
+    }
+
+    public Transaction get(String transactionId) {
+        Segment segment = directory.get(transactionId);
+        return segment == null || segment.isDropped() ? null : segment.get(transactionId);
+    }
+
+    /**
+     * Apply a change to a stored transaction atomically and re-index it.
+     * The change may throw to abort; only the status is allowed to change.
+     * @return the updated transaction, or null if there is none with that ID
+     */
+    public Transaction update(String transactionId, Consumer<Transaction> change) {
+        Transaction[] updated = new Transaction[1];
+        directory.computeIfPresent(transactionId, (key, segment) -> {
+            if (segment.isDropped()) {
+                return null;
+            }
+            updated[0] = segment.update(transactionId, change);
+            return segment;
+        });
+        return updated[0];
+    }
+
+    /**
+     * @return the removed transaction, or null if there is none with that ID
+     */
+    public Transaction remove(String transactionId) {
+        Transaction[] removed = new Transaction[1];
+        directory.computeIfPresent(transactionId, (key, segment) -> {
+            if (!segment.isDropped()) {
+                removed[0] = segment.remove(transactionId);
+            }
+            return null;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Plan each segment the filter's date range overlaps and walk them newest first.
+     */
+    public QueryPlan plan(TransactionFilter filter) {
+        List<QueryPlan> plans = new ArrayList<>();
+        for (Segment segment : overlapping(filter).values()) {
+            plans.add(segment.plan(filter));
+        }
+        return QueryPlan.concat(plans);
+    }
+
+    private NavigableMap<Long, Segment> overlapping(TransactionFilter filter) {
+        LocalDateTime from = filter == null ? null : filter.getFromDate();
+        LocalDateTime to = filter == null ? null : filter.getToDate();
+        if (from != null && to != null) {
+            return from.isAfter(to)
+                    ? Collections.emptyNavigableMap()
+                    : segments.subMap(windowOf(to), true, windowOf(from), true);
+        }
+        if (to != null) {
+            return segments.tailMap(windowOf(to), true);
+        }
+        if (from != null) {
+            return segments.headMap(windowOf(from), true);
+        }
+        return segments;
+    }
+
+    /**
+     * Seal every segment whose window ends at or before {@code before}, folding in rows settled since a segment
+     * was last sealed.
+     * @return the number of rows moved into sealed form
+     */
+    public int sealBefore(LocalDateTime before) {
+        int sealed = 0;
+        for (Segment segment : segments.tailMap(windowOf(before), false).values()) {
+            sealed += segment.seal();
+        }
+        return sealed;
+    }
+
+    /**
+     * Discard every segment whose window ends at or before {@code horizon}, and refuse transactions older than it
+     * from now on.
+     * @return the number of transactions discarded
+     */
+    public int dropBefore(LocalDateTime horizon) {
+        long window = windowOf(horizon);
+        retainedFrom = Math.max(retainedFrom, window);
+        int dropped = 0;
+        Iterator<Segment> expired = segments.tailMap(window, false).values().iterator();
+        while (expired.hasNext()) {
+            Segment segment = expired.next();
+            expired.remove();
+            segment.drop();
+            dropped += segment.size();
+            segment.forEachId(transactionId -> directory.remove(transactionId, segment));
+        }
+        return dropped;
+    }
+
+    private long windowOf(LocalDateTime timestamp) {
+        return Math.floorDiv(timestamp.toEpochSecond(ZoneOffset.UTC), segmentSeconds);
+    }
+
+    public Duration getSegmentDuration() {
+        return Duration.ofSeconds(segmentSeconds);
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public int getSealedSegmentCount() {
+        return (int) segments.values().stream().filter(Segment::isSealed).count();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments.values()) {
+            size += segment.size();
+        }
+        return size;
+    }
+}
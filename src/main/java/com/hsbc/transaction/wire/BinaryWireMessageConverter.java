@@ -0,0 +1,86 @@
+package com.hsbc.transaction.wire;
+
+import com.hsbc.transaction.model.PageResponse;
+import com.hsbc.transaction.model.Transaction;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+/**
+ * Serves {@link Transaction}s, transaction pages and balances as {@value #MEDIA_TYPE_VALUE} (see
+ * {@link WireOutput}) to clients that ask for it, and reads transactions sent in it. JSON stays the default.
+ */
+public class BinaryWireMessageConverter extends AbstractHttpMessageConverter<Object> {
+    public static final String MEDIA_TYPE_VALUE = "application/x-transaction-binary";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    /**
+     * Larger request bodies are rejected unread; a transaction is well under 1 KB.
+     */
+    private static final int MAX_REQUEST_BYTES = 1 << 16;
+
+    /**
+     * Output buffer for a single transaction or balance; pages use the default.
+     */
+    private static final int SINGLE_BUFFER_BYTES = 256;
+
+    public BinaryWireMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == Transaction.class || clazz == PageResponse.class || clazz == BigDecimal.class;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return mediaType != null && super.canRead(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return clazz == Transaction.class && canRead(mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        byte[] body = inputMessage.getBody().readNBytes(MAX_REQUEST_BYTES + 1);
+        if (body.length > MAX_REQUEST_BYTES) {
+            throw new HttpMessageNotReadableException("Binary transaction exceeds " + MAX_REQUEST_BYTES + " bytes",
+                    inputMessage);
+        }
+        try {
+            WireInput input = new WireInput(ByteBuffer.wrap(body));
+            Transaction transaction = input.readTransaction();
+            if (input.hasRemaining()) {
+                throw new IllegalArgumentException("Trailing bytes after transaction");
+            }
+            return transaction;
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException("Malformed binary transaction: " + e.getMessage(), e,
+                    inputMessage);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        WireOutput output = value instanceof PageResponse<?>
+                ? new WireOutput(outputMessage.getBody())
+                : new WireOutput(outputMessage.getBody(), SINGLE_BUFFER_BYTES);
+        switch (value) {
+            case Transaction transaction -> output.writeTransaction(transaction);
+            case PageResponse<?> page -> output.writePage((PageResponse<Transaction>) page);
+            case BigDecimal balance -> output.writeDecimal(balance);
+            default -> throw new IllegalArgumentException("Cannot write " + value.getClass().getName());
+        }
+        output.flush();
+    }
+}
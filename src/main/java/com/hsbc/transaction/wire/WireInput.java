@@ -0,0 +1,150 @@
+package com.hsbc.transaction.wire;
+
+import com.hsbc.transaction.model.PageResponse;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the format written by {@link WireOutput} from a buffer holding a whole message.
+ * Malformed input fails with {@link IllegalArgumentException}.
+ */
+public final class WireInput {
+    private final ByteBuffer buffer;
+
+    public WireInput(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public boolean hasRemaining() {
+        return buffer.hasRemaining();
+    }
+
+    public Transaction readTransaction() {
+        return Transaction.builder()
+                .transactionId(readString())
+                .accountNo(readString())
+                .amount(readDecimal())
+                .description(readString())
+                .direction(readEnum(TransactionDirection.values()))
+                .status(readEnum(TransactionStatus.values()))
+                .timestamp(readTimestamp())
+                .build();
+    }
+
+    public PageResponse<Transaction> readPage() {
+        int pageNumber = (int) readVarLong();
+        int pageSize = (int) readVarLong();
+        long totalElements = readZigZag();
+        int totalPages = (int) readZigZag();
+        byte flags = get();
+        String nextCursor = readString();
+        int count = checkedLength(readVarLong());
+        List<Transaction> content = new ArrayList<>(Math.min(count, buffer.remaining()));
+        for (int i = 0; i < count; i++) {
+            content.add(readTransaction());
+        }
+        return PageResponse.<Transaction>builder()
+                .content(content)
+                .pageNumber(pageNumber)
+                .pageSize(pageSize)
+                .totalElements(totalElements)
+                .totalPages(totalPages)
+                .first((flags & 1) != 0)
+                .last((flags & 2) != 0)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    public String readString() {
+        byte[] bytes = readBytes();
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public BigDecimal readDecimal() {
+        byte[] unscaled = readBytes();
+        if (unscaled == null) {
+            return null;
+        }
+        if (unscaled.length == 0) {
+            throw new IllegalArgumentException("Empty decimal");
+        }
+        return new BigDecimal(new BigInteger(unscaled), (int) readZigZag());
+    }
+
+    public <E extends Enum<E>> E readEnum(E[] values) {
+        long ordinal = readVarLong();
+        if (ordinal == 0) {
+            return null;
+        }
+        if (ordinal > values.length) {
+            throw new IllegalArgumentException("Unknown " + values.getClass().getComponentType().getSimpleName()
+                    + " ordinal " + (ordinal - 1));
+        }
+        return values[(int) ordinal - 1];
+    }
+
+    public LocalDateTime readTimestamp() {
+        long nanos = readVarLong();
+        if (nanos == 0) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(readZigZag(), (int) (nanos - 1), ZoneOffset.UTC);
+    }
+
+    public long readZigZag() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+
+    private byte[] readBytes() {
+        long length = readVarLong();
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[checkedLength(length - 1)];
+        try {
+            buffer.get(bytes);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated message", e);
+        }
+        return bytes;
+    }
+
+    private int checkedLength(long length) {
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Length " + length + " exceeds the message");
+        }
+        return (int) length;
+    }
+
+    private byte get() {
+        try {
+            return buffer.get();
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated message", e);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.hsbc.transaction.wire;
+
+import com.hsbc.transaction.model.PageResponse;
+import com.hsbc.transaction.model.Transaction;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Writes the compact binary wire format. Values are encoded straight into one reusable buffer that is handed to the
+ * stream whenever it fills, so a page or an export costs one stream write per buffer and no intermediate objects
+ * beyond each string's UTF-8 bytes.
+ * <pre>
+ * transaction  string transactionId, string accountNo, decimal amount, string description,
+ *              enum direction, enum status, timestamp timestamp
+ * page         varint pageNumber, varint pageSize, zigzag totalElements, zigzag totalPages,
+ *              byte flags (1 = first, 2 = last), string nextCursor, varint count, count * transaction
+ * export       transactions back to back until the end of the stream
+ * </pre>
+ * varint is an unsigned LEB128 integer and zigzag a signed one mapped onto it, so small values of either sign take
+ * one byte. Every nullable value starts with a varint that is 0 for null:
+ * <pre>
+ * string       varint byteCount + 1, UTF-8 bytes
+ * decimal      varint byteCount + 1, unscaled value's two's-complement bytes, zigzag scale
+ * enum         varint ordinal + 1
+ * timestamp    varint nanos + 1, zigzag UTC epoch seconds
+ * </pre>
+ */
+public final class WireOutput implements Flushable {
+    private static final int DEFAULT_BUFFER_BYTES = 8192;
+    private static final int MAX_VARINT_BYTES = 10;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+
+    public WireOutput(OutputStream out) {
+        this(out, DEFAULT_BUFFER_BYTES);
+    }
+
+    /**
+     * @param bufferBytes bytes gathered per stream write; at least {@value #MAX_VARINT_BYTES}
+     */
+    public WireOutput(OutputStream out, int bufferBytes) {
+        this.out = out;
+        this.buffer = new byte[Math.max(bufferBytes, MAX_VARINT_BYTES)];
+    }
+
+    public void writeTransaction(Transaction transaction) throws IOException {
+        writeString(transaction.getTransactionId());
+        writeString(transaction.getAccountNo());
+        writeDecimal(transaction.getAmount());
+        writeString(transaction.getDescription());
+        writeEnum(transaction.getDirection());
+        writeEnum(transaction.getStatus());
+        writeTimestamp(transaction.getTimestamp());
+    }
+
+    public void writePage(PageResponse<Transaction> page) throws IOException {
+        writeVarLong(page.getPageNumber());
+        writeVarLong(page.getPageSize());
+        writeZigZag(page.getTotalElements());
+        writeZigZag(page.getTotalPages());
+        writeByte((page.isFirst() ? 1 : 0) | (page.isLast() ? 2 : 0));
+        writeString(page.getNextCursor());
+        writeVarLong(page.getContent().size());
+        for (Transaction transaction : page.getContent()) {
+            writeTransaction(transaction);
+        }
+    }
+
+    /**
+     * ASCII strings, such as IDs and account numbers, are copied into the buffer without encoding them first.
+     */
+    public void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        int length = value.length();
+        if (length > buffer.length || !isAscii(value)) {
+            writeBytes(value.getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        writeVarLong(length + 1L);
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            buffer[position++] = (byte) value.charAt(i);
+        }
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Amounts of up to 18 digits are written from a {@code long} without materialising a {@code BigInteger}.
+     */
+    public void writeDecimal(BigDecimal value) throws IOException {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        if (value.precision() > 18) {
+            writeBytes(value.unscaledValue().toByteArray());
+        } else {
+            long unscaled = value.scaleByPowerOfTen(value.scale()).longValue();
+            // minimal big-endian two's complement, as BigInteger.toByteArray() gives
+            int bytes = (64 - Long.numberOfLeadingZeros(unscaled ^ (unscaled >> 63))) / 8 + 1;
+            writeVarLong(bytes + 1L);
+            ensure(bytes);
+            for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (unscaled >> shift);
+            }
+        }
+        writeZigZag(value.scale());
+    }
+
+    public void writeEnum(Enum<?> value) throws IOException {
+        writeVarLong(value == null ? 0 : value.ordinal() + 1);
+    }
+
+    public void writeTimestamp(LocalDateTime value) throws IOException {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        writeVarLong(value.getNano() + 1L);
+        writeZigZag(value.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    public void writeZigZag(long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeVarLong(long value) throws IOException {
+        ensure(MAX_VARINT_BYTES);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeByte(int value) throws IOException {
+        ensure(1);
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * Length-prefixed bytes; ones too large for the buffer bypass it.
+     */
+    private void writeBytes(byte[] bytes) throws IOException {
+        writeVarLong(bytes.length + 1L);
+        if (bytes.length > buffer.length) {
+            drain();
+            out.write(bytes);
+            return;
+        }
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.length - position < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    /**
+     * Hand everything written so far to the stream and flush it.
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+}
@@ -0,0 +1,98 @@
+package com.hsbc.transaction.audit;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.hsbc.transaction.exception.InsufficientBalanceException;
+import com.hsbc.transaction.journal.Journal;
+import com.hsbc.transaction.journal.JournalTransactionManager;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionStatus;
+import com.hsbc.transaction.service.impl.AccountServiceImpl;
+import com.hsbc.transaction.service.impl.TransactionServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostingAuditTest {
+    private final Logger audit = (Logger) LoggerFactory.getLogger("audit.postings");
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+    private AccountServiceImpl accountService;
+    private TransactionServiceImpl transactionService;
+
+    @BeforeEach
+    void setUp() {
+        events.start();
+        audit.addAppender(events);
+        accountService = new AccountServiceImpl();
+        transactionService = new TransactionServiceImpl();
+        accountService.createAccount("ACC001", new BigDecimal("10.00"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        audit.detachAppender(events);
+    }
+
+    private List<String> lines() {
+        return events.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+    }
+
+    @Test
+    @DisplayName("Should write one line per posting, rejection and status change")
+    void shouldAuditPostings() {
+        // Act
+        accountService.credit("ACC001", new BigDecimal("5.00"));
+        accountService.debit("ACC001", new BigDecimal("3.00"));
+        assertThrows(InsufficientBalanceException.class,
+                () -> accountService.debit("ACC001", new BigDecimal("100.00")));
+        Transaction transaction = transactionService.createTransaction(Transaction.builder()
+                .accountNo("ACC001")
+                .amount(new BigDecimal("1.00"))
+                .direction(TransactionDirection.CREDIT)
+                .build());
+        transactionService.updateTransactionStatus(transaction.getTransactionId(), TransactionStatus.SUCCESS);
+
+        // Assert
+        String id = transaction.getTransactionId();
+        assertEquals(List.of(
+                "tx=0 event=credit account=ACC001 amount=5.00",
+                "tx=0 event=debit account=ACC001 amount=3.00",
+                "tx=0 event=debit-rejected account=ACC001 amount=100.00",
+                "tx=0 event=transaction-created id=" + id + " account=ACC001 direction=CREDIT amount=1.00",
+                "tx=0 event=status-changed id=" + id + " from=RUNNING to=SUCCESS"), lines());
+    }
+
+    @Test
+    @DisplayName("Should tag postings with their transaction and record its rollback")
+    void shouldAuditRollback() {
+        // Arrange
+        TransactionTemplate transactionTemplate = new TransactionTemplate(
+                new JournalTransactionManager(Journal.DISABLED));
+
+        // Act
+        assertThrows(InsufficientBalanceException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            accountService.credit("ACC001", new BigDecimal("5.00"));
+            accountService.debit("ACC001", new BigDecimal("100.00"));
+        }));
+
+        // Assert
+        List<String> lines = lines();
+        assertEquals(3, lines.size());
+        String tx = lines.get(0).substring(0, lines.get(0).indexOf(' '));
+        assertNotEquals("tx=0", tx);
+        assertEquals(tx + " event=credit account=ACC001 amount=5.00", lines.get(0));
+        assertEquals(tx + " event=debit-rejected account=ACC001 amount=100.00", lines.get(1));
+        assertEquals(tx + " event=rollback undone=1", lines.get(2));
+        assertEquals(new BigDecimal("10.00"), accountService.getBalance("ACC001"));
+    }
+}
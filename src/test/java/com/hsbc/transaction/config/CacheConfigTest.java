@@ -0,0 +1,73 @@
+package com.hsbc.transaction.config;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        CachePolicyProperties properties = new CachePolicyProperties();
+        properties.getTransaction().setMaximumSize(5);
+        properties.getAccount().setMaximumSize(2);
+        cacheManager = new CacheConfig().cacheManager(properties);
+    }
+
+    private CaffeineCache cache(String name) {
+        return (CaffeineCache) ((TransactionAwareCacheDecorator) cacheManager.getCache(name)).getTargetCache();
+    }
+
+    @Test
+    @DisplayName("Should evict entries beyond the configured maximum size")
+    void shouldEvictBeyondMaximumSize() {
+        // Arrange
+        CaffeineCache transactions = cache("transactions");
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            transactions.put("TX" + i, "value" + i);
+        }
+        transactions.getNativeCache().cleanUp();
+
+        // Assert
+        assertTrue(transactions.getNativeCache().estimatedSize() <= 5);
+        assertTrue(transactions.getNativeCache().stats().evictionCount() > 0);
+    }
+
+    @Test
+    @DisplayName("Should apply separate limits per cache")
+    void shouldApplySeparateLimitsPerCache() {
+        // Assert
+        long transactionLimit = cache("transactions").getNativeCache().policy().eviction().orElseThrow().getMaximum();
+        long accountLimit = cache("accounts").getNativeCache().policy().eviction().orElseThrow().getMaximum();
+        assertEquals(5, transactionLimit);
+        assertEquals(2, accountLimit);
+        assertTrue(cache("accounts").getNativeCache().policy().expireAfterWrite().isPresent());
+    }
+
+    @Test
+    @DisplayName("Should record hit and miss statistics")
+    void shouldRecordHitAndMissStatistics() {
+        // Arrange
+        CaffeineCache accounts = cache("accounts");
+        accounts.put("ACC001", "1000.00");
+
+        // Act
+        accounts.get("ACC001");
+        accounts.get("ACC002");
+
+        // Assert
+        CacheStats stats = accounts.getNativeCache().stats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+    }
+}
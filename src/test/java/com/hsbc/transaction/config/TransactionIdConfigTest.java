@@ -0,0 +1,47 @@
+package com.hsbc.transaction.config;
+
+import com.hsbc.transaction.id.SnowflakeTransactionIdGenerator;
+import com.hsbc.transaction.id.TransactionIdGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionIdConfigTest {
+
+    private static MockEnvironment environment(String... profiles) {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles(profiles);
+        return environment;
+    }
+
+    @Test
+    @DisplayName("Should refuse to start without a node ID outside local profiles")
+    void shouldRequireNodeIdInProd() {
+        // Act & Assert
+        IllegalStateException error = assertThrows(IllegalStateException.class, () ->
+                new TransactionIdConfig().transactionIdGenerator(new TransactionIdProperties(), environment("prod")));
+        assertTrue(error.getMessage().contains("transaction.id.node-id"));
+    }
+
+    @Test
+    @DisplayName("Should use the configured node ID, and node 0 for a local run without one")
+    void shouldUseConfiguredOrLocalNodeId() {
+        // Arrange
+        TransactionIdProperties properties = new TransactionIdProperties();
+        properties.setNodeId(7);
+
+        // Act
+        TransactionIdGenerator configured = new TransactionIdConfig().transactionIdGenerator(properties,
+                environment("prod"));
+
+        // Assert
+        assertInstanceOf(SnowflakeTransactionIdGenerator.class, configured);
+        assertEquals(0, TransactionIdConfig.localNodeId(environment()));
+        assertEquals(0, TransactionIdConfig.localNodeId(environment("dev")));
+        assertEquals(0, TransactionIdConfig.localNodeId(environment("dev", "virtual")));
+        assertThrows(IllegalStateException.class,
+                () -> TransactionIdConfig.localNodeId(environment("prod", "virtual")));
+    }
+}
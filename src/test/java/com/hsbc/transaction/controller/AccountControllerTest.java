@@ -0,0 +1,87 @@
+package com.hsbc.transaction.controller;
+
+import com.hsbc.transaction.exception.BalanceOverflowException;
+import com.hsbc.transaction.exception.GlobalExceptionHandler;
+import com.hsbc.transaction.journal.Journal;
+import com.hsbc.transaction.service.AccountService;
+import com.hsbc.transaction.service.impl.AccountServiceImpl;
+import com.hsbc.transaction.store.FixedPointBalanceStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AccountControllerTest {
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = mvc(new AccountServiceImpl(new FixedPointBalanceStore(2), Journal.DISABLED));
+    }
+
+    private static MockMvc mvc(AccountService accountService) {
+        return MockMvcBuilders.standaloneSetup(new AccountController(accountService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Fixed-Point Amount Tests")
+    class FixedPointAmountTests {
+
+        @Test
+        @DisplayName("Should answer 400 for an amount finer than the currency scale")
+        void shouldRejectExcessScale() throws Exception {
+            // Act & Assert
+            mockMvc.perform(post("/api/v1/accounts")
+                            .param("accountNo", "ACC001")
+                            .param("initialBalance", "10.001"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.detail")
+                            .value("Amount 10.001 cannot be represented in minor units with scale 2"));
+        }
+
+        @Test
+        @DisplayName("Should answer 400 for an amount beyond the range of minor units")
+        void shouldRejectAmountOutOfRange() throws Exception {
+            // Act & Assert
+            mockMvc.perform(post("/api/v1/accounts")
+                            .param("accountNo", "ACC001")
+                            .param("initialBalance", "1E+30"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should answer 422 for a posting that would overflow a balance")
+        void shouldRejectOverflow() throws Exception {
+            // Arrange
+            FixedPointBalanceStore store = new FixedPointBalanceStore(2);
+            store.create("ACC001", store.toDecimal(Long.MAX_VALUE));
+            BalanceOverflowException overflow = assertThrows(BalanceOverflowException.class,
+                    () -> store.credit("ACC001", BigDecimal.ONE));
+            AccountService accountService = mock(AccountService.class);
+            doThrow(overflow).when(accountService).createAccount(eq("ACC001"), any());
+
+            // Act & Assert
+            mvc(accountService).perform(post("/api/v1/accounts")
+                            .param("accountNo", "ACC001")
+                            .param("initialBalance", "1.00"))
+                    .andExpect(status().isUnprocessableEntity())
+                    .andExpect(jsonPath("$.detail").value("Balance overflow in account ACC001"));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.hsbc.transaction.exception;
+
+import com.hsbc.transaction.store.DecimalBalanceStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+
+    private GlobalExceptionHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new GlobalExceptionHandler();
+    }
+
+    @Test
+    @DisplayName("Should refuse a debit without capturing a stack trace")
+    void shouldRejectWithoutStackTrace() {
+        // Arrange
+        DecimalBalanceStore store = new DecimalBalanceStore();
+        store.create("ACC001", new BigDecimal("10.00"));
+
+        // Act
+        InsufficientBalanceException ex = assertThrows(InsufficientBalanceException.class,
+                () -> store.debit("ACC001", new BigDecimal("20.00")));
+
+        // Assert
+        assertEquals(0, ex.getStackTrace().length);
+        assertEquals(0, new AccountNotFoundException("Account not found: ACC999").getStackTrace().length);
+    }
+
+    @Test
+    @DisplayName("Should map business rejections to their status with the message as detail")
+    void shouldMapRejections() {
+        // Act
+        ResponseEntity<ProblemDetail> declined = handler.handleInsufficientBalance(
+                new InsufficientBalanceException("Insufficient balance in account ACC001"));
+        ResponseEntity<ProblemDetail> missing = handler.handleAccountNotFound(
+                new AccountNotFoundException("Account not found: ACC999"));
+        ResponseEntity<ProblemDetail> conflict = handler.handleInvalidTransactionState(
+                new InvalidTransactionStateException("Transaction is already SUCCESS"));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, declined.getStatusCode());
+        assertEquals("Insufficient balance in account ACC001", declined.getBody().getDetail());
+        assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, conflict.getStatusCode());
+        assertEquals(HttpStatus.CONFLICT.value(), conflict.getBody().getStatus());
+    }
+}
@@ -0,0 +1,167 @@
+package com.hsbc.transaction.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeTransactionIdGeneratorTest {
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00.123Z");
+
+    /**
+     * A clock the test moves by hand.
+     */
+    private static final class SettableClock extends Clock {
+        private volatile Instant instant;
+
+        SettableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    @Nested
+    @DisplayName("Generation Tests")
+    class GenerationTests {
+
+        @Test
+        @DisplayName("Should generate unique IDs that sort in issue order across threads")
+        void shouldGenerateUniqueOrderedIds() throws Exception {
+            // Arrange
+            SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(7);
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            List<Future<List<String>>> futures = new ArrayList<>();
+
+            // Act
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    List<String> ids = new ArrayList<>();
+                    for (int i = 0; i < 20_000; i++) {
+                        ids.add(generator.nextId());
+                    }
+                    return ids;
+                }));
+            }
+            Set<String> all = new HashSet<>();
+            try {
+                for (Future<List<String>> future : futures) {
+                    List<String> ids = future.get();
+                    for (int i = 1; i < ids.size(); i++) {
+                        assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, "IDs should increase on a thread");
+                    }
+                    all.addAll(ids);
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            // Assert
+            assertEquals(80_000, all.size());
+            assertTrue(all.stream().allMatch(id -> id.length() == 13));
+        }
+
+        @Test
+        @DisplayName("Should keep increasing when the clock steps back")
+        void shouldKeepIncreasingWhenClockStepsBack() {
+            // Arrange
+            SettableClock clock = new SettableClock(NOW);
+            SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(1, clock);
+            String before = generator.nextId();
+
+            // Act
+            clock.instant = NOW.minusSeconds(5);
+            String after = generator.nextId();
+
+            // Assert
+            assertTrue(before.compareTo(after) < 0);
+            assertEquals(NOW, SnowflakeTransactionIdGenerator.timestampOf(after));
+        }
+
+        @Test
+        @DisplayName("Should borrow the next millisecond once a millisecond's sequence is used up")
+        void shouldBorrowNextMillisecondOnOverflow() {
+            // Arrange
+            SnowflakeTransactionIdGenerator generator =
+                    new SnowflakeTransactionIdGenerator(1, Clock.fixed(NOW, ZoneOffset.UTC));
+            String last = null;
+
+            // Act
+            for (int i = 0; i < 4096; i++) {
+                last = generator.nextId();
+            }
+            String borrowed = generator.nextId();
+
+            // Assert
+            assertEquals(NOW, SnowflakeTransactionIdGenerator.timestampOf(last));
+            assertEquals(NOW.plusMillis(1), SnowflakeTransactionIdGenerator.timestampOf(borrowed));
+            assertTrue(last.compareTo(borrowed) < 0);
+        }
+
+        @Test
+        @DisplayName("Should give different nodes different IDs for the same millisecond")
+        void shouldSeparateNodes() {
+            // Arrange
+            Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+            // Act
+            String first = new SnowflakeTransactionIdGenerator(1, clock).nextId();
+            String second = new SnowflakeTransactionIdGenerator(2, clock).nextId();
+
+            // Assert
+            assertNotEquals(first, second);
+            assertTrue(first.compareTo(second) < 0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Validation Tests")
+    class ValidationTests {
+
+        @Test
+        @DisplayName("Should reject node IDs outside 0 to 1023")
+        void shouldRejectNodeIdOutOfRange() {
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> new SnowflakeTransactionIdGenerator(-1));
+            assertThrows(IllegalArgumentException.class, () -> new SnowflakeTransactionIdGenerator(1024));
+        }
+
+        @Test
+        @DisplayName("Should reject timestamps of IDs it did not generate")
+        void shouldRejectForeignIds() {
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class,
+                    () -> SnowflakeTransactionIdGenerator.timestampOf("0b2f1a3e-6f7d-4a0e-9a51-1b8e8f1e2c3d"));
+            assertThrows(IllegalArgumentException.class,
+                    () -> SnowflakeTransactionIdGenerator.timestampOf("0000000000IL0"));
+            assertThrows(IllegalArgumentException.class,
+                    () -> SnowflakeTransactionIdGenerator.timestampOf("Z000000000000"));
+        }
+    }
+}
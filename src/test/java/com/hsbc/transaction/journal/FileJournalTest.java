@@ -0,0 +1,299 @@
+package com.hsbc.transaction.journal;
+
+import com.hsbc.transaction.exception.AccountNotFoundException;
+import com.hsbc.transaction.exception.InsufficientBalanceException;
+import com.hsbc.transaction.journal.FileJournal.Durability;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionStatus;
+import com.hsbc.transaction.service.impl.AccountServiceImpl;
+import com.hsbc.transaction.service.impl.TransactionServiceImpl;
+import com.hsbc.transaction.store.BalanceStore;
+import com.hsbc.transaction.store.DecimalBalanceStore;
+import com.hsbc.transaction.store.TransactionStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private BalanceStore balanceStore;
+    private TransactionStore transactionStore;
+    private FileJournal journal;
+    private AccountServiceImpl accountService;
+    private TransactionServiceImpl transactionService;
+    private long segmentBytes = 1 << 20;
+    private Duration commitDelay = Duration.ZERO;
+    private Duration retention = Duration.ZERO;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+    }
+
+    /**
+     * Start from empty stores and recover whatever the journal directory holds, as the application does on boot.
+     */
+    private JournalReplayer open() throws IOException {
+        balanceStore = new DecimalBalanceStore();
+        transactionStore = new TransactionStore();
+        if (!retention.isZero()) {
+            transactionStore.dropBefore(LocalDateTime.now().minus(retention));
+        }
+        JournalReplayer replayer = new JournalReplayer(balanceStore, transactionStore);
+        journal = FileJournal.open(directory, 0, Durability.FSYNC, commitDelay, 64, segmentBytes, replayer);
+        replayer.rollBackIncomplete(journal);
+        accountService = new AccountServiceImpl(balanceStore, journal);
+        transactionService = new TransactionServiceImpl(transactionStore, journal);
+        return replayer;
+    }
+
+    private JournalReplayer restart() throws IOException {
+        journal.close();
+        return open();
+    }
+
+    @Nested
+    @DisplayName("Recovery Tests")
+    class RecoveryTests {
+
+        @Test
+        @DisplayName("Should rebuild balances and transactions after restart")
+        void shouldRebuildStateAfterRestart() throws IOException {
+            // Arrange
+            accountService.createAccount("ACC001", new BigDecimal("100.00"));
+            accountService.credit("ACC001", new BigDecimal("25.50"));
+            accountService.debit("ACC001", new BigDecimal("0.50"));
+            accountService.createAccount("ACC002", BigDecimal.ZERO);
+            accountService.deleteAccount("ACC002");
+            Transaction transaction = transactionService.createTransaction(Transaction.builder()
+                    .accountNo("ACC001")
+                    .amount(new BigDecimal("25.00"))
+                    .direction(TransactionDirection.CREDIT)
+                    .build());
+            transactionService.updateTransactionStatus(transaction.getTransactionId(), TransactionStatus.SUCCESS);
+
+            // Act
+            JournalReplayer replayer = restart();
+
+            // Assert
+            assertEquals(7, replayer.getReplayed());
+            assertEquals(new BigDecimal("125.00"), accountService.getBalance("ACC001"));
+            assertThrows(AccountNotFoundException.class, () -> accountService.getBalance("ACC002"));
+            Transaction recovered = transactionService.getTransactionOrThrow(transaction.getTransactionId());
+            assertEquals(TransactionStatus.SUCCESS, recovered.getStatus());
+            assertEquals(transaction.getTimestamp(), recovered.getTimestamp());
+            assertNull(recovered.getDescription());
+            assertEquals(7, journal.getDurableSequence());
+        }
+
+        @Test
+        @DisplayName("Should not record a change that was rejected")
+        void shouldNotRecordRejectedChange() throws IOException {
+            // Arrange
+            accountService.createAccount("ACC001", new BigDecimal("10.00"));
+            assertThrows(InsufficientBalanceException.class, () ->
+                accountService.debit("ACC001", new BigDecimal("10.01")));
+
+            // Act
+            JournalReplayer replayer = restart();
+
+            // Assert
+            assertEquals(1, replayer.getReplayed());
+            assertEquals(new BigDecimal("10.00"), accountService.getBalance("ACC001"));
+        }
+
+        @Test
+        @DisplayName("Should drop a torn tail and keep appending after the last intact record")
+        void shouldDropTornTail() throws IOException {
+            // Arrange
+            accountService.createAccount("ACC001", new BigDecimal("10.00"));
+            accountService.credit("ACC001", new BigDecimal("5.00"));
+            journal.close();
+            Path file = JournalSegments.list(directory).get(0).path();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(channel.size() - 3);
+            }
+
+            // Act
+            JournalReplayer replayer = open();
+            accountService.credit("ACC001", new BigDecimal("1.00"));
+            JournalReplayer afterAppend = restart();
+
+            // Assert
+            assertEquals(1, replayer.getReplayed());
+            assertEquals(2, afterAppend.getReplayed());
+            assertEquals(new BigDecimal("11.00"), accountService.getBalance("ACC001"));
+        }
+
+        @Test
+        @DisplayName("Should not bring back transactions retention has discarded")
+        void shouldApplyRetentionOnRestore() throws IOException {
+            // Arrange
+            Transaction expired = Transaction.builder()
+                    .transactionId("OLD")
+                    .accountNo("ACC001")
+                    .amount(BigDecimal.ONE)
+                    .direction(TransactionDirection.CREDIT)
+                    .status(TransactionStatus.RUNNING)
+                    .timestamp(LocalDateTime.now().minusDays(3))
+                    .build();
+            journal.append(new JournalRecord.TransactionCreated(expired), () -> transactionStore.insert(expired));
+            Transaction recent = transactionService.createTransaction(Transaction.builder()
+                    .accountNo("ACC001")
+                    .amount(BigDecimal.ONE)
+                    .direction(TransactionDirection.CREDIT)
+                    .build());
+            // left incomplete, so the restore has to roll back a change to a transaction it no longer holds
+            journal.append(7, new JournalRecord.TransactionStatusChanged("OLD", TransactionStatus.SUCCESS),
+                    () -> transactionStore.update("OLD", t -> t.setStatus(TransactionStatus.SUCCESS)));
+
+            // Act
+            retention = Duration.ofDays(1);
+            restart();
+
+            // Assert
+            assertNull(transactionStore.get("OLD"));
+            assertEquals(TransactionStatus.RUNNING,
+                    transactionService.getTransactionOrThrow(recent.getTransactionId()).getStatus());
+            assertEquals(1, transactionStore.size());
+        }
+
+        @Test
+        @DisplayName("Should replay across rolled segments")
+        void shouldReplayAcrossSegments() throws IOException {
+            // Arrange
+            segmentBytes = 100;
+            restart();
+            accountService.createAccount("ACC001", BigDecimal.ZERO);
+            for (int i = 0; i < 20; i++) {
+                accountService.credit("ACC001", BigDecimal.ONE);
+            }
+
+            // Act
+            JournalReplayer replayer = restart();
+
+            // Assert
+            assertTrue(JournalSegments.list(directory).size() > 5);
+            assertEquals(21, replayer.getReplayed());
+            assertEquals(0, new BigDecimal("20").compareTo(accountService.getBalance("ACC001")));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep every concurrent posting across group commits")
+    void shouldKeepConcurrentPostings() throws Exception {
+        // Arrange
+        accountService.createAccount("ACC001", BigDecimal.ZERO);
+        int threads = 8;
+        int postingsPerThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch latch = new CountDownLatch(threads);
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                try {
+                    for (int i = 0; i < postingsPerThread; i++) {
+                        accountService.credit("ACC001", new BigDecimal("0.01"));
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+        JournalReplayer replayer = restart();
+
+        // Assert
+        assertEquals(1 + threads * postingsPerThread, replayer.getReplayed());
+        assertEquals(new BigDecimal("16.00"), accountService.getBalance("ACC001"));
+    }
+
+    @Test
+    @DisplayName("Should not hold up other accounts while one account's change is being applied")
+    void shouldOrderChangesPerAccount() throws Exception {
+        // Arrange
+        accountService.createAccount("ACC001", new BigDecimal("10.00"));
+        accountService.createAccount("ACC002", new BigDecimal("10.00"));
+        CountDownLatch applying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread slow = new Thread(() -> journal.append(0, new JournalRecord.AccountDebited("ACC001", BigDecimal.ONE),
+                () -> {
+                    applying.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    balanceStore.debit("ACC001", BigDecimal.ONE);
+                }));
+        slow.start();
+        assertTrue(applying.await(10, TimeUnit.SECONDS));
+
+        // Act
+        CompletableFuture<Void> other = CompletableFuture.runAsync(() -> accountService.debit("ACC002", BigDecimal.ONE));
+        CompletableFuture<Void> same = CompletableFuture.runAsync(() -> accountService.debit("ACC001", BigDecimal.ONE));
+
+        // Assert
+        other.get(10, TimeUnit.SECONDS);
+        Thread.sleep(200);
+        assertFalse(same.isDone(), "a second change to ACC001 must wait for the first to be recorded");
+        release.countDown();
+        same.get(10, TimeUnit.SECONDS);
+        slow.join();
+        restart();
+        assertEquals(new BigDecimal("8.00"), accountService.getBalance("ACC001"));
+        assertEquals(new BigDecimal("9.00"), accountService.getBalance("ACC002"));
+    }
+
+    @Test
+    @DisplayName("Should return from a deferred posting at once and complete it once durable")
+    void shouldCompleteDeferredPostingOnceDurable() throws Exception {
+        // Arrange
+        commitDelay = Duration.ofMillis(500);
+        restart();
+        accountService.createAccount("ACC001", BigDecimal.ZERO);
+        long created = journal.getDurableSequence();
+
+        // Act
+        CompletableFuture<String> posted = journal.supplyDeferred(() -> {
+            accountService.credit("ACC001", BigDecimal.ONE);
+            return "posted";
+        });
+        boolean doneOnReturn = posted.isDone();
+
+        // Assert
+        assertFalse(doneOnReturn, "the posting should not wait for its fsync");
+        assertEquals(0, BigDecimal.ONE.compareTo(accountService.getBalance("ACC001")));
+        assertEquals("posted", posted.get(10, TimeUnit.SECONDS));
+        assertTrue(journal.getDurableSequence() > created);
+    }
+}
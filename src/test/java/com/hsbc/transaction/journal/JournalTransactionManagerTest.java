@@ -0,0 +1,264 @@
+package com.hsbc.transaction.journal;
+
+import com.hsbc.transaction.exception.AccountNotFoundException;
+import com.hsbc.transaction.exception.InsufficientBalanceException;
+import com.hsbc.transaction.exception.TransactionNotFoundException;
+import com.hsbc.transaction.journal.FileJournal.Durability;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionStatus;
+import com.hsbc.transaction.service.impl.AccountServiceImpl;
+import com.hsbc.transaction.service.impl.TransactionServiceImpl;
+import com.hsbc.transaction.store.BalanceStore;
+import com.hsbc.transaction.store.DecimalBalanceStore;
+import com.hsbc.transaction.store.TransactionStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTransactionManagerTest {
+
+    @TempDir
+    Path directory;
+
+    private FileJournal journal;
+    private TransactionTemplate transactionTemplate;
+    private AccountServiceImpl accountService;
+    private TransactionServiceImpl transactionService;
+    private int rolledBack;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+    }
+
+    /**
+     * Restore the newest snapshot and the journal after it into empty stores, as the application does on boot.
+     */
+    private void open() throws IOException {
+        BalanceStore balanceStore = new DecimalBalanceStore();
+        TransactionStore transactionStore = new TransactionStore();
+        JournalReplayer replayer = new JournalReplayer(balanceStore, transactionStore);
+        List<SnapshotFile.Entry> snapshots = SnapshotFile.list(directory);
+        long after = snapshots.isEmpty() ? 0
+                : SnapshotFile.read(snapshots.get(snapshots.size() - 1).path(), balanceStore::create,
+                        transactionStore::insert, replayer::restoreOpen);
+        journal = FileJournal.open(directory, after, Durability.FSYNC, Duration.ZERO, 64, 1 << 20, replayer);
+        rolledBack = replayer.rollBackIncomplete(journal);
+        transactionTemplate = new TransactionTemplate(new JournalTransactionManager(journal));
+        accountService = new AccountServiceImpl(balanceStore, journal);
+        transactionService = new TransactionServiceImpl(transactionStore, journal);
+    }
+
+    private void restart() throws IOException {
+        journal.close();
+        open();
+    }
+
+    private Transaction debit(String accountNo, String amount) {
+        Transaction transaction = transactionService.createTransaction(Transaction.builder()
+                .accountNo(accountNo)
+                .amount(new BigDecimal(amount))
+                .direction(TransactionDirection.DEBIT)
+                .build());
+        accountService.updateAccountBalance(transaction);
+        return transactionService.updateTransactionStatus(transaction.getTransactionId(), TransactionStatus.SUCCESS);
+    }
+
+    /**
+     * Run {@code work} in a transaction on another thread and let the thread end without committing, as if the
+     * process had died; {@code whileOpen} runs on the calling thread while the transaction is still open.
+     */
+    private void abandonTransaction(Runnable work, Runnable whileOpen) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            transactionTemplate.getTransactionManager().getTransaction(transactionTemplate);
+            work.run();
+            done.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        done.await();
+        whileOpen.run();
+        release.countDown();
+        thread.join();
+    }
+
+    @Nested
+    @DisplayName("Commit And Rollback Tests")
+    class CommitAndRollbackTests {
+
+        @Test
+        @DisplayName("Should keep committed changes across a restart")
+        void shouldKeepCommittedChanges() throws IOException {
+            // Arrange
+            accountService.createAccount("ACC001", new BigDecimal("100.00"));
+
+            // Act
+            Transaction transaction = transactionTemplate.execute(status -> debit("ACC001", "40.00"));
+            restart();
+
+            // Assert
+            assertEquals(0, rolledBack);
+            assertEquals(new BigDecimal("60.00"), accountService.getBalance("ACC001"));
+            assertEquals(TransactionStatus.SUCCESS,
+                    transactionService.getTransactionOrThrow(transaction.getTransactionId()).getStatus());
+        }
+
+        @Test
+        @DisplayName("Should undo every change of a failed transaction, in memory and in the journal")
+        void shouldUndoFailedTransaction() throws IOException {
+            // Arrange
+            accountService.createAccount("ACC001", new BigDecimal("100.00"));
+            accountService.createAccount("ACC002", new BigDecimal("10.00"));
+            Transaction[] first = new Transaction[1];
+
+            // Act
+            assertThrows(InsufficientBalanceException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+                first[0] = debit("ACC001", "40.00");
+                accountService.deleteAccount("ACC002");
+                accountService.createAccount("ACC003", BigDecimal.ONE);
+                debit("ACC001", "500.00");
+            }));
+
+            // Assert
+            for (int run = 0; run < 2; run++) {
+                assertEquals(new BigDecimal("100.00"), accountService.getBalance("ACC001"));
+                assertEquals(new BigDecimal("10.00"), accountService.getBalance("ACC002"));
+                assertThrows(AccountNotFoundException.class, () -> accountService.getBalance("ACC003"));
+                assertThrows(TransactionNotFoundException.class,
+                        () -> transactionService.getTransactionOrThrow(first[0].getTransactionId()));
+                restart();
+                assertEquals(0, rolledBack);
+            }
+        }
+
+        @Test
+        @DisplayName("Should restore a deleted transaction and a replaced status on rollback")
+        void shouldRestoreDeletedTransactionAndStatus() {
+            // Arrange
+            accountService.createAccount("ACC001", new BigDecimal("100.00"));
+            Transaction kept = debit("ACC001", "10.00");
+            Transaction pending = transactionService.createTransaction(Transaction.builder()
+                    .accountNo("ACC001")
+                    .amount(BigDecimal.ONE)
+                    .direction(TransactionDirection.CREDIT)
+                    .build());
+
+            // Act
+            transactionTemplate.executeWithoutResult(status -> {
+                transactionService.deleteTransaction(kept.getTransactionId());
+                transactionService.updateTransactionStatus(pending.getTransactionId(), TransactionStatus.FAILED);
+                status.setRollbackOnly();
+            });
+
+            // Assert
+            assertEquals(TransactionStatus.SUCCESS,
+                    transactionService.getTransactionOrThrow(kept.getTransactionId()).getStatus());
+            assertEquals(TransactionStatus.RUNNING,
+                    transactionService.getTransactionOrThrow(pending.getTransactionId()).getStatus());
+        }
+    }
+
+    @Nested
+    @DisplayName("Crash Recovery Tests")
+    class CrashRecoveryTests {
+
+        @Test
+        @DisplayName("Should roll back a transaction the journal holds no completion for")
+        void shouldRollBackIncompleteTransaction() throws Exception {
+            // Arrange
+            accountService.createAccount("ACC001", new BigDecimal("100.00"));
+            Transaction[] abandoned = new Transaction[1];
+            abandonTransaction(() -> abandoned[0] = debit("ACC001", "40.00"), () -> {
+            });
+
+            // Act
+            restart();
+
+            // Assert
+            assertEquals(1, rolledBack);
+            assertEquals(new BigDecimal("100.00"), accountService.getBalance("ACC001"));
+            assertThrows(TransactionNotFoundException.class,
+                    () -> transactionService.getTransactionOrThrow(abandoned[0].getTransactionId()));
+            restart();
+            assertEquals(0, rolledBack);
+            assertEquals(new BigDecimal("100.00"), accountService.getBalance("ACC001"));
+        }
+
+        @Test
+        @DisplayName("Should roll back a transaction that was open when the snapshot was written")
+        void shouldRollBackTransactionOpenAtSnapshot() throws Exception {
+            // Arrange
+            accountService.createAccount("ACC001", new BigDecimal("100.00"));
+            Snapshotter snapshotter = new Snapshotter(journal, 1);
+            abandonTransaction(() -> debit("ACC001", "40.00"), () -> {
+                try {
+                    // an ordinary change waits for its fsync, so everything before it is covered by the snapshot
+                    accountService.createAccount("ACC002", BigDecimal.ONE);
+                    snapshotter.snapshot();
+                } catch (IOException e) {
+                    throw new AssertionError(e);
+                }
+            });
+
+            // Act
+            restart();
+
+            // Assert
+            assertEquals(1, rolledBack);
+            assertEquals(new BigDecimal("100.00"), accountService.getBalance("ACC001"));
+            assertEquals(BigDecimal.ONE, accountService.getBalance("ACC002"));
+        }
+
+        @Test
+        @DisplayName("Should undo a transaction in memory when the journal fails before it completes")
+        void shouldUndoInMemoryWhenJournalFails() throws IOException {
+            // Arrange
+            accountService.createAccount("ACC001", new BigDecimal("100.00"));
+            AtomicReference<IOException> failure = new AtomicReference<>();
+            journal.onFailure(failure::set);
+            // the flusher's next write fails as if the disk had gone away
+            ((FileChannel) ReflectionTestUtils.getField(journal, "channel")).close();
+
+            // Act
+            assertThrows(UncheckedIOException.class,
+                    () -> transactionTemplate.execute(status -> debit("ACC001", "40.00")));
+
+            // Assert
+            assertTrue(journal.isFailed());
+            assertNotNull(failure.get());
+            assertEquals(new BigDecimal("100.00"), accountService.getBalance("ACC001"));
+            assertThrows(UncheckedIOException.class, () -> accountService.createAccount("ACC002", BigDecimal.ONE));
+            restart();
+            assertEquals(new BigDecimal("100.00"), accountService.getBalance("ACC001"));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.hsbc.transaction.journal;
+
+import com.hsbc.transaction.exception.AccountNotFoundException;
+import com.hsbc.transaction.journal.FileJournal.Durability;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionStatus;
+import com.hsbc.transaction.service.impl.AccountServiceImpl;
+import com.hsbc.transaction.service.impl.TransactionServiceImpl;
+import com.hsbc.transaction.store.BalanceStore;
+import com.hsbc.transaction.store.DecimalBalanceStore;
+import com.hsbc.transaction.store.TransactionStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotterTest {
+
+    @TempDir
+    Path directory;
+
+    private FileJournal journal;
+    private Snapshotter snapshotter;
+    private AccountServiceImpl accountService;
+    private TransactionServiceImpl transactionService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        snapshotter.close();
+        journal.close();
+    }
+
+    /**
+     * Restore the newest snapshot and the journal after it into empty stores, as the application does on boot.
+     */
+    private JournalReplayer open() throws IOException {
+        BalanceStore balanceStore = new DecimalBalanceStore();
+        TransactionStore transactionStore = new TransactionStore();
+        List<SnapshotFile.Entry> snapshots = SnapshotFile.list(directory);
+        JournalReplayer replayer = new JournalReplayer(balanceStore, transactionStore);
+        long after = snapshots.isEmpty() ? 0
+                : SnapshotFile.read(snapshots.get(snapshots.size() - 1).path(), balanceStore::create,
+                        transactionStore::insert, replayer::restoreOpen);
+        journal = FileJournal.open(directory, after, Durability.FSYNC, Duration.ZERO, 64, 200, replayer);
+        replayer.rollBackIncomplete(journal);
+        snapshotter = new Snapshotter(journal, 1);
+        accountService = new AccountServiceImpl(balanceStore, journal);
+        transactionService = new TransactionServiceImpl(transactionStore, journal);
+        return replayer;
+    }
+
+    private JournalReplayer restart() throws Exception {
+        snapshotter.close();
+        journal.close();
+        return open();
+    }
+
+    @Test
+    @DisplayName("Should restore from the snapshot and replay only the journal after it")
+    void shouldRestoreSnapshotAndTail() throws Exception {
+        // Arrange
+        accountService.createAccount("ACC001", new BigDecimal("100.00"));
+        accountService.createAccount("ACC002", new BigDecimal("5.00"));
+        for (int i = 0; i < 10; i++) {
+            accountService.credit("ACC001", new BigDecimal("1.00"));
+        }
+        accountService.deleteAccount("ACC002");
+        Transaction transaction = transactionService.createTransaction(Transaction.builder()
+                .accountNo("ACC001")
+                .amount(new BigDecimal("10.00"))
+                .description("Deposit")
+                .direction(TransactionDirection.CREDIT)
+                .build());
+        assertEquals(14, snapshotter.snapshot());
+        accountService.debit("ACC001", new BigDecimal("30.00"));
+        transactionService.updateTransactionStatus(transaction.getTransactionId(), TransactionStatus.SUCCESS);
+
+        // Act
+        JournalReplayer replayer = restart();
+
+        // Assert
+        assertEquals(2, replayer.getReplayed());
+        assertEquals(new BigDecimal("80.00"), accountService.getBalance("ACC001"));
+        assertThrows(AccountNotFoundException.class, () -> accountService.getBalance("ACC002"));
+        Transaction recovered = transactionService.getTransactionOrThrow(transaction.getTransactionId());
+        assertEquals(TransactionStatus.SUCCESS, recovered.getStatus());
+        assertEquals("Deposit", recovered.getDescription());
+        assertEquals(transaction.getTimestamp(), recovered.getTimestamp());
+    }
+
+    @Test
+    @DisplayName("Should build each snapshot from the previous one and prune what it covers")
+    void shouldBuildOnPreviousSnapshotAndPrune() throws Exception {
+        // Arrange
+        accountService.createAccount("ACC001", BigDecimal.ZERO);
+        for (int i = 0; i < 20; i++) {
+            accountService.credit("ACC001", BigDecimal.ONE);
+        }
+        snapshotter.snapshot();
+        for (int i = 0; i < 20; i++) {
+            accountService.credit("ACC001", BigDecimal.ONE);
+        }
+
+        // Act
+        long sequence = snapshotter.snapshot();
+        JournalReplayer replayer = restart();
+
+        // Assert
+        assertEquals(41, sequence);
+        assertEquals(1, SnapshotFile.list(directory).size());
+        List<JournalSegments.Segment> segments = JournalSegments.list(directory);
+        assertTrue(segments.size() <= 2, "covered segments should be deleted");
+        assertEquals(0, replayer.getReplayed());
+        assertEquals(0, new BigDecimal("40").compareTo(accountService.getBalance("ACC001")));
+    }
+
+    @Test
+    @DisplayName("Should not write a snapshot when nothing changed")
+    void shouldSkipUnchangedSnapshot() throws Exception {
+        // Arrange
+        accountService.createAccount("ACC001", BigDecimal.ONE);
+        snapshotter.snapshot();
+
+        // Act
+        long sequence = snapshotter.snapshot();
+
+        // Assert
+        assertEquals(1, sequence);
+        assertEquals(1, SnapshotFile.list(directory).size());
+    }
+}
@@ -0,0 +1,76 @@
+package com.hsbc.transaction.load;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Drives a running service over its REST API. The API only records transactions and reads them back, so this
+ * target supports {@link Operation#CREATE} and {@link Operation#QUERY}; postings and combines have no endpoint.
+ */
+public class HttpLoadTarget implements LoadTarget {
+    private final URI baseUri;
+    private final HttpClient client;
+    private final Duration timeout;
+
+    public HttpLoadTarget(URI baseUri, Duration timeout) {
+        this.baseUri = baseUri;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    @Override
+    public String name() {
+        return "http " + baseUri;
+    }
+
+    @Override
+    public boolean supports(Operation operation) {
+        return operation == Operation.CREATE || operation == Operation.QUERY;
+    }
+
+    @Override
+    public void createAccount(String accountNo, BigDecimal balance) throws Exception {
+        send(HttpRequest.newBuilder(uri("/api/v1/accounts?accountNo=" + encode(accountNo)
+                        + "&initialBalance=" + balance.toPlainString()))
+                .POST(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    @Override
+    public void execute(Operation operation, String accountNo, String counterparty, BigDecimal amount)
+            throws Exception {
+        switch (operation) {
+            case CREATE -> send(HttpRequest.newBuilder(uri("/api/transactions"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"accountNo\":\"" + accountNo + "\",\"amount\":"
+                            + amount.toPlainString() + ",\"direction\":\"CREDIT\",\"description\":\"load\"}")));
+            case QUERY -> send(HttpRequest.newBuilder(uri("/api/transactions?accountNo=" + encode(accountNo)
+                    + "&size=10")).GET());
+            default -> throw new UnsupportedOperationException(operation + " has no HTTP endpoint");
+        }
+    }
+
+    private URI uri(String path) {
+        return baseUri.resolve(path);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private void send(HttpRequest.Builder request) throws Exception {
+        HttpResponse<String> response = client.send(request.timeout(timeout).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("HTTP " + response.statusCode() + ": " + response.body());
+        }
+    }
+}
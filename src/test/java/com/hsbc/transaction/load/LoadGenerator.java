@@ -0,0 +1,240 @@
+package com.hsbc.transaction.load;
+
+import com.hsbc.transaction.TransactionApplication;
+import com.hsbc.transaction.service.AccountService;
+import com.hsbc.transaction.service.BusinessService;
+import com.hsbc.transaction.service.TransactionService;
+import lombok.Builder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: calls are due at a fixed {@code rate} whether or not earlier ones have finished, as
+ * they would be from independent clients, and each call's latency runs from when it was due. A target that falls
+ * behind therefore shows up as growing latency instead of quietly lowering the offered load. Up to
+ * {@code concurrency} calls run at once; the rest queue.
+ * <p>
+ * Runs inside a test against any {@link LoadTarget}, or standalone through {@link #main}.
+ */
+@Builder
+public class LoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000000.00");
+
+    /**
+     * Calls started per second.
+     */
+    @Builder.Default
+    private final int rate = 100;
+
+    /**
+     * Length of the measured window.
+     */
+    @Builder.Default
+    private final Duration duration = Duration.ofSeconds(30);
+
+    /**
+     * Time the load runs before the measured window opens.
+     */
+    @Builder.Default
+    private final Duration warmup = Duration.ofSeconds(5);
+
+    /**
+     * Calls allowed in flight at once.
+     */
+    @Builder.Default
+    private final int concurrency = 64;
+
+    /**
+     * Accounts created up front and picked from uniformly.
+     */
+    @Builder.Default
+    private final int accounts = 1000;
+
+    /**
+     * How long to wait for queued calls once the last one is due.
+     */
+    @Builder.Default
+    private final Duration drainTimeout = Duration.ofSeconds(30);
+
+    @Builder.Default
+    private final OperationMix mix = OperationMix.DEFAULT;
+
+    public LoadReport run(LoadTarget target) throws Exception {
+        if (rate <= 0 || concurrency <= 0 || accounts < 2) {
+            throw new IllegalArgumentException("Rate and concurrency must be positive and there must be at least "
+                    + "two accounts");
+        }
+        for (Operation operation : mix.getWeights().keySet()) {
+            if (!target.supports(operation)) {
+                throw new IllegalArgumentException(target.name() + " does not support " + operation);
+            }
+        }
+        String[] accountNos = createAccounts(target);
+
+        Map<Operation, Recorder> latencies = new EnumMap<>(Operation.class);
+        Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        for (Operation operation : mix.getWeights().keySet()) {
+            latencies.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+        AtomicLong lastCompletion = new AtomicLong();
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "load-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        SplittableRandom random = new SplittableRandom();
+        double nanosPerCall = 1_000_000_000.0 / rate;
+        long calls = Math.round((warmup.toNanos() + duration.toNanos()) / nanosPerCall);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        Instant startedAt = Instant.now().plus(warmup);
+        for (long i = 0; i < calls; i++) {
+            long due = start + Math.round(i * nanosPerCall);
+            for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = mix.pick(random);
+            String accountNo = accountNos[random.nextInt(accountNos.length)];
+            String counterparty = accountNos[random.nextInt(accountNos.length)];
+            while (counterparty.equals(accountNo)) {
+                counterparty = accountNos[random.nextInt(accountNos.length)];
+            }
+            String to = counterparty;
+            boolean measured = due >= measureFrom;
+            workers.execute(() -> {
+                boolean failed = false;
+                try {
+                    target.execute(operation, accountNo, to, AMOUNT);
+                } catch (Exception e) {
+                    failed = true;
+                    logger.debug("{} on {} failed", operation, accountNo, e);
+                }
+                long now = System.nanoTime();
+                if (measured) {
+                    latencies.get(operation).recordValue(now - due);
+                    if (failed) {
+                        errors.get(operation).increment();
+                    }
+                    lastCompletion.accumulateAndGet(now, Math::max);
+                }
+            });
+        }
+        workers.shutdown();
+        long incomplete = 0;
+        if (!workers.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            incomplete = workers.shutdownNow().size();
+        }
+
+        double seconds = Math.max(duration.toNanos(), lastCompletion.get() - measureFrom) / 1e9;
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        Map<Operation, LoadReport.Stats> operations = new EnumMap<>(Operation.class);
+        for (Operation operation : latencies.keySet()) {
+            Histogram histogram = latencies.get(operation).getIntervalHistogram();
+            long failed = errors.get(operation).sum();
+            operations.put(operation, LoadReport.Stats.of(histogram, failed, seconds));
+            total.add(histogram);
+            totalErrors += failed;
+        }
+        return new LoadReport(target.name(), startedAt.toString(), mix.toString(), rate,
+                Math.round(seconds * 10) / 10.0, incomplete, LoadReport.Stats.of(total, totalErrors, seconds),
+                operations);
+    }
+
+    private String[] createAccounts(LoadTarget target) throws Exception {
+        String prefix = "LOAD-" + Long.toString(System.currentTimeMillis(), 36)
+                + Integer.toString(ThreadLocalRandom.current().nextInt(1296), 36) + "-";
+        String[] accountNos = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            accountNos[i] = prefix + i;
+            target.createAccount(accountNos[i], OPENING_BALANCE);
+        }
+        return accountNos;
+    }
+
+    /**
+     * Runs one load and prints and writes its report. Options, all {@code --name=value}:
+     * <ul>
+     *     <li>{@code target}: {@code http} (default) to drive a running service at {@code url}, or {@code service}
+     *     to start the application in this JVM without its web server and call the service beans</li>
+     *     <li>{@code url}: base URL for {@code http}, default {@code http://localhost:8080}</li>
+     *     <li>{@code rate}, {@code duration}, {@code warmup}, {@code concurrency}, {@code accounts}: as on the
+     *     builder; durations are ISO-8601, e.g. {@code PT1M}</li>
+     *     <li>{@code mix}: an {@link OperationMix}; defaults to create and query for {@code http}</li>
+     *     <li>{@code report}: JSON file to write, default {@code target/load-report.json}</li>
+     * </ul>
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        String targetName = options.getOrDefault("target", "http");
+        String defaultMix = targetName.equals("http") ? "create=50,query=50" : OperationMix.DEFAULT.toString();
+        LoadGenerator generator = LoadGenerator.builder()
+                .rate(Integer.parseInt(options.getOrDefault("rate", "100")))
+                .duration(Duration.parse(options.getOrDefault("duration", "PT30S")))
+                .warmup(Duration.parse(options.getOrDefault("warmup", "PT5S")))
+                .concurrency(Integer.parseInt(options.getOrDefault("concurrency", "64")))
+                .accounts(Integer.parseInt(options.getOrDefault("accounts", "1000")))
+                .mix(OperationMix.parse(options.getOrDefault("mix", defaultMix)))
+                .build();
+        Path reportFile = Path.of(options.getOrDefault("report", "target/load-report.json"));
+
+        ConfigurableApplicationContext context = null;
+        try {
+            LoadTarget target = switch (targetName) {
+                case "http" -> new HttpLoadTarget(URI.create(options.getOrDefault("url", "http://localhost:8080")),
+                        Duration.ofSeconds(30));
+                case "service" -> {
+                    context = new SpringApplicationBuilder(TransactionApplication.class)
+                            .web(WebApplicationType.NONE)
+                            .run();
+                    yield new ServiceLoadTarget(context.getBean(AccountService.class),
+                            context.getBean(TransactionService.class), context.getBean(BusinessService.class));
+                }
+                default -> throw new IllegalArgumentException("Unknown target " + targetName);
+            };
+            LoadReport report = generator.run(target);
+            report.write(reportFile);
+            System.out.print(report.summary());
+            System.out.println("Report written to " + reportFile.toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.hsbc.transaction.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Outcome of a {@link LoadGenerator} run, written as JSON so runs can be compared between releases. Latencies are in
+ * microseconds and measured from when each call was due to start, so they include any time it spent queued behind
+ * a saturated target. Only calls due after the warm-up count.
+ *
+ * @param target     the {@link LoadTarget#name()} driven
+ * @param startedAt  wall-clock start of the measured window, ISO-8601
+ * @param mix        the {@link OperationMix} run
+ * @param targetRate calls per second the generator was asked to start
+ * @param seconds    length of the measured window
+ * @param incomplete calls still queued or running when the generator stopped waiting for them
+ */
+public record LoadReport(String target,
+                         String startedAt,
+                         String mix,
+                         int targetRate,
+                         double seconds,
+                         long incomplete,
+                         Stats total,
+                         Map<Operation, Stats> operations) {
+
+    /**
+     * @param count      calls completed, including those that failed
+     * @param throughput completed calls per second
+     */
+    public record Stats(long count,
+                        long errors,
+                        double throughput,
+                        double mean,
+                        double p50,
+                        double p90,
+                        double p99,
+                        double p999,
+                        double max) {
+
+        static Stats of(Histogram latencies, long errors, double seconds) {
+            long count = latencies.getTotalCount();
+            return new Stats(count, errors, round(count / seconds),
+                    micros(latencies.getMean()),
+                    micros(latencies.getValueAtPercentile(50)),
+                    micros(latencies.getValueAtPercentile(90)),
+                    micros(latencies.getValueAtPercentile(99)),
+                    micros(latencies.getValueAtPercentile(99.9)),
+                    micros(latencies.getMaxValue()));
+        }
+
+        private static double micros(double nanos) {
+            return round(nanos / 1_000);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 10) / 10.0;
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this);
+    }
+
+    public static LoadReport read(Path file) throws IOException {
+        return new ObjectMapper().readValue(file.toFile(), LoadReport.class);
+    }
+
+    /**
+     * One line per operation and a total, for the console.
+     */
+    public String summary() {
+        StringBuilder summary = new StringBuilder(String.format(Locale.ROOT,
+                "%s, %s at %d/s for %.1f s, %d incomplete%n%-8s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                target, mix, targetRate, seconds, incomplete,
+                "op", "count", "errors", "ops/s", "p50 us", "p90 us", "p99 us", "p999 us", "max us"));
+        operations.forEach((operation, stats) -> line(summary, operation.name().toLowerCase(Locale.ROOT), stats));
+        line(summary, "total", total);
+        return summary.toString();
+    }
+
+    private static void line(StringBuilder summary, String name, Stats stats) {
+        summary.append(String.format(Locale.ROOT, "%-8s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                name, stats.count(), stats.errors(), stats.throughput(),
+                stats.p50(), stats.p90(), stats.p99(), stats.p999(), stats.max()));
+    }
+}
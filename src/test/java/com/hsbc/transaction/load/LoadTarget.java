@@ -0,0 +1,25 @@
+package com.hsbc.transaction.load;
+
+import java.math.BigDecimal;
+
+/**
+ * What a {@link LoadGenerator} drives. Calls come from many threads at once; a call that fails throws, and counts
+ * as an error for its operation.
+ */
+public interface LoadTarget {
+
+    /**
+     * Name of the target in the report.
+     */
+    String name();
+
+    boolean supports(Operation operation);
+
+    void createAccount(String accountNo, BigDecimal balance) throws Exception;
+
+    /**
+     * Run one {@code operation} for {@code amount} against {@code accountNo}; {@code counterparty} is the account
+     * a {@link Operation#COMBINE} moves the amount to.
+     */
+    void execute(Operation operation, String accountNo, String counterparty, BigDecimal amount) throws Exception;
+}
@@ -0,0 +1,147 @@
+package com.hsbc.transaction.load;
+
+import com.hsbc.transaction.service.AccountService;
+import com.hsbc.transaction.service.BusinessService;
+import com.hsbc.transaction.service.TransactionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Short runs of the {@link LoadGenerator} at a rate any build machine keeps up with, checking that every call is
+ * made and succeeds and that the report holds together. Tagged {@code load}, so only the {@code load} profile runs
+ * them. Longer runs for real numbers go through {@link LoadGenerator#main}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class LoadTest {
+    private static final int RATE = 200;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private BusinessService businessService;
+
+    @LocalServerPort
+    private int port;
+
+    @TempDir
+    Path directory;
+
+    private static LoadGenerator generator(OperationMix mix) {
+        return LoadGenerator.builder()
+                .rate(RATE)
+                .duration(Duration.ofSeconds(2))
+                .warmup(Duration.ofMillis(500))
+                .concurrency(16)
+                .accounts(50)
+                .mix(mix)
+                .build();
+    }
+
+    private static void assertCompleteRun(LoadReport report, OperationMix mix) {
+        assertEquals(0, report.incomplete());
+        assertEquals(0, report.total().errors(), report::summary);
+        assertEquals(2 * RATE, report.total().count(), 1);
+        assertEquals(mix.getWeights().keySet(), report.operations().keySet());
+        long sum = report.operations().values().stream().mapToLong(LoadReport.Stats::count).sum();
+        assertEquals(report.total().count(), sum);
+        assertTrue(report.total().p50() > 0);
+        assertTrue(report.total().p50() <= report.total().p99());
+        assertTrue(report.total().p99() <= report.total().max());
+    }
+
+    @Test
+    @DisplayName("Should run the full mix through the service layer without errors")
+    void shouldDriveServiceLayer() throws Exception {
+        // Arrange
+        LoadTarget target = new ServiceLoadTarget(accountService, transactionService, businessService);
+
+        // Act
+        LoadReport report = generator(OperationMix.DEFAULT).run(target);
+
+        // Assert
+        assertCompleteRun(report, OperationMix.DEFAULT);
+        assertEquals("service", report.target());
+    }
+
+    @Test
+    @DisplayName("Should drive the HTTP API and write a report that reads back")
+    void shouldDriveHttpApi() throws Exception {
+        // Arrange
+        OperationMix mix = OperationMix.parse("create=50,query=50");
+        LoadTarget target = new HttpLoadTarget(URI.create("http://localhost:" + port), Duration.ofSeconds(10));
+        Path file = directory.resolve("report.json");
+
+        // Act
+        LoadReport report = generator(mix).run(target);
+        report.write(file);
+
+        // Assert
+        assertCompleteRun(report, mix);
+        assertEquals(report, LoadReport.read(file));
+    }
+
+    @Test
+    @DisplayName("Should refuse a mix the target cannot run")
+    void shouldRejectUnsupportedOperation() {
+        // Arrange
+        LoadTarget target = new HttpLoadTarget(URI.create("http://localhost:" + port), Duration.ofSeconds(10));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> generator(OperationMix.parse("combine=1")).run(target));
+    }
+
+    @Nested
+    @DisplayName("Operation Mix Tests")
+    class OperationMixTests {
+
+        @Test
+        @DisplayName("Should pick operations in proportion to their weights")
+        void shouldPickByWeight() {
+            // Arrange
+            OperationMix mix = OperationMix.parse("credit=3, QUERY=1, debit=0");
+            Random random = new Random(42);
+            int credits = 0;
+
+            // Act
+            for (int i = 0; i < 10_000; i++) {
+                if (mix.pick(random) == Operation.CREDIT) {
+                    credits++;
+                }
+            }
+
+            // Assert
+            assertEquals("credit=3,query=1", mix.toString());
+            assertEquals(7_500, credits, 300);
+        }
+
+        @Test
+        @DisplayName("Should reject malformed mixes")
+        void shouldRejectMalformedMix() {
+            assertThrows(IllegalArgumentException.class, () -> OperationMix.parse("credit"));
+            assertThrows(IllegalArgumentException.class, () -> OperationMix.parse("transfer=1"));
+            assertThrows(IllegalArgumentException.class, () -> OperationMix.parse("credit=-1"));
+            assertThrows(IllegalArgumentException.class, () -> OperationMix.parse("credit=0"));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.hsbc.transaction.load;
+
+/**
+ * The kinds of call a {@link LoadGenerator} mixes. Each one names the account it runs against; {@link #COMBINE}
+ * also moves money to a second account.
+ */
+public enum Operation {
+    CREATE,
+    CREDIT,
+    DEBIT,
+    COMBINE,
+    QUERY
+}
@@ -0,0 +1,80 @@
+package com.hsbc.transaction.load;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Relative weights of the {@link Operation}s in a run, written as {@code create=20,credit=20,query=60}. Operations
+ * left out never run.
+ */
+public final class OperationMix {
+    public static final OperationMix DEFAULT = parse("create=20,credit=20,debit=20,combine=10,query=30");
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] operations;
+    private final int[] cumulative;
+
+    private OperationMix(Map<Operation, Integer> weights) {
+        this.weights = Collections.unmodifiableMap(weights);
+        this.operations = weights.keySet().toArray(Operation[]::new);
+        this.cumulative = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulative[i] = total;
+        }
+    }
+
+    public static OperationMix parse(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight but got '" + entry + "'");
+            }
+            Operation operation;
+            int weight;
+            try {
+                operation = Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+                weight = Integer.parseInt(parts[1].trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid mix entry '" + entry + "'", e);
+            }
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight of " + operation + " cannot be negative");
+            }
+            if (weight > 0) {
+                weights.merge(operation, weight, Integer::sum);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Mix '" + mix + "' runs no operations");
+        }
+        return new OperationMix(weights);
+    }
+
+    public Map<Operation, Integer> getWeights() {
+        return weights;
+    }
+
+    public Operation pick(RandomGenerator random) {
+        int point = random.nextInt(cumulative[cumulative.length - 1]);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (point < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder mix = new StringBuilder();
+        weights.forEach((operation, weight) -> mix.append(mix.isEmpty() ? "" : ",")
+                .append(operation.name().toLowerCase(Locale.ROOT)).append('=').append(weight));
+        return mix.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package com.hsbc.transaction.load;
+
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionFilter;
+import com.hsbc.transaction.service.AccountService;
+import com.hsbc.transaction.service.BusinessService;
+import com.hsbc.transaction.service.TransactionService;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Calls the service beans directly, so the numbers leave out HTTP and serialization but keep the transaction and
+ * cache proxies.
+ */
+public class ServiceLoadTarget implements LoadTarget {
+    private final AccountService accountService;
+    private final TransactionService transactionService;
+    private final BusinessService businessService;
+
+    public ServiceLoadTarget(AccountService accountService, TransactionService transactionService,
+                             BusinessService businessService) {
+        this.accountService = accountService;
+        this.transactionService = transactionService;
+        this.businessService = businessService;
+    }
+
+    @Override
+    public String name() {
+        return "service";
+    }
+
+    @Override
+    public boolean supports(Operation operation) {
+        return true;
+    }
+
+    @Override
+    public void createAccount(String accountNo, BigDecimal balance) {
+        accountService.createAccount(accountNo, balance);
+    }
+
+    @Override
+    public void execute(Operation operation, String accountNo, String counterparty, BigDecimal amount) {
+        switch (operation) {
+            case CREATE -> transactionService.createTransaction(leg(accountNo, amount, TransactionDirection.CREDIT));
+            case CREDIT -> accountService.credit(accountNo, amount);
+            case DEBIT -> accountService.debit(accountNo, amount);
+            case COMBINE -> businessService.combine(List.of(
+                    leg(accountNo, amount, TransactionDirection.DEBIT),
+                    leg(counterparty, amount, TransactionDirection.CREDIT)));
+            case QUERY -> transactionService.queryTransactions(
+                    TransactionFilter.builder().accountNo(accountNo).build(), 0, 10);
+        }
+    }
+
+    private static Transaction leg(String accountNo, BigDecimal amount, TransactionDirection direction) {
+        return Transaction.builder()
+                .accountNo(accountNo)
+                .amount(amount)
+                .direction(direction)
+                .description("load")
+                .build();
+    }
+}
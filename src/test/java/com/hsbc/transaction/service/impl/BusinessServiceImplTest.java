@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,12 +13,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
 
 import com.hsbc.transaction.exception.InsufficientBalanceException;
+import com.hsbc.transaction.exception.InvalidTransactionException;
+import com.hsbc.transaction.exception.TransactionNotFoundException;
 import com.hsbc.transaction.model.Transaction;
 import com.hsbc.transaction.model.TransactionDirection;
-import com.hsbc.transaction.model.TransactionStatus;
 import com.hsbc.transaction.service.AccountService;
 import com.hsbc.transaction.service.BusinessService;
 import com.hsbc.transaction.service.TransactionService;
@@ -37,6 +42,9 @@ class BusinessServiceImplTest {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @BeforeEach
     void setUp() {
         // Create test accounts with initial balances
@@ -85,9 +93,8 @@ class BusinessServiceImplTest {
         }
 
         @Test
-        @DisplayName("Should refund all successful transactions when one fails")
-        @Transactional
-        void shouldRefundSuccessfulTransactionsWhenOneFails() {
+        @DisplayName("Should roll back all applied transactions when one fails")
+        void shouldRollBackAppliedTransactionsWhenOneFails() {
             // Arrange
             BigDecimal initialBalance1 = accountService.getBalance("ACC001");
             BigDecimal initialBalance2 = accountService.getBalance("ACC002");
@@ -100,30 +107,80 @@ class BusinessServiceImplTest {
                     .build(),
                 Transaction.builder()
                     .accountNo("ACC002")
-                    .amount(new BigDecimal("1000.00")) // More than available balance
+                    .amount(new BigDecimal("-1.00")) // Rejected only once the first leg is applied
                     .direction(TransactionDirection.DEBIT)
                     .build()
             );
 
             // Act
-            assertThrows(InsufficientBalanceException.class, () ->
+            assertThrows(InvalidTransactionException.class, () ->
                 businessService.combine(transactions));
 
             // Verify balances are restored
             assertEquals(initialBalance1, accountService.getBalance("ACC001"));
             assertEquals(initialBalance2, accountService.getBalance("ACC002"));
 
-            // Verify first transaction is refunded
-            Transaction firstTransaction = transactionService.getTransactionOrThrow(transactions.get(0).getTransactionId());
-            assertEquals(TransactionStatus.REFUNDED, firstTransaction.getStatus());
-
-            // Verify refund transaction exists and is successful
-            assertTrue(transactionService.queryTransactions(null, 0, 10).getContent()
-                .stream()
-                .anyMatch(t -> t.getAccountNo().equals("ACC001") 
-                    && t.getAmount().equals(new BigDecimal("100.00"))
-                    && t.getDirection() == TransactionDirection.CREDIT
-                    && t.getStatus() == TransactionStatus.SUCCESS));
+            // Verify the first transaction was undone rather than refunded
+            assertThrows(TransactionNotFoundException.class, () ->
+                transactionService.getTransactionOrThrow(transactions.get(0).getTransactionId()));
+        }
+
+        @Test
+        @DisplayName("Should keep a failed batch's accounts locked until its legs are undone")
+        void shouldHoldLocksUntilFailedBatchIsUndone() throws InterruptedException {
+            // Arrange
+            List<Transaction> failing = Arrays.asList(
+                Transaction.builder()
+                    .accountNo("ACC001")
+                    .amount(new BigDecimal("100.00"))
+                    .direction(TransactionDirection.DEBIT)
+                    .build(),
+                Transaction.builder()
+                    .accountNo("ACC002")
+                    .amount(new BigDecimal("-1.00")) // Rejected only once the first leg is applied
+                    .direction(TransactionDirection.DEBIT)
+                    .build()
+            );
+            // Only affordable from ACC001's balance before the failing batch
+            List<Transaction> concurrent = Arrays.asList(
+                Transaction.builder()
+                    .accountNo("ACC001")
+                    .amount(new BigDecimal("950.00"))
+                    .direction(TransactionDirection.DEBIT)
+                    .build(),
+                Transaction.builder()
+                    .accountNo("ACC002")
+                    .amount(new BigDecimal("950.00"))
+                    .direction(TransactionDirection.CREDIT)
+                    .build()
+            );
+            AtomicReference<Throwable> concurrentFailure = new AtomicReference<>();
+            Thread second = new Thread(() -> {
+                try {
+                    businessService.combine(concurrent);
+                } catch (Throwable e) {
+                    concurrentFailure.set(e);
+                }
+            });
+
+            // Act: the surrounding transaction keeps the failed batch's first leg applied until it rolls back
+            TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+            try {
+                assertThrows(InvalidTransactionException.class, () -> businessService.combine(failing));
+                assertEquals(new BigDecimal("900.00"), accountService.getBalance("ACC001"));
+                second.start();
+                second.join(500);
+                assertTrue(second.isAlive(), "second batch ran against a half-undone batch");
+            } finally {
+                transactionManager.rollback(status);
+            }
+            second.join(30_000);
+
+            // Assert
+            assertFalse(second.isAlive());
+            assertNull(concurrentFailure.get());
+            assertEquals(new BigDecimal("50.00"), accountService.getBalance("ACC001"));
+            assertEquals(new BigDecimal("1450.00"), accountService.getBalance("ACC002"));
         }
 
         @Test
@@ -169,6 +226,64 @@ class BusinessServiceImplTest {
             assertEquals(new BigDecimal("550.00"), accountService.getBalance("ACC002")); // 500 + (10 * 5)
         }
 
+        @Test
+        @DisplayName("Should run opposing transfers concurrently without deadlock or lost updates")
+        void shouldRunOpposingTransfersConcurrently() throws InterruptedException {
+            // Arrange
+            int numberOfThreads = 8;
+            Thread[] threads = new Thread[numberOfThreads];
+            // Small enough that either account covers every transfer out of it however the threads interleave
+            BigDecimal amount = new BigDecimal("5.00");
+
+            // Act
+            for (int i = 0; i < numberOfThreads; i++) {
+                String from = i % 2 == 0 ? "ACC001" : "ACC002";
+                String to = i % 2 == 0 ? "ACC002" : "ACC001";
+                threads[i] = new Thread(() -> {
+                    for (int n = 0; n < 20; n++) {
+                        businessService.combine(Arrays.asList(
+                            Transaction.builder().accountNo(from).amount(amount).direction(TransactionDirection.DEBIT).build(),
+                            Transaction.builder().accountNo(to).amount(amount).direction(TransactionDirection.CREDIT).build()
+                        ));
+                    }
+                });
+                threads[i].start();
+            }
+            for (Thread thread : threads) {
+                thread.join(30_000);
+                assertFalse(thread.isAlive(), "combine deadlocked");
+            }
+
+            // Assert
+            assertEquals(new BigDecimal("1000.00"), accountService.getBalance("ACC001"));
+            assertEquals(new BigDecimal("500.00"), accountService.getBalance("ACC002"));
+        }
+
+        @Test
+        @DisplayName("Should reject an overdrawing batch before writing any leg")
+        void shouldRejectOverdrawingBatchUpFront() {
+            // Arrange
+            List<Transaction> transactions = Arrays.asList(
+                Transaction.builder()
+                    .accountNo("ACC002")
+                    .amount(new BigDecimal("100.00"))
+                    .direction(TransactionDirection.CREDIT)
+                    .build(),
+                Transaction.builder()
+                    .accountNo("ACC002")
+                    .amount(new BigDecimal("700.00")) // 500 + 100 available
+                    .direction(TransactionDirection.DEBIT)
+                    .build()
+            );
+
+            // Act
+            assertThrows(InsufficientBalanceException.class, () -> businessService.combine(transactions));
+
+            // Assert
+            assertNull(transactions.get(0).getTransactionId());
+            assertEquals(new BigDecimal("500.00"), accountService.getBalance("ACC002"));
+        }
+
         @Test
         @DisplayName("Should handle large number of transactions")
         @Transactional
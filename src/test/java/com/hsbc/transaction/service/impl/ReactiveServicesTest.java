@@ -0,0 +1,172 @@
+package com.hsbc.transaction.service.impl;
+
+import com.hsbc.transaction.exception.InsufficientBalanceException;
+import com.hsbc.transaction.journal.FileJournal;
+import com.hsbc.transaction.journal.FileJournal.Durability;
+import com.hsbc.transaction.journal.JournalReplayer;
+import com.hsbc.transaction.model.BulkItemResult;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionFilter;
+import com.hsbc.transaction.service.TransactionService;
+import com.hsbc.transaction.store.AccountLocks;
+import com.hsbc.transaction.store.BalanceStore;
+import com.hsbc.transaction.store.DecimalBalanceStore;
+import com.hsbc.transaction.store.TransactionStore;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveServicesTest {
+
+    @TempDir
+    Path directory;
+
+    private FileJournal journal;
+    private Scheduler scheduler;
+    private MeterRegistry registry;
+    private ReactiveAccountServiceImpl accountService;
+    private ReactiveTransactionServiceImpl transactionService;
+    private ReactiveBusinessServiceImpl businessService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        BalanceStore balanceStore = new DecimalBalanceStore();
+        TransactionStore transactionStore = new TransactionStore();
+        journal = FileJournal.open(directory, 0, Durability.FSYNC, Duration.ZERO, 64, 1 << 20,
+                new JournalReplayer(balanceStore, transactionStore));
+        scheduler = Schedulers.newParallel("service-test", 2);
+        registry = new SimpleMeterRegistry();
+        AccountServiceImpl accounts = new AccountServiceImpl(balanceStore, journal, registry);
+        TransactionServiceImpl transactions = new TransactionServiceImpl(transactionStore, journal, registry);
+        BusinessServiceImpl business = new BusinessServiceImpl(registry);
+        ReflectionTestUtils.setField(business, "accountService", accounts);
+        ReflectionTestUtils.setField(business, "transactionService", transactions);
+        ReflectionTestUtils.setField(business, "accountLocks", new AccountLocks(16));
+        accountService = new ReactiveAccountServiceImpl(accounts, journal, scheduler);
+        transactionService = new ReactiveTransactionServiceImpl(transactions, journal, scheduler);
+        businessService = new ReactiveBusinessServiceImpl(business, journal, scheduler);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        scheduler.dispose();
+        journal.close();
+    }
+
+    private static Transaction credit(String accountNo, String amount) {
+        return Transaction.builder()
+                .accountNo(accountNo)
+                .amount(new BigDecimal(amount))
+                .direction(TransactionDirection.CREDIT)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Posting Tests")
+    class PostingTests {
+
+        @Test
+        @DisplayName("Should complete postings once durable and report failures as errors")
+        void shouldCompletePostingsAndReportFailures() {
+            // Arrange
+            StepVerifier.create(accountService.createAccount("ACC001", new BigDecimal("10.00"))).verifyComplete();
+            long created = journal.getDurableSequence();
+
+            // Act & Assert
+            StepVerifier.create(accountService.credit("ACC001", new BigDecimal("5.00"))).verifyComplete();
+            assertTrue(journal.getDurableSequence() > created);
+            StepVerifier.create(accountService.debit("ACC001", new BigDecimal("50.00")))
+                    .verifyError(InsufficientBalanceException.class);
+            StepVerifier.create(accountService.getBalance("ACC001"))
+                    .expectNext(new BigDecimal("15.00"))
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should combine legs without running anything before subscription")
+        void shouldCombineOnSubscription() {
+            // Arrange
+            accountService.createAccount("ACC001", new BigDecimal("10.00")).block();
+            accountService.createAccount("ACC002", BigDecimal.ZERO).block();
+            var combine = businessService.combine(List.of(
+                    Transaction.builder().accountNo("ACC001").amount(new BigDecimal("4.00"))
+                            .direction(TransactionDirection.DEBIT).build(),
+                    credit("ACC002", "4.00")));
+            assertEquals(new BigDecimal("10.00"), accountService.getBalance("ACC001").block());
+
+            // Act
+            StepVerifier.create(combine).verifyComplete();
+
+            // Assert
+            assertEquals(new BigDecimal("6.00"), accountService.getBalance("ACC001").block());
+            assertEquals(new BigDecimal("4.00"), accountService.getBalance("ACC002").block());
+        }
+    }
+
+    @Nested
+    @DisplayName("Streaming Tests")
+    class StreamingTests {
+
+        @Test
+        @DisplayName("Should create a bulk stream in batches with one result per item in order")
+        void shouldCreateBulkStreamInOrder() {
+            // Arrange
+            int items = TransactionService.BULK_BATCH_SIZE * 2 + 500;
+            Flux<Transaction> transactions = Flux.range(0, items)
+                    .map(i -> credit("ACC001", i == 1500 ? "-1.00" : "1.00"));
+
+            // Act
+            List<BulkItemResult> results = transactionService.createTransactions(transactions).collectList().block();
+
+            // Assert
+            assertEquals(items, results.size());
+            for (int i = 0; i < items; i++) {
+                assertEquals(i, results.get(i).getIndex());
+                assertEquals(i == 1500, results.get(i).getError() != null);
+            }
+        }
+
+        @Test
+        @DisplayName("Should walk the index only as far as the subscriber requests")
+        void shouldWalkOnlyAsFarAsRequested() throws InterruptedException {
+            // Arrange
+            Flux.range(0, 100)
+                    .concatMap(i -> transactionService.createTransaction(credit("ACC001", "1.00")))
+                    .blockLast();
+
+            // Act
+            StepVerifier.create(transactionService.streamTransactions(TransactionFilter.builder().build()), 3)
+                    .expectNextCount(3)
+                    .thenCancel()
+                    .verify();
+
+            // Assert
+            DistributionSummary scanned = registry.get("transaction.query.scanned").tag("index", "time").summary();
+            for (int i = 0; i < 100 && scanned.count() == 0; i++) {
+                Thread.sleep(10); // the cancel closes the stream on the scheduler
+            }
+            assertEquals(1, scanned.count());
+            assertTrue(scanned.totalAmount() < 10, "walked " + scanned.totalAmount() + " rows for 3 requested");
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.hsbc.transaction.service.impl;
+
+import com.hsbc.transaction.exception.InsufficientBalanceException;
+import com.hsbc.transaction.journal.Journal;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionFilter;
+import com.hsbc.transaction.model.TransactionStatus;
+import com.hsbc.transaction.store.AccountLocks;
+import com.hsbc.transaction.store.DecimalBalanceStore;
+import com.hsbc.transaction.store.TransactionStore;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceMetricsTest {
+    private MeterRegistry registry;
+    private AccountServiceImpl accountService;
+    private TransactionServiceImpl transactionService;
+    private BusinessServiceImpl businessService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        accountService = new AccountServiceImpl(new DecimalBalanceStore(), Journal.DISABLED, registry);
+        transactionService = new TransactionServiceImpl(new TransactionStore(), Journal.DISABLED, registry);
+        businessService = new BusinessServiceImpl(registry);
+        ReflectionTestUtils.setField(businessService, "accountService", accountService);
+        ReflectionTestUtils.setField(businessService, "transactionService", transactionService);
+        ReflectionTestUtils.setField(businessService, "accountLocks", new AccountLocks(16));
+        accountService.createAccount("ACC001", new BigDecimal("100.00"));
+        accountService.createAccount("ACC002", new BigDecimal("0.00"));
+    }
+
+    private Timer timer(String name, String operation, String outcome) {
+        return registry.get(name).tag("operation", operation).tag("outcome", outcome).timer();
+    }
+
+    private static Transaction leg(String accountNo, String amount, TransactionDirection direction) {
+        return Transaction.builder()
+                .accountNo(accountNo)
+                .amount(new BigDecimal(amount))
+                .direction(direction)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Account Metrics Tests")
+    class AccountMetricsTests {
+
+        @Test
+        @DisplayName("Should time postings by outcome and count insufficient-balance rejections")
+        void shouldTimePostingsAndCountRejections() {
+            // Act
+            accountService.credit("ACC001", BigDecimal.TEN);
+            accountService.debit("ACC001", BigDecimal.ONE);
+            assertThrows(InsufficientBalanceException.class,
+                    () -> accountService.debit("ACC002", BigDecimal.ONE));
+
+            // Assert
+            assertEquals(1, timer("account.operation.time", "credit", "success").count());
+            assertEquals(1, timer("account.operation.time", "debit", "success").count());
+            assertEquals(1, timer("account.operation.time", "debit", "failure").count());
+            assertEquals(1, registry.get("account.insufficient.balance").tag("operation", "debit")
+                    .counter().count());
+        }
+    }
+
+    @Nested
+    @DisplayName("Transaction Metrics Tests")
+    class TransactionMetricsTests {
+
+        @Test
+        @DisplayName("Should record rows scanned against rows returned per index")
+        void shouldRecordScannedAgainstReturned() {
+            // Arrange
+            for (int i = 0; i < 5; i++) {
+                transactionService.createTransaction(leg("ACC001", i < 2 ? "500.00" : "5.00",
+                        TransactionDirection.CREDIT));
+            }
+
+            // Act
+            transactionService.queryTransactions(TransactionFilter.builder()
+                    .minAmount(new BigDecimal("100.00"))
+                    .build(), 0, 10);
+
+            // Assert
+            DistributionSummary scanned = registry.get("transaction.query.scanned").tag("index", "time").summary();
+            DistributionSummary returned = registry.get("transaction.query.returned").tag("index", "time").summary();
+            assertEquals(5, scanned.totalAmount());
+            assertEquals(2, returned.totalAmount());
+            assertEquals(5, timer("transaction.operation.time", "create", "success").count());
+            assertEquals(1, timer("transaction.operation.time", "query", "success").count());
+        }
+
+        @Test
+        @DisplayName("Should count status changes, including refunds, and bulk items by outcome")
+        void shouldCountStatusChangesAndBulkItems() {
+            // Arrange
+            Transaction transaction = transactionService.createTransaction(
+                    leg("ACC001", "1.00", TransactionDirection.CREDIT));
+
+            // Act
+            transactionService.updateTransactionStatus(transaction.getTransactionId(), TransactionStatus.SUCCESS);
+            transactionService.updateTransactionStatus(transaction.getTransactionId(), TransactionStatus.REFUNDED);
+            transactionService.createTransactions(List.of(
+                    leg("ACC001", "1.00", TransactionDirection.CREDIT),
+                    leg("ACC001", "-1.00", TransactionDirection.CREDIT)), 0);
+
+            // Assert
+            assertEquals(1, registry.get("transaction.status.changes").tag("status", "REFUNDED").counter().count());
+            assertEquals(1, registry.get("transaction.status.changes").tag("status", "SUCCESS").counter().count());
+            assertEquals(1, registry.get("transaction.bulk.items").tag("outcome", "created").counter().count());
+            assertEquals(1, registry.get("transaction.bulk.items").tag("outcome", "rejected").counter().count());
+        }
+
+        @Test
+        @DisplayName("Should time a stream as failed when walking it throws")
+        void shouldTimeStreamByOutcome() {
+            // Arrange
+            transactionService.createTransaction(leg("ACC001", "1.00", TransactionDirection.CREDIT));
+
+            // Act
+            try (Stream<Transaction> rows = transactionService.streamTransactions(null)) {
+                assertEquals(1, rows.count());
+            }
+            try (Stream<Transaction> rows = transactionService.streamTransactions(null)) {
+                assertThrows(IllegalStateException.class, () -> rows.forEach(transaction -> {
+                    throw new IllegalStateException("client went away");
+                }));
+            }
+
+            // Assert
+            assertEquals(1, timer("transaction.operation.time", "stream", "success").count());
+            assertEquals(1, timer("transaction.operation.time", "stream", "failure").count());
+        }
+    }
+
+    @Nested
+    @DisplayName("Combine Metrics Tests")
+    class CombineMetricsTests {
+
+        @Test
+        @DisplayName("Should record batch sizes and count batches refused by the balance check")
+        void shouldRecordLegsAndRejections() {
+            // Act
+            businessService.combine(List.of(
+                    leg("ACC001", "10.00", TransactionDirection.DEBIT),
+                    leg("ACC002", "10.00", TransactionDirection.CREDIT)));
+            assertThrows(InsufficientBalanceException.class, () -> businessService.combine(List.of(
+                    leg("ACC002", "50.00", TransactionDirection.DEBIT),
+                    leg("ACC001", "50.00", TransactionDirection.CREDIT))));
+
+            // Assert
+            DistributionSummary legs = registry.get("business.combine.legs").summary();
+            assertEquals(2, legs.count());
+            assertEquals(4, legs.totalAmount());
+            assertEquals(1, timer("business.operation.time", "combine", "success").count());
+            assertEquals(1, timer("business.operation.time", "combine", "failure").count());
+            assertEquals(1, registry.get("account.insufficient.balance").tag("operation", "combine")
+                    .counter().count());
+        }
+    }
+}
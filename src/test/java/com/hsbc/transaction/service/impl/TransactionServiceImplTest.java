@@ -1,15 +1,26 @@
 package com.hsbc.transaction.service.impl;
 
+import com.hsbc.transaction.exception.InvalidCursorException;
 import com.hsbc.transaction.exception.InvalidTransactionException;
 import com.hsbc.transaction.exception.InvalidTransactionStateException;
 import com.hsbc.transaction.exception.TransactionNotFoundException;
+import com.hsbc.transaction.journal.Journal;
 import com.hsbc.transaction.model.*;
+import com.hsbc.transaction.store.IdempotencyStore;
+import com.hsbc.transaction.store.ParallelQueryExecutor;
+import com.hsbc.transaction.store.TransactionStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -151,6 +162,194 @@ class TransactionServiceImplTest {
             assertTrue(response.isFirst());
             assertFalse(response.isLast());
         }
+
+        @Test
+        @DisplayName("Should combine indexed and residual filters")
+        void shouldCombineIndexedAndResidualFilters() {
+            // Arrange
+            TransactionFilter filter = TransactionFilter.builder()
+                    .accountNo("ACC001")
+                    .direction(TransactionDirection.CREDIT)
+                    .minAmount(new BigDecimal("150.00"))
+                    .build();
+
+            // Act
+            PageResponse<Transaction> response = transactionService.queryTransactions(filter, 0, 10);
+
+            // Assert
+            assertEquals(1, response.getTotalElements());
+            assertEquals(new BigDecimal("200.00"), response.getContent().get(0).getAmount());
+        }
+
+        @Test
+        @DisplayName("Should reflect status updates in status filter")
+        void shouldReflectStatusUpdatesInStatusFilter() {
+            // Arrange
+            Transaction created = createTestTransaction("ACC003", "50.00", TransactionDirection.DEBIT);
+            transactionService.updateTransactionStatus(created.getTransactionId(), TransactionStatus.SUCCESS);
+            TransactionFilter filter = TransactionFilter.builder()
+                    .status(TransactionStatus.SUCCESS)
+                    .build();
+
+            // Act
+            PageResponse<Transaction> response = transactionService.queryTransactions(filter, 0, 10);
+
+            // Assert
+            assertEquals(1, response.getTotalElements());
+            assertEquals(created.getTransactionId(), response.getContent().get(0).getTransactionId());
+        }
+
+        @Test
+        @DisplayName("Should clamp out-of-range page to the last page")
+        void shouldClampOutOfRangePage() {
+            // Act
+            PageResponse<Transaction> response = transactionService.queryTransactions(null, 5, 2);
+
+            // Assert
+            assertEquals(1, response.getPageNumber());
+            assertEquals(1, response.getContent().size());
+            assertTrue(response.isLast());
+        }
+    }
+
+    @Nested
+    @DisplayName("Parallel Query Tests")
+    class ParallelQueryTests {
+        private TransactionServiceImpl sequential;
+        private TransactionServiceImpl parallel;
+        private ParallelQueryExecutor executor;
+
+        @BeforeEach
+        void setUp() {
+            TransactionStore store = new TransactionStore();
+            LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+            for (int i = 0; i < 500; i++) {
+                store.insert(Transaction.builder()
+                        .transactionId("TX" + i)
+                        .accountNo("ACC00" + i % 5)
+                        .amount(new BigDecimal(i % 100 + ".00"))
+                        .direction(i % 2 == 0 ? TransactionDirection.DEBIT : TransactionDirection.CREDIT)
+                        .status(i % 3 == 0 ? TransactionStatus.RUNNING : TransactionStatus.SUCCESS)
+                        .timestamp(start.plusMinutes(i * 37L))
+                        .build());
+            }
+            store.sealBefore(start.plusDays(8));
+            executor = new ParallelQueryExecutor(4, 1);
+            sequential = new TransactionServiceImpl(store, Journal.DISABLED);
+            parallel = new TransactionServiceImpl(store, Journal.DISABLED, new SimpleMeterRegistry(),
+                    new IdempotencyStore(), executor);
+        }
+
+        @AfterEach
+        void tearDown() {
+            executor.close();
+        }
+
+        @Test
+        @DisplayName("Should return the same pages counted in parallel as sequentially")
+        void shouldMatchSequentialPages() {
+            // Arrange
+            TransactionFilter filter = TransactionFilter.builder()
+                    .direction(TransactionDirection.CREDIT)
+                    .minAmount(new BigDecimal("40.00"))
+                    .build();
+
+            for (int page : new int[]{0, 3, 7, 14, 50}) {
+                // Act
+                PageResponse<Transaction> expected = sequential.queryTransactions(filter, page, 10);
+                PageResponse<Transaction> actual = parallel.queryTransactions(filter, page, 10);
+
+                // Assert
+                assertEquals(expected.getTotalElements(), actual.getTotalElements());
+                assertEquals(expected.getPageNumber(), actual.getPageNumber());
+                assertEquals(expected.getContent(), actual.getContent());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Cursor Query Tests")
+    class CursorQueryTests {
+
+        @BeforeEach
+        void setUp() {
+            for (int i = 0; i < 5; i++) {
+                transactionService.createTransaction(Transaction.builder()
+                        .accountNo("ACC001")
+                        .amount(new BigDecimal(i + 1))
+                        .direction(TransactionDirection.DEBIT)
+                        .build());
+            }
+        }
+
+        @Test
+        @DisplayName("Should walk all pages by cursor without duplicates")
+        void shouldWalkAllPagesByCursor() {
+            // Act
+            PageResponse<Transaction> firstPage = transactionService.queryTransactionsAfter(null, null, 2);
+            PageResponse<Transaction> secondPage = transactionService.queryTransactionsAfter(null, firstPage.getNextCursor(), 2);
+            PageResponse<Transaction> lastPage = transactionService.queryTransactionsAfter(null, secondPage.getNextCursor(), 2);
+
+            // Assert
+            assertTrue(firstPage.isFirst());
+            assertEquals(5, firstPage.getTotalElements());
+            assertNotNull(firstPage.getNextCursor());
+            assertEquals(2, secondPage.getContent().size());
+            assertEquals(1, lastPage.getContent().size());
+            assertTrue(lastPage.isLast());
+            assertNull(lastPage.getNextCursor());
+            long distinct = java.util.stream.Stream.of(firstPage, secondPage, lastPage)
+                    .flatMap(p -> p.getContent().stream())
+                    .map(Transaction::getTransactionId)
+                    .distinct()
+                    .count();
+            assertEquals(5, distinct);
+        }
+
+        @Test
+        @DisplayName("Should not shift results when new transactions arrive")
+        void shouldNotShiftWhenNewTransactionsArrive() throws InterruptedException {
+            // Arrange
+            PageResponse<Transaction> firstPage = transactionService.queryTransactionsAfter(null, "", 2);
+            PageResponse<Transaction> expected = transactionService.queryTransactionsAfter(null, firstPage.getNextCursor(), 2);
+
+            // Act
+            Thread.sleep(2); // make sure the new transaction is strictly newer than the cursor position
+            transactionService.createTransaction(Transaction.builder()
+                    .accountNo("ACC001")
+                    .amount(BigDecimal.TEN)
+                    .direction(TransactionDirection.DEBIT)
+                    .build());
+            PageResponse<Transaction> secondPage = transactionService.queryTransactionsAfter(null, firstPage.getNextCursor(), 2);
+
+            // Assert
+            assertEquals(expected.getContent(), secondPage.getContent());
+        }
+
+        @Test
+        @DisplayName("Should report unknown totals for residual filters")
+        void shouldReportUnknownTotalsForResidualFilters() {
+            // Arrange
+            TransactionFilter filter = TransactionFilter.builder()
+                    .accountNo("ACC001")
+                    .minAmount(new BigDecimal("3"))
+                    .build();
+
+            // Act
+            PageResponse<Transaction> response = transactionService.queryTransactionsAfter(filter, null, 10);
+
+            // Assert
+            assertEquals(3, response.getContent().size());
+            assertEquals(-1, response.getTotalElements());
+            assertTrue(response.isLast());
+        }
+
+        @Test
+        @DisplayName("Should reject malformed cursor")
+        void shouldRejectMalformedCursor() {
+            assertThrows(InvalidCursorException.class, () ->
+                transactionService.queryTransactionsAfter(null, "not-a-cursor", 10));
+        }
     }
 
     @Nested
@@ -226,4 +425,80 @@ class TransactionServiceImplTest {
                 transactionService.deleteTransaction("invalid-id"));
         }
     }
-} 
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Bulk Create Tests")
+    class BulkCreateTests {
+
+        @Test
+        @DisplayName("Should create valid items and report invalid ones individually")
+        void shouldReportEachItem() {
+            // Arrange
+            transactionService.createTransaction(testTransaction);
+            List<Transaction> transactions = Arrays.asList(
+                    Transaction.builder()
+                            .accountNo("ACC001")
+                            .amount(new BigDecimal("10.00"))
+                            .direction(TransactionDirection.CREDIT)
+                            .build(),
+                    Transaction.builder()
+                            .accountNo("ACC001")
+                            .amount(new BigDecimal("-1.00"))
+                            .direction(TransactionDirection.CREDIT)
+                            .build(),
+                    Transaction.builder()
+                            .transactionId(testTransaction.getTransactionId())
+                            .accountNo("ACC001")
+                            .amount(BigDecimal.ONE)
+                            .direction(TransactionDirection.DEBIT)
+                            .build());
+
+            // Act
+            List<BulkItemResult> results = transactionService.createTransactions(transactions, 100);
+
+            // Assert
+            assertEquals(3, results.size());
+            assertEquals(100, results.get(0).getIndex());
+            assertTrue(results.get(0).isCreated());
+            assertEquals(TransactionStatus.RUNNING,
+                    transactionService.getTransactionOrThrow(results.get(0).getTransactionId()).getStatus());
+            assertFalse(results.get(1).isCreated());
+            assertEquals("Amount must be greater than zero", results.get(1).getError());
+            assertEquals(102, results.get(2).getIndex());
+            assertFalse(results.get(2).isCreated());
+            assertEquals(testTransaction.getTransactionId(), results.get(2).getTransactionId());
+            assertEquals(new BigDecimal("100.00"),
+                    transactionService.getTransactionOrThrow(testTransaction.getTransactionId()).getAmount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Export Tests")
+    class ExportTests {
+
+        @Test
+        @DisplayName("Should hand every matching transaction to the sink, newest first")
+        void shouldExportMatchingTransactions() throws InterruptedException {
+            // Arrange
+            List<Transaction> created = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                created.add(transactionService.createTransaction(Transaction.builder()
+                        .accountNo(i % 2 == 0 ? "ACC001" : "ACC002")
+                        .amount(new BigDecimal(i + 1))
+                        .direction(TransactionDirection.CREDIT)
+                        .build()));
+                Thread.sleep(2);
+            }
+            List<Transaction> exported = new ArrayList<>();
+
+            // Act
+            long count = transactionService.exportTransactions(
+                    TransactionFilter.builder().accountNo("ACC001").minAmount(new BigDecimal("2")).build(),
+                    exported::add);
+
+            // Assert
+            assertEquals(2, count);
+            assertEquals(List.of(created.get(4), created.get(2)), exported);
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.hsbc.transaction.service.integration;
 
+import com.hsbc.transaction.exception.DuplicateTransactionException;
+import com.hsbc.transaction.exception.IdempotencyKeyReusedException;
 import com.hsbc.transaction.exception.InsufficientBalanceException;
 import com.hsbc.transaction.model.Transaction;
 import com.hsbc.transaction.model.TransactionDirection;
 import com.hsbc.transaction.model.TransactionStatus;
 import com.hsbc.transaction.service.AccountService;
+import com.hsbc.transaction.service.BusinessService;
 import com.hsbc.transaction.service.TransactionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -20,10 +23,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import static com.hsbc.transaction.model.Transaction.revertTransaction;
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +43,9 @@ class AccountTransactionIntegrationTest {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private BusinessService businessService;
+
     @BeforeEach
     void setUp() {
         // Initialize test accounts with initial balances
@@ -269,6 +277,7 @@ class AccountTransactionIntegrationTest {
             CountDownLatch latch = new CountDownLatch(numberOfThreads);
             BigDecimal largeAmount = new BigDecimal("300.00");
             List<Exception> exceptions = new ArrayList<>();
+            List<Transaction> failed = new ArrayList<>();
 
             // Act
             for (int i = 0; i < numberOfThreads; i++) {
@@ -283,29 +292,28 @@ class AccountTransactionIntegrationTest {
                         accountService.updateAccountBalance(created);
                         transactionService.updateTransactionStatus(created.getTransactionId(), TransactionStatus.SUCCESS);
                     } catch (InsufficientBalanceException e) {
+                        // A rejected debit leaves the balance untouched, so there is nothing to revert
                         synchronized (exceptions) {
                             exceptions.add(e);
+                            failed.add(created);
                         }
                         transactionService.updateTransactionStatus(created.getTransactionId(), TransactionStatus.FAILED);
-                        // Revert the transaction
-                        Transaction revertedTransaction = revertTransaction(created);
-                        transactionService.createTransaction(revertedTransaction);
-                        accountService.updateAccountBalance(revertedTransaction);
-                        transactionService.updateTransactionStatus(revertedTransaction.getTransactionId(), TransactionStatus.SUCCESS);
-
                     } finally {
                         latch.countDown();
                     }
                 });
             }
 
-            latch.await(10, TimeUnit.SECONDS);
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
             executor.shutdown();
 
-            // Assert
-            assertTrue(exceptions.size() > 0, "Should have some failed transactions");
-            assertEquals(new BigDecimal("500.00"), accountService.getBalance("ACC002"), 
-                "Balance should remain unchanged after failed transactions");
+            // Assert: only one 300.00 debit fits in 500.00, whatever order the threads ran in
+            assertEquals(numberOfThreads - 1, exceptions.size());
+            assertEquals(new BigDecimal("200.00"), accountService.getBalance("ACC002"));
+            for (Transaction transaction : failed) {
+                assertEquals(TransactionStatus.FAILED,
+                        transactionService.getTransactionOrThrow(transaction.getTransactionId()).getStatus());
+            }
         }
     }
 
@@ -526,4 +534,68 @@ class AccountTransactionIntegrationTest {
                     transactionService.getTransactionOrThrow(tx.getTransactionId()).getStatus()));
         }
     }
-} 
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Idempotency Tests")
+    class IdempotencyTests {
+
+        private Transaction leg(String accountNo, String amount, TransactionDirection direction) {
+            return Transaction.builder()
+                    .accountNo(accountNo)
+                    .amount(new BigDecimal(amount))
+                    .direction(direction)
+                    .build();
+        }
+
+        @Test
+        @DisplayName("Should return the original transaction to a retry with the same key")
+        void shouldReplayCreateTransaction() {
+            // Arrange
+            String key = UUID.randomUUID().toString();
+            Transaction created = transactionService.createTransaction(
+                    leg("ACC001", "10.00", TransactionDirection.CREDIT), key);
+
+            // Act
+            Transaction retried = transactionService.createTransaction(
+                    leg("ACC001", "10.00", TransactionDirection.CREDIT), key);
+
+            // Assert
+            assertEquals(created.getTransactionId(), retried.getTransactionId());
+            assertThrows(IdempotencyKeyReusedException.class, () -> transactionService.createTransaction(
+                    leg("ACC001", "20.00", TransactionDirection.CREDIT), key));
+        }
+
+        @Test
+        @DisplayName("Should reject a supplied transaction ID that already exists as a conflict")
+        void shouldRejectDuplicateTransactionId() {
+            // Arrange
+            Transaction created = transactionService.createTransaction(
+                    leg("ACC001", "10.00", TransactionDirection.CREDIT));
+            Transaction duplicate = leg("ACC001", "10.00", TransactionDirection.CREDIT);
+            duplicate.setTransactionId(created.getTransactionId());
+
+            // Act & Assert
+            assertThrows(DuplicateTransactionException.class, () -> transactionService.createTransaction(duplicate));
+        }
+
+        @Test
+        @DisplayName("Should apply a combine once per key, and again after a failed attempt")
+        void shouldApplyCombineOncePerKey() {
+            // Arrange
+            String key = UUID.randomUUID().toString();
+            Supplier<List<Transaction>> transfer = () -> List.of(
+                    leg("ACC002", "600.00", TransactionDirection.DEBIT),
+                    leg("ACC001", "600.00", TransactionDirection.CREDIT));
+            assertThrows(InsufficientBalanceException.class, () -> businessService.combine(transfer.get(), key));
+            accountService.credit("ACC002", new BigDecimal("100.00"));
+
+            // Act
+            businessService.combine(transfer.get(), key);
+            businessService.combine(transfer.get(), key);
+
+            // Assert
+            assertEquals(new BigDecimal("1600.00"), accountService.getBalance("ACC001"));
+            assertEquals(new BigDecimal("0.00"), accountService.getBalance("ACC002"));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.hsbc.transaction.service.integration;
+
+import com.hsbc.transaction.journal.FileJournal;
+import com.hsbc.transaction.journal.FileJournal.Durability;
+import com.hsbc.transaction.journal.JournalReplayer;
+import com.hsbc.transaction.journal.JournalTransactionManager;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionFilter;
+import com.hsbc.transaction.service.impl.AccountServiceImpl;
+import com.hsbc.transaction.service.impl.BusinessServiceImpl;
+import com.hsbc.transaction.service.impl.TransactionServiceImpl;
+import com.hsbc.transaction.store.AccountLocks;
+import com.hsbc.transaction.store.BalanceStore;
+import com.hsbc.transaction.store.FixedPointBalanceStore;
+import com.hsbc.transaction.store.TransactionStore;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the posting, combine, journal and export paths on virtual threads, as the {@code virtual} profile does, and
+ * checks with JFR that none of them blocks while pinned to its carrier. Many threads share few accounts and a
+ * journal that waits for every fsync, so they contend on the locks and park on the group commit.
+ */
+class VirtualThreadPinningTest {
+    private static final int ACCOUNTS = 200;
+    private static final int TASKS = 2_000;
+
+    @TempDir
+    Path directory;
+
+    private FileJournal journal;
+    private AccountServiceImpl accountService;
+    private TransactionServiceImpl transactionService;
+    private BusinessServiceImpl businessService;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        BalanceStore balanceStore = new FixedPointBalanceStore(2);
+        TransactionStore transactionStore = new TransactionStore();
+        journal = FileJournal.open(directory.resolve("journal"), 0, Durability.FSYNC, Duration.ZERO, 64, 1 << 20,
+                new JournalReplayer(balanceStore, transactionStore));
+        accountService = new AccountServiceImpl(balanceStore, journal);
+        transactionService = new TransactionServiceImpl(transactionStore, journal);
+        businessService = new BusinessServiceImpl();
+        ReflectionTestUtils.setField(businessService, "accountService", accountService);
+        ReflectionTestUtils.setField(businessService, "transactionService", transactionService);
+        ReflectionTestUtils.setField(businessService, "accountLocks", new AccountLocks(16));
+        transactionTemplate = new TransactionTemplate(new JournalTransactionManager(journal));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+    }
+
+    private void work(int task) {
+        String accountNo = "ACC" + task % ACCOUNTS;
+        String counterparty = "ACC" + (task + 1) % ACCOUNTS;
+        BigDecimal amount = new BigDecimal("1.00");
+        switch (task % 4) {
+            case 0 -> accountService.credit(accountNo, amount);
+            case 1 -> transactionService.createTransaction(Transaction.builder()
+                    .accountNo(accountNo)
+                    .amount(amount)
+                    .direction(TransactionDirection.CREDIT)
+                    .build());
+            case 2 -> transactionTemplate.executeWithoutResult(status -> businessService.combine(List.of(
+                    Transaction.builder().accountNo(accountNo).amount(amount)
+                            .direction(TransactionDirection.DEBIT).build(),
+                    Transaction.builder().accountNo(counterparty).amount(amount)
+                            .direction(TransactionDirection.CREDIT).build())));
+            default -> transactionService.exportTransactions(
+                    TransactionFilter.builder().accountNo(accountNo).build(), transaction -> { });
+        }
+    }
+
+    @Test
+    @DisplayName("Should not pin carrier threads on the service paths")
+    void shouldNotPinCarriers() throws Exception {
+        // Arrange
+        Path recordingFile = directory.resolve("pinning.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            // Act
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> accounts = new ArrayList<>();
+                for (int i = 0; i < ACCOUNTS; i++) {
+                    String accountNo = "ACC" + i;
+                    accounts.add(executor.submit(
+                            () -> accountService.createAccount(accountNo, new BigDecimal("1000.00"))));
+                }
+                for (Future<?> account : accounts) {
+                    account.get();
+                }
+                List<Future<?>> tasks = new ArrayList<>();
+                for (int i = 0; i < TASKS; i++) {
+                    int task = i;
+                    tasks.add(executor.submit(() -> work(task)));
+                }
+                for (Future<?> task : tasks) {
+                    task.get();
+                }
+            }
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        // Assert
+        List<String> pinned = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(recordingFile)) {
+            if (event.getStackTrace() != null && event.getStackTrace().getFrames().stream()
+                    .map(RecordedFrame::getMethod)
+                    .anyMatch(method -> method.getType().getName().startsWith("com.hsbc.transaction"))) {
+                pinned.add(event.getStackTrace().getFrames().toString());
+            }
+        }
+        assertEquals(List.of(), pinned);
+        assertEquals(TASKS / 4 * 3, transactionService.exportTransactions(null, transaction -> { }));
+    }
+}
@@ -0,0 +1,72 @@
+package com.hsbc.transaction.store;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountLocksTest {
+
+    private AccountLocks locks;
+
+    @BeforeEach
+    void setUp() {
+        locks = new AccountLocks(100);
+    }
+
+    @Test
+    @DisplayName("Should round stripes up to a power of two")
+    void shouldRoundStripes() {
+        assertEquals(128, locks.getStripes());
+    }
+
+    @Test
+    @DisplayName("Should not deadlock when callers list the same accounts in opposite orders")
+    void shouldNotDeadlockOnOppositeOrder() throws InterruptedException {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch done = new CountDownLatch(2);
+        AtomicInteger inside = new AtomicInteger();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        List<List<String>> orders = List.of(List.of("ACC001", "ACC002"), List.of("ACC002", "ACC001"));
+
+        // Act
+        for (List<String> order : orders) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    try (AccountLocks.Held ignored = locks.lockAll(order)) {
+                        if (inside.incrementAndGet() > 1) {
+                            overlapped.set(true);
+                        }
+                        inside.decrementAndGet();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        // Assert
+        assertTrue(done.await(30, TimeUnit.SECONDS), "callers deadlocked");
+        assertFalse(overlapped.get());
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should let a thread lock accounts it already holds")
+    void shouldBeReentrant() {
+        // Act & Assert
+        try (AccountLocks.Held outer = locks.lockAll(List.of("ACC001", "ACC001"));
+             AccountLocks.Held inner = locks.lockAll(List.of("ACC001"))) {
+            assertNotNull(inner);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.hsbc.transaction.store;
+
+import com.hsbc.transaction.exception.AccountAlwaysExistException;
+import com.hsbc.transaction.exception.AccountNotFoundException;
+import com.hsbc.transaction.exception.BalanceOverflowException;
+import com.hsbc.transaction.exception.InsufficientBalanceException;
+import com.hsbc.transaction.exception.InvalidAmountException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedPointBalanceStoreTest {
+
+    private FixedPointBalanceStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new FixedPointBalanceStore(2);
+        store.create("ACC001", new BigDecimal("1000.00"));
+    }
+
+    @Nested
+    @DisplayName("Posting Tests")
+    class PostingTests {
+
+        @Test
+        @DisplayName("Should credit and debit in minor units")
+        void shouldCreditAndDebit() {
+            // Act
+            store.credit("ACC001", new BigDecimal("0.05"));
+            store.debit("ACC001", new BigDecimal("500"));
+
+            // Assert
+            assertEquals(new BigDecimal("500.05"), store.getBalance("ACC001"));
+        }
+
+        @Test
+        @DisplayName("Should reject debit beyond balance and keep it unchanged")
+        void shouldRejectInsufficientDebit() {
+            assertThrows(InsufficientBalanceException.class, () ->
+                store.debit("ACC001", new BigDecimal("1000.01")));
+            assertEquals(new BigDecimal("1000.00"), store.getBalance("ACC001"));
+        }
+
+        @Test
+        @DisplayName("Should reject amounts finer than the currency scale")
+        void shouldRejectAmountsFinerThanScale() {
+            assertThrows(InvalidAmountException.class, () ->
+                store.credit("ACC001", new BigDecimal("0.001")));
+        }
+
+        @Test
+        @DisplayName("Should detect balance overflow")
+        void shouldDetectOverflow() {
+            // Arrange
+            BigDecimal nearMax = store.toDecimal(Long.MAX_VALUE - 100_000);
+            store.create("BIG", nearMax);
+
+            // Act & Assert
+            assertThrows(BalanceOverflowException.class, () -> store.credit("BIG", new BigDecimal("1001.00")));
+            assertEquals(nearMax, store.getBalance("BIG"));
+        }
+
+        @Test
+        @DisplayName("Should throw for unknown account")
+        void shouldThrowForUnknownAccount() {
+            assertThrows(AccountNotFoundException.class, () -> store.credit("INVALID_ACC", BigDecimal.ONE));
+            assertThrows(AccountNotFoundException.class, () -> store.getBalance("INVALID_ACC"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Lifecycle Tests")
+    class LifecycleTests {
+
+        @Test
+        @DisplayName("Should reject duplicate account")
+        void shouldRejectDuplicateAccount() {
+            assertThrows(AccountAlwaysExistException.class, () -> store.create("ACC001", BigDecimal.ZERO));
+        }
+
+        @Test
+        @DisplayName("Should allow re-creating a deleted account")
+        void shouldRecreateDeletedAccount() {
+            // Act
+            store.delete("ACC001");
+
+            // Assert
+            assertThrows(AccountNotFoundException.class, () -> store.getBalance("ACC001"));
+            assertThrows(AccountNotFoundException.class, () -> store.delete("ACC001"));
+            store.create("ACC001", new BigDecimal("5"));
+            assertEquals(new BigDecimal("5.00"), store.getBalance("ACC001"));
+        }
+
+        @Test
+        @DisplayName("Should keep balances across table growth")
+        void shouldKeepBalancesAcrossGrowth() {
+            // Act
+            for (int i = 0; i < 10_000; i++) {
+                store.create("GROW_" + i, BigDecimal.valueOf(i));
+            }
+
+            // Assert
+            for (int i = 0; i < 10_000; i += 997) {
+                assertEquals(BigDecimal.valueOf(i * 100L, 2), store.getBalance("GROW_" + i));
+            }
+            assertEquals(new BigDecimal("1000.00"), store.getBalance("ACC001"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should not lose concurrent postings while the table grows")
+    void shouldNotLoseConcurrentPostings() throws InterruptedException {
+        // Arrange
+        int threads = 8;
+        int postingsPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch latch = new CountDownLatch(threads + 1);
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                try {
+                    for (int i = 0; i < postingsPerThread; i++) {
+                        store.credit("ACC001", new BigDecimal("0.01"));
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        executor.submit(() -> {
+            try {
+                for (int i = 0; i < 5_000; i++) {
+                    store.create("NEW_" + i, BigDecimal.ZERO);
+                }
+            } finally {
+                latch.countDown();
+            }
+        });
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        // Assert
+        assertEquals(new BigDecimal("1800.00"), store.getBalance("ACC001"));
+    }
+}
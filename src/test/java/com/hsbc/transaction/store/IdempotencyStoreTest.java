@@ -0,0 +1,164 @@
+package com.hsbc.transaction.store;
+
+import com.hsbc.transaction.exception.IdempotencyKeyReusedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore();
+    }
+
+    @Test
+    @DisplayName("Should return the first result to a retry without running the call again")
+    void shouldReplayFirstResult() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        int first = store.execute("key", "request", calls::incrementAndGet);
+        int retried = store.execute("key", "request", calls::incrementAndGet);
+
+        // Assert
+        assertEquals(1, first);
+        assertEquals(1, retried);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should refuse a key reused for a different request")
+    void shouldRefuseReusedKey() {
+        // Arrange
+        store.execute("key", "request", () -> 1);
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyReusedException.class, () -> store.execute("key", "other request", () -> 2));
+    }
+
+    @Test
+    @DisplayName("Should run concurrent calls with the same key once and give them all its result")
+    void shouldRunConcurrentCallsOnce() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return store.execute("key", "request", () -> {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return calls.incrementAndGet();
+                });
+            }));
+        }
+        start.countDown();
+        List<Integer> results = new ArrayList<>();
+        try {
+            for (Future<Integer> future : futures) {
+                results.add(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        assertEquals(1, calls.get());
+        assertEquals(List.of(1, 1, 1, 1), results);
+    }
+
+    @Test
+    @DisplayName("Should forget the key when the call fails, so a retry runs again")
+    void shouldForgetFailedCall() {
+        // Arrange
+        assertThrows(IllegalArgumentException.class, () -> store.execute("key", "request", () -> {
+            throw new IllegalArgumentException("refused");
+        }));
+
+        // Act
+        int retried = store.execute("key", "request", () -> 2);
+
+        // Assert
+        assertEquals(2, retried);
+    }
+
+    @Test
+    @DisplayName("Should only keep a result once its transaction commits")
+    void shouldForgetRolledBackResult() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> synchronizations;
+        try {
+            store.execute("key", "request", () -> 1);
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Act
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        int retried = store.execute("key", "request", () -> 2);
+
+        // Assert
+        assertEquals(2, retried);
+    }
+
+    @Test
+    @DisplayName("Should not evict a call still in flight when the key limit is reached")
+    void shouldKeepInFlightCallBeyondLimit() throws Exception {
+        // Arrange
+        store = new IdempotencyStore(1, Duration.ofHours(1));
+        AtomicInteger calls = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> synchronizations;
+        try {
+            store.execute("key", "request", calls::incrementAndGet);
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        for (int i = 0; i < 10; i++) {
+            store.execute("other-" + i, "request", () -> 0);
+        }
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // Act
+        try {
+            Future<Integer> retried = executor.submit(() -> store.execute("key", "request", calls::incrementAndGet));
+            assertThrows(TimeoutException.class, () -> retried.get(200, TimeUnit.MILLISECONDS));
+            synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+            // Assert
+            assertEquals(1, retried.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.hsbc.transaction.store;
+
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionFilter;
+import com.hsbc.transaction.model.TransactionStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelQueryExecutorTest {
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final TransactionFilter LARGE_AMOUNTS = TransactionFilter.builder()
+            .minAmount(new BigDecimal("50.00"))
+            .build();
+
+    private TransactionStore store;
+    private ParallelQueryExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        store = new TransactionStore();
+        executor = new ParallelQueryExecutor(4, 10);
+        // 100 transactions over five days, the first three days sealed
+        for (int i = 0; i < 100; i++) {
+            store.insert(Transaction.builder()
+                    .transactionId("TX" + i)
+                    .accountNo("ACC00" + i % 3)
+                    .amount(new BigDecimal(i + ".00"))
+                    .direction(TransactionDirection.DEBIT)
+                    .status(i % 4 == 0 ? TransactionStatus.RUNNING : TransactionStatus.SUCCESS)
+                    .timestamp(BASE_TIME.plusHours(i + i / 20 * 4))
+                    .build());
+        }
+        store.sealBefore(BASE_TIME.plusDays(3));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    @DisplayName("Should count the matches of each segment in segment order")
+    void shouldCountEachSegment() {
+        // Arrange
+        QueryPlan plan = store.plan(LARGE_AMOUNTS);
+
+        // Act
+        ParallelQueryExecutor.Counts counts = executor.count(plan,
+                t -> t.getAmount().compareTo(new BigDecimal("50.00")) >= 0);
+
+        // Assert
+        assertEquals(plan.partitionCount(), counts.matched().length);
+        assertEquals(50, counts.total());
+        assertEquals(0, counts.matched()[counts.matched().length - 1]);
+        assertTrue(counts.scanned() >= 50);
+    }
+
+    @Test
+    @DisplayName("Should only run plans that cannot count themselves and are large enough")
+    void shouldChooseByCost() {
+        // Assert
+        assertTrue(executor.shouldRun(store.plan(LARGE_AMOUNTS)));
+        assertFalse(executor.shouldRun(store.plan(null)));
+        assertFalse(new ParallelQueryExecutor(4, 1_000).shouldRun(store.plan(LARGE_AMOUNTS)));
+        assertFalse(new ParallelQueryExecutor().shouldRun(store.plan(LARGE_AMOUNTS)));
+    }
+}
@@ -0,0 +1,193 @@
+package com.hsbc.transaction.store;
+
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionFilter;
+import com.hsbc.transaction.model.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SealedRowsTest {
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    private SealedRows rows;
+
+    @BeforeEach
+    void setUp() {
+        rows = new SealedRows(null, List.of(
+                transaction("TX1", "ACC001", "10.50", TransactionDirection.DEBIT, TransactionStatus.SUCCESS, BASE_TIME),
+                transaction("TX2", "ACC002", "7.125", TransactionDirection.CREDIT, TransactionStatus.FAILED,
+                        BASE_TIME.plusNanos(123_456_789)),
+                transaction("TX3", "ACC001", "300", TransactionDirection.CREDIT, TransactionStatus.SUCCESS,
+                        BASE_TIME.plusMinutes(5)),
+                transaction("TX4", "ACC003", "0.01", TransactionDirection.DEBIT, TransactionStatus.REFUNDED,
+                        BASE_TIME.plusMinutes(10))));
+    }
+
+    private static Transaction transaction(String id, String accountNo, String amount,
+                                           TransactionDirection direction, TransactionStatus status,
+                                           LocalDateTime timestamp) {
+        return Transaction.builder()
+                .transactionId(id)
+                .accountNo(accountNo)
+                .amount(new BigDecimal(amount))
+                .description("Payment " + accountNo)
+                .direction(direction)
+                .status(status)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    private static List<String> ids(QueryPlan plan) {
+        List<String> ids = new ArrayList<>();
+        plan.rows().forEach(t -> ids.add(t.getTransactionId()));
+        return ids;
+    }
+
+    @Nested
+    @DisplayName("Column Tests")
+    class ColumnTests {
+
+        @Test
+        @DisplayName("Should build rows back exactly as they were sealed")
+        void shouldBuildRowsBackExactly() {
+            Transaction row = rows.get("TX2");
+
+            assertEquals(transaction("TX2", "ACC002", "7.125", TransactionDirection.CREDIT, TransactionStatus.FAILED,
+                    BASE_TIME.plusNanos(123_456_789)), row);
+            assertEquals(new BigDecimal("300"), rows.get("TX3").getAmount());
+            assertEquals(new BigDecimal("10.50"), rows.get("TX1").getAmount());
+            assertNull(rows.get("TX9"));
+        }
+
+        @Test
+        @DisplayName("Should keep an amount too large for the amount column")
+        void shouldKeepWideAmount() {
+            SealedRows wide = new SealedRows(rows, List.of(transaction("TX5", "ACC001", "92233720368547758.07",
+                    TransactionDirection.DEBIT, TransactionStatus.SUCCESS, BASE_TIME.plusMinutes(1))));
+
+            assertEquals(new BigDecimal("92233720368547758.07"), wide.get("TX5").getAmount());
+            assertEquals(new BigDecimal("7.125"), wide.get("TX2").getAmount());
+            assertEquals(List.of("TX5"), ids(wide.plan(TransactionFilter.builder()
+                    .minAmount(new BigDecimal("1000")).build())));
+        }
+
+        @Test
+        @DisplayName("Should merge newly settled rows in key order and drop removed ones")
+        void shouldMergeNewRows() {
+            rows.remove("TX3");
+
+            SealedRows merged = new SealedRows(rows, List.of(
+                    transaction("TX5", "ACC004", "5.00", TransactionDirection.DEBIT, TransactionStatus.SUCCESS,
+                            BASE_TIME.plusMinutes(7))));
+
+            assertEquals(4, merged.size());
+            assertEquals(List.of("TX4", "TX5", "TX2", "TX1"), ids(merged.plan(null)));
+            assertEquals("Payment ACC004", merged.get("TX5").getDescription());
+            assertEquals("Payment ACC001", merged.get("TX1").getDescription());
+            assertNull(merged.get("TX3"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Query Tests")
+    class QueryTests {
+
+        @Test
+        @DisplayName("Should filter on the columns so every row yielded matches")
+        void shouldFilterOnColumns() {
+            QueryPlan plan = rows.plan(TransactionFilter.builder()
+                    .direction(TransactionDirection.CREDIT)
+                    .minAmount(new BigDecimal("7.125"))
+                    .maxAmount(new BigDecimal("300.00"))
+                    .build());
+
+            assertTrue(plan.isCovering());
+            assertEquals(List.of("TX3", "TX2"), ids(plan));
+        }
+
+        @Test
+        @DisplayName("Should combine account, status and date range")
+        void shouldCombineAccountStatusAndDates() {
+            QueryPlan plan = rows.plan(TransactionFilter.builder()
+                    .accountNo("ACC001")
+                    .status(TransactionStatus.SUCCESS)
+                    .fromDate(BASE_TIME)
+                    .toDate(BASE_TIME.plusMinutes(4))
+                    .build());
+
+            assertEquals("account", plan.getIndexName());
+            assertEquals(List.of("TX1"), ids(plan));
+        }
+
+        @Test
+        @DisplayName("Should only build the rows a cursor is asked for")
+        void shouldBuildOnlyRequestedRows() {
+            QueryPlan.Cursor cursor = rows.plan(null).cursor();
+
+            assertTrue(cursor.advance());
+            assertEquals("TX4", cursor.transactionId());
+            assertEquals(BASE_TIME.plusMinutes(10), cursor.timestamp());
+            assertTrue(cursor.advance());
+            assertSame(cursor.row(), cursor.row());
+            assertEquals("TX3", cursor.row().getTransactionId());
+        }
+
+        @Test
+        @DisplayName("Should select matching rows across many blocks")
+        void shouldSelectAcrossBlocks() {
+            List<Transaction> settled = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                settled.add(transaction("BULK" + i, "ACC00" + i % 7, (i % 500) + ".00",
+                        i % 3 == 0 ? TransactionDirection.CREDIT : TransactionDirection.DEBIT,
+                        i % 2 == 0 ? TransactionStatus.SUCCESS : TransactionStatus.FAILED, BASE_TIME.plusSeconds(i)));
+            }
+            SealedRows bulk = new SealedRows(null, settled);
+            bulk.remove("BULK9600");
+            TransactionFilter filter = TransactionFilter.builder()
+                    .direction(TransactionDirection.CREDIT)
+                    .status(TransactionStatus.SUCCESS)
+                    .minAmount(new BigDecimal("100"))
+                    .maxAmount(new BigDecimal("199.99"))
+                    .build();
+
+            List<String> expected = new ArrayList<>();
+            for (int i = settled.size() - 1; i >= 0; i--) {
+                Transaction t = settled.get(i);
+                if (i != 9600 && t.getDirection() == TransactionDirection.CREDIT
+                        && t.getStatus() == TransactionStatus.SUCCESS
+                        && t.getAmount().compareTo(new BigDecimal("100")) >= 0
+                        && t.getAmount().compareTo(new BigDecimal("199.99")) <= 0) {
+                    expected.add(t.getTransactionId());
+                }
+            }
+
+            assertEquals(expected, ids(bulk.plan(filter)));
+            List<String> afterFirst = new ArrayList<>();
+            bulk.plan(filter).rowsAfter(IndexKey.of(bulk.get(expected.get(0))))
+                    .forEach(t -> afterFirst.add(t.getTransactionId()));
+            assertEquals(expected.subList(1, expected.size()), afterFirst);
+        }
+
+        @Test
+        @DisplayName("Should track status changes in place")
+        void shouldTrackStatusChanges() {
+            rows.update("TX1", t -> t.setStatus(TransactionStatus.REFUNDED));
+
+            QueryPlan refunded = rows.plan(TransactionFilter.builder().status(TransactionStatus.REFUNDED).build());
+
+            assertEquals(2, refunded.exactCount());
+            assertEquals(List.of("TX4", "TX1"), ids(refunded));
+            assertEquals(TransactionStatus.REFUNDED, rows.get("TX1").getStatus());
+        }
+    }
+}
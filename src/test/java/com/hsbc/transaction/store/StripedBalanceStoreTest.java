@@ -0,0 +1,154 @@
+package com.hsbc.transaction.store;
+
+import com.hsbc.transaction.exception.AccountAlwaysExistException;
+import com.hsbc.transaction.exception.AccountNotFoundException;
+import com.hsbc.transaction.exception.InsufficientBalanceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedBalanceStoreTest {
+
+    private StripedBalanceStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new StripedBalanceStore(new DecimalBalanceStore(), List.of("HOT"), 6, 2);
+        store.create("HOT", new BigDecimal("100.00"));
+        store.create("ACC001", new BigDecimal("100.00"));
+    }
+
+    @Nested
+    @DisplayName("Hot Account Tests")
+    class HotAccountTests {
+
+        @Test
+        @DisplayName("Should round stripes up to a power of two")
+        void shouldRoundStripes() {
+            assertEquals(8, store.getStripes());
+            assertTrue(store.isHot("HOT"));
+            assertFalse(store.isHot("ACC001"));
+        }
+
+        @Test
+        @DisplayName("Should include striped credits in balance and debits")
+        void shouldReconcileCredits() {
+            // Act
+            store.credit("HOT", new BigDecimal("50.00"));
+            store.debit("HOT", new BigDecimal("150.00"));
+
+            // Assert
+            assertEquals(new BigDecimal("0.00"), store.getBalance("HOT"));
+            assertThrows(InsufficientBalanceException.class, () -> store.debit("HOT", new BigDecimal("0.01")));
+        }
+
+        @Test
+        @DisplayName("Should fall back for amounts finer than the scale")
+        void shouldFallBackForFineAmounts() {
+            // Act
+            store.credit("HOT", new BigDecimal("0.005"));
+            store.credit("HOT", new BigDecimal("1.00"));
+
+            // Assert
+            assertEquals(0, new BigDecimal("101.005").compareTo(store.getBalance("HOT")));
+        }
+
+        @Test
+        @DisplayName("Should reject credits to a deleted hot account and start fresh on re-create")
+        void shouldCloseCellsOnDelete() {
+            // Arrange
+            store.credit("HOT", new BigDecimal("10.00"));
+
+            // Act
+            store.delete("HOT");
+
+            // Assert
+            assertThrows(AccountNotFoundException.class, () -> store.credit("HOT", BigDecimal.ONE));
+            assertThrows(AccountNotFoundException.class, () -> store.getBalance("HOT"));
+            store.create("HOT", BigDecimal.ZERO);
+            assertEquals(0, BigDecimal.ZERO.compareTo(store.getBalance("HOT")));
+        }
+
+        @Test
+        @DisplayName("Should reject credit before the hot account exists")
+        void shouldRejectCreditBeforeCreate() {
+            // Arrange
+            StripedBalanceStore fresh = new StripedBalanceStore(new DecimalBalanceStore(), List.of("FEES"), 4, 2);
+
+            // Act & Assert
+            assertThrows(AccountNotFoundException.class, () -> fresh.credit("FEES", BigDecimal.ONE));
+            fresh.create("FEES", BigDecimal.ZERO);
+            assertThrows(AccountAlwaysExistException.class, () -> fresh.create("FEES", BigDecimal.ZERO));
+        }
+    }
+
+    @Test
+    @DisplayName("Should pass non-hot accounts straight through")
+    void shouldPassThroughNonHotAccounts() {
+        // Act
+        store.credit("ACC001", new BigDecimal("1.00"));
+        store.debit("ACC001", new BigDecimal("101.00"));
+
+        // Assert
+        assertEquals(new BigDecimal("0.00"), store.getBalance("ACC001"));
+    }
+
+    @Test
+    @DisplayName("Should never go negative under concurrent credits and debits")
+    void shouldNeverGoNegativeUnderContention() throws InterruptedException {
+        // Arrange
+        int threads = 8;
+        int operations = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch latch = new CountDownLatch(threads);
+        AtomicInteger successfulDebits = new AtomicInteger();
+        AtomicBoolean sawNegative = new AtomicBoolean();
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            boolean crediting = t % 2 == 0;
+            executor.submit(() -> {
+                try {
+                    for (int i = 0; i < operations; i++) {
+                        if (crediting) {
+                            store.credit("HOT", new BigDecimal("1.00"));
+                        } else {
+                            try {
+                                store.debit("HOT", new BigDecimal("3.00"));
+                                successfulDebits.incrementAndGet();
+                            } catch (InsufficientBalanceException ignored) {
+                                // declines are expected once the balance runs low
+                            }
+                            if (store.getBalance("HOT").signum() < 0) {
+                                sawNegative.set(true);
+                            }
+                        }
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        // Assert
+        assertFalse(sawNegative.get());
+        BigDecimal expected = new BigDecimal("100.00")
+                .add(BigDecimal.valueOf(threads / 2L * operations))
+                .subtract(BigDecimal.valueOf(successfulDebits.get() * 3L));
+        assertEquals(0, expected.compareTo(store.getBalance("HOT")));
+    }
+}
@@ -0,0 +1,179 @@
+package com.hsbc.transaction.store;
+
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionFilter;
+import com.hsbc.transaction.model.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionIndexTest {
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private TransactionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TransactionIndex();
+    }
+
+    private Transaction add(String id, String accountNo, TransactionDirection direction, int minutes) {
+        Transaction transaction = Transaction.builder()
+                .transactionId(id)
+                .accountNo(accountNo)
+                .amount(new BigDecimal("10.00"))
+                .direction(direction)
+                .status(TransactionStatus.RUNNING)
+                .timestamp(BASE_TIME.plusMinutes(minutes))
+                .build();
+        index.add(transaction);
+        return transaction;
+    }
+
+    private List<String> ids(QueryPlan plan) {
+        List<String> ids = new ArrayList<>();
+        plan.rows().forEach(t -> ids.add(t.getTransactionId()));
+        return ids;
+    }
+
+    @Nested
+    @DisplayName("Index Maintenance Tests")
+    class IndexMaintenanceTests {
+
+        @Test
+        @DisplayName("Should return rows newest first")
+        void shouldReturnRowsNewestFirst() {
+            add("T1", "ACC001", TransactionDirection.DEBIT, 1);
+            add("T3", "ACC001", TransactionDirection.DEBIT, 3);
+            add("T2", "ACC001", TransactionDirection.DEBIT, 2);
+
+            assertEquals(List.of("T3", "T2", "T1"), ids(index.plan(null)));
+        }
+
+        @Test
+        @DisplayName("Should move transaction between status buckets")
+        void shouldMoveTransactionBetweenStatusBuckets() {
+            Transaction transaction = add("T1", "ACC001", TransactionDirection.DEBIT, 1);
+            add("T2", "ACC001", TransactionDirection.DEBIT, 2);
+
+            transaction.setStatus(TransactionStatus.SUCCESS);
+            index.statusChanged(transaction, TransactionStatus.RUNNING);
+
+            QueryPlan running = index.plan(TransactionFilter.builder().status(TransactionStatus.RUNNING).build());
+            QueryPlan success = index.plan(TransactionFilter.builder().status(TransactionStatus.SUCCESS).build());
+            assertEquals(List.of("T2"), ids(running));
+            assertEquals(List.of("T1"), ids(success));
+            assertEquals(1, success.exactCount());
+        }
+
+        @Test
+        @DisplayName("Should drop removed transaction from every index")
+        void shouldDropRemovedTransaction() {
+            Transaction transaction = add("T1", "ACC001", TransactionDirection.DEBIT, 1);
+
+            index.remove(transaction);
+
+            assertEquals(0, index.size());
+            assertTrue(ids(index.plan(TransactionFilter.builder().accountNo("ACC001").build())).isEmpty());
+            assertTrue(ids(index.plan(TransactionFilter.builder().direction(TransactionDirection.DEBIT).build())).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Query Planner Tests")
+    class QueryPlannerTests {
+
+        @BeforeEach
+        void setUp() {
+            for (int i = 0; i < 10; i++) {
+                add("A" + i, "ACC001", TransactionDirection.DEBIT, i);
+            }
+            add("B0", "ACC002", TransactionDirection.CREDIT, 20);
+        }
+
+        @Test
+        @DisplayName("Should pick the smallest matching index")
+        void shouldPickSmallestIndex() {
+            QueryPlan plan = index.plan(TransactionFilter.builder()
+                    .accountNo("ACC001")
+                    .direction(TransactionDirection.CREDIT)
+                    .build());
+
+            assertEquals("direction", plan.getIndexName());
+            assertFalse(plan.isCovering());
+            assertEquals(1, plan.getIndexSize());
+        }
+
+        @Test
+        @DisplayName("Should use the status index even when every row matches")
+        void shouldPreferBucketOverTimeIndexOnTie() {
+            QueryPlan plan = index.plan(TransactionFilter.builder().status(TransactionStatus.RUNNING).build());
+            // plans are live views: had the time index been kept, this row would be yielded as a covered match
+            index.add(Transaction.builder()
+                    .transactionId("S0")
+                    .accountNo("ACC002")
+                    .amount(new BigDecimal("10.00"))
+                    .direction(TransactionDirection.CREDIT)
+                    .status(TransactionStatus.SUCCESS)
+                    .timestamp(BASE_TIME.plusMinutes(30))
+                    .build());
+
+            assertEquals("status", plan.getIndexName());
+            assertTrue(plan.isCovering());
+            assertEquals(11, ids(plan).size());
+            assertFalse(ids(plan).contains("S0"));
+        }
+
+        @Test
+        @DisplayName("Should use covering account index with exact count")
+        void shouldUseCoveringAccountIndex() {
+            QueryPlan plan = index.plan(TransactionFilter.builder().accountNo("ACC001").build());
+
+            assertEquals("account", plan.getIndexName());
+            assertTrue(plan.isCovering());
+            assertEquals(10, plan.exactCount());
+        }
+
+        @Test
+        @DisplayName("Should return empty plan for unknown account")
+        void shouldReturnEmptyPlanForUnknownAccount() {
+            QueryPlan plan = index.plan(TransactionFilter.builder().accountNo("UNKNOWN").build());
+
+            assertEquals(0, plan.exactCount());
+            assertTrue(plan.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should restrict index to inclusive date range")
+        void shouldRestrictToDateRange() {
+            QueryPlan plan = index.plan(TransactionFilter.builder()
+                    .accountNo("ACC001")
+                    .fromDate(BASE_TIME.plusMinutes(3))
+                    .toDate(BASE_TIME.plusMinutes(5))
+                    .build());
+
+            assertFalse(plan.isCovering());
+            assertEquals(List.of("A5", "A4", "A3"), ids(plan));
+        }
+
+        @Test
+        @DisplayName("Should return nothing for inverted date range")
+        void shouldReturnNothingForInvertedRange() {
+            QueryPlan plan = index.plan(TransactionFilter.builder()
+                    .fromDate(BASE_TIME.plusMinutes(5))
+                    .toDate(BASE_TIME.plusMinutes(3))
+                    .build());
+
+            assertTrue(plan.isEmpty());
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.hsbc.transaction.store;
+
+import com.hsbc.transaction.exception.DuplicateTransactionException;
+import com.hsbc.transaction.exception.ExpiredTransactionException;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionFilter;
+import com.hsbc.transaction.model.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionStoreTest {
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private TransactionStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new TransactionStore();
+        // two per day over three days, the later one of each day settled
+        for (int day = 0; day < 3; day++) {
+            add("D" + day + "-RUN", "ACC00" + day, TransactionStatus.RUNNING, BASE_TIME.plusDays(day).plusHours(1));
+            add("D" + day + "-OK", "ACC00" + day, TransactionStatus.SUCCESS, BASE_TIME.plusDays(day).plusHours(2));
+        }
+    }
+
+    private Transaction add(String id, String accountNo, TransactionStatus status, LocalDateTime timestamp) {
+        Transaction transaction = Transaction.builder()
+                .transactionId(id)
+                .accountNo(accountNo)
+                .amount(new BigDecimal("10.00"))
+                .direction(TransactionDirection.DEBIT)
+                .status(status)
+                .timestamp(timestamp)
+                .build();
+        store.insert(transaction);
+        return transaction;
+    }
+
+    private static List<String> ids(Iterable<Transaction> rows) {
+        List<String> ids = new ArrayList<>();
+        rows.forEach(t -> ids.add(t.getTransactionId()));
+        return ids;
+    }
+
+    /**
+     * The IDs a status query returns, checking the status itself where the plan leaves that to the caller.
+     */
+    private List<String> idsWithStatus(TransactionStatus status) {
+        QueryPlan plan = store.plan(TransactionFilter.builder().status(status).build());
+        List<String> ids = new ArrayList<>();
+        plan.rows().forEach(t -> {
+            if (plan.isCovering() || t.getStatus() == status) {
+                ids.add(t.getTransactionId());
+            }
+        });
+        return ids;
+    }
+
+    @Nested
+    @DisplayName("Partitioning Tests")
+    class PartitioningTests {
+
+        @Test
+        @DisplayName("Should keep one segment per day and walk them newest first")
+        void shouldWalkSegmentsNewestFirst() {
+            assertEquals(3, store.getSegmentCount());
+            assertEquals(List.of("D2-OK", "D2-RUN", "D1-OK", "D1-RUN", "D0-OK", "D0-RUN"),
+                    ids(store.plan(null).rows()));
+            assertEquals(6, store.plan(null).exactCount());
+        }
+
+        @Test
+        @DisplayName("Should only plan the segments a date range overlaps")
+        void shouldOnlyPlanOverlappingSegments() {
+            QueryPlan plan = store.plan(TransactionFilter.builder()
+                    .fromDate(BASE_TIME.plusDays(1))
+                    .toDate(BASE_TIME.plusDays(1).plusHours(1))
+                    .build());
+
+            assertEquals(2, plan.getIndexSize());
+            assertEquals(List.of("D1-RUN"), ids(plan.rows()));
+        }
+
+        @Test
+        @DisplayName("Should reject a transaction ID already stored in another segment")
+        void shouldRejectDuplicateAcrossSegments() {
+            assertThrows(DuplicateTransactionException.class,
+                    () -> add("D0-OK", "ACC009", TransactionStatus.RUNNING, BASE_TIME.plusDays(5)));
+            assertEquals("ACC000", store.get("D0-OK").getAccountNo());
+        }
+
+        @Test
+        @DisplayName("Should continue after a cursor key across segments")
+        void shouldContinueAfterCursor() {
+            Transaction cursor = store.get("D1-OK");
+
+            assertEquals(List.of("D1-RUN", "D0-OK", "D0-RUN"),
+                    ids(store.plan(null).rowsAfter(IndexKey.of(cursor))));
+        }
+    }
+
+    @Nested
+    @DisplayName("Sealing Tests")
+    class SealingTests {
+
+        @Test
+        @DisplayName("Should seal settled rows of past segments without changing query results")
+        void shouldSealWithoutChangingResults() {
+            List<String> before = ids(store.plan(null).rows());
+
+            int sealed = store.sealBefore(BASE_TIME.plusDays(2));
+
+            assertEquals(2, sealed);
+            assertEquals(2, store.getSealedSegmentCount());
+            assertEquals(before, ids(store.plan(null).rows()));
+            assertEquals(6, store.plan(null).exactCount());
+            assertEquals(List.of("D2-OK", "D1-OK", "D0-OK"), idsWithStatus(TransactionStatus.SUCCESS));
+            assertEquals(3, store.plan(TransactionFilter.builder().status(TransactionStatus.SUCCESS).build()).exactCount());
+            assertEquals(List.of("D2-RUN", "D1-RUN", "D0-RUN"),
+                    idsWithStatus(TransactionStatus.RUNNING));
+            assertEquals(List.of("D1-OK", "D1-RUN"),
+                    ids(store.plan(TransactionFilter.builder().accountNo("ACC001").build()).rows()));
+        }
+
+        @Test
+        @DisplayName("Should fold rows settled after sealing in on the next seal")
+        void shouldFoldInLaterSettlements() {
+            store.sealBefore(BASE_TIME.plusDays(2));
+
+            store.update("D0-RUN", t -> t.setStatus(TransactionStatus.FAILED));
+            int sealed = store.sealBefore(BASE_TIME.plusDays(2));
+
+            assertEquals(1, sealed);
+            assertEquals(TransactionStatus.FAILED, store.get("D0-RUN").getStatus());
+            assertEquals(List.of("D0-RUN"), idsWithStatus(TransactionStatus.FAILED));
+        }
+
+        @Test
+        @DisplayName("Should update and remove sealed rows")
+        void shouldUpdateAndRemoveSealedRows() {
+            store.sealBefore(BASE_TIME.plusDays(2));
+
+            store.update("D0-OK", t -> t.setStatus(TransactionStatus.REFUNDED));
+            Transaction removed = store.remove("D1-OK");
+
+            assertEquals("D1-OK", removed.getTransactionId());
+            assertNull(store.get("D1-OK"));
+            assertEquals(List.of("D0-OK"), idsWithStatus(TransactionStatus.REFUNDED));
+            assertEquals(List.of("D2-OK"), idsWithStatus(TransactionStatus.SUCCESS));
+            assertEquals(5, store.size());
+        }
+
+        @Test
+        @DisplayName("Should return a sealed row rolled back to RUNNING to the live rows")
+        void shouldReturnRolledBackRowToLive() {
+            store.sealBefore(BASE_TIME.plusDays(2));
+
+            store.update("D0-OK", t -> t.setStatus(TransactionStatus.RUNNING));
+
+            assertEquals(List.of("D2-RUN", "D1-RUN", "D0-OK", "D0-RUN"),
+                    idsWithStatus(TransactionStatus.RUNNING));
+            assertEquals(6, store.size());
+        }
+
+        @Test
+        @DisplayName("Should keep serving a plan made before the segment was sealed again")
+        void shouldServePlanAcrossReseal() {
+            store.sealBefore(BASE_TIME.plusDays(2));
+            QueryPlan plan = store.plan(TransactionFilter.builder().accountNo("ACC000").build());
+
+            store.update("D0-RUN", t -> t.setStatus(TransactionStatus.SUCCESS));
+            store.sealBefore(BASE_TIME.plusDays(2));
+
+            assertEquals(List.of("D0-OK", "D0-RUN"), ids(plan.rows()));
+            assertEquals("D0-RUN", store.get("D0-RUN").getTransactionId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Retention Tests")
+    class RetentionTests {
+
+        @Test
+        @DisplayName("Should discard whole segments older than the horizon")
+        void shouldDiscardWholeSegments() {
+            int dropped = store.dropBefore(BASE_TIME.plusDays(2).plusHours(12));
+
+            assertEquals(4, dropped);
+            assertEquals(1, store.getSegmentCount());
+            assertNull(store.get("D0-OK"));
+            assertNull(store.update("D1-RUN", t -> t.setStatus(TransactionStatus.SUCCESS)));
+            assertEquals(List.of("D2-OK", "D2-RUN"), ids(store.plan(null).rows()));
+        }
+
+        @Test
+        @DisplayName("Should reject transactions older than what retention discarded")
+        void shouldRejectExpiredTransactions() {
+            store.dropBefore(BASE_TIME.plusDays(2));
+
+            assertThrows(ExpiredTransactionException.class,
+                    () -> add("LATE", "ACC000", TransactionStatus.SUCCESS, BASE_TIME.plusHours(3)));
+            add("D0-OK", "ACC000", TransactionStatus.RUNNING, BASE_TIME.plusDays(3));
+
+            assertNull(store.get("LATE"));
+            assertEquals(2, store.getSegmentCount());
+            assertEquals(BASE_TIME.plusDays(3), store.get("D0-OK").getTimestamp());
+        }
+
+        @Test
+        @DisplayName("Should skip expired transactions when restoring")
+        void shouldSkipExpiredTransactionsOnRestore() {
+            Transaction removed = store.remove("D0-OK");
+            store.dropBefore(BASE_TIME.plusDays(1));
+
+            assertFalse(store.restore(removed));
+            assertTrue(store.restore(store.remove("D1-OK")));
+
+            assertNull(store.get("D0-OK"));
+            assertNotNull(store.get("D1-OK"));
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.hsbc.transaction.wire;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.transaction.model.PageResponse;
+import com.hsbc.transaction.model.Transaction;
+import com.hsbc.transaction.model.TransactionDirection;
+import com.hsbc.transaction.model.TransactionStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WireFormatTest {
+    private final BinaryWireMessageConverter converter = new BinaryWireMessageConverter();
+
+    private static Transaction transaction(int i) {
+        return Transaction.createInitialTransaction("ACC" + i, new BigDecimal("1234.56"), "Payment " + i,
+                TransactionDirection.DEBIT);
+    }
+
+    private byte[] write(Object value) throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(value, BinaryWireMessageConverter.MEDIA_TYPE, message);
+        return message.getBodyAsBytes();
+    }
+
+    @Nested
+    @DisplayName("Round Trip Tests")
+    class RoundTripTests {
+
+        @Test
+        @DisplayName("Should read back a transaction with every field, including nulls and negative values")
+        void shouldRoundTripTransaction() throws IOException {
+            // Arrange
+            Transaction full = Transaction.builder()
+                    .transactionId("TX-é-1")
+                    .accountNo("ACC001")
+                    .amount(new BigDecimal("-99999999999999999999.123"))
+                    .description("Ünïcode, \"quotes\"")
+                    .direction(TransactionDirection.CREDIT)
+                    .status(TransactionStatus.REFUNDED)
+                    .timestamp(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 123456789))
+                    .build();
+            Transaction empty = Transaction.builder().build();
+
+            // Act
+            Transaction readFull = new WireInput(ByteBuffer.wrap(write(full))).readTransaction();
+            Transaction readEmpty = new WireInput(ByteBuffer.wrap(write(empty))).readTransaction();
+
+            // Assert
+            assertEquals(full, readFull);
+            assertEquals(empty, readEmpty);
+        }
+
+        @Test
+        @DisplayName("Should keep the value and scale of every amount")
+        void shouldRoundTripAmounts() throws IOException {
+            // Arrange
+            List<BigDecimal> amounts = List.of(new BigDecimal("0"), new BigDecimal("0.00"), new BigDecimal("1.27"),
+                    new BigDecimal("-1.28"), new BigDecimal("1.28"), new BigDecimal("-0.01"), new BigDecimal("1E+3"),
+                    new BigDecimal("999999999999999999"), new BigDecimal("-999999999999999.999"),
+                    new BigDecimal("9223372036854775808.00"));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            WireOutput output = new WireOutput(out);
+
+            // Act
+            for (BigDecimal amount : amounts) {
+                output.writeDecimal(amount);
+            }
+            output.flush();
+
+            // Assert
+            WireInput input = new WireInput(ByteBuffer.wrap(out.toByteArray()));
+            for (BigDecimal amount : amounts) {
+                assertEquals(amount, input.readDecimal());
+            }
+        }
+
+        @Test
+        @DisplayName("Should read back a page at well under half the size of its JSON")
+        void shouldRoundTripPageSmallerThanJson() throws IOException {
+            // Arrange
+            List<Transaction> content = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                content.add(transaction(i));
+            }
+            PageResponse<Transaction> page = PageResponse.<Transaction>builder()
+                    .content(content)
+                    .pageNumber(3)
+                    .pageSize(100)
+                    .totalElements(1000)
+                    .totalPages(10)
+                    .last(false)
+                    .first(false)
+                    .nextCursor("cursor")
+                    .build();
+            byte[] json = new ObjectMapper().findAndRegisterModules().writeValueAsBytes(page);
+
+            // Act
+            byte[] binary = write(page);
+            PageResponse<Transaction> read = new WireInput(ByteBuffer.wrap(binary)).readPage();
+
+            // Assert
+            assertEquals(page, read);
+            assertTrue(binary.length * 2 < json.length, binary.length + " binary bytes against " + json.length);
+        }
+
+        @Test
+        @DisplayName("Should stream records larger than the buffer and read them back in order")
+        void shouldStreamAcrossBufferBoundaries() throws IOException {
+            // Arrange
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            WireOutput output = new WireOutput(out);
+            Transaction large = transaction(0);
+            large.setDescription("x".repeat(20_000));
+
+            // Act
+            for (int i = 0; i < 500; i++) {
+                output.writeTransaction(i == 250 ? large : transaction(i));
+            }
+            output.flush();
+
+            // Assert
+            WireInput input = new WireInput(ByteBuffer.wrap(out.toByteArray()));
+            for (int i = 0; i < 500; i++) {
+                Transaction read = input.readTransaction();
+                assertEquals(i == 250 ? large.getDescription() : "Payment " + i, read.getDescription());
+            }
+            assertFalse(input.hasRemaining());
+        }
+    }
+
+    @Nested
+    @DisplayName("Converter Tests")
+    class ConverterTests {
+
+        @Test
+        @DisplayName("Should read a binary request body and reject a truncated one")
+        void shouldReadAndRejectTruncated() throws IOException {
+            // Arrange
+            byte[] body = write(transaction(1));
+            MockHttpInputMessage truncated = new MockHttpInputMessage(Arrays.copyOf(body, body.length - 3));
+            truncated.getHeaders().setContentType(BinaryWireMessageConverter.MEDIA_TYPE);
+
+            // Act
+            MockHttpInputMessage valid = new MockHttpInputMessage(body);
+            valid.getHeaders().setContentType(BinaryWireMessageConverter.MEDIA_TYPE);
+            Object read = converter.read(Transaction.class, valid);
+
+            // Assert
+            assertEquals("Payment 1", ((Transaction) read).getDescription());
+            assertThrows(HttpMessageNotReadableException.class, () -> converter.read(Transaction.class, truncated));
+            assertFalse(converter.canRead(PageResponse.class, BinaryWireMessageConverter.MEDIA_TYPE));
+            assertTrue(converter.canWrite(BigDecimal.class, BinaryWireMessageConverter.MEDIA_TYPE));
+        }
+    }
+}